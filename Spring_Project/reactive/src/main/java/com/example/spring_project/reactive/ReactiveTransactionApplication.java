@@ -0,0 +1,17 @@
+package com.example.spring_project.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * 잔액 사용 / 취소 / 거래 확인 API 의 WebFlux + R2DBC 버전
+ * 서블릿 앱과 같은 테이블, 같은 lock key 를 쓰므로 같은 DB / Redis 를 바라보게 띄워서 비교할 수 있다.
+ */
+@SpringBootApplication
+public class ReactiveTransactionApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(ReactiveTransactionApplication.class, args);
+    }
+
+}
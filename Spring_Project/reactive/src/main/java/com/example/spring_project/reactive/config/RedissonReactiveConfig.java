@@ -0,0 +1,50 @@
+package com.example.spring_project.reactive.config;
+
+import org.redisson.Redisson;
+import org.redisson.api.RedissonReactiveClient;
+import org.redisson.config.Config;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import redis.embedded.RedisServer;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+@Configuration
+public class RedissonReactiveConfig {
+
+    @Value("${spring.redis.host}")
+    private String redisHost;
+
+    @Value("${spring.redis.port}")
+    private int redisPort;
+
+    // 서블릿 앱이 띄운 embedded redis 를 같이 쓸 때는 false
+    @Value("${reactive.embedded-redis:true}")
+    private boolean embeddedRedis;
+
+    private RedisServer redisServer;
+
+    @PostConstruct
+    public void startRedis() {
+        if (embeddedRedis) {
+            redisServer = new RedisServer(redisPort);
+            redisServer.start();
+        }
+    }
+
+    @PreDestroy
+    public void stopRedis() {
+        if (redisServer != null) {
+            redisServer.stop();
+        }
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public RedissonReactiveClient redissonReactiveClient() {
+        Config config = new Config();
+        config.useSingleServer().setAddress("redis://" + redisHost + ":" + redisPort);
+        return Redisson.create(config).reactive();
+    }
+}
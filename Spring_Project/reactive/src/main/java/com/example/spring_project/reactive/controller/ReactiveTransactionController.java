@@ -0,0 +1,69 @@
+package com.example.spring_project.reactive.controller;
+
+import com.example.spring_project.exception.AccountException;
+import com.example.spring_project.reactive.dto.CancelBalance;
+import com.example.spring_project.reactive.dto.QueryTransactionResponse;
+import com.example.spring_project.reactive.dto.UseBalance;
+import com.example.spring_project.reactive.service.ReactiveLockService;
+import com.example.spring_project.reactive.service.ReactiveTransactionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import javax.validation.Valid;
+
+/**
+ * 잔액 관련 컨트롤러 (서블릿 앱 TransactionController 와 같은 경로 / 형식)
+ * 1. 잔액 사용
+ * 2. 잔액 사용 취소
+ * 3. 거래 확인
+ * 계좌 lock 은 AOP 대신 ReactiveLockService 로 잡고, 실패하면 lock 안에서 실패 거래를 남긴다.
+ */
+@RestController
+@Slf4j
+@RequiredArgsConstructor
+public class ReactiveTransactionController {
+
+    private final ReactiveTransactionService transactionService;
+    private final ReactiveLockService lockService;
+
+    @PostMapping("/transaction/use")
+    public Mono<UseBalance.Response> useBalance(@Valid @RequestBody UseBalance.Request request) {
+
+        return lockService.withLock(request.getAccountNumber(), () ->
+                transactionService.useBalance(request.getUserId(), request.getAccountNumber(), request.getAmount())
+                        .onErrorResume(AccountException.class, e -> {
+                            log.error("Failed to use balance.");
+
+                            return transactionService.saveFailedUseTransaction(
+                                    request.getAccountNumber(),
+                                    request.getAmount()
+                            ).then(Mono.error(e));
+                        }))
+                .map(UseBalance.Response::from);
+    }
+
+    @PostMapping("/transaction/cancel")
+    public Mono<CancelBalance.Response> cancelBalance(@Valid @RequestBody CancelBalance.Request request) {
+
+        return lockService.withLock(request.getAccountNumber(), () ->
+                transactionService.cancelBalance(request.getTransactionId(), request.getAccountNumber(), request.getAmount())
+                        .onErrorResume(AccountException.class, e -> {
+                            log.error("Failed to cancel balance.");
+
+                            return transactionService.saveFailedCancelTransaction(
+                                    request.getAccountNumber(),
+                                    request.getAmount()
+                            ).then(Mono.error(e));
+                        }))
+                .map(CancelBalance.Response::from);
+    }
+
+    @GetMapping("/transaction/{transactionId}")
+    public Mono<QueryTransactionResponse> queryTransaction(@PathVariable String transactionId) {
+
+        return transactionService.queryTransaction(transactionId)
+                .map(QueryTransactionResponse::from);
+    }
+}
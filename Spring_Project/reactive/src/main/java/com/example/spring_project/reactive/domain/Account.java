@@ -0,0 +1,30 @@
+package com.example.spring_project.reactive.domain;
+
+import com.example.spring_project.type.AccountStatus;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@Table("account")
+public class Account extends BaseRow {
+
+    private Long accountUserId;
+    // 서블릿 앱과 같이 BIGINT 로 저장한다. (AccountNumber)
+    private Long accountNumber;
+    private AccountStatus accountStatus;
+    private Long balance;
+    private long heldBalance;
+    private long balanceVersion;
+    private LocalDateTime registerAt;
+    private LocalDateTime unRegisterAt;
+
+    public long getAvailableBalance() {
+        return balance - heldBalance;
+    }
+}
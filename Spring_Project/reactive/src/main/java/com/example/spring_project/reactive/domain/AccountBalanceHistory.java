@@ -0,0 +1,34 @@
+package com.example.spring_project.reactive.domain;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * 특정 시점 잔액 조회용 이력, 거래와 같은 트랜잭션에서 남긴다.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Table("account_balance_history")
+public class AccountBalanceHistory extends BaseRow {
+
+    public static final String SEQUENCE = "account_balance_history_seq";
+
+    private Long accountNumber;
+    private Long balance;
+    private LocalDateTime changedAt;
+    private String transactionId;
+
+    public static AccountBalanceHistory from(Transaction transaction, Long accountNumber) {
+        AccountBalanceHistory history = new AccountBalanceHistory();
+        history.setAccountNumber(accountNumber);
+        history.setBalance(transaction.getBalanceSnapshot());
+        history.setChangedAt(transaction.getTransactedAt());
+        history.setTransactionId(transaction.getTransactionId());
+        return history;
+    }
+}
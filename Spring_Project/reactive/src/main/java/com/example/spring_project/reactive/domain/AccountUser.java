@@ -0,0 +1,16 @@
+package com.example.spring_project.reactive.domain;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.relational.core.mapping.Table;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@Table("account_user")
+public class AccountUser extends BaseRow {
+
+    private String name;
+    private int activeAccountCount;
+}
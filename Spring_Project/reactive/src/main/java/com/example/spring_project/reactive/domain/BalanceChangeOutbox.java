@@ -0,0 +1,41 @@
+package com.example.spring_project.reactive.domain;
+
+import com.example.spring_project.type.TransactionType;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * 잔액 변경 이벤트 outbox, 발행은 서블릿 앱의 OutboxRelay 가 한다.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Table("balance_change_outbox")
+public class BalanceChangeOutbox extends BaseRow {
+
+    public static final String SEQUENCE = "balance_change_outbox_seq";
+
+    private String transactionId;
+    private Long accountNumber;
+    private long balanceVersion;
+    private TransactionType transactionType;
+    private Long amount;
+    private Long balanceSnapshot;
+    private LocalDateTime transactedAt;
+
+    public static BalanceChangeOutbox from(Transaction transaction, Long accountNumber, long balanceVersion) {
+        BalanceChangeOutbox outbox = new BalanceChangeOutbox();
+        outbox.setTransactionId(transaction.getTransactionId());
+        outbox.setAccountNumber(accountNumber);
+        outbox.setBalanceVersion(balanceVersion);
+        outbox.setTransactionType(transaction.getTransactionType());
+        outbox.setAmount(transaction.getAmount());
+        outbox.setBalanceSnapshot(transaction.getBalanceSnapshot());
+        outbox.setTransactedAt(transaction.getTransactedAt());
+        return outbox;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.spring_project.reactive.domain;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * 서블릿 앱 BaseEntity 와 같은 컬럼
+ * id 를 엔티티 별 시퀀스에서 받아서 넣고 insert 하므로, 새 행인지는 id 유무가 아니라 newRow 로 알려준다.
+ */
+@Getter
+@Setter
+public abstract class BaseRow implements Persistable<Long> {
+
+    @Id
+    private Long id;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    @Transient
+    private boolean newRow;
+
+    /**
+     * 시퀀스에서 받은 id 로 새 행을 만든다.
+     */
+    public void assignId(Long id, LocalDateTime now) {
+        this.id = id;
+        this.createdAt = now;
+        this.updatedAt = now;
+        this.newRow = true;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newRow;
+    }
+}
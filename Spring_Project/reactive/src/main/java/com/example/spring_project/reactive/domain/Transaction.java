@@ -0,0 +1,46 @@
+package com.example.spring_project.reactive.domain;
+
+import com.example.spring_project.domain.TransactionId;
+import com.example.spring_project.type.TransactionResultType;
+import com.example.spring_project.type.TransactionType;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@Table("transaction")
+public class Transaction extends BaseRow {
+
+    public static final String SEQUENCE = "transaction_seq";
+
+    private TransactionType transactionType;
+    private TransactionResultType transactionResultType;
+    private Long accountId;
+    private Long amount;
+    private Long balanceSnapshot;
+    private String transactionId;
+    private LocalDateTime transactedAt;
+    private Integer partitionMonth;
+    private String originalTransactionId;
+
+    public static Transaction create(TransactionType transactionType, TransactionResultType transactionResultType,
+                                     Account account, Long amount, Long balanceSnapshot) {
+        LocalDateTime transactedAt = LocalDateTime.now();
+
+        Transaction transaction = new Transaction();
+        transaction.setTransactionType(transactionType);
+        transaction.setTransactionResultType(transactionResultType);
+        transaction.setAccountId(account.getId());
+        transaction.setAmount(amount);
+        transaction.setBalanceSnapshot(balanceSnapshot);
+        transaction.setTransactionId(TransactionId.generate(transactedAt));
+        transaction.setTransactedAt(transactedAt);
+        transaction.setPartitionMonth(TransactionId.partitionMonth(transactedAt));
+        return transaction;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.spring_project.reactive.dto;
+
+import com.example.spring_project.domain.AccountNumber;
+import com.example.spring_project.type.TransactionResultType;
+import lombok.*;
+
+import javax.validation.constraints.*;
+import java.time.LocalDateTime;
+
+/**
+ * 서블릿 앱 /transaction/cancel 과 같은 요청 / 응답 형식
+ */
+public class CancelBalance {
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Request {
+        @NotBlank
+        private String transactionId;
+
+        @NotBlank
+        @Size(min = 10, max = 10)
+        @Pattern(regexp = AccountNumber.PATTERN)
+        private String accountNumber;
+
+        @NotNull
+        @Min(10)
+        @Max(1000_000_000)
+        private Long amount;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    @Builder
+    public static class Response {
+
+        private String accountNumber;
+        private TransactionResultType transactionResult;
+        private String transactionId;
+        private Long amount;
+        private LocalDateTime transactedAt;
+
+        public static Response from(TransactionDto transactionDto) {
+            return new Response(transactionDto);
+        }
+
+        private Response(TransactionDto transactionDto) {
+            this.accountNumber = transactionDto.getAccountNumber();
+            this.transactionResult = transactionDto.getTransactionResultType();
+            this.transactionId = transactionDto.getTransactionId();
+            this.amount = transactionDto.getAmount();
+            this.transactedAt = transactionDto.getTransactedAt();
+        }
+    }
+}
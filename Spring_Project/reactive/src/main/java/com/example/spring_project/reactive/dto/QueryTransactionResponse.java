@@ -0,0 +1,35 @@
+package com.example.spring_project.reactive.dto;
+
+import com.example.spring_project.type.TransactionResultType;
+import com.example.spring_project.type.TransactionType;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@Builder
+public class QueryTransactionResponse {
+
+    private String accountNumber;
+    private TransactionType transactionType;
+    private TransactionResultType transactionResult;
+    private String transactionId;
+    private Long amount;
+    private LocalDateTime transactedAt;
+
+    public static QueryTransactionResponse from(TransactionDto transactionDto) {
+        return new QueryTransactionResponse(transactionDto);
+    }
+
+    private QueryTransactionResponse(TransactionDto transactionDto) {
+        this.accountNumber = transactionDto.getAccountNumber();
+        this.transactionType = transactionDto.getTransactionType();
+        this.transactionResult = transactionDto.getTransactionResultType();
+        this.transactionId = transactionDto.getTransactionId();
+        this.amount = transactionDto.getAmount();
+        this.transactedAt = transactionDto.getTransactedAt();
+    }
+}
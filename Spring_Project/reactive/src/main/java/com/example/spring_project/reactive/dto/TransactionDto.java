@@ -0,0 +1,44 @@
+package com.example.spring_project.reactive.dto;
+
+import com.example.spring_project.domain.AccountNumber;
+import com.example.spring_project.reactive.domain.Transaction;
+import com.example.spring_project.type.TransactionResultType;
+import com.example.spring_project.type.TransactionType;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@Builder
+public class TransactionDto {
+
+    private String accountNumber;
+    private TransactionType transactionType;
+    private TransactionResultType transactionResultType;
+    private Long amount;
+    private Long balanceSnapshot;
+    private String transactionId;
+    private LocalDateTime transactedAt;
+
+    public static TransactionDto from(Transaction transaction, Long accountNumber) {
+        return new TransactionDto(transaction, accountNumber);
+    }
+
+    private TransactionDto(Transaction transaction, Long accountNumber) {
+        this.accountNumber = AccountNumber.toString(accountNumber);
+        this.transactionType = transaction.getTransactionType();
+        this.transactionResultType = transaction.getTransactionResultType();
+        this.amount = transaction.getAmount();
+        this.balanceSnapshot = transaction.getBalanceSnapshot();
+        this.transactionId = transaction.getTransactionId();
+        this.transactedAt = transaction.getTransactedAt();
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.spring_project.reactive.exception;
+
+import com.example.spring_project.dto.ErrorResponse;
+import com.example.spring_project.exception.AccountException;
+import com.example.spring_project.type.ErrorCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * 서블릿 앱 GlobalExceptionHandler 와 같은 에러 응답
+ */
+@Slf4j
+@RestControllerAdvice
+public class ReactiveExceptionHandler {
+
+    @ExceptionHandler(AccountException.class)
+    public ErrorResponse handleAccountException(AccountException e) {
+        log.warn("{} is occurred.", e.getErrorCode());
+
+        return ErrorResponse.of(e.getErrorCode(), e.getErrorMessage());
+    }
+
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ErrorResponse handleDataIntegrityViolationException(DataIntegrityViolationException e) {
+        log.error("DataIntegrityViolationException is occurred", e);
+
+        return ErrorResponse.of(ErrorCode.INVALID_ID_REQUEST);
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ErrorResponse handleException(Exception e) {
+        log.error("Exception is occurred.", e);
+
+        return ErrorResponse.of(ErrorCode.INTERNAL_SERVER_ERROR);
+    }
+}
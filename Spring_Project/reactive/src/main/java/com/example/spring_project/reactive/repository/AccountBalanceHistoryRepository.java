@@ -0,0 +1,7 @@
+package com.example.spring_project.reactive.repository;
+
+import com.example.spring_project.reactive.domain.AccountBalanceHistory;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+
+public interface AccountBalanceHistoryRepository extends ReactiveCrudRepository<AccountBalanceHistory, Long> {
+}
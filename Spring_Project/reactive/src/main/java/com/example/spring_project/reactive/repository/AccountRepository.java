@@ -0,0 +1,45 @@
+package com.example.spring_project.reactive.repository;
+
+import com.example.spring_project.domain.AccountNumber;
+import com.example.spring_project.reactive.domain.Account;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+public interface AccountRepository extends ReactiveCrudRepository<Account, Long> {
+
+    /**
+     * 형식이 맞지 않는 계좌번호는 조회하지 않는다. (서블릿 앱 AccountRepository 와 같음)
+     */
+    default Mono<Account> findByAccountNumber(String accountNumber) {
+        if (!AccountNumber.isValid(accountNumber)) {
+            return Mono.empty();
+        }
+        return findByAccountNumber(AccountNumber.toLong(accountNumber));
+    }
+
+    Mono<Account> findByAccountNumber(Long accountNumber);
+
+    /**
+     * 사용 가능 금액이 충분할 때만 차감한다. 바뀐 행 수를 돌려준다.
+     * 잔액을 바꾸는 update 는 balance_version 도 올린다. (outbox 이벤트의 계좌 별 순번, 서블릿 앱과 같음)
+     */
+    @Modifying
+    @Query("update account set balance = balance - :amount, balance_version = balance_version + 1, updated_at = :now " +
+            "where id = :id and balance - held_balance >= :amount")
+    Mono<Integer> useBalance(Long id, Long amount, LocalDateTime now);
+
+    @Modifying
+    @Query("update account set balance = balance + :amount, balance_version = balance_version + 1, updated_at = :now " +
+            "where id = :id")
+    Mono<Integer> cancelBalance(Long id, Long amount, LocalDateTime now);
+
+    /**
+     * 같은 트랜잭션에서 위 update 가 올린 순번을 읽는다. (update 한 행의 lock 을 잡고 있다.)
+     */
+    @Query("select balance_version from account where id = :id")
+    Mono<Long> findBalanceVersion(Long id);
+}
@@ -0,0 +1,7 @@
+package com.example.spring_project.reactive.repository;
+
+import com.example.spring_project.reactive.domain.BalanceChangeOutbox;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+
+public interface BalanceChangeOutboxRepository extends ReactiveCrudRepository<BalanceChangeOutbox, Long> {
+}
@@ -0,0 +1,23 @@
+package com.example.spring_project.reactive.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * 서블릿 앱과 같은 엔티티 별 시퀀스에서 id 를 받는다.
+ * 서블릿 앱은 pooled-lo 로 받은 값부터 allocation_size 개를 쓰므로, 여기서는 받은 값 하나만 쓰면 서로 겹치지 않는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class SequenceIds {
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<Long> next(String sequence) {
+        return databaseClient.sql("select next value for " + sequence)
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.spring_project.reactive.repository;
+
+import com.example.spring_project.domain.TransactionId;
+import com.example.spring_project.reactive.domain.Transaction;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Mono;
+
+public interface TransactionRepository extends ReactiveCrudRepository<Transaction, Long> {
+
+    /**
+     * 거래 ID 에 들어있는 거래 월로 해당 파티션만 조회하고, 못 찾으면 전체에서 다시 찾는다. (서블릿 앱 TransactionRepository 와 같음)
+     */
+    default Mono<Transaction> findByTransactionId(String transactionId) {
+        Integer partitionMonth = TransactionId.partitionMonthOf(transactionId);
+        if (partitionMonth == null) {
+            return findFirstByTransactionId(transactionId);
+        }
+        return findByPartitionMonthAndTransactionId(partitionMonth, transactionId)
+                .switchIfEmpty(Mono.defer(() -> findFirstByTransactionId(transactionId)));
+    }
+
+    Mono<Transaction> findByPartitionMonthAndTransactionId(Integer partitionMonth, String transactionId);
+
+    Mono<Transaction> findFirstByTransactionId(String transactionId);
+}
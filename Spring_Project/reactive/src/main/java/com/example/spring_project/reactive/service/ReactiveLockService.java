@@ -0,0 +1,53 @@
+package com.example.spring_project.reactive.service;
+
+import com.example.spring_project.exception.AccountException;
+import com.example.spring_project.type.ErrorCode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLockReactive;
+import org.redisson.api.RedissonReactiveClient;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 서블릿 앱 LockService 와 같은 key / 대기 / 점유 시간으로 계좌 lock 을 잡는다. (두 앱이 같은 Redis 를 쓰면 서로 배타적)
+ * reactive lock 은 스레드에 묶이지 않으므로 요청마다 임의의 lock 소유자 id 를 만들어서 잡고 푼다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReactiveLockService {
+
+    private static final long WAIT_SECONDS = 1;
+    private static final long LEASE_SECONDS = 15;
+
+    private final RedissonReactiveClient redissonReactiveClient;
+
+    /**
+     * lock 을 잡은 동안 action 을 실행하고, 성공 / 실패 / 취소 어느 쪽이든 끝나면 푼다.
+     */
+    public <T> Mono<T> withLock(String accountNumber, Supplier<Mono<T>> action) {
+        RLockReactive lock = redissonReactiveClient.getLock(getLockKey(accountNumber));
+        long owner = ThreadLocalRandom.current().nextLong();
+
+        return Mono.usingWhen(
+                lock.tryLock(WAIT_SECONDS, LEASE_SECONDS, TimeUnit.SECONDS, owner)
+                        .flatMap(locked -> {
+                            if (!locked) {
+                                log.error("==============Lock acquisition failed============");
+                                return Mono.error(new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK));
+                            }
+                            return Mono.just(lock);
+                        }),
+                locked -> action.get(),
+                locked -> locked.unlock(owner));
+    }
+
+    private String getLockKey(String accountNumber) {
+        return "ALCK" + accountNumber;
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.spring_project.reactive.service;
+
+import com.example.spring_project.domain.AccountNumber;
+import com.example.spring_project.exception.AccountException;
+import com.example.spring_project.reactive.domain.Account;
+import com.example.spring_project.reactive.domain.AccountBalanceHistory;
+import com.example.spring_project.reactive.domain.BalanceChangeOutbox;
+import com.example.spring_project.reactive.domain.BaseRow;
+import com.example.spring_project.reactive.domain.Transaction;
+import com.example.spring_project.reactive.dto.TransactionDto;
+import com.example.spring_project.reactive.repository.AccountBalanceHistoryRepository;
+import com.example.spring_project.reactive.repository.AccountRepository;
+import com.example.spring_project.reactive.repository.AccountUserRepository;
+import com.example.spring_project.reactive.repository.BalanceChangeOutboxRepository;
+import com.example.spring_project.reactive.repository.SequenceIds;
+import com.example.spring_project.reactive.repository.TransactionRepository;
+import com.example.spring_project.type.AccountStatus;
+import com.example.spring_project.type.ErrorCode;
+import com.example.spring_project.type.TransactionResultType;
+import com.example.spring_project.type.TransactionType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * 서블릿 앱 TransactionService 의 잔액 사용 / 취소 / 거래 확인을 R2DBC 로 옮긴 것
+ * 검증 순서와 에러 코드, 같은 트랜잭션에서 남기는 outbox / 잔액 이력은 서블릿 앱과 같다.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReactiveTransactionService {
+
+    private final AccountUserRepository accountUserRepository;
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final BalanceChangeOutboxRepository balanceChangeOutboxRepository;
+    private final AccountBalanceHistoryRepository accountBalanceHistoryRepository;
+    private final SequenceIds sequenceIds;
+
+    @Transactional
+    public Mono<TransactionDto> useBalance(Long userId, String accountNumber, Long amount) {
+        return accountUserRepository.existsById(userId)
+                .flatMap(exists -> exists ? findAccount(accountNumber)
+                        : Mono.error(new AccountException(ErrorCode.USER_NOT_FOUND)))
+                .flatMap(account -> {
+                    validateUseBalance(userId, account, amount);
+
+                    // 사용 가능 금액 확인과 차감을 조건부 update 한 번으로 한다.
+                    return accountRepository.useBalance(account.getId(), amount, LocalDateTime.now())
+                            .flatMap(updated -> updated == 0
+                                    ? Mono.error(new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE))
+                                    : insert(Transaction.create(TransactionType.USE, TransactionResultType.S,
+                                    account, amount, account.getBalance() - amount), Transaction.SEQUENCE, transactionRepository))
+                            .flatMap(saved -> saveBalanceChange(saved, account));
+                });
+    }
+
+    private void validateUseBalance(Long userId, Account account, Long amount) {
+        if (!Objects.equals(userId, account.getAccountUserId())) {
+            throw new AccountException(ErrorCode.USER_ACCOUNT_UN_MATCH);
+        }
+        if (account.getAccountStatus() != AccountStatus.IN_USE) {
+            throw new AccountException(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED);
+        }
+        if (account.getAvailableBalance() < amount) {
+            throw new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
+        }
+    }
+
+    @Transactional
+    public Mono<Void> saveFailedUseTransaction(String accountNumber, Long amount) {
+        return saveFailedTransaction(TransactionType.USE, accountNumber, amount);
+    }
+
+    /**
+     * 중복 취소는 취소 거래의 originalTransactionId unique 제약으로 막고, 취소 거래가 들어간 다음에 잔액을 바꾼다.
+     * outbox / 잔액 이력은 잔액을 바꾼 뒤 그 update 가 올린 순번으로 남긴다.
+     */
+    @Transactional
+    public Mono<TransactionDto> cancelBalance(String transactionId, String accountNumber, Long amount) {
+        return transactionRepository.findByTransactionId(transactionId)
+                .switchIfEmpty(Mono.error(new AccountException(ErrorCode.TRANSACTION_NOT_FOUND)))
+                .flatMap(transaction -> accountRepository.findById(transaction.getAccountId())
+                        .flatMap(account -> {
+                            validateCancelBalance(transaction, account, accountNumber, amount);
+
+                            Transaction cancel = Transaction.create(TransactionType.CANCEL, TransactionResultType.S,
+                                    account, amount, account.getBalance() + amount);
+                            cancel.setOriginalTransactionId(transaction.getTransactionId());
+
+                            return insert(cancel, Transaction.SEQUENCE, transactionRepository)
+                                    .onErrorMap(DataIntegrityViolationException.class,
+                                            e -> new AccountException(ErrorCode.TRANSACTION_ALREADY_CANCELED))
+                                    .flatMap(canceled -> accountRepository
+                                            .cancelBalance(account.getId(), amount, LocalDateTime.now())
+                                            .then(saveBalanceChange(canceled, account)));
+                        }));
+    }
+
+    private void validateCancelBalance(Transaction transaction, Account account, String accountNumber, Long amount) {
+        if (!Objects.equals(AccountNumber.toString(account.getAccountNumber()), accountNumber)) {
+            throw new AccountException(ErrorCode.TRANSACTION_ACCOUNT_UM_MATCH);
+        }
+        if (!Objects.equals(transaction.getAmount(), amount)) {
+            throw new AccountException(ErrorCode.TRANSACTION_MUST_FULLY);
+        }
+        if (transaction.getTransactedAt().isBefore(LocalDateTime.now().minusYears(1))) {
+            throw new AccountException(ErrorCode.TOO_OLD_ORDER_TO_CANCEL);
+        }
+    }
+
+    @Transactional
+    public Mono<Void> saveFailedCancelTransaction(String accountNumber, Long amount) {
+        return saveFailedTransaction(TransactionType.CANCEL, accountNumber, amount);
+    }
+
+    @Transactional(readOnly = true)
+    public Mono<TransactionDto> queryTransaction(String transactionId) {
+        return transactionRepository.findByTransactionId(transactionId)
+                .switchIfEmpty(Mono.error(new AccountException(ErrorCode.TRANSACTION_NOT_FOUND)))
+                .flatMap(transaction -> accountRepository.findById(transaction.getAccountId())
+                        .map(account -> TransactionDto.from(transaction, account.getAccountNumber())));
+    }
+
+    private Mono<Account> findAccount(String accountNumber) {
+        return accountRepository.findByAccountNumber(accountNumber)
+                .switchIfEmpty(Mono.error(new AccountException(ErrorCode.ACCOUNT_NOT_FOUND)));
+    }
+
+    private Mono<Void> saveFailedTransaction(TransactionType transactionType, String accountNumber, Long amount) {
+        return findAccount(accountNumber)
+                .flatMap(account -> insert(Transaction.create(transactionType, TransactionResultType.F,
+                        account, amount, account.getBalance()), Transaction.SEQUENCE, transactionRepository))
+                .then();
+    }
+
+    /**
+     * 잔액이 바뀐 거래는 같은 트랜잭션에서 outbox 와 잔액 이력을 남긴다.
+     * outbox 에는 잔액을 바꾼 update 가 올린 계좌 별 순번(balance_version)을 남긴다.
+     */
+    private Mono<TransactionDto> saveBalanceChange(Transaction saved, Account account) {
+        Long accountNumber = account.getAccountNumber();
+        return accountRepository.findBalanceVersion(account.getId())
+                .flatMap(balanceVersion -> insert(BalanceChangeOutbox.from(saved, accountNumber, balanceVersion),
+                        BalanceChangeOutbox.SEQUENCE, balanceChangeOutboxRepository))
+                .then(insert(AccountBalanceHistory.from(saved, accountNumber),
+                        AccountBalanceHistory.SEQUENCE, accountBalanceHistoryRepository))
+                .thenReturn(TransactionDto.from(saved, accountNumber));
+    }
+
+    private <T extends BaseRow> Mono<T> insert(T row, String sequence, ReactiveCrudRepository<T, Long> repository) {
+        return sequenceIds.next(sequence)
+                .flatMap(id -> {
+                    row.assignId(id, LocalDateTime.now());
+                    return repository.save(row);
+                });
+    }
+}
@@ -0,0 +1,16 @@
+-- 서블릿 앱 data.sql 과 같은 사용자, 비교용 계좌는 사용자마다 하나씩 만든다.
+merge into account_user(id , name , active_account_count , created_at , updated_at)
+key (id) values (1 , 'Pororo' , 1 , now() , now());
+merge into account_user(id , name , active_account_count , created_at , updated_at)
+key (id) values (2 , 'Lupi' , 1 , now() , now());
+merge into account_user(id , name , active_account_count , created_at , updated_at)
+key (id) values (3 , 'Eddie' , 1 , now() , now());
+alter sequence account_user_seq restart with 4;
+
+merge into account(id , account_user_id , account_number , account_status , balance , held_balance , register_at , created_at , updated_at)
+key (id) values (1 , 1 , 1000000000 , 'IN_USE' , 100000000 , 0 , now() , now() , now());
+merge into account(id , account_user_id , account_number , account_status , balance , held_balance , register_at , created_at , updated_at)
+key (id) values (2 , 2 , 1000000001 , 'IN_USE' , 100000000 , 0 , now() , now() , now());
+merge into account(id , account_user_id , account_number , account_status , balance , held_balance , register_at , created_at , updated_at)
+key (id) values (3 , 3 , 1000000002 , 'IN_USE' , 100000000 , 0 , now() , now() , now());
+alter sequence account_seq restart with 4;
@@ -0,0 +1,80 @@
+create sequence if not exists account_user_seq start with 1 increment by 50;
+create sequence if not exists account_seq start with 1 increment by 50;
+create sequence if not exists transaction_seq start with 1 increment by 50;
+create sequence if not exists balance_change_outbox_seq start with 1 increment by 50;
+create sequence if not exists account_balance_history_seq start with 1 increment by 50;
+
+create table if not exists account_user (
+    id bigint not null,
+    created_at timestamp,
+    updated_at timestamp,
+    active_account_count integer default 0 not null,
+    name varchar(255),
+    primary key (id)
+);
+
+create table if not exists account (
+    id bigint not null,
+    created_at timestamp,
+    updated_at timestamp,
+    account_number bigint,
+    account_status varchar(255),
+    balance bigint,
+    held_balance bigint default 0 not null,
+    balance_version bigint default 0 not null,
+    register_at timestamp,
+    un_register_at timestamp,
+    account_user_id bigint,
+    primary key (id),
+    foreign key (account_user_id) references account_user (id)
+);
+create unique index if not exists ux_account_account_number on account (account_number);
+
+create table if not exists transaction (
+    id bigint not null,
+    created_at timestamp,
+    updated_at timestamp,
+    amount bigint,
+    balance_snapshot bigint,
+    original_transaction_id varchar(255),
+    partition_month integer,
+    transacted_at timestamp,
+    transaction_id varchar(255),
+    transaction_result_type varchar(255),
+    transaction_type varchar(255),
+    account_id bigint,
+    primary key (id),
+    foreign key (account_id) references account (id)
+);
+create unique index if not exists ux_transaction_transaction_id on transaction (transaction_id);
+create unique index if not exists ux_transaction_original_transaction_id on transaction (original_transaction_id);
+
+create table if not exists balance_change_outbox (
+    id bigint not null,
+    created_at timestamp,
+    updated_at timestamp,
+    account_number bigint,
+    balance_version bigint default 0 not null,
+    amount bigint,
+    balance_snapshot bigint,
+    transacted_at timestamp,
+    transaction_id varchar(255),
+    transaction_type varchar(255),
+    primary key (id)
+);
+create index if not exists ix_balance_change_outbox_account_version on balance_change_outbox (account_number, balance_version);
+
+create table if not exists account_balance_history (
+    id bigint not null,
+    created_at timestamp,
+    updated_at timestamp,
+    account_number bigint,
+    balance bigint,
+    changed_at timestamp,
+    transaction_id varchar(255),
+    primary key (id)
+);
+create index if not exists ix_account_balance_history_account_number_changed_at
+    on account_balance_history (account_number, changed_at, id);
+create unique index if not exists ux_account_balance_history_transaction_id
+    on account_balance_history (transaction_id);
@@ -0,0 +1,143 @@
+package com.example.spring_project.reactive.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 이미 떠 있는 서블릿 앱(:8080) 또는 reactive 앱(:8081) 에 동시 연결 수를 늘려 가며 요청을 보내고
+ * 처리량, 에러 수, 서버 힙 사용량(/actuator/metrics/jvm.memory.used)을 출력한다.
+ * ./gradlew :reactive:benchmark -Dbenchmark.baseUrl=http://localhost:8081 -Dbenchmark.connections=100,1000,5000
+ * 계좌는 benchmark.accounts (userId:계좌번호, 쉼표 구분) 로 받는다. 기본값은 reactive 앱 data.sql 의 계좌이고,
+ * 서블릿 앱은 POST /account 로 계좌를 먼저 만든 뒤 넘긴다.
+ * 잔액 사용은 계좌 lock 을 거치므로 연결 수가 계좌 수보다 훨씬 많으면 lock 대기 실패가 늘어난다.
+ * 그래서 lock 을 거치지 않는 거래 확인도 따로 잰다.
+ */
+@Tag("benchmark")
+class ConnectionScalingBenchmark {
+
+    private static final String BASE_URL = System.getProperty("benchmark.baseUrl", "http://localhost:8081");
+    private static final String CONNECTIONS = System.getProperty("benchmark.connections", "100,1000");
+    private static final String ACCOUNTS = System.getProperty("benchmark.accounts",
+            "1:1000000000,2:1000000001,3:1000000002");
+    private static final long SECONDS = Long.getLong("benchmark.seconds", 10L);
+    private static final long AMOUNT = 10L;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // 연결 수만큼 동시에 요청이 나가면 그만큼 connection 을 연다.
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    @Test
+    void throughputByConnections() throws Exception {
+        String[] accounts = ACCOUNTS.split(",");
+        String transactionId = useOnce(accounts[0]);
+
+        for (String value : CONNECTIONS.split(",")) {
+            int connections = Integer.parseInt(value.trim());
+
+            Result use = run(connections, i -> useRequest(accounts[i % accounts.length]));
+            Result query = run(connections, i -> HttpRequest.newBuilder(
+                    URI.create(BASE_URL + "/transaction/" + transactionId)).GET().build());
+
+            System.out.printf("[connections] %s, %d connections, use=%.0f req/s (errors %d), "
+                            + "query=%.0f req/s (errors %d), heap used=%d MB%n",
+                    BASE_URL, connections, use.perSecond(), use.errors,
+                    query.perSecond(), query.errors, heapUsedBytes() / (1024 * 1024));
+        }
+    }
+
+    /**
+     * 연결마다 응답을 받으면 바로 다음 요청을 보내는 것을 정해진 시간 동안 반복한다.
+     */
+    private Result run(int connections, RequestFactory requests) {
+        AtomicLong completed = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        long deadline = System.nanoTime() + Duration.ofSeconds(SECONDS).toNanos();
+
+        long startedAt = System.nanoTime();
+        List<CompletableFuture<Void>> loops = new ArrayList<>();
+        for (int i = 0; i < connections; i++) {
+            loops.add(loop(requests, i, deadline, completed, errors));
+        }
+        CompletableFuture.allOf(loops.toArray(new CompletableFuture[0])).join();
+        return new Result(completed.get(), errors.get(), System.nanoTime() - startedAt);
+    }
+
+    private CompletableFuture<Void> loop(RequestFactory requests, int connection, long deadline,
+                                         AtomicLong completed, AtomicLong errors) {
+        if (System.nanoTime() >= deadline) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return httpClient.sendAsync(requests.create(connection), HttpResponse.BodyHandlers.ofString())
+                .handle((response, e) -> {
+                    completed.incrementAndGet();
+                    // 에러 응답도 200 + errorCode body 로 내려온다.
+                    if (e != null || response.statusCode() != 200 || response.body().contains("\"errorCode\"")) {
+                        errors.incrementAndGet();
+                    }
+                    return null;
+                })
+                .thenCompose(ignored -> loop(requests, connection, deadline, completed, errors));
+    }
+
+    private String useOnce(String account) throws Exception {
+        JsonNode used = objectMapper.readTree(
+                httpClient.send(useRequest(account), HttpResponse.BodyHandlers.ofString()).body());
+        assertEquals("S", used.path("transactionResult").asText(), used::toString);
+        return used.get("transactionId").asText();
+    }
+
+    private static HttpRequest useRequest(String account) {
+        String[] userAndNumber = account.trim().split(":");
+        String json = "{\"userId\":" + userAndNumber[0] + ",\"accountNumber\":\"" + userAndNumber[1]
+                + "\",\"amount\":" + AMOUNT + "}";
+        return HttpRequest.newBuilder(URI.create(BASE_URL + "/transaction/use"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private long heapUsedBytes() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(
+                URI.create(BASE_URL + "/actuator/metrics/jvm.memory.used?tag=area:heap")).GET().build();
+        JsonNode metric = objectMapper.readTree(httpClient.send(request, HttpResponse.BodyHandlers.ofString()).body());
+        return metric.path("measurements").path(0).path("value").asLong();
+    }
+
+    private interface RequestFactory {
+        HttpRequest create(int connection);
+    }
+
+    private static class Result {
+        private final long completed;
+        private final long errors;
+        private final long elapsedNanos;
+
+        private Result(long completed, long errors, long elapsedNanos) {
+            this.completed = completed;
+            this.errors = errors;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        private double perSecond() {
+            return completed * 1_000_000_000.0 / elapsedNanos;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.spring_project.reactive.controller;
+
+import com.example.spring_project.exception.AccountException;
+import com.example.spring_project.reactive.dto.TransactionDto;
+import com.example.spring_project.reactive.dto.UseBalance;
+import com.example.spring_project.reactive.service.ReactiveLockService;
+import com.example.spring_project.reactive.service.ReactiveTransactionService;
+import com.example.spring_project.type.ErrorCode;
+import com.example.spring_project.type.TransactionResultType;
+import com.example.spring_project.type.TransactionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@WebFluxTest(ReactiveTransactionController.class)
+class ReactiveTransactionControllerTest {
+
+    @MockBean
+    private ReactiveTransactionService transactionService;
+
+    @MockBean
+    private ReactiveLockService lockService;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void lockPassesThrough() {
+        given(lockService.withLock(anyString(), any()))
+                .willAnswer(invocation -> invocation.<Supplier<Mono<?>>>getArgument(1).get());
+    }
+
+    @Test
+    void successUseBalance() {
+        given(transactionService.useBalance(anyLong(), anyString(), anyLong()))
+                .willReturn(Mono.just(TransactionDto.builder()
+                        .accountNumber("1000000000")
+                        .transactionType(TransactionType.USE)
+                        .transactedAt(LocalDateTime.now())
+                        .amount(12345L)
+                        .transactionId("transactionId")
+                        .transactionResultType(TransactionResultType.S)
+                        .build()));
+
+        webTestClient.post().uri("/transaction/use")
+                .bodyValue(new UseBalance.Request(1L, "1000000000", 3000L))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.accountNumber").isEqualTo("1000000000")
+                .jsonPath("$.transactionResult").isEqualTo("S")
+                .jsonPath("$.transactionId").isEqualTo("transactionId")
+                .jsonPath("$.amount").isEqualTo(12345);
+
+        verify(lockService).withLock(anyString(), any());
+    }
+
+    @Test
+    void failedUseBalanceIsRecorded() {
+        given(transactionService.useBalance(anyLong(), anyString(), anyLong()))
+                .willReturn(Mono.error(new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE)));
+        given(transactionService.saveFailedUseTransaction(anyString(), anyLong()))
+                .willReturn(Mono.empty());
+
+        webTestClient.post().uri("/transaction/use")
+                .bodyValue(new UseBalance.Request(1L, "1000000000", 3000L))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.errorCode").isEqualTo("AMOUNT_EXCEED_BALANCE");
+
+        verify(transactionService).saveFailedUseTransaction("1000000000", 3000L);
+    }
+
+    @Test
+    void invalidRequestIsRejectedBeforeLock() {
+        // 서블릿 앱과 같이 검증 실패도 에러 응답 body 로 내려간다.
+        webTestClient.post().uri("/transaction/use")
+                .bodyValue(new UseBalance.Request(1L, "1000000000", 5L))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.errorCode").isEqualTo("INTERNAL_SERVER_ERROR");
+
+        verify(lockService, never()).withLock(anyString(), any());
+    }
+
+    @Test
+    void successQueryTransaction() {
+        given(transactionService.queryTransaction(anyString()))
+                .willReturn(Mono.just(TransactionDto.builder()
+                        .accountNumber("1000000000")
+                        .transactionType(TransactionType.USE)
+                        .transactedAt(LocalDateTime.now())
+                        .amount(12345L)
+                        .transactionId("transactionId")
+                        .transactionResultType(TransactionResultType.S)
+                        .build()));
+
+        webTestClient.get().uri("/transaction/12345")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.accountNumber").isEqualTo("1000000000")
+                .jsonPath("$.transactionType").isEqualTo("USE")
+                .jsonPath("$.transactionId").isEqualTo("transactionId");
+    }
+}
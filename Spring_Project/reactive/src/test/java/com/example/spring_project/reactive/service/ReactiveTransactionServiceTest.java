@@ -0,0 +1,221 @@
+package com.example.spring_project.reactive.service;
+
+import com.example.spring_project.exception.AccountException;
+import com.example.spring_project.reactive.domain.Account;
+import com.example.spring_project.reactive.domain.AccountBalanceHistory;
+import com.example.spring_project.reactive.domain.BalanceChangeOutbox;
+import com.example.spring_project.reactive.domain.Transaction;
+import com.example.spring_project.reactive.repository.AccountBalanceHistoryRepository;
+import com.example.spring_project.reactive.repository.AccountRepository;
+import com.example.spring_project.reactive.repository.AccountUserRepository;
+import com.example.spring_project.reactive.repository.BalanceChangeOutboxRepository;
+import com.example.spring_project.reactive.repository.SequenceIds;
+import com.example.spring_project.reactive.repository.TransactionRepository;
+import com.example.spring_project.type.AccountStatus;
+import com.example.spring_project.type.ErrorCode;
+import com.example.spring_project.type.TransactionResultType;
+import com.example.spring_project.type.TransactionType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveTransactionServiceTest {
+    private static final long USE_AMOUNT = 1000L;
+
+    @Mock
+    private AccountUserRepository accountUserRepository;
+    @Mock
+    private AccountRepository accountRepository;
+    @Mock
+    private TransactionRepository transactionRepository;
+    @Mock
+    private BalanceChangeOutboxRepository balanceChangeOutboxRepository;
+    @Mock
+    private AccountBalanceHistoryRepository accountBalanceHistoryRepository;
+    @Mock
+    private SequenceIds sequenceIds;
+
+    @InjectMocks
+    private ReactiveTransactionService transactionService;
+
+    @Test
+    void successUseBalance() {
+        Account account = account(12L, 10000L);
+        given(accountUserRepository.existsById(12L)).willReturn(Mono.just(true));
+        given(accountRepository.findByAccountNumber("1000000012")).willReturn(Mono.just(account));
+        given(accountRepository.useBalance(eq(1L), eq(USE_AMOUNT), any())).willReturn(Mono.just(1));
+        given(accountRepository.findBalanceVersion(1L)).willReturn(Mono.just(5L));
+        givenInserts();
+
+        StepVerifier.create(transactionService.useBalance(12L, "1000000012", USE_AMOUNT))
+                .assertNext(transactionDto -> {
+                    assertEquals("1000000012", transactionDto.getAccountNumber());
+                    assertEquals(TransactionType.USE, transactionDto.getTransactionType());
+                    assertEquals(TransactionResultType.S, transactionDto.getTransactionResultType());
+                    assertEquals(USE_AMOUNT, transactionDto.getAmount());
+                    assertEquals(9000L, transactionDto.getBalanceSnapshot());
+                })
+                .verifyComplete();
+
+        ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(Transaction.class);
+        verify(transactionRepository).save(captor.capture());
+        assertEquals(100L, captor.getValue().getId());
+        assertEquals(1L, captor.getValue().getAccountId());
+        assertTrue(captor.getValue().isNew());
+        ArgumentCaptor<BalanceChangeOutbox> outboxCaptor = ArgumentCaptor.forClass(BalanceChangeOutbox.class);
+        verify(balanceChangeOutboxRepository).save(outboxCaptor.capture());
+        assertEquals(5L, outboxCaptor.getValue().getBalanceVersion());
+        verify(accountBalanceHistoryRepository).save(any(AccountBalanceHistory.class));
+    }
+
+    @Test
+    @DisplayName("해당 유저 없음 - 잔액 사용 실패")
+    void useBalance_UserNotFound() {
+        given(accountUserRepository.existsById(12L)).willReturn(Mono.just(false));
+
+        StepVerifier.create(transactionService.useBalance(12L, "1000000012", USE_AMOUNT))
+                .expectErrorSatisfies(e -> assertEquals(ErrorCode.USER_NOT_FOUND, ((AccountException) e).getErrorCode()))
+                .verify();
+    }
+
+    @Test
+    @DisplayName("계좌 소유주 다름 - 잔액 사용 실패")
+    void useBalanceFailed_userUnMatch() {
+        given(accountUserRepository.existsById(13L)).willReturn(Mono.just(true));
+        given(accountRepository.findByAccountNumber("1000000012")).willReturn(Mono.just(account(12L, 10000L)));
+
+        StepVerifier.create(transactionService.useBalance(13L, "1000000012", USE_AMOUNT))
+                .expectErrorSatisfies(e -> assertEquals(ErrorCode.USER_ACCOUNT_UN_MATCH, ((AccountException) e).getErrorCode()))
+                .verify();
+    }
+
+    @Test
+    @DisplayName("조건부 차감에서 다른 차감에 밀린 경우 - 잔액 사용 실패")
+    void useBalance_conditionalUpdateMissed() {
+        given(accountUserRepository.existsById(12L)).willReturn(Mono.just(true));
+        given(accountRepository.findByAccountNumber("1000000012")).willReturn(Mono.just(account(12L, 10000L)));
+        given(accountRepository.useBalance(eq(1L), eq(USE_AMOUNT), any())).willReturn(Mono.just(0));
+
+        StepVerifier.create(transactionService.useBalance(12L, "1000000012", USE_AMOUNT))
+                .expectErrorSatisfies(e -> assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, ((AccountException) e).getErrorCode()))
+                .verify();
+
+        verify(transactionRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("실패 트랜잭션은 조회한 잔액으로 남기고 잔액 이력은 남기지 않는다")
+    void saveFailedUseTransaction() {
+        given(accountRepository.findByAccountNumber("1000000012")).willReturn(Mono.just(account(12L, 10000L)));
+        given(sequenceIds.next(Transaction.SEQUENCE)).willReturn(Mono.just(100L));
+        given(transactionRepository.save(any(Transaction.class)))
+                .willAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        StepVerifier.create(transactionService.saveFailedUseTransaction("1000000012", USE_AMOUNT))
+                .verifyComplete();
+
+        ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(Transaction.class);
+        verify(transactionRepository).save(captor.capture());
+        assertEquals(TransactionResultType.F, captor.getValue().getTransactionResultType());
+        assertEquals(10000L, captor.getValue().getBalanceSnapshot());
+        verify(balanceChangeOutboxRepository, never()).save(any());
+        verify(accountBalanceHistoryRepository, never()).save(any());
+    }
+
+    @Test
+    void successCancelBalance() {
+        Account account = account(12L, 9000L);
+        given(transactionRepository.findByTransactionId("transactionId"))
+                .willReturn(Mono.just(usedTransaction()));
+        given(accountRepository.findById(1L)).willReturn(Mono.just(account));
+        given(accountRepository.cancelBalance(eq(1L), eq(USE_AMOUNT), any())).willReturn(Mono.just(1));
+        given(accountRepository.findBalanceVersion(1L)).willReturn(Mono.just(6L));
+        givenInserts();
+
+        StepVerifier.create(transactionService.cancelBalance("transactionId", "1000000012", USE_AMOUNT))
+                .assertNext(transactionDto -> {
+                    assertEquals(TransactionType.CANCEL, transactionDto.getTransactionType());
+                    assertEquals(10000L, transactionDto.getBalanceSnapshot());
+                })
+                .verifyComplete();
+
+        ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(Transaction.class);
+        verify(transactionRepository).save(captor.capture());
+        assertEquals("transactionId", captor.getValue().getOriginalTransactionId());
+    }
+
+    @Test
+    @DisplayName("이미 취소된 거래 - 잔액은 바꾸지 않는다")
+    void cancelTransaction_AlreadyCanceled() {
+        given(transactionRepository.findByTransactionId("transactionId"))
+                .willReturn(Mono.just(usedTransaction()));
+        given(accountRepository.findById(1L)).willReturn(Mono.just(account(12L, 9000L)));
+        given(sequenceIds.next(Transaction.SEQUENCE)).willReturn(Mono.just(100L));
+        given(transactionRepository.save(any(Transaction.class)))
+                .willReturn(Mono.error(new DataIntegrityViolationException("ux_transaction_original_transaction_id")));
+
+        StepVerifier.create(transactionService.cancelBalance("transactionId", "1000000012", USE_AMOUNT))
+                .expectErrorSatisfies(e -> assertEquals(ErrorCode.TRANSACTION_ALREADY_CANCELED, ((AccountException) e).getErrorCode()))
+                .verify();
+
+        verify(accountRepository, never()).cancelBalance(anyLong(), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("원 거래 없음 - 거래 조회 실패")
+    void queryTransaction_TransactionNotFound() {
+        given(transactionRepository.findByTransactionId("transactionId")).willReturn(Mono.empty());
+
+        StepVerifier.create(transactionService.queryTransaction("transactionId"))
+                .expectErrorSatisfies(e -> assertEquals(ErrorCode.TRANSACTION_NOT_FOUND, ((AccountException) e).getErrorCode()))
+                .verify();
+    }
+
+    private void givenInserts() {
+        given(sequenceIds.next(anyString())).willReturn(Mono.just(100L));
+        given(transactionRepository.save(any(Transaction.class)))
+                .willAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        given(balanceChangeOutboxRepository.save(any(BalanceChangeOutbox.class)))
+                .willAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        given(accountBalanceHistoryRepository.save(any(AccountBalanceHistory.class)))
+                .willAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+    }
+
+    private static Account account(Long accountUserId, Long balance) {
+        Account account = new Account();
+        account.setId(1L);
+        account.setAccountUserId(accountUserId);
+        account.setAccountNumber(1000000012L);
+        account.setAccountStatus(AccountStatus.IN_USE);
+        account.setBalance(balance);
+        return account;
+    }
+
+    private static Transaction usedTransaction() {
+        Transaction transaction = new Transaction();
+        transaction.setId(10L);
+        transaction.setAccountId(1L);
+        transaction.setTransactionType(TransactionType.USE);
+        transaction.setTransactionResultType(TransactionResultType.S);
+        transaction.setTransactionId("transactionId");
+        transaction.setAmount(USE_AMOUNT);
+        transaction.setTransactedAt(LocalDateTime.now());
+        return transaction;
+    }
+}
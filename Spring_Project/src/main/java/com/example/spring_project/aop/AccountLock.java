@@ -9,4 +9,11 @@ import java.lang.annotation.*;
 public @interface AccountLock {
 
     long tryLockTime() default 5000L;
+
+    /**
+     * true 면 메서드 시작이 아니라 서비스가 잔액을 바꾸는 트랜잭션 직전(LockService.lockForMutation)에
+     * 트랜잭션 밖에서 lock 을 잡고 그 트랜잭션이 끝나면 푼다.
+     * 사용자 / 계좌 조회와 잔액과 상관없는 검증, 실패 거래 기록은 lock 밖에서 한다.
+     */
+    boolean mutationOnly() default false;
 }
@@ -3,4 +3,9 @@ package com.example.spring_project.aop;
 public interface AccountLockIdInterface {
 
     String getAccountNumber();
+
+    // 요청 수 제한에 쓰는 사용자 id, 요청에 사용자가 없으면 null
+    default Long getUserId() {
+        return null;
+    }
 }
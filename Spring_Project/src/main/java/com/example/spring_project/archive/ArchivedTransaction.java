@@ -0,0 +1,27 @@
+package com.example.spring_project.archive;
+
+import com.example.spring_project.type.TransactionResultType;
+import com.example.spring_project.type.TransactionType;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 아카이브 세그먼트에 저장되는 거래 한 건
+ */
+@Getter
+@AllArgsConstructor
+@Builder
+@ToString
+public class ArchivedTransaction {
+
+    private Long id;
+    private Long accountId;
+    private String transactionId;
+    private TransactionType transactionType;
+    private TransactionResultType transactionResultType;
+    private Long amount;
+    private Long balanceSnapshot;
+    private LocalDateTime transactedAt;
+
+}
@@ -0,0 +1,98 @@
+package com.example.spring_project.archive;
+
+import com.example.spring_project.datasource.ShardKey;
+import com.example.spring_project.datasource.Shards;
+import com.example.spring_project.domain.Account;
+import com.example.spring_project.dto.TransactionDto;
+import com.example.spring_project.exception.AccountException;
+import com.example.spring_project.repository.AccountRepository;
+import com.example.spring_project.repository.TransactionRepository;
+import com.example.spring_project.type.ErrorCode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 취소 기간(1년)이 지난 거래를 Transaction 테이블에서 아카이브 세그먼트로 옮긴다.
+ * 세그먼트를 디스크에 쓴 다음에 삭제하므로, 중간에 실패하면 같은 거래가 다음 실행에서 한 번 더 아카이브될 수 있다.
+ *
+ * 기본은 꺼져 있다. (archive.cron = "-") 켜면 여러 서버 중 Redis lock 을 잡은 한 서버만 실행한다.
+ * 세그먼트는 archive.directory 에 쓰므로, 서버가 여러 대면 모든 서버가 같은 공유 저장소를 바라봐야
+ * 아카이브 조회가 어느 서버에서나 같은 결과를 낸다. 로컬 디스크를 쓰면 단일 서버에서만 켠다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransactionArchiveService {
+
+    private static final String ARCHIVE_LOCK_KEY = "TRANSACTION_ARCHIVE";
+
+    private final TransactionRepository transactionRepository;
+    private final AccountRepository accountRepository;
+    private final TransactionArchiveStore transactionArchiveStore;
+    private final Shards shards;
+    private final RedissonClient redissonClient;
+
+    @Value("${archive.segment-rows:100000}")
+    private int segmentRows;
+
+    @Scheduled(cron = "${archive.cron:-}")
+    public void archiveExpiredTransactions() {
+        RLock lock = redissonClient.getLock(ARCHIVE_LOCK_KEY);
+        if (!lock.tryLock()) {
+            log.info("Archive is running on another server");
+            return;
+        }
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minusYears(1);
+            int archived = shards.onEachShard(() -> archive(cutoff)).stream()
+                    .mapToInt(Integer::intValue)
+                    .sum();
+            log.info("Archived {} transactions", archived);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int archive(LocalDateTime cutoff) {
+        int archived = 0;
+        while (true) {
+            List<ArchivedTransaction> transactions =
+                    transactionRepository.findArchiveTargets(cutoff, PageRequest.of(0, segmentRows));
+            if (transactions.isEmpty()) {
+                return archived;
+            }
+
+            try {
+                transactionArchiveStore.append(transactions);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to write archive segment", e);
+            }
+            transactionRepository.deleteAllByIdInBatch(transactions.stream()
+                    .map(ArchivedTransaction::getId)
+                    .collect(Collectors.toList()));
+
+            archived += transactions.size();
+        }
+    }
+
+    public List<TransactionDto> findArchivedTransactions(@ShardKey String accountNumber, LocalDateTime from, LocalDateTime to) {
+        Account account = accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+
+        return transactionArchiveStore.find(account.getId(), from, to).stream()
+                .map(transaction -> TransactionDto.fromArchived(accountNumber, transaction))
+                .collect(Collectors.toList());
+    }
+}
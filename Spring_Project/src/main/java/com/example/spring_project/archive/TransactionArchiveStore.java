@@ -0,0 +1,79 @@
+package com.example.spring_project.archive;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 로컬 디스크의 아카이브 세그먼트 목록
+ * 조회 시 계좌 / 기간이 header 의 min/max 범위에 걸리는 세그먼트만 읽는다.
+ */
+@Slf4j
+@Component
+public class TransactionArchiveStore {
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private final Path directory;
+    private final List<TransactionSegment> segments = new CopyOnWriteArrayList<>();
+
+    public TransactionArchiveStore(@Value("${archive.directory:./archive}") String directory) {
+        this.directory = Paths.get(directory);
+    }
+
+    @PostConstruct
+    public void loadSegments() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path path : files.filter(file -> file.toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .collect(Collectors.toList())) {
+                segments.add(TransactionSegment.open(path));
+            }
+        }
+        log.info("Loaded {} archive segments from {}", segments.size(), directory);
+    }
+
+    public TransactionSegment append(List<ArchivedTransaction> transactions) throws IOException {
+        Files.createDirectories(directory);
+        Path path = directory.resolve(String.format("transactions-%d-%s%s",
+                System.currentTimeMillis(),
+                UUID.randomUUID().toString().substring(0, 8),
+                SEGMENT_SUFFIX));
+
+        TransactionSegment segment = TransactionSegment.write(path, transactions);
+        segments.add(segment);
+        return segment;
+    }
+
+    /**
+     * 계좌의 [from, to) 기간 아카이브 거래, 거래 시각 순
+     */
+    public List<ArchivedTransaction> find(long accountId, LocalDateTime from, LocalDateTime to) {
+        return segments.stream()
+                .filter(segment -> segment.overlaps(accountId, from, to))
+                .flatMap(segment -> segment.find(accountId, from, to).stream())
+                .sorted(Comparator.comparing(ArchivedTransaction::getTransactedAt)
+                        .thenComparing(ArchivedTransaction::getId))
+                .collect(Collectors.toList());
+    }
+
+    public int getSegmentCount() {
+        return segments.size();
+    }
+}
@@ -0,0 +1,342 @@
+package com.example.spring_project.archive;
+
+import com.example.spring_project.type.TransactionResultType;
+import com.example.spring_project.type.TransactionType;
+import lombok.Getter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ToLongFunction;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 아카이브된 거래를 컬럼 단위로 압축해 저장한 세그먼트 파일
+ *
+ * [header] magic, version, rowCount, 계좌 id min/max, 거래 시각 min/max, 컬럼 별 (offset, 압축 길이, 원본 길이)
+ * [columns] id, accountId, transactedAt, amount, balanceSnapshot, transactionType, transactionResultType, transactionId
+ *
+ * 행은 (accountId, transactedAt) 순으로 정렬되어 있고 숫자 컬럼은 직전 값과의 차이로 저장한 뒤 deflate 로 압축한다.
+ * 파일은 memory-mapped 로 열고, 조회 범위가 header 의 min/max 와 겹칠 때만 필요한 컬럼을 푼다.
+ */
+public class TransactionSegment {
+
+    private static final int MAGIC = 0x54585347;
+    private static final short VERSION = 1;
+
+    private static final int ID = 0;
+    private static final int ACCOUNT_ID = 1;
+    private static final int TRANSACTED_AT = 2;
+    private static final int AMOUNT = 3;
+    private static final int BALANCE_SNAPSHOT = 4;
+    private static final int TRANSACTION_TYPE = 5;
+    private static final int TRANSACTION_RESULT_TYPE = 6;
+    private static final int TRANSACTION_ID = 7;
+    private static final int COLUMN_COUNT = 8;
+
+    private static final int HEADER_LENGTH = Integer.BYTES + Short.BYTES + Integer.BYTES
+            + Long.BYTES * 4
+            + COLUMN_COUNT * (Long.BYTES + Integer.BYTES + Integer.BYTES);
+
+    private static final TransactionType[] TRANSACTION_TYPES = TransactionType.values();
+    private static final TransactionResultType[] TRANSACTION_RESULT_TYPES = TransactionResultType.values();
+
+    @Getter
+    private final Path path;
+    private final MappedByteBuffer buffer;
+
+    @Getter
+    private final int rowCount;
+    @Getter
+    private final long minAccountId;
+    @Getter
+    private final long maxAccountId;
+    private final long minTransactedAt;
+    private final long maxTransactedAt;
+
+    private final long[] columnOffsets = new long[COLUMN_COUNT];
+    private final int[] compressedLengths = new int[COLUMN_COUNT];
+    private final int[] rawLengths = new int[COLUMN_COUNT];
+
+    private TransactionSegment(Path path, MappedByteBuffer buffer) throws IOException {
+        this.path = path;
+        this.buffer = buffer;
+
+        ByteBuffer header = buffer.duplicate();
+        if (header.getInt() != MAGIC || header.getShort() != VERSION) {
+            throw new IOException("Not a transaction segment : " + path);
+        }
+        rowCount = header.getInt();
+        minAccountId = header.getLong();
+        maxAccountId = header.getLong();
+        minTransactedAt = header.getLong();
+        maxTransactedAt = header.getLong();
+        for (int column = 0; column < COLUMN_COUNT; column++) {
+            columnOffsets[column] = header.getLong();
+            compressedLengths[column] = header.getInt();
+            rawLengths[column] = header.getInt();
+        }
+    }
+
+    public static TransactionSegment open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new TransactionSegment(path, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * 임시 파일에 쓰고 fsync 한 뒤 이름을 바꿔서, 완성된 세그먼트만 보이도록 한다.
+     */
+    public static TransactionSegment write(Path path, List<ArchivedTransaction> transactions) throws IOException {
+        if (transactions.isEmpty()) {
+            throw new IllegalArgumentException("Segment must have at least one transaction");
+        }
+
+        List<ArchivedTransaction> rows = new ArrayList<>(transactions);
+        rows.sort(Comparator.comparing(ArchivedTransaction::getAccountId)
+                .thenComparing(ArchivedTransaction::getTransactedAt)
+                .thenComparing(ArchivedTransaction::getId));
+
+        byte[][] raw = new byte[COLUMN_COUNT][];
+        raw[ID] = encodeLongs(rows, ArchivedTransaction::getId);
+        raw[ACCOUNT_ID] = encodeLongs(rows, ArchivedTransaction::getAccountId);
+        raw[TRANSACTED_AT] = encodeLongs(rows, row -> toMicros(row.getTransactedAt()));
+        raw[AMOUNT] = encodeLongs(rows, ArchivedTransaction::getAmount);
+        raw[BALANCE_SNAPSHOT] = encodeLongs(rows, ArchivedTransaction::getBalanceSnapshot);
+        raw[TRANSACTION_TYPE] = encodeOrdinals(rows, row -> row.getTransactionType().ordinal());
+        raw[TRANSACTION_RESULT_TYPE] = encodeOrdinals(rows, row -> row.getTransactionResultType().ordinal());
+        raw[TRANSACTION_ID] = encodeStrings(rows);
+
+        byte[][] compressed = new byte[COLUMN_COUNT][];
+        ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+        header.putInt(MAGIC)
+                .putShort(VERSION)
+                .putInt(rows.size())
+                .putLong(rows.get(0).getAccountId())
+                .putLong(rows.get(rows.size() - 1).getAccountId())
+                .putLong(rows.stream().mapToLong(row -> toMicros(row.getTransactedAt())).min().getAsLong())
+                .putLong(rows.stream().mapToLong(row -> toMicros(row.getTransactedAt())).max().getAsLong());
+
+        long offset = HEADER_LENGTH;
+        for (int column = 0; column < COLUMN_COUNT; column++) {
+            compressed[column] = compress(raw[column]);
+            header.putLong(offset)
+                    .putInt(compressed[column].length)
+                    .putInt(raw[column].length);
+            offset += compressed[column].length;
+        }
+        header.flip();
+
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeFully(channel, header);
+            for (byte[] column : compressed) {
+                writeFully(channel, ByteBuffer.wrap(column));
+            }
+            channel.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE);
+
+        return open(path);
+    }
+
+    /**
+     * [from, to) 구간이 이 세그먼트의 min/max 와 겹치는지
+     */
+    public boolean overlaps(long accountId, LocalDateTime from, LocalDateTime to) {
+        return accountId >= minAccountId && accountId <= maxAccountId
+                && toMicros(from) <= maxTransactedAt && toMicros(to) > minTransactedAt;
+    }
+
+    public List<ArchivedTransaction> find(long accountId, LocalDateTime from, LocalDateTime to) {
+        if (!overlaps(accountId, from, to)) {
+            return Collections.emptyList();
+        }
+
+        long[] accountIds = decodeLongs(column(ACCOUNT_ID));
+        int start = firstIndexOf(accountIds, accountId);
+        if (start == accountIds.length || accountIds[start] != accountId) {
+            return Collections.emptyList();
+        }
+        int end = firstIndexOf(accountIds, accountId + 1);
+
+        long fromMicros = toMicros(from);
+        long toMicros = toMicros(to);
+        long[] transactedAt = decodeLongs(column(TRANSACTED_AT));
+        List<Integer> matches = new ArrayList<>();
+        for (int row = start; row < end; row++) {
+            if (transactedAt[row] >= fromMicros && transactedAt[row] < toMicros) {
+                matches.add(row);
+            }
+        }
+        if (matches.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        long[] ids = decodeLongs(column(ID));
+        long[] amounts = decodeLongs(column(AMOUNT));
+        long[] balanceSnapshots = decodeLongs(column(BALANCE_SNAPSHOT));
+        byte[] transactionTypes = column(TRANSACTION_TYPE);
+        byte[] transactionResultTypes = column(TRANSACTION_RESULT_TYPE);
+        String[] transactionIds = decodeStrings(column(TRANSACTION_ID));
+
+        List<ArchivedTransaction> result = new ArrayList<>(matches.size());
+        for (int row : matches) {
+            result.add(ArchivedTransaction.builder()
+                    .id(ids[row])
+                    .accountId(accountId)
+                    .transactionId(transactionIds[row])
+                    .transactionType(TRANSACTION_TYPES[transactionTypes[row]])
+                    .transactionResultType(TRANSACTION_RESULT_TYPES[transactionResultTypes[row]])
+                    .amount(amounts[row])
+                    .balanceSnapshot(balanceSnapshots[row])
+                    .transactedAt(fromMicros(transactedAt[row]))
+                    .build());
+        }
+        return result;
+    }
+
+    private byte[] column(int column) {
+        ByteBuffer compressed = buffer.duplicate();
+        compressed.position((int) columnOffsets[column]);
+        compressed.limit((int) columnOffsets[column] + compressedLengths[column]);
+
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            byte[] raw = new byte[rawLengths[column]];
+            int read = 0;
+            while (read < raw.length && !inflater.finished()) {
+                int inflated = inflater.inflate(raw, read, raw.length - read);
+                if (inflated == 0 && inflater.needsInput()) {
+                    break;
+                }
+                read += inflated;
+            }
+            if (read != raw.length) {
+                throw new IllegalStateException("Corrupted segment column " + column + " : " + path);
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupted segment column " + column + " : " + path, e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static int firstIndexOf(long[] sorted, long value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static byte[] encodeLongs(List<ArchivedTransaction> rows, ToLongFunction<ArchivedTransaction> getter) {
+        ByteBuffer column = ByteBuffer.allocate(rows.size() * Long.BYTES);
+        long previous = 0;
+        for (ArchivedTransaction row : rows) {
+            long value = getter.applyAsLong(row);
+            column.putLong(value - previous);
+            previous = value;
+        }
+        return column.array();
+    }
+
+    private static long[] decodeLongs(byte[] raw) {
+        ByteBuffer column = ByteBuffer.wrap(raw);
+        long[] values = new long[raw.length / Long.BYTES];
+        long previous = 0;
+        for (int i = 0; i < values.length; i++) {
+            previous += column.getLong();
+            values[i] = previous;
+        }
+        return values;
+    }
+
+    private static byte[] encodeOrdinals(List<ArchivedTransaction> rows, ToLongFunction<ArchivedTransaction> ordinal) {
+        byte[] column = new byte[rows.size()];
+        for (int i = 0; i < column.length; i++) {
+            column[i] = (byte) ordinal.applyAsLong(rows.get(i));
+        }
+        return column;
+    }
+
+    private static byte[] encodeStrings(List<ArchivedTransaction> rows) {
+        ByteArrayOutputStream column = new ByteArrayOutputStream(rows.size() * 34);
+        for (ArchivedTransaction row : rows) {
+            byte[] value = row.getTransactionId().getBytes(StandardCharsets.UTF_8);
+            column.write(value.length >>> 8);
+            column.write(value.length);
+            column.write(value, 0, value.length);
+        }
+        return column.toByteArray();
+    }
+
+    private String[] decodeStrings(byte[] raw) {
+        String[] values = new String[rowCount];
+        int position = 0;
+        for (int i = 0; i < rowCount; i++) {
+            int length = ((raw[position] & 0xFF) << 8) | (raw[position + 1] & 0xFF);
+            values[i] = new String(raw, position + 2, length, StandardCharsets.UTF_8);
+            position += 2 + length;
+        }
+        return values;
+    }
+
+    private static byte[] compress(byte[] raw) {
+        Deflater deflater = new Deflater();
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                int length = deflater.deflate(chunk);
+                out.write(chunk, 0, length);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            channel.write(source);
+        }
+    }
+
+    private static long toMicros(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + dateTime.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(
+                Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000,
+                ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,285 @@
+package com.example.spring_project.binary;
+
+import com.example.spring_project.domain.AccountNumber;
+import com.example.spring_project.domain.TransactionAmount;
+import com.example.spring_project.type.ErrorCode;
+import com.example.spring_project.type.TransactionResultType;
+import com.example.spring_project.type.TransactionType;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * 바이너리 거래 API 의 frame 형식 (big endian)
+ * <pre>
+ * frame    : int32 length (뒤따르는 byte 수) + int32 requestId + body
+ * 요청 body : byte op
+ *            USE    : int64 userId, int64 accountNumber, int64 amount
+ *            CANCEL : string transactionId, int64 accountNumber, int64 amount
+ *            QUERY  : string transactionId
+ * 응답 body : byte status
+ *            OK     : byte transactionType(op 와 같은 값), byte transactionResult('S'/'F'),
+ *                     int64 accountNumber, string transactionId, int64 amount, int64 transactedAt
+ *            ERROR  : string errorCode, string errorMessage
+ * string   : uint16 byte 수 + UTF-8
+ * transactedAt 은 LocalDateTime 을 UTC 로 본 epoch millis 다.
+ * </pre>
+ * 요청 값 검증은 UseBalance / CancelBalance 의 bean validation 과 같은 범위를 직접 확인한다.
+ */
+public final class BinaryTransactionCodec {
+
+    public static final String CONTENT_TYPE = "application/octet-stream";
+    public static final int MAX_FRAME_LENGTH = 1024;
+
+    public static final byte USE = 1;
+    public static final byte CANCEL = 2;
+    public static final byte QUERY = 3;
+
+    private static final byte OK = 0;
+    private static final byte ERROR = 1;
+
+    private static final int MAX_TRANSACTION_ID_LENGTH = 64;
+
+    private BinaryTransactionCodec() {
+    }
+
+    /**
+     * 다음 요청 frame 을 읽는다. 스트림이 끝났으면 null
+     * frame 안의 값이 잘못되었으면 invalid 요청으로 돌려주고 (그 요청만 실패),
+     * frame 길이가 잘못되어 다음 frame 을 찾을 수 없으면 FrameException 을 던진다.
+     */
+    public static Request readRequest(DataInputStream in) throws IOException {
+        byte[] frame = readFrame(in);
+        if (frame == null) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(frame);
+        int requestId = buffer.getInt();
+        if (!buffer.hasRemaining()) {
+            return Request.invalid(requestId, "Missing op");
+        }
+        byte op = buffer.get();
+        try {
+            switch (op) {
+                case USE:
+                    return new Request(requestId, op, userId(buffer.getLong()), null,
+                            accountNumber(buffer.getLong()), amount(buffer.getLong()), null);
+                case CANCEL:
+                    return new Request(requestId, op, null, transactionId(getString(buffer)),
+                            accountNumber(buffer.getLong()), amount(buffer.getLong()), null);
+                case QUERY:
+                    return new Request(requestId, op, null, transactionId(getString(buffer)),
+                            null, null, null);
+                default:
+                    return Request.invalid(requestId, "Unknown op : " + op);
+            }
+        } catch (BufferUnderflowException e) {
+            return Request.invalid(requestId, "Truncated frame");
+        } catch (IllegalArgumentException e) {
+            return Request.invalid(requestId, e.getMessage());
+        }
+    }
+
+    public static void writeResponse(DataOutputStream out, Response response) throws IOException {
+        if (response.getErrorCode() != null) {
+            byte[] errorCode = bytes(response.getErrorCode().name());
+            byte[] errorMessage = bytes(response.getErrorMessage() == null ? "" : response.getErrorMessage());
+            out.writeInt(4 + 1 + 2 + errorCode.length + 2 + errorMessage.length);
+            out.writeInt(response.getRequestId());
+            out.writeByte(ERROR);
+            writeString(out, errorCode);
+            writeString(out, errorMessage);
+            return;
+        }
+        byte[] transactionId = bytes(response.getTransactionId());
+        out.writeInt(4 + 1 + 1 + 1 + 8 + 2 + transactionId.length + 8 + 8);
+        out.writeInt(response.getRequestId());
+        out.writeByte(OK);
+        out.writeByte(response.getTransactionType() == TransactionType.USE ? USE : CANCEL);
+        out.writeByte(response.getTransactionResult().name().charAt(0));
+        out.writeLong(AccountNumber.toLong(response.getAccountNumber()));
+        writeString(out, transactionId);
+        out.writeLong(response.getAmount());
+        out.writeLong(response.getTransactedAt().toInstant(ZoneOffset.UTC).toEpochMilli());
+    }
+
+    /**
+     * 클라이언트(POS 게이트웨이, 테스트)용 요청 인코딩
+     */
+    public static void writeUse(DataOutputStream out, int requestId, long userId, String accountNumber, long amount)
+            throws IOException {
+        out.writeInt(4 + 1 + 8 + 8 + 8);
+        out.writeInt(requestId);
+        out.writeByte(USE);
+        out.writeLong(userId);
+        out.writeLong(AccountNumber.toLong(accountNumber));
+        out.writeLong(amount);
+    }
+
+    public static void writeCancel(DataOutputStream out, int requestId, String transactionId,
+                                   String accountNumber, long amount) throws IOException {
+        byte[] id = bytes(transactionId);
+        out.writeInt(4 + 1 + 2 + id.length + 8 + 8);
+        out.writeInt(requestId);
+        out.writeByte(CANCEL);
+        writeString(out, id);
+        out.writeLong(AccountNumber.toLong(accountNumber));
+        out.writeLong(amount);
+    }
+
+    public static void writeQuery(DataOutputStream out, int requestId, String transactionId) throws IOException {
+        byte[] id = bytes(transactionId);
+        out.writeInt(4 + 1 + 2 + id.length);
+        out.writeInt(requestId);
+        out.writeByte(QUERY);
+        writeString(out, id);
+    }
+
+    /**
+     * 클라이언트(POS 게이트웨이, 테스트)용 응답 디코딩, 스트림이 끝났으면 null
+     */
+    public static Response readResponse(DataInputStream in) throws IOException {
+        byte[] frame = readFrame(in);
+        if (frame == null) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(frame);
+        int requestId = buffer.getInt();
+        if (buffer.get() == ERROR) {
+            return Response.error(requestId, ErrorCode.valueOf(getString(buffer)), getString(buffer));
+        }
+        TransactionType transactionType = buffer.get() == USE ? TransactionType.USE : TransactionType.CANCEL;
+        TransactionResultType transactionResult = TransactionResultType.valueOf(String.valueOf((char) buffer.get()));
+        String accountNumber = AccountNumber.toString(buffer.getLong());
+        String transactionId = getString(buffer);
+        long amount = buffer.getLong();
+        LocalDateTime transactedAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(buffer.getLong()), ZoneOffset.UTC);
+        return Response.of(requestId, transactionType, accountNumber, transactionResult, transactionId,
+                amount, transactedAt);
+    }
+
+    private static byte[] readFrame(DataInputStream in) throws IOException {
+        int length;
+        try {
+            length = in.readInt();
+        } catch (EOFException e) {
+            return null;
+        }
+        if (length < 4 || length > MAX_FRAME_LENGTH) {
+            throw new FrameException("Invalid frame length : " + length);
+        }
+        byte[] frame = new byte[length];
+        in.readFully(frame);
+        return frame;
+    }
+
+    private static long userId(long userId) {
+        if (userId < 1) {
+            throw new IllegalArgumentException("Invalid userId : " + userId);
+        }
+        return userId;
+    }
+
+    private static String accountNumber(long accountNumber) {
+        if (accountNumber < AccountNumber.FIRST || accountNumber > AccountNumber.LAST) {
+            throw new IllegalArgumentException("Invalid accountNumber : " + accountNumber);
+        }
+        return AccountNumber.toString(accountNumber);
+    }
+
+    private static long amount(long amount) {
+        if (amount < TransactionAmount.MIN || amount > TransactionAmount.MAX) {
+            throw new IllegalArgumentException("Invalid amount : " + amount);
+        }
+        return amount;
+    }
+
+    private static String transactionId(String transactionId) {
+        if (transactionId.isBlank() || transactionId.length() > MAX_TRANSACTION_ID_LENGTH) {
+            throw new IllegalArgumentException("Invalid transactionId");
+        }
+        return transactionId;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream out, byte[] value) throws IOException {
+        out.writeShort(value.length);
+        out.write(value);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = Short.toUnsignedInt(buffer.getShort());
+        if (length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    @Getter
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    public static class Request {
+        private final int requestId;
+        private final byte op;
+        private final Long userId;
+        private final String transactionId;
+        private final String accountNumber;
+        private final Long amount;
+        // 값이 잘못된 요청이면 이유, 아니면 null
+        private final String invalidReason;
+
+        private static Request invalid(int requestId, String reason) {
+            return new Request(requestId, (byte) 0, null, null, null, null, reason);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    public static class Response {
+        private final int requestId;
+        private final TransactionType transactionType;
+        private final String accountNumber;
+        private final TransactionResultType transactionResult;
+        private final String transactionId;
+        private final Long amount;
+        private final LocalDateTime transactedAt;
+        // 실패한 요청이면 에러, 아니면 null
+        private final ErrorCode errorCode;
+        private final String errorMessage;
+
+        public static Response of(int requestId, TransactionType transactionType, String accountNumber,
+                                  TransactionResultType transactionResult, String transactionId,
+                                  Long amount, LocalDateTime transactedAt) {
+            return new Response(requestId, transactionType, accountNumber, transactionResult, transactionId,
+                    amount, transactedAt, null, null);
+        }
+
+        public static Response error(int requestId, ErrorCode errorCode, String errorMessage) {
+            return new Response(requestId, null, null, null, null, null, null, errorCode, errorMessage);
+        }
+    }
+
+    /**
+     * frame 경계를 잃어서 더 읽을 수 없는 경우
+     */
+    public static class FrameException extends IOException {
+        public FrameException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.spring_project.config;
+
+import com.example.spring_project.datasource.ShardRoutingDataSource;
+import com.example.spring_project.datasource.ShardSchemaReplicator;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * datasource.sharding.enabled 이면 spring.datasource 를 shard 0 으로,
+ * datasource.sharding.shard-urls 를 shard 1.. 로 만들어 계좌 / 거래를 나눠 저장한다.
+ * replica 라우팅(datasource.routing)과는 같이 쓸 수 없다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.sharding.enabled", havingValue = "true")
+public class DataSourceShardingConfig implements DisposableBean {
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+
+    public DataSourceShardingConfig(@Value("${datasource.routing.enabled:false}") boolean replicaRouting) {
+        if (replicaRouting) {
+            throw new IllegalStateException("datasource.sharding and datasource.routing cannot be enabled together");
+        }
+    }
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties properties,
+                                 @Value("${datasource.sharding.shard-urls}") String[] shardUrls,
+                                 @Value("${datasource.sharding.shard-pool-size:10}") int shardPoolSize) {
+        HikariDataSource home = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        home.setPoolName("shard-0");
+        pools.add(home);
+
+        for (int i = 0; i < shardUrls.length; i++) {
+            HikariDataSource shard = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(properties.determineDriverClassName())
+                    .url(shardUrls[i].trim())
+                    .username(properties.determineUsername())
+                    .password(properties.determinePassword())
+                    .build();
+            shard.setPoolName("shard-" + (i + 1));
+            shard.setMaximumPoolSize(shardPoolSize);
+            pools.add(shard);
+        }
+
+        ShardRoutingDataSource routingDataSource = new ShardRoutingDataSource(new ArrayList<>(pools));
+        routingDataSource.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    /**
+     * 로컬(H2)에서는 ddl-auto 가 shard 0 에만 스키마를 만드므로 나머지 shard 에 복사한다.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "datasource.sharding.replicate-schema", havingValue = "true", matchIfMissing = true)
+    public ShardSchemaReplicator shardSchemaReplicator() {
+        return new ShardSchemaReplicator(pools);
+    }
+
+    @Override
+    public void destroy() {
+        pools.forEach(HikariDataSource::close);
+    }
+}
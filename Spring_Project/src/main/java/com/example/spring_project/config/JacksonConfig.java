@@ -0,0 +1,19 @@
+package com.example.spring_project.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Jackson 이 getter / setter 를 reflection 대신 미리 생성한 람다로 호출하도록 한다.
+ * (Module 빈은 Spring Boot 가 ObjectMapper 에 자동으로 등록한다.)
+ */
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
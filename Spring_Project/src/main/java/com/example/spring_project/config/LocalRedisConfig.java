@@ -7,6 +7,7 @@ import redis.embedded.RedisServer;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
+import java.util.concurrent.CompletableFuture;
 
 @Configuration
 public class LocalRedisConfig {
@@ -15,17 +16,37 @@ public class LocalRedisConfig {
     @Value("${spring.redis.port}")
     private int radisPort;
 
+    // true 이면 별도 스레드에서 띄우고 나머지 빈(JPA 등) 초기화를 계속한다.
+    @Value("${startup.async-redis:false}")
+    private boolean async;
+
     private RedisServer redisServer;
+    private CompletableFuture<Void> started;
 
     @PostConstruct
     public void startRedis() {
         redisServer = new RedisServer(radisPort);
-        redisServer.start();
+        if (async) {
+            started = CompletableFuture.runAsync(redisServer::start,
+                    runnable -> new Thread(runnable, "embedded-redis-start").start());
+        } else {
+            redisServer.start();
+            started = CompletableFuture.completedFuture(null);
+        }
+    }
+
+    /**
+     * embedded redis 가 떠 있으면 완료되는 future
+     */
+    public CompletableFuture<Void> started() {
+        return started;
     }
 
     @PreDestroy
     public void stopRedis() {
         if(redisServer != null) {
+            // 띄우는 중이면 다 뜬 다음에 내린다.
+            started.exceptionally(e -> null).join();
             redisServer.stop();
         }
     }
@@ -7,6 +7,9 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import javax.annotation.PostConstruct;
+import java.util.concurrent.CompletableFuture;
+
 @Configuration
 public class RedisRepositoryConfig {
 
@@ -16,8 +19,39 @@ public class RedisRepositoryConfig {
     @Value("${spring.redis.port}")
     private int redisPort;
 
+    @Value("${startup.async-redis:false}")
+    private boolean async;
+
+    private final LocalRedisConfig localRedisConfig;
+
+    private CompletableFuture<RedissonClient> connecting;
+
+    public RedisRepositoryConfig(LocalRedisConfig localRedisConfig) {
+        this.localRedisConfig = localRedisConfig;
+    }
+
+    /**
+     * async 이면 embedded redis 가 뜨는 대로 백그라운드에서 연결해 두고,
+     * RedissonClient 빈은 처음 필요할 때 그 결과를 기다린다.
+     */
+    @PostConstruct
+    public void connect() {
+        if (async) {
+            connecting = localRedisConfig.started().thenApplyAsync(started -> createClient(),
+                    runnable -> new Thread(runnable, "redisson-connect").start());
+        }
+    }
+
     @Bean
     public RedissonClient redissonClient() {
+        if (connecting != null) {
+            return connecting.join();
+        }
+        localRedisConfig.started().join();
+        return createClient();
+    }
+
+    private RedissonClient createClient() {
         Config config = new Config();
         config.useSingleServer().setAddress("redis://" + redisHost + ":" + redisPort);
         return Redisson.create(config);
@@ -0,0 +1,78 @@
+package com.example.spring_project.config;
+
+import com.example.spring_project.controller.TransactionController;
+import com.example.spring_project.datasource.ShardRoutingAspect;
+import com.example.spring_project.datasource.ShardSchemaReplicator;
+import com.example.spring_project.service.LockAdmissionController;
+import com.example.spring_project.service.LockAopAspect;
+import com.example.spring_project.service.LockService;
+import com.example.spring_project.service.RateLimitAspect;
+import com.example.spring_project.service.RateLimitService;
+import com.example.spring_project.service.TransactionService;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.annotation.Schedules;
+import org.springframework.util.ClassUtils;
+
+/**
+ * 빠른 시작 모드(application-fast.yml) 설정
+ */
+@Configuration
+public class StartupConfig {
+
+    /**
+     * lazy-initialization 이어도 첫 잔액 사용 요청(/transaction/use) 경로의 빈과
+     * 백그라운드에서 시작해야 하는 빈(embedded redis, Redisson, EntityManagerFactory)은 시작할 때 만든다.
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter hotPathLazyInitializationExcludeFilter() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                LocalRedisConfig.class,
+                RedisRepositoryConfig.class,
+                AbstractEntityManagerFactoryBean.class,
+                TransactionController.class,
+                TransactionService.class,
+                LockAopAspect.class,
+                LockService.class,
+                LockAdmissionController.class,
+                RateLimitAspect.class,
+                RateLimitService.class,
+                ShardRoutingAspect.class,
+                ShardSchemaReplicator.class);
+    }
+
+    /**
+     * lazy 인 빈은 처음 쓰일 때까지 만들어지지 않아 @Scheduled 작업(outbox 발행, 승인 만료, 대사, 보관 등)이
+     * 등록되지 않으므로, @Scheduled 메서드가 있는 빈은 모두 시작할 때 만든다.
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter scheduledLazyInitializationExcludeFilter() {
+        return (beanName, beanDefinition, beanType) -> beanType != null && hasScheduledMethod(beanType);
+    }
+
+    private static boolean hasScheduledMethod(Class<?> beanType) {
+        return !MethodIntrospector.selectMethods(ClassUtils.getUserClass(beanType),
+                (MethodIntrospector.MetadataLookup<Boolean>) method ->
+                        AnnotatedElementUtils.hasAnnotation(method, Scheduled.class)
+                                || AnnotatedElementUtils.hasAnnotation(method, Schedules.class) ? Boolean.TRUE : null)
+                .isEmpty();
+    }
+
+    /**
+     * 시작이 끝나면 바로 종료한다. (CDS 클래스 목록 생성용, ./gradlew cdsArchive)
+     */
+    @Bean
+    @ConditionalOnProperty(name = "startup.exit-on-ready", havingValue = "true")
+    public ApplicationListener<ApplicationReadyEvent> exitOnReady() {
+        return event -> System.exit(SpringApplication.exit(event.getApplicationContext()));
+    }
+}
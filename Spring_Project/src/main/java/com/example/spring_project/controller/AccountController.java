@@ -1,14 +1,18 @@
 package com.example.spring_project.controller;
 
 import com.example.spring_project.domain.Account;
+import com.example.spring_project.dto.AccountBalanceAt;
 import com.example.spring_project.dto.AccountInfo;
 import com.example.spring_project.dto.CreateAccount;
 import com.example.spring_project.dto.DeleteAccount;
+import com.example.spring_project.service.AccountNumberAllocator;
 import com.example.spring_project.service.AccountService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -17,13 +21,24 @@ import java.util.stream.Collectors;
 public class AccountController {
 
     private final AccountService accountService;
+    private final AccountNumberAllocator accountNumberAllocator;
 
 
     @PostMapping("/account")
     public CreateAccount.Response createAccount(@RequestBody @Valid CreateAccount.Request request){
 
 
-        return CreateAccount.Response.from(accountService.createAccount(request.getUserId(),request.getInitialBalance()));
+        return CreateAccount.Response.from(accountNumberAllocator.retryOnDuplicate(() ->
+                accountService.createAccount(request.getUserId(),request.getInitialBalance())));
+
+    }
+
+    @PostMapping("/account/bulk")
+    public CreateAccount.BulkResponse createAccounts(@RequestBody @Valid CreateAccount.BulkRequest request){
+
+
+        return CreateAccount.BulkResponse.from(accountNumberAllocator.retryOnDuplicate(() ->
+                accountService.createAccounts(request.getAccounts())));
 
     }
 
@@ -55,4 +70,12 @@ public class AccountController {
         return accountService.getAccount(id);
     }
 
+    @GetMapping("/account/{accountNumber}/balance")
+    public AccountBalanceAt getBalanceAt(
+            @PathVariable String accountNumber,
+            @RequestParam("at") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+
+        return accountService.getBalanceAt(accountNumber, at);
+    }
+
 }
@@ -0,0 +1,103 @@
+package com.example.spring_project.controller;
+
+import com.example.spring_project.binary.BinaryTransactionCodec;
+import com.example.spring_project.binary.BinaryTransactionCodec.Request;
+import com.example.spring_project.binary.BinaryTransactionCodec.Response;
+import com.example.spring_project.dto.CancelBalance;
+import com.example.spring_project.dto.QueryTransactionResponse;
+import com.example.spring_project.dto.UseBalance;
+import com.example.spring_project.exception.AccountException;
+import com.example.spring_project.exception.ErrorRecorder;
+import com.example.spring_project.type.ErrorCode;
+import com.example.spring_project.type.TransactionType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * POS 게이트웨이용 바이너리 거래 API (frame 형식은 BinaryTransactionCodec)
+ * 요청 body 하나에 잔액 사용 / 취소 / 거래 확인 frame 을 이어서 보내면 차례로 처리하고,
+ * 응답 frame 을 같은 순서로 바로바로 내려준다. (JSON 파싱과 bean validation 을 거치지 않는다.)
+ * 요청 하나하나는 TransactionController 를 그대로 거치므로 요청 수 제한, 계좌 lock, 실패 거래 기록이 JSON API 와 같다.
+ * 예외는 frame 마다 여기서 응답으로 바꾸므로 GlobalExceptionHandler 와 같은 ErrorRecorder 로 센다.
+ */
+@RestController
+@Slf4j
+@RequiredArgsConstructor
+public class BinaryTransactionController {
+
+    private final TransactionController transactionController;
+    private final ErrorRecorder errorRecorder;
+
+    @PostMapping(value = "/transaction/binary", consumes = BinaryTransactionCodec.CONTENT_TYPE)
+    public void handle(InputStream body, HttpServletResponse response) throws IOException {
+        response.setContentType(BinaryTransactionCodec.CONTENT_TYPE);
+        DataInputStream in = new DataInputStream(new BufferedInputStream(body));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(response.getOutputStream()));
+
+        try {
+            Request request;
+            while ((request = BinaryTransactionCodec.readRequest(in)) != null) {
+                BinaryTransactionCodec.writeResponse(out, handle(request));
+                // 이어서 읽을 요청이 아직 도착하지 않았으면 지금까지의 응답을 먼저 보낸다.
+                if (in.available() == 0) {
+                    out.flush();
+                }
+            }
+        } catch (BinaryTransactionCodec.FrameException e) {
+            log.warn("Invalid binary frame : {}", e.getMessage());
+            errorRecorder.record(ErrorCode.INVALID_ID_REQUEST);
+            BinaryTransactionCodec.writeResponse(out,
+                    Response.error(0, ErrorCode.INVALID_ID_REQUEST, e.getMessage()));
+        }
+        out.flush();
+    }
+
+    private Response handle(Request request) {
+        if (request.getInvalidReason() != null) {
+            errorRecorder.record(ErrorCode.INVALID_ID_REQUEST);
+            return Response.error(request.getRequestId(), ErrorCode.INVALID_ID_REQUEST, request.getInvalidReason());
+        }
+        try {
+            switch (request.getOp()) {
+                case BinaryTransactionCodec.USE:
+                    UseBalance.Response used = transactionController.useBalance(new UseBalance.Request(
+                            request.getUserId(), request.getAccountNumber(), request.getAmount()));
+                    return Response.of(request.getRequestId(), TransactionType.USE, used.getAccountNumber(),
+                            used.getTransactionResult(), used.getTransactionId(), used.getAmount(), used.getTransactedAt());
+                case BinaryTransactionCodec.CANCEL:
+                    CancelBalance.Response canceled = transactionController.cancelBalance(new CancelBalance.Request(
+                            request.getTransactionId(), request.getAccountNumber(), request.getAmount()));
+                    return Response.of(request.getRequestId(), TransactionType.CANCEL, canceled.getAccountNumber(),
+                            canceled.getTransactionResult(), canceled.getTransactionId(), canceled.getAmount(),
+                            canceled.getTransactedAt());
+                default:
+                    QueryTransactionResponse queried = transactionController.queryTransaction(request.getTransactionId());
+                    return Response.of(request.getRequestId(), queried.getTransactionType(), queried.getAccountNumber(),
+                            queried.getTransactionResult(), queried.getTransactionId(), queried.getAmount(),
+                            queried.getTransactedAt());
+            }
+        } catch (AccountException e) {
+            errorRecorder.record(e.getErrorCode());
+            return Response.error(request.getRequestId(), e.getErrorCode(), e.getErrorMessage());
+        } catch (DataIntegrityViolationException e) {
+            errorRecorder.record(ErrorCode.INVALID_ID_REQUEST, e);
+            return Response.error(request.getRequestId(), ErrorCode.INVALID_ID_REQUEST,
+                    ErrorCode.INVALID_ID_REQUEST.getDescription());
+        } catch (RuntimeException e) {
+            errorRecorder.record(ErrorCode.INTERNAL_SERVER_ERROR, e);
+            return Response.error(request.getRequestId(), ErrorCode.INTERNAL_SERVER_ERROR,
+                    ErrorCode.INTERNAL_SERVER_ERROR.getDescription());
+        }
+    }
+}
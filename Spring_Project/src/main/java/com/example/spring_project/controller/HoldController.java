@@ -0,0 +1,54 @@
+package com.example.spring_project.controller;
+
+import com.example.spring_project.aop.AccountLock;
+import com.example.spring_project.dto.BalanceHoldDto;
+import com.example.spring_project.dto.CompleteHold;
+import com.example.spring_project.dto.HoldBalance;
+import com.example.spring_project.service.HoldExpiryScheduler;
+import com.example.spring_project.service.HoldService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.validation.Valid;
+
+/**
+ * 승인 관련 컨트롤러
+ * 1. 승인 (금액 잡아두기)
+ * 2. 승인 매입
+ * 3. 승인 해제
+ */
+@RestController
+@Slf4j
+@RequiredArgsConstructor
+public class HoldController {
+
+    private final HoldService holdService;
+    private final HoldExpiryScheduler holdExpiryScheduler;
+
+    @AccountLock
+    @PostMapping("/transaction/hold")
+    public HoldBalance.Response holdBalance(@Valid @RequestBody HoldBalance.Request request) {
+
+        BalanceHoldDto hold = holdService.hold(request.getUserId(), request.getAccountNumber(), request.getAmount());
+        holdExpiryScheduler.schedule(hold.getHoldId(), hold.getAccountNumber(), hold.getExpiresAt());
+
+        return HoldBalance.Response.from(hold);
+    }
+
+    @AccountLock
+    @PostMapping("/transaction/hold/capture")
+    public CompleteHold.Response captureHold(@Valid @RequestBody CompleteHold.Request request) {
+
+        return CompleteHold.Response.from(holdService.capture(request.getHoldId(), request.getAccountNumber()));
+    }
+
+    @AccountLock
+    @PostMapping("/transaction/hold/release")
+    public CompleteHold.Response releaseHold(@Valid @RequestBody CompleteHold.Request request) {
+
+        return CompleteHold.Response.from(holdService.release(request.getHoldId(), request.getAccountNumber()));
+    }
+}
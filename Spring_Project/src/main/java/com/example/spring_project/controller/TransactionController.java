@@ -1,23 +1,30 @@
 package com.example.spring_project.controller;
 
 import com.example.spring_project.aop.AccountLock;
+import com.example.spring_project.archive.TransactionArchiveService;
 import com.example.spring_project.dto.CancelBalance;
 import com.example.spring_project.dto.QueryTransactionResponse;
 import com.example.spring_project.dto.TransactionDto;
 import com.example.spring_project.dto.UseBalance;
 import com.example.spring_project.exception.AccountException;
 import com.example.spring_project.service.TransactionService;
+import com.example.spring_project.type.ErrorCode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * 잔액 관련 컨트롤러
  * 1. 잔액 사용
  * 2. 잔액 사용 취소
  * 3. 거래 확인
+ * 4. 아카이브된 거래 조회
  */
 @RestController
 @Slf4j
@@ -25,21 +32,23 @@ import javax.validation.Valid;
 public class TransactionController {
 
     private final TransactionService transactionService;
+    private final TransactionArchiveService transactionArchiveService;
 
-    @AccountLock
+    @AccountLock(mutationOnly = true)
     @PostMapping("/transaction/use")
-    public UseBalance.Response useBalance(@Valid @RequestBody UseBalance.Request request) throws InterruptedException {
+    public UseBalance.Response useBalance(@Valid @RequestBody UseBalance.Request request) {
 
         try {
-            Thread.sleep(3000L);
             return UseBalance.Response.from(transactionService.useBalance(request.getUserId(),request.getAccountNumber(),request.getAmount()));
         }catch (AccountException e) {
             log.error("Failed to use balance.");
 
-            transactionService.saveFailedUseTransaction(
-                    request.getAccountNumber(),
-                    request.getAmount()
-            );
+            if (!isLockFailure(e)) {
+                transactionService.saveFailedUseTransaction(
+                        request.getAccountNumber(),
+                        request.getAmount()
+                );
+            }
 
             throw e;
         }
@@ -47,7 +56,7 @@ public class TransactionController {
 
     }
 
-    @AccountLock
+    @AccountLock(mutationOnly = true)
     @PostMapping("/transaction/cancel")
     public CancelBalance.Response cancelBalance(@Valid @RequestBody CancelBalance.Request request) {
 
@@ -56,10 +65,12 @@ public class TransactionController {
         }catch (AccountException e) {
             log.error("Failed to use balance.");
 
-            transactionService.saveFailedCancelTransaction(
-                    request.getAccountNumber(),
-                    request.getAmount()
-            );
+            if (!isLockFailure(e)) {
+                transactionService.saveFailedCancelTransaction(
+                        request.getAccountNumber(),
+                        request.getAmount()
+                );
+            }
 
             throw e;
         }
@@ -67,10 +78,29 @@ public class TransactionController {
 
     }
 
+    /**
+     * lock 을 잡지 못한 요청은 lock 을 메서드 전체에 잡던 때와 같이 실패 거래를 남기지 않는다.
+     */
+    private static boolean isLockFailure(AccountException e) {
+        return e.getErrorCode() == ErrorCode.ACCOUNT_TRANSACTION_LOCK
+                || e.getErrorCode() == ErrorCode.ACCOUNT_TRANSACTION_BUSY;
+    }
+
     @GetMapping("/transaction/{transactionId}")
     public QueryTransactionResponse queryTransaction(@PathVariable String transactionId) {
 
         return QueryTransactionResponse.from(transactionService.queryTransaction(transactionId));
     }
 
+    @GetMapping("/transaction/archive")
+    public List<QueryTransactionResponse> queryArchivedTransactions(
+            @RequestParam String accountNumber,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+
+        return transactionArchiveService.findArchivedTransactions(accountNumber, from, to).stream()
+                .map(QueryTransactionResponse::from)
+                .collect(Collectors.toList());
+    }
+
 }
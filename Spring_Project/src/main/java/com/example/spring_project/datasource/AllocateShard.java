@@ -0,0 +1,15 @@
+package com.example.spring_project.datasource;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 새 계좌를 만드는 메서드, shard 를 돌아가면서 골라 그 shard 에서 실행한다.
+ * (계좌번호는 고른 shard 에 해당하는 번호로 만든다.)
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface AllocateShard {
+}
@@ -0,0 +1,107 @@
+package com.example.spring_project.datasource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 쓰기 직후의 조회는 replica 에 아직 반영되지 않았을 수 있으므로,
+ * 최근(replica-lag-tolerance) 에 바뀐 사용자 / 계좌 / 거래를 조회할 때는 primary 로 보낸다.
+ *
+ * 기록은 이 서버(JVM) 메모리에만 있다. 쓰기와 조회가 다른 서버로 가면 replica 에서 읽을 수 있으므로,
+ * 여러 서버에서 보장하려면 같은 사용자의 요청을 같은 서버로 보내야 한다. (sticky session 등)
+ */
+@Component
+public class ReadYourWrites {
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private final boolean enabled;
+    private final long toleranceNanos;
+    // key -> 쓰기가 commit 된 시각 (nanoTime)
+    private final Map<String, Long> writtenAt = new ConcurrentHashMap<>();
+
+    public ReadYourWrites(@Value("${datasource.routing.enabled:false}") boolean enabled,
+                          @Value("${datasource.routing.replica-lag-tolerance-ms:1000}") long toleranceMillis) {
+        this.enabled = enabled;
+        this.toleranceNanos = TimeUnit.MILLISECONDS.toNanos(toleranceMillis);
+    }
+
+    public static String userKey(Long userId) {
+        return "user:" + userId;
+    }
+
+    public static String accountKey(Long accountId) {
+        return "account:" + accountId;
+    }
+
+    public static String transactionKey(String transactionId) {
+        return "transaction:" + transactionId;
+    }
+
+    /**
+     * 현재 트랜잭션이 commit 되면 keys 를 최근에 바뀐 것으로 기록한다.
+     */
+    public void written(String... keys) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            mark(keys);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                mark(keys);
+            }
+        });
+    }
+
+    /**
+     * key 가 최근에 바뀌었으면 현재 트랜잭션을 primary 에서 읽는다.
+     * 트랜잭션의 첫 조회 전에 호출해야 한다.
+     */
+    public void readAfterWrite(String key) {
+        if (!enabled
+                || !TransactionSynchronizationManager.isSynchronizationActive()
+                || !isRecentlyWritten(key)) {
+            return;
+        }
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                PRIMARY_REQUIRED.remove();
+            }
+        });
+    }
+
+    static boolean isPrimaryRequired() {
+        return PRIMARY_REQUIRED.get() != null;
+    }
+
+    boolean isRecentlyWritten(String key) {
+        Long at = writtenAt.get(key);
+        return at != null && System.nanoTime() - at < toleranceNanos;
+    }
+
+    @Scheduled(fixedDelay = 10_000)
+    public void evictExpired() {
+        long now = System.nanoTime();
+        writtenAt.values().removeIf(at -> now - at >= toleranceNanos);
+    }
+
+    private void mark(String[] keys) {
+        long now = System.nanoTime();
+        for (String key : keys) {
+            writtenAt.put(key, now);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.spring_project.datasource;
+
+/**
+ * 현재 스레드가 사용할 shard
+ * 트랜잭션이 connection 을 가져가기 전에 정해야 하므로 ShardRoutingAspect 가 @Transactional 보다 바깥에서 설정한다.
+ * 설정하지 않으면 기본 shard(0)를 쓴다.
+ */
+public final class ShardContext {
+
+    public static final int HOME = 0;
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static int current() {
+        Integer shard = CURRENT.get();
+        return shard == null ? HOME : shard;
+    }
+
+    /**
+     * 설정되어 있지 않으면 null
+     */
+    static Integer get() {
+        return CURRENT.get();
+    }
+
+    /**
+     * shard 를 바꾸고 이전 값을 돌려준다. (restore 로 되돌린다.)
+     */
+    static Integer set(int shard) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        return previous;
+    }
+
+    static void restore(Integer previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.spring_project.datasource;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 이 파라미터(계좌번호 또는 거래 ID)가 있는 shard 에서 메서드를 실행한다.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ShardKey {
+
+    Type value() default Type.ACCOUNT_NUMBER;
+
+    enum Type {
+        ACCOUNT_NUMBER,
+        TRANSACTION_ID
+    }
+}
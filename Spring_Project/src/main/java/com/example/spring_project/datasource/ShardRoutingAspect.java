@@ -0,0 +1,97 @@
+package com.example.spring_project.datasource;
+
+import com.example.spring_project.domain.AccountNumber;
+import com.example.spring_project.exception.AccountException;
+import com.example.spring_project.type.ErrorCode;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+
+/**
+ * @ShardKey 파라미터 / @AllocateShard 메서드의 shard 를 정해서 ShardContext 에 넣는다.
+ * 트랜잭션이 connection 을 가져가기 전에 정해야 하므로 @Transactional 보다 바깥에서 실행된다.
+ *
+ * 이전 형식(UUID) 거래 ID 는 앞자리가 우연히 월 + shard 처럼 읽힐 수 있으므로,
+ * 거래 ID 로 정한 shard 에서 거래를 못 찾으면 sharding 전 거래가 있는 기본 shard 에서 한 번 더 찾는다.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "datasource.sharding.enabled", havingValue = "true")
+public class ShardRoutingAspect {
+
+    private final Shards shards;
+
+    @Around("execution(* com.example.spring_project..*.*(.., @com.example.spring_project.datasource.ShardKey (*), ..))")
+    public Object aroundShardKey(ProceedingJoinPoint pjp) throws Throwable {
+        Method method = ((MethodSignature) pjp.getSignature()).getMethod();
+        int index = shardKeyIndex(method);
+        ShardKey.Type type = method.getParameters()[index].getAnnotation(ShardKey.class).value();
+        String key = (String) pjp.getArgs()[index];
+        int shard = type == ShardKey.Type.TRANSACTION_ID
+                ? shards.shardOfTransactionId(key)
+                : shardOfAccountNumber(key);
+        try {
+            return proceedIn(pjp, shard);
+        } catch (AccountException e) {
+            if (type != ShardKey.Type.TRANSACTION_ID
+                    || shard == ShardContext.HOME
+                    || e.getErrorCode() != ErrorCode.TRANSACTION_NOT_FOUND
+                    || ShardContext.get() != null) {
+                throw e;
+            }
+            return proceedIn(pjp, ShardContext.HOME);
+        }
+    }
+
+    @Around("@annotation(com.example.spring_project.datasource.AllocateShard)")
+    public Object aroundAllocateShard(ProceedingJoinPoint pjp) throws Throwable {
+        return proceedIn(pjp, shards.allocate());
+    }
+
+    private Object proceedIn(ProceedingJoinPoint pjp, int shard) throws Throwable {
+        Integer current = ShardContext.get();
+        if (current != null && current != shard && TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Cannot switch from shard " + current + " to " + shard
+                    + " inside a transaction : " + pjp.getSignature().toShortString());
+        }
+        Integer previous = ShardContext.set(shard);
+        try {
+            return pjp.proceed();
+        } finally {
+            ShardContext.restore(previous);
+        }
+    }
+
+    private static int shardKeyIndex(Method method) {
+        Annotation[][] parameterAnnotations = method.getParameterAnnotations();
+        for (int i = 0; i < parameterAnnotations.length; i++) {
+            for (Annotation annotation : parameterAnnotations[i]) {
+                if (annotation instanceof ShardKey) {
+                    return i;
+                }
+            }
+        }
+        throw new IllegalStateException("No @ShardKey parameter : " + method);
+    }
+
+    /**
+     * 형식이 맞지 않는 계좌번호는 어느 shard 에도 없으므로 기본 shard 에서 찾다가 없다고 응답하게 둔다.
+     */
+    private int shardOfAccountNumber(String accountNumber) {
+        return AccountNumber.isValid(accountNumber)
+                ? shards.shardOf(accountNumber)
+                : ShardContext.HOME;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.spring_project.datasource;
+
+import com.example.spring_project.domain.TransactionId;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.simple.SimpleJdbcInsert;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 로컬 H2 shard 구성용
+ *
+ * 시작(ddl-auto, data.sql)이 끝나면 shard 0 의 스키마(H2 SCRIPT NODATA)와 사용자를 나머지 shard 에 복사하고,
+ * shard 마다 시퀀스 시작값을 ID_RANGE 간격으로 벌려서 shard 의 시퀀스끼리 같은 값을 내지 않게 한다.
+ * 서버는 시퀀스에서 받아 둔 id 구간(pooled-lo)을 shard 와 상관없이 나눠 쓰므로 id 는 모든 shard 에서 겹치지 않지만,
+ * id 범위로 저장된 shard 를 알 수는 없다. (id 로 찾을 때는 모든 shard 를 읽는다.)
+ * 운영 DB 는 스키마 관리 도구로 shard 마다 같은 스키마를 만들어야 한다.
+ */
+@Slf4j
+public class ShardSchemaReplicator implements SmartInitializingSingleton {
+
+    // 최대 shard 수만큼 벌려도 long 을 넘지 않는다.
+    public static final long ID_RANGE = Long.MAX_VALUE / TransactionId.MAX_SHARDS;
+
+    private static final String USER_TABLE = "ACCOUNT_USER";
+
+    private final List<? extends DataSource> shards;
+
+    public ShardSchemaReplicator(List<? extends DataSource> shards) {
+        this.shards = shards;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        JdbcTemplate home = new JdbcTemplate(shards.get(ShardContext.HOME));
+        List<String> ddl = home.queryForList("SCRIPT NODATA", String.class).stream()
+                .filter(statement -> !statement.startsWith("--") && !statement.startsWith("CREATE USER"))
+                .collect(Collectors.toList());
+        List<String> sequences = home.queryForList(
+                "select sequence_name from information_schema.sequences where sequence_schema = 'PUBLIC'",
+                String.class);
+        List<Map<String, Object>> users = home.queryForList("select * from " + USER_TABLE);
+
+        for (int shard = 1; shard < shards.size(); shard++) {
+            JdbcTemplate target = new JdbcTemplate(shards.get(shard));
+            ddl.forEach(target::execute);
+            for (String sequence : sequences) {
+                target.execute("alter sequence \"" + sequence + "\" restart with " + (shard * ID_RANGE + 1));
+            }
+            SimpleJdbcInsert userInsert = new SimpleJdbcInsert(target).withTableName(USER_TABLE);
+            users.forEach(userInsert::execute);
+        }
+        log.info("Replicated schema ({} statements) and {} users to {} shards", ddl.size(), users.size(), shards.size() - 1);
+    }
+}
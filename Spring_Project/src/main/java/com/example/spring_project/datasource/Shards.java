@@ -0,0 +1,211 @@
+package com.example.spring_project.datasource;
+
+import com.example.spring_project.domain.AccountNumber;
+import com.example.spring_project.domain.TransactionId;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * 계좌 / 거래 shard 구성
+ *
+ * - shard = 계좌번호 % shard 수. 계좌번호는 shard 별로 나머지가 같은 번호를 shard 수 간격으로 할당한다.
+ * - 사용자는 모든 shard 에 복사되어 있고, 활성 계좌 수는 기본 shard(0) 의 값만 쓴다.
+ * - datasource.sharding.enabled 가 아니면 shard 는 하나이고, 모든 메서드가 호출한 스레드 / 트랜잭션에서 그대로 실행된다.
+ */
+@Slf4j
+@Component
+public class Shards {
+
+    private final int count;
+    private final TransactionTemplate readTemplate;
+    private final TransactionTemplate newTransactionTemplate;
+    private final ExecutorService scatterExecutor;
+    private final AtomicInteger nextAllocation = new AtomicInteger();
+
+    @Autowired
+    public Shards(@Value("${datasource.sharding.enabled:false}") boolean enabled,
+                  @Value("${datasource.sharding.shard-urls:}") String[] shardUrls,
+                  ObjectProvider<PlatformTransactionManager> transactionManager) {
+        this(enabled ? 1 + shardUrls.length : 1,
+                enabled ? transactionManager.getObject() : null);
+    }
+
+    private Shards(int count, PlatformTransactionManager transactionManager) {
+        if (count < 1 || count > TransactionId.MAX_SHARDS) {
+            throw new IllegalArgumentException("Shard count must be 1 ~ " + TransactionId.MAX_SHARDS);
+        }
+        this.count = count;
+        if (count == 1) {
+            this.readTemplate = null;
+            this.newTransactionTemplate = null;
+            this.scatterExecutor = null;
+            return;
+        }
+        this.readTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate.setReadOnly(true);
+        this.newTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.newTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        AtomicInteger threads = new AtomicInteger();
+        this.scatterExecutor = Executors.newFixedThreadPool(count, runnable -> {
+            Thread thread = new Thread(runnable, "shard-scatter-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * shard 하나 (sharding 을 끈 경우와 같음, 테스트용)
+     */
+    public static Shards single() {
+        return new Shards(1, null);
+    }
+
+    public static Shards of(int count, PlatformTransactionManager transactionManager) {
+        return new Shards(count, transactionManager);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scatterExecutor != null) {
+            scatterExecutor.shutdownNow();
+        }
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public boolean isSharded() {
+        return count > 1;
+    }
+
+    public int shardOf(String accountNumber) {
+        return (int) Math.floorMod(AccountNumber.toLong(accountNumber), (long) count);
+    }
+
+    /**
+     * shard 가 들어있지 않은 이전 형식 ID 는 sharding 전에 만들어졌으므로 기본 shard 에 있다.
+     * 이전 형식이 우연히 shard 가 들어있는 형식으로 읽히면 ShardRoutingAspect 가 기본 shard 에서 다시 찾는다.
+     */
+    public int shardOfTransactionId(String transactionId) {
+        Integer shard = TransactionId.shardOf(transactionId);
+        return shard == null || shard >= count ? ShardContext.HOME : shard;
+    }
+
+    /**
+     * 새 계좌를 만들 shard (돌아가면서)
+     */
+    public int allocate() {
+        return Math.floorMod(nextAllocation.getAndIncrement(), count);
+    }
+
+    /**
+     * 현재 shard 의 첫 계좌번호
+     */
+    public long firstAccountNumber() {
+        return accountNumberAfter(AccountNumber.FIRST - 1);
+    }
+
+    /**
+     * number 보다 큰 현재 shard 의 계좌번호 중 가장 작은 번호
+     */
+    public long accountNumberAfter(long number) {
+        int shard = ShardContext.current();
+        long next = number + 1;
+        return next + Math.floorMod(shard - next, (long) count);
+    }
+
+    /**
+     * 모든 shard 에서 읽기 전용 트랜잭션으로 동시에 실행하고 결과를 shard 순서대로 모은다.
+     */
+    public <T> List<T> scatter(Supplier<T> query) {
+        if (!isSharded()) {
+            return Collections.singletonList(query.get());
+        }
+        List<CompletableFuture<T>> futures = new ArrayList<>(count);
+        for (int shard = 0; shard < count; shard++) {
+            int target = shard;
+            futures.add(CompletableFuture.supplyAsync(
+                    () -> callIn(target, () -> readTemplate.execute(status -> query.get())), scatterExecutor));
+        }
+        return futures.stream()
+                .map(CompletableFuture::join)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 배치 작업을 shard 마다 차례로 실행한다. (작업 안의 트랜잭션은 각 shard 로 간다.)
+     */
+    public <T> List<T> onEachShard(Supplier<T> job) {
+        if (!isSharded()) {
+            return Collections.singletonList(job.get());
+        }
+        List<T> results = new ArrayList<>(count);
+        for (int shard = 0; shard < count; shard++) {
+            results.add(callIn(shard, job));
+        }
+        return results;
+    }
+
+    /**
+     * 기본 shard 의 사용자 활성 계좌 수를 바꾼다.
+     * sharding 중에는 계좌 shard 의 트랜잭션과 따로 커밋되므로, 계좌 쪽 트랜잭션이 롤백되면 undo 로 되돌린다.
+     */
+    public int onHomeShard(IntSupplier update, Runnable undo) {
+        if (!isSharded()) {
+            return update.getAsInt();
+        }
+        int updated = callIn(ShardContext.HOME, () -> newTransactionTemplate.execute(status -> update.getAsInt()));
+        if (updated > 0 && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        undoOnHomeShard(undo);
+                    }
+                }
+            });
+        }
+        return updated;
+    }
+
+    private void undoOnHomeShard(Runnable undo) {
+        try {
+            callIn(ShardContext.HOME, () -> newTransactionTemplate.execute(status -> {
+                undo.run();
+                return null;
+            }));
+        } catch (RuntimeException e) {
+            log.error("Failed to undo home shard update", e);
+        }
+    }
+
+    <T> T callIn(int shard, Supplier<T> call) {
+        Integer previous = ShardContext.set(shard);
+        try {
+            return call.get();
+        } finally {
+            ShardContext.restore(previous);
+        }
+    }
+}
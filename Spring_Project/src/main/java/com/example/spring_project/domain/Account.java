@@ -4,6 +4,7 @@ import com.example.spring_project.exception.AccountException;
 import com.example.spring_project.type.AccountStatus;
 import com.example.spring_project.type.ErrorCode;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -17,27 +18,53 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Builder
 @Entity
+@Table(indexes = {
+        @Index(name = "ux_account_account_number", columnList = "accountNumber", unique = true)
+})
 @EntityListeners(AuditingEntityListener.class)
 public class Account extends BaseEntity{
 
     @ManyToOne
     private AccountUser accountUser;
+    // DB 에는 BIGINT 로 저장한다. (AccountNumber)
+    @Convert(converter = AccountNumberConverter.class)
     private String accountNumber;
 
     @Enumerated(EnumType.STRING)
     private AccountStatus accountStatus;
     private Long balance;
+    // 승인(hold) 중인 금액 합계, 사용 가능 금액 = balance - heldBalance
+    @ColumnDefault("0")
+    private long heldBalance;
+    // 잔액이 바뀔 때마다 계좌 lock 안에서 1 씩 올린다. (outbox 이벤트의 계좌 별 순번)
+    @ColumnDefault("0")
+    private long balanceVersion;
 
     private LocalDateTime registerAt;
     private LocalDateTime unRegisterAt;
 
+    public long getAvailableBalance() {
+        return balance - heldBalance;
+    }
+
+    public long nextBalanceVersion() {
+        return ++balanceVersion;
+    }
+
     public void useBalance(Long amount) {
-        if(amount > balance) {
+        if(amount > getAvailableBalance()) {
             throw new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
         }
         balance -= amount;
     }
 
+    public void holdBalance(Long amount) {
+        if(amount > getAvailableBalance()) {
+            throw new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
+        }
+        heldBalance += amount;
+    }
+
     public void cancelBalance(Long amount) {
         if(amount < 0) {
             throw new AccountException(ErrorCode.INVALID_ID_REQUEST);
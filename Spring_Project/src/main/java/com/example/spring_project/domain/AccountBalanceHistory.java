@@ -0,0 +1,58 @@
+package com.example.spring_project.domain;
+
+import lombok.*;
+
+import javax.persistence.Convert;
+import javax.persistence.Entity;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+/**
+ * 계좌 잔액 이력
+ * 잔액이 바뀔 때마다(개설, 성공 거래) 바뀐 뒤의 잔액을 남긴다.
+ * 특정 시점 잔액은 (계좌번호, 시각) index 에서 그 시점 이전의 마지막 행 하나만 읽는다.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(indexes = {
+        @Index(name = "ix_account_balance_history_account_number_changed_at", columnList = "accountNumber, changedAt, id"),
+        @Index(name = "ux_account_balance_history_transaction_id", columnList = "transactionId", unique = true)
+})
+public class AccountBalanceHistory extends BaseEntity {
+
+    @Convert(converter = AccountNumberConverter.class)
+    private String accountNumber;
+    private Long balance;
+    private LocalDateTime changedAt;
+    // 잔액을 바꾼 거래 ID, 계좌 개설 행이면 null
+    private String transactionId;
+
+    public static AccountBalanceHistory opening(Account account) {
+        return AccountBalanceHistory.builder()
+                .accountNumber(account.getAccountNumber())
+                .balance(account.getBalance())
+                .changedAt(account.getRegisterAt())
+                .build();
+    }
+
+    public static AccountBalanceHistory from(Transaction transaction) {
+        return from(transaction, transaction.getAccount().getAccountNumber());
+    }
+
+    /**
+     * 계좌를 읽지 않은 경우(승인 매입 등) 계좌번호를 따로 받는다.
+     */
+    public static AccountBalanceHistory from(Transaction transaction, String accountNumber) {
+        return AccountBalanceHistory.builder()
+                .accountNumber(accountNumber)
+                .balance(transaction.getBalanceSnapshot())
+                .changedAt(transaction.getTransactedAt())
+                .transactionId(transaction.getTransactionId())
+                .build();
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.spring_project.domain;
+
+/**
+ * 계좌번호 : 1000000000 부터 시작하는 10자리 숫자
+ * DB 에는 BIGINT(unique) 로 저장하고, 문자열은 API 에서만 쓴다.
+ */
+public final class AccountNumber {
+
+    public static final long FIRST = 1_000_000_000L;
+    public static final long LAST = 9_999_999_999L;
+    public static final String PATTERN = "[1-9][0-9]{9}";
+
+    private static final int LENGTH = 10;
+
+    private AccountNumber() {
+    }
+
+    /**
+     * 10자리 숫자이고 0 으로 시작하지 않으면 true (숫자로 바꿨다가 되돌려도 같은 문자열)
+     */
+    public static boolean isValid(String accountNumber) {
+        if (accountNumber == null || accountNumber.length() != LENGTH || accountNumber.charAt(0) == '0') {
+            return false;
+        }
+        for (int i = 0; i < LENGTH; i++) {
+            char c = accountNumber.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static long toLong(String accountNumber) {
+        if (!isValid(accountNumber)) {
+            throw new IllegalArgumentException("Invalid account number : " + accountNumber);
+        }
+        return Long.parseLong(accountNumber);
+    }
+
+    public static String toString(long accountNumber) {
+        return Long.toString(accountNumber);
+    }
+
+    public static String next(String lastAccountNumber) {
+        return next(lastAccountNumber, 1);
+    }
+
+    /**
+     * step 만큼 건너뛴 다음 계좌번호 (shard 별로 나머지가 같은 번호만 쓸 때)
+     */
+    public static String next(String lastAccountNumber, int step) {
+        long next = toLong(lastAccountNumber) + step;
+        if (next > LAST) {
+            throw new IllegalStateException("Account numbers are exhausted");
+        }
+        return toString(next);
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.spring_project.domain;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+/**
+ * 계좌번호 문자열 <-> BIGINT 컬럼
+ */
+@Converter
+public class AccountNumberConverter implements AttributeConverter<String, Long> {
+
+    @Override
+    public Long convertToDatabaseColumn(String accountNumber) {
+        return accountNumber == null ? null : AccountNumber.toLong(accountNumber);
+    }
+
+    @Override
+    public String convertToEntityAttribute(Long accountNumber) {
+        return accountNumber == null ? null : AccountNumber.toString(accountNumber);
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.spring_project.domain;
+
+import lombok.*;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+/**
+ * shard 별 계좌번호 카운터 (shard DB 마다 행 하나)
+ * lastNumber 는 이 shard 에서 마지막으로 할당한 계좌번호이고, 조건 없는 update 로만 늘린다.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+public class AccountNumberCounter {
+
+    @Id
+    private Long id;
+
+    private long lastNumber;
+}
@@ -1,6 +1,7 @@
 package com.example.spring_project.domain;
 
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -21,4 +22,8 @@ public class AccountUser extends BaseEntity{
 
     private String name;
 
+    // 해지되지 않은 계좌 수, 계좌 생성 / 해지 시 조건부 update 로만 바꾼다.
+    @ColumnDefault("0")
+    private int activeAccountCount;
+
 }
@@ -0,0 +1,61 @@
+package com.example.spring_project.domain;
+
+import com.example.spring_project.type.TransactionType;
+import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+
+import javax.persistence.Convert;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+/**
+ * 잔액 변경 이벤트 outbox
+ * 거래와 같은 DB 트랜잭션에서 insert 하고, OutboxRelay 가 오래 기다린 계좌부터 계좌 별 balanceVersion 순서대로 발행한 뒤 지운다.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(indexes = {
+        @Index(name = "ix_balance_change_outbox_account_version", columnList = "accountNumber, balanceVersion"),
+        @Index(name = "ix_balance_change_outbox_transacted_at", columnList = "transactedAt")
+})
+public class BalanceChangeOutbox extends BaseEntity {
+
+    private String transactionId;
+    @Convert(converter = AccountNumberConverter.class)
+    private String accountNumber;
+    // 계좌 lock 안에서 정한 계좌 별 잔액 변경 순번 (Account.balanceVersion)
+    @ColumnDefault("0")
+    private long balanceVersion;
+    @Enumerated(EnumType.STRING)
+    private TransactionType transactionType;
+    private Long amount;
+    private Long balanceSnapshot;
+    private LocalDateTime transactedAt;
+
+    public static BalanceChangeOutbox from(Transaction transaction, long balanceVersion) {
+        return from(transaction, transaction.getAccount().getAccountNumber(), balanceVersion);
+    }
+
+    /**
+     * 계좌를 읽지 않은 경우(승인 매입 등) 계좌번호를 따로 받는다.
+     */
+    public static BalanceChangeOutbox from(Transaction transaction, String accountNumber, long balanceVersion) {
+        return BalanceChangeOutbox.builder()
+                .transactionId(transaction.getTransactionId())
+                .accountNumber(accountNumber)
+                .balanceVersion(balanceVersion)
+                .transactionType(transaction.getTransactionType())
+                .amount(transaction.getAmount())
+                .balanceSnapshot(transaction.getBalanceSnapshot())
+                .transactedAt(transaction.getTransactedAt())
+                .build();
+    }
+}
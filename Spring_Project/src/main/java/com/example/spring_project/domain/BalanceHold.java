@@ -0,0 +1,49 @@
+package com.example.spring_project.domain;
+
+import com.example.spring_project.type.HoldStatus;
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * 승인(hold) : 금액을 먼저 잡아두고(HELD) 나중에 매입(CAPTURED)하거나 해제(RELEASED / EXPIRED)한다.
+ * 매입 / 해제 때 계좌를 다시 읽지 않도록 계좌 id, 계좌번호, 사용자 id 를 같이 저장한다.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(indexes = {
+        @Index(name = "ux_balance_hold_hold_id", columnList = "holdId", unique = true),
+        @Index(name = "ix_balance_hold_status_expires_at", columnList = "status, expiresAt")
+})
+public class BalanceHold extends BaseEntity {
+
+    private String holdId;
+
+    private Long accountId;
+    @Convert(converter = AccountNumberConverter.class)
+    private String accountNumber;
+    private Long userId;
+    private Long amount;
+
+    @Enumerated(EnumType.STRING)
+    private HoldStatus status;
+    private LocalDateTime heldAt;
+    private LocalDateTime expiresAt;
+    private LocalDateTime completedAt;
+    // 매입된 경우 생성된 거래 ID
+    private String transactionId;
+
+    public static String generateHoldId() {
+        return UUID.randomUUID().toString().replace("-", "");
+    }
+
+    public boolean isExpired(LocalDateTime now) {
+        return !expiresAt.isAfter(now);
+    }
+}
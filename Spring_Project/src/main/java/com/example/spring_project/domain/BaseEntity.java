@@ -1,12 +1,14 @@
 package com.example.spring_project.domain;
 
 import lombok.*;
+import org.hibernate.annotations.GenericGenerator;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import javax.persistence.EntityListeners;
 import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.MappedSuperclass;
 import java.time.LocalDateTime;
@@ -20,7 +22,8 @@ import java.time.LocalDateTime;
 public class BaseEntity {
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = PooledSequenceIdGenerator.NAME)
+    @GenericGenerator(name = PooledSequenceIdGenerator.NAME, strategy = "com.example.spring_project.domain.PooledSequenceIdGenerator")
     private Long id;
 
     @CreatedDate
@@ -1,5 +1,6 @@
 package com.example.spring_project.domain;
 
+import com.example.spring_project.datasource.ShardContext;
 import com.example.spring_project.type.AccountStatus;
 import com.example.spring_project.type.TransactionResultType;
 import com.example.spring_project.type.TransactionType;
@@ -17,6 +18,11 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @Builder
 @Entity
+@Table(indexes = {
+        @Index(name = "ux_transaction_transaction_id", columnList = "transactionId", unique = true),
+        @Index(name = "ux_transaction_original_transaction_id", columnList = "originalTransactionId", unique = true),
+        @Index(name = "ix_transaction_account_transacted_at", columnList = "account_id, transactedAt")
+})
 public class Transaction extends BaseEntity{
 
     @Enumerated(EnumType.STRING)
@@ -31,6 +37,26 @@ public class Transaction extends BaseEntity{
     private Long balanceSnapshot;
     private String transactionId;
     private LocalDateTime transactedAt;
-
+    // 거래 월(yyyyMM), 나중에 월 단위 파티션을 나눌 때의 키 (지금은 조회에 쓰지 않는다.)
+    private Integer partitionMonth;
+    // 성공한 취소 거래가 가리키는 원 거래 ID, 같은 거래를 두 번 취소하면 unique 제약에 걸린다.
+    private String originalTransactionId;
+
+    public static Transaction create(TransactionType transactionType, TransactionResultType transactionResultType,
+                                     Account account, Long amount, Long balanceSnapshot) {
+
+        LocalDateTime transactedAt = LocalDateTime.now();
+
+        return Transaction.builder()
+                .transactionType(transactionType)
+                .transactionResultType(transactionResultType)
+                .account(account)
+                .amount(amount)
+                .balanceSnapshot(balanceSnapshot)
+                .transactionId(TransactionId.generate(transactedAt, ShardContext.current()))
+                .transactedAt(transactedAt)
+                .partitionMonth(TransactionId.partitionMonth(transactedAt))
+                .build();
+    }
 
 }
@@ -0,0 +1,13 @@
+package com.example.spring_project.domain;
+
+/**
+ * 거래 한 건의 금액 범위 (JSON 요청의 bean validation 과 바이너리 frame 검사가 같이 쓴다.)
+ */
+public final class TransactionAmount {
+
+    public static final long MIN = 10;
+    public static final long MAX = 1000_000_000;
+
+    private TransactionAmount() {
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.spring_project.domain;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * 거래 ID : yyyyMM(거래 월 6자리) + shard(hex 2자리) + 랜덤 hex 24자리 = 32자리
+ * ID 만으로 거래가 저장된 월(partitionMonth)과 shard 를 알 수 있어서 조회 시 해당 shard 로 바로 보낸다.
+ * (테이블은 월 단위로 나뉘어 있지 않으므로 shard 안에서는 transactionId unique index 로 찾는다.)
+ */
+public final class TransactionId {
+
+    private static final int MONTH_PREFIX_LENGTH = 6;
+    private static final int SHARD_LENGTH = 2;
+    private static final int LENGTH = 32;
+    public static final int MAX_SHARDS = 256;
+
+    private TransactionId() {
+    }
+
+    public static String generate(LocalDateTime transactedAt) {
+        return generate(transactedAt, 0);
+    }
+
+    public static String generate(LocalDateTime transactedAt, int shard) {
+        if (shard < 0 || shard >= MAX_SHARDS) {
+            throw new IllegalArgumentException("Invalid shard : " + shard);
+        }
+        String random = UUID.randomUUID().toString().replace("-", "");
+        return String.valueOf(partitionMonth(transactedAt))
+                + Character.forDigit(shard >> 4, 16) + Character.forDigit(shard & 0xF, 16)
+                + random.substring(MONTH_PREFIX_LENGTH + SHARD_LENGTH);
+    }
+
+    public static int partitionMonth(LocalDateTime transactedAt) {
+        return transactedAt.getYear() * 100 + transactedAt.getMonthValue();
+    }
+
+    /**
+     * ID 앞자리에서 거래 월을 꺼낸다. 형식이 맞지 않으면(이전 UUID 형식 등) null
+     */
+    public static Integer partitionMonthOf(String transactionId) {
+        if (transactionId == null || transactionId.length() != LENGTH) {
+            return null;
+        }
+        int partitionMonth = 0;
+        for (int i = 0; i < MONTH_PREFIX_LENGTH; i++) {
+            char c = transactionId.charAt(i);
+            if (c < '0' || c > '9') {
+                return null;
+            }
+            partitionMonth = partitionMonth * 10 + (c - '0');
+        }
+        int month = partitionMonth % 100;
+        return month >= 1 && month <= 12 ? partitionMonth : null;
+    }
+
+    /**
+     * ID 에서 shard 를 꺼낸다. 형식이 맞지 않으면(이전 UUID 형식 등) null
+     * 이전 UUID 형식도 앞 6자리가 숫자이고 월이 맞으면 형식이 맞는 것으로 읽히므로, 결과가 틀릴 수 있다.
+     */
+    public static Integer shardOf(String transactionId) {
+        if (partitionMonthOf(transactionId) == null) {
+            return null;
+        }
+        int high = Character.digit(transactionId.charAt(MONTH_PREFIX_LENGTH), 16);
+        int low = Character.digit(transactionId.charAt(MONTH_PREFIX_LENGTH + 1), 16);
+        return high < 0 || low < 0 ? null : (high << 4) | low;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.spring_project.dto;
+
+import com.example.spring_project.domain.AccountBalanceHistory;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 특정 시점의 계좌 잔액
+ */
+@Getter
+@Setter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@NoArgsConstructor
+@Builder
+public class AccountBalanceAt {
+
+    private String accountNumber;
+    private LocalDateTime at;
+    private Long balance;
+    // 이 잔액이 된 시각과 거래 ID (계좌 개설이면 null)
+    private LocalDateTime changedAt;
+    private String transactionId;
+
+    public static AccountBalanceAt fromEntity(AccountBalanceHistory history, LocalDateTime at) {
+        return AccountBalanceAt.builder()
+                .accountNumber(history.getAccountNumber())
+                .at(at)
+                .balance(history.getBalance())
+                .changedAt(history.getChangedAt())
+                .transactionId(history.getTransactionId())
+                .build();
+    }
+}
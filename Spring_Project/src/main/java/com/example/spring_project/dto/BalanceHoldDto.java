@@ -0,0 +1,36 @@
+package com.example.spring_project.dto;
+
+import com.example.spring_project.domain.BalanceHold;
+import com.example.spring_project.type.HoldStatus;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BalanceHoldDto {
+
+    private String holdId;
+    private String accountNumber;
+    private Long amount;
+    private HoldStatus status;
+    private LocalDateTime heldAt;
+    private LocalDateTime expiresAt;
+    private LocalDateTime completedAt;
+    private String transactionId;
+
+    public static BalanceHoldDto fromEntity(BalanceHold hold) {
+        return new BalanceHoldDto(
+                hold.getHoldId(),
+                hold.getAccountNumber(),
+                hold.getAmount(),
+                hold.getStatus(),
+                hold.getHeldAt(),
+                hold.getExpiresAt(),
+                hold.getCompletedAt(),
+                hold.getTransactionId());
+    }
+}
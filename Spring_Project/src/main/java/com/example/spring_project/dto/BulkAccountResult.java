@@ -0,0 +1,29 @@
+package com.example.spring_project.dto;
+
+import com.example.spring_project.type.ErrorCode;
+import lombok.*;
+
+/**
+ * 일괄 계좌 생성의 요청 한 건에 대한 결과 (성공이면 account, 실패면 errorCode)
+ */
+@Getter
+@AllArgsConstructor
+@Builder
+public class BulkAccountResult {
+
+    private Long userId;
+    private AccountDto account;
+    private ErrorCode errorCode;
+
+    public static BulkAccountResult success(AccountDto account) {
+        return new BulkAccountResult(account.getUserId(), account, null);
+    }
+
+    public static BulkAccountResult fail(Long userId, ErrorCode errorCode) {
+        return new BulkAccountResult(userId, null, errorCode);
+    }
+
+    public boolean isSuccess() {
+        return errorCode == null;
+    }
+}
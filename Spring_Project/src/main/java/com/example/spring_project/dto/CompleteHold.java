@@ -0,0 +1,57 @@
+package com.example.spring_project.dto;
+
+import com.example.spring_project.aop.AccountLockIdInterface;
+import com.example.spring_project.domain.AccountNumber;
+import com.example.spring_project.type.HoldStatus;
+import lombok.*;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Size;
+import java.time.LocalDateTime;
+
+/**
+ * 승인 매입 / 해제
+ */
+public class CompleteHold {
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Request implements AccountLockIdInterface {
+        @NotBlank
+        private String holdId;
+
+        @NotBlank
+        @Size(min = 10, max = 10)
+        @Pattern(regexp = AccountNumber.PATTERN)
+        private String accountNumber;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Response {
+
+        private String holdId;
+        private String accountNumber;
+        private Long amount;
+        private HoldStatus status;
+        // 매입이면 생성된 거래 ID, 해제면 null
+        private String transactionId;
+        private LocalDateTime completedAt;
+
+        public static Response from(BalanceHoldDto holdDto) {
+            return new Response(
+                    holdDto.getHoldId(),
+                    holdDto.getAccountNumber(),
+                    holdDto.getAmount(),
+                    holdDto.getStatus(),
+                    holdDto.getTransactionId(),
+                    holdDto.getCompletedAt());
+        }
+    }
+}
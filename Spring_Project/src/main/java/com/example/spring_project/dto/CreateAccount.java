@@ -1,10 +1,17 @@
 package com.example.spring_project.dto;
 
+import com.example.spring_project.type.ErrorCode;
 import lombok.*;
 
+import javax.validation.Valid;
 import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 public class CreateAccount {
 
@@ -42,4 +49,72 @@ public class CreateAccount {
 
     }
 
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BulkRequest {
+        @NotEmpty
+        @Size(max = 1000)
+        private List<@Valid @NotNull Request> accounts;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class BulkResponse {
+
+        private int succeeded;
+        private int failed;
+        private List<BulkItem> results;
+
+        public static BulkResponse from(List<BulkAccountResult> results) {
+            List<BulkItem> items = IntStream.range(0, results.size())
+                    .mapToObj(index -> BulkItem.from(index, results.get(index)))
+                    .collect(Collectors.toList());
+            int succeeded = (int) results.stream().filter(BulkAccountResult::isSuccess).count();
+
+            return BulkResponse.builder()
+                    .succeeded(succeeded)
+                    .failed(results.size() - succeeded)
+                    .results(items)
+                    .build();
+        }
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class BulkItem {
+
+        // 요청 목록에서의 위치
+        private int index;
+        private Long userId;
+        private String accountNumber;
+        private LocalDateTime registerAt;
+        private ErrorCode errorCode;
+        private String errorMessage;
+
+        public static BulkItem from(int index, BulkAccountResult result) {
+            if (!result.isSuccess()) {
+                return BulkItem.builder()
+                        .index(index)
+                        .userId(result.getUserId())
+                        .errorCode(result.getErrorCode())
+                        .errorMessage(result.getErrorCode().getDescription())
+                        .build();
+            }
+            return BulkItem.builder()
+                    .index(index)
+                    .userId(result.getUserId())
+                    .accountNumber(result.getAccount().getAccountNumber())
+                    .registerAt(result.getAccount().getRegisterAt())
+                    .build();
+        }
+    }
+
 }
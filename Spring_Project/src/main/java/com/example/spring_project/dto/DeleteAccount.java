@@ -1,10 +1,12 @@
 package com.example.spring_project.dto;
 
+import com.example.spring_project.domain.AccountNumber;
 import lombok.*;
 
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
 import javax.validation.constraints.Size;
 import java.time.LocalDateTime;
 
@@ -20,6 +22,7 @@ public class DeleteAccount {
 
         @NotBlank
         @Size(min = 10 , max = 10)
+        @Pattern(regexp = AccountNumber.PATTERN)
         private String accountNumber;
     }
 
@@ -3,14 +3,39 @@ package com.example.spring_project.dto;
 import com.example.spring_project.type.ErrorCode;
 import lombok.*;
 
-@Setter
+import java.util.EnumMap;
+import java.util.Map;
+
 @Getter
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
 public class ErrorResponse {
 
+    private static final Map<ErrorCode, ErrorResponse> CACHED = new EnumMap<>(ErrorCode.class);
+
+    static {
+        for (ErrorCode errorCode : ErrorCode.values()) {
+            CACHED.put(errorCode, new ErrorResponse(errorCode, errorCode.getDescription()));
+        }
+    }
+
     private ErrorCode errorCode;
     private String errorMessage;
 
+    /**
+     * 기본 메시지면 미리 만들어 둔 응답을 재사용한다. (공유 객체라 setter 가 없다.)
+     */
+    public static ErrorResponse of(ErrorCode errorCode, String errorMessage) {
+        ErrorResponse cached = CACHED.get(errorCode);
+        if (cached.getErrorMessage().equals(errorMessage)) {
+            return cached;
+        }
+        return new ErrorResponse(errorCode, errorMessage);
+    }
+
+    public static ErrorResponse of(ErrorCode errorCode) {
+        return CACHED.get(errorCode);
+    }
+
 }
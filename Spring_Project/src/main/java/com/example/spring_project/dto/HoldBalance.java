@@ -0,0 +1,56 @@
+package com.example.spring_project.dto;
+
+import com.example.spring_project.aop.AccountLockIdInterface;
+import com.example.spring_project.domain.AccountNumber;
+import com.example.spring_project.domain.TransactionAmount;
+import com.example.spring_project.type.HoldStatus;
+import lombok.*;
+
+import javax.validation.constraints.*;
+import java.time.LocalDateTime;
+
+public class HoldBalance {
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Request implements AccountLockIdInterface {
+        @NotNull
+        @Min(1)
+        private Long userId;
+
+        @NotBlank
+        @Size(min = 10, max = 10)
+        @Pattern(regexp = AccountNumber.PATTERN)
+        private String accountNumber;
+
+        @NotNull
+        @Min(TransactionAmount.MIN)
+        @Max(TransactionAmount.MAX)
+        private Long amount;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Response {
+
+        private String holdId;
+        private String accountNumber;
+        private Long amount;
+        private HoldStatus status;
+        private LocalDateTime expiresAt;
+
+        public static Response from(BalanceHoldDto holdDto) {
+            return new Response(
+                    holdDto.getHoldId(),
+                    holdDto.getAccountNumber(),
+                    holdDto.getAmount(),
+                    holdDto.getStatus(),
+                    holdDto.getExpiresAt());
+        }
+    }
+}
@@ -9,7 +9,7 @@ import java.time.LocalDateTime;
 @Getter
 @Setter
 @NoArgsConstructor
-@AllArgsConstructor
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
 @Builder
 public class QueryTransactionResponse {
 
@@ -22,14 +22,16 @@ public class QueryTransactionResponse {
 
 
     public static QueryTransactionResponse from(TransactionDto transactionDto) {
-        return QueryTransactionResponse.builder()
-                .accountNumber(transactionDto.getAccountNumber())
-                .transactionType(transactionDto.getTransactionType())
-                .transactionResult(transactionDto.getTransactionResultType())
-                .transactionId(transactionDto.getTransactionId())
-                .amount(transactionDto.getAmount())
-                .transactedAt(transactionDto.getTransactedAt())
-                .build();
+        return new QueryTransactionResponse(transactionDto);
+    }
+
+    private QueryTransactionResponse(TransactionDto transactionDto) {
+        this.accountNumber = transactionDto.getAccountNumber();
+        this.transactionType = transactionDto.getTransactionType();
+        this.transactionResult = transactionDto.getTransactionResultType();
+        this.transactionId = transactionDto.getTransactionId();
+        this.amount = transactionDto.getAmount();
+        this.transactedAt = transactionDto.getTransactedAt();
     }
 
 }
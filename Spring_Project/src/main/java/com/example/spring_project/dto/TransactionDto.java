@@ -1,5 +1,6 @@
 package com.example.spring_project.dto;
 
+import com.example.spring_project.archive.ArchivedTransaction;
 import com.example.spring_project.domain.Account;
 import com.example.spring_project.domain.Transaction;
 import com.example.spring_project.type.TransactionResultType;
@@ -14,7 +15,7 @@ import java.time.LocalDateTime;
 @Setter
 @Getter
 @NoArgsConstructor
-@AllArgsConstructor
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
 @Builder
 public class TransactionDto {
 
@@ -26,10 +27,27 @@ public class TransactionDto {
     private String transactionId;
     private LocalDateTime transactedAt;
 
+    // 요청마다 호출되므로 builder 없이 바로 생성한다. (생성자 안에서 필드 이름으로 옮긴다.)
     public static TransactionDto fromEntity(Transaction transaction) {
 
+        return new TransactionDto(transaction);
+
+    }
+
+    private TransactionDto(Transaction transaction) {
+        this.accountNumber = transaction.getAccount().getAccountNumber();
+        this.transactionType = transaction.getTransactionType();
+        this.transactionResultType = transaction.getTransactionResultType();
+        this.amount = transaction.getAmount();
+        this.balanceSnapshot = transaction.getBalanceSnapshot();
+        this.transactionId = transaction.getTransactionId();
+        this.transactedAt = transaction.getTransactedAt();
+    }
+
+    public static TransactionDto fromArchived(String accountNumber, ArchivedTransaction transaction) {
+
         return TransactionDto.builder()
-                .accountNumber(transaction.getAccount().getAccountNumber())
+                .accountNumber(accountNumber)
                 .transactionType(transaction.getTransactionType())
                 .transactionResultType(transaction.getTransactionResultType())
                 .amount(transaction.getAmount())
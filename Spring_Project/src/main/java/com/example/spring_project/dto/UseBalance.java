@@ -1,6 +1,8 @@
 package com.example.spring_project.dto;
 
 import com.example.spring_project.aop.AccountLockIdInterface;
+import com.example.spring_project.domain.AccountNumber;
+import com.example.spring_project.domain.TransactionAmount;
 import com.example.spring_project.type.TransactionResultType;
 import lombok.*;
 
@@ -19,11 +21,12 @@ public class UseBalance {
 
         @NotBlank
         @Size(min = 10, max = 10)
+        @Pattern(regexp = AccountNumber.PATTERN)
         private String accountNumber;
 
         @NotNull
-        @Min(10)
-        @Max(1000_000_000)
+        @Min(TransactionAmount.MIN)
+        @Max(TransactionAmount.MAX)
         private Long amount;
 
 
@@ -32,7 +35,7 @@ public class UseBalance {
     @Getter
     @Setter
     @NoArgsConstructor
-    @AllArgsConstructor
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
     @Builder
     public static class Response {
 
@@ -44,13 +47,15 @@ public class UseBalance {
 
 
         public static Response from(TransactionDto transactionDto) {
-            return Response.builder()
-                    .accountNumber(transactionDto.getAccountNumber())
-                    .transactionResult(transactionDto.getTransactionResultType())
-                    .transactionId(transactionDto.getTransactionId())
-                    .amount(transactionDto.getAmount())
-                    .transactedAt(transactionDto.getTransactedAt())
-                    .build();
+            return new Response(transactionDto);
+        }
+
+        private Response(TransactionDto transactionDto) {
+            this.accountNumber = transactionDto.getAccountNumber();
+            this.transactionResult = transactionDto.getTransactionResultType();
+            this.transactionId = transactionDto.getTransactionId();
+            this.amount = transactionDto.getAmount();
+            this.transactedAt = transactionDto.getTransactedAt();
         }
 
     }
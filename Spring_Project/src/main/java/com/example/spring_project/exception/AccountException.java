@@ -18,4 +18,13 @@ public class AccountException extends RuntimeException{
         this.errorMessage = errorCode.getDescription();
     }
 
+    /**
+     * ErrorCode 로 구분되는 업무 예외라 stack trace 가 필요 없다.
+     * (잔액 부족 등 거절이 몰릴 때 stack 을 채우는 비용을 없앤다.)
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+
 }
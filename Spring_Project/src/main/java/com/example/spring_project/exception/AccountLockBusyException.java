@@ -0,0 +1,18 @@
+package com.example.spring_project.exception;
+
+import com.example.spring_project.type.ErrorCode;
+import lombok.Getter;
+
+/**
+ * 계좌 lock 대기열이 길어서 바로 거절한 경우, 다시 시도해 볼 만한 시간(초)을 함께 알려준다.
+ */
+@Getter
+public class AccountLockBusyException extends AccountException {
+
+    private final long retryAfterSeconds;
+
+    public AccountLockBusyException(long retryAfterSeconds) {
+        super(ErrorCode.ACCOUNT_TRANSACTION_BUSY);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.spring_project.exception;
+
+import com.example.spring_project.type.ErrorCode;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ErrorCode 별로 interval 에 한 번만 로그를 남기고, 그 사이 건수는 세어 두었다가 함께 남긴다.
+ */
+class ErrorLogSampler {
+
+    private final long intervalNanos;
+    private final Map<ErrorCode, Sample> samples = new EnumMap<>(ErrorCode.class);
+
+    ErrorLogSampler(long intervalMillis) {
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+        long now = System.nanoTime();
+        for (ErrorCode errorCode : ErrorCode.values()) {
+            samples.put(errorCode, new Sample(now - intervalNanos));
+        }
+    }
+
+    /**
+     * 로그를 남길 차례면 직전 로그 이후 생략한 건수(0 이상), 아니면 -1
+     */
+    long tryAcquire(ErrorCode errorCode) {
+        Sample sample = samples.get(errorCode);
+        long now = System.nanoTime();
+        long last = sample.lastLoggedNanos.get();
+        if (now - last >= intervalNanos && sample.lastLoggedNanos.compareAndSet(last, now)) {
+            return sample.suppressed.sumThenReset();
+        }
+        sample.suppressed.increment();
+        return -1;
+    }
+
+    private static class Sample {
+        private final AtomicLong lastLoggedNanos;
+        private final LongAdder suppressed = new LongAdder();
+
+        private Sample(long lastLoggedNanos) {
+            this.lastLoggedNanos = new AtomicLong(lastLoggedNanos);
+        }
+    }
+}
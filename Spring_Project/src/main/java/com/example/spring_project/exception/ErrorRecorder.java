@@ -0,0 +1,52 @@
+package com.example.spring_project.exception;
+
+import com.example.spring_project.type.ErrorCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 실패 응답을 ErrorCode 별로 센다. (account.errors)
+ * GlobalExceptionHandler 와 예외 처리를 직접 하는 바이너리 API 가 같이 써서 두 API 의 실패가 같은 counter 에 모인다.
+ */
+@Slf4j
+@Component
+public class ErrorRecorder {
+
+    // 같은 ErrorCode 의 로그는 1초에 한 번만 남긴다.
+    private final ErrorLogSampler logSampler = new ErrorLogSampler(1000);
+    private final Map<ErrorCode, Counter> errorCounters = new EnumMap<>(ErrorCode.class);
+
+    public ErrorRecorder(MeterRegistry meterRegistry) {
+        for (ErrorCode errorCode : ErrorCode.values()) {
+            errorCounters.put(errorCode, Counter.builder("account.errors")
+                    .tag("errorCode", errorCode.name())
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * 업무 예외 : 세고, 로그는 sampling 해서 남긴다.
+     */
+    public void record(ErrorCode errorCode) {
+        errorCounters.get(errorCode).increment();
+
+        long suppressed = logSampler.tryAcquire(errorCode);
+        if (suppressed >= 0) {
+            log.warn("{} is occurred. ({} more since last log)", errorCode, suppressed);
+        }
+    }
+
+    /**
+     * 예상하지 못한 예외 : 세고, 로그는 stack trace 와 함께 매번 남긴다.
+     */
+    public void record(ErrorCode errorCode, Exception e) {
+        errorCounters.get(errorCode).increment();
+
+        log.error("{} is occurred.", e.getClass().getSimpleName(), e);
+    }
+}
@@ -2,34 +2,47 @@ package com.example.spring_project.exception;
 
 import com.example.spring_project.dto.ErrorResponse;
 import com.example.spring_project.type.ErrorCode;
-import lombok.extern.slf4j.Slf4j;
+import lombok.RequiredArgsConstructor;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
-@Slf4j
 @RestControllerAdvice
+@RequiredArgsConstructor
 public class GlobalExceptionHandler {
 
+    private final ErrorRecorder errorRecorder;
+
     @ExceptionHandler(AccountException.class)
     public ErrorResponse handleAccountException(AccountException e) {
-        log.error("{} is occurred.",e.getErrorCode());
+        errorRecorder.record(e.getErrorCode());
+
+        return ErrorResponse.of(e.getErrorCode(),e.getErrorMessage());
+    }
+
+    @ExceptionHandler(AccountLockBusyException.class)
+    public ResponseEntity<ErrorResponse> handleAccountLockBusyException(AccountLockBusyException e) {
+        errorRecorder.record(e.getErrorCode());
 
-        return new ErrorResponse(e.getErrorCode(),e.getErrorMessage());
+        return ResponseEntity.ok()
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(ErrorResponse.of(e.getErrorCode(),e.getErrorMessage()));
     }
 
     @ExceptionHandler(DataIntegrityViolationException.class)
     private ErrorResponse handleDataIntegrityViolationException(DataIntegrityViolationException e) {
-        log.error("DataIntegrityViolationException is occurred" , e);
+        errorRecorder.record(ErrorCode.INVALID_ID_REQUEST, e);
 
-        return new ErrorResponse(ErrorCode.INVALID_ID_REQUEST,ErrorCode.INVALID_ID_REQUEST.getDescription());
+        return ErrorResponse.of(ErrorCode.INVALID_ID_REQUEST);
     }
 
 
     @ExceptionHandler(Exception.class)
     public ErrorResponse handleException(Exception e) {
-        log.error("Exception is occurred.",e);
+        errorRecorder.record(ErrorCode.INTERNAL_SERVER_ERROR, e);
 
-        return new ErrorResponse(ErrorCode.INTERNAL_SERVER_ERROR,ErrorCode.INTERNAL_SERVER_ERROR.getDescription());
+        return ErrorResponse.of(ErrorCode.INTERNAL_SERVER_ERROR);
     }
 }
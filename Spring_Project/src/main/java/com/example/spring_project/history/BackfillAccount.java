@@ -0,0 +1,22 @@
+package com.example.spring_project.history;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * 잔액 이력 backfill 대상 계좌 (엔티티 대신 필요한 컬럼만 읽는다.)
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class BackfillAccount {
+
+    private Long accountId;
+    private String accountNumber;
+    private Long balance;
+    private LocalDateTime registerAt;
+
+}
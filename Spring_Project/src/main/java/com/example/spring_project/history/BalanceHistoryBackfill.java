@@ -0,0 +1,170 @@
+package com.example.spring_project.history;
+
+import com.example.spring_project.datasource.Shards;
+import com.example.spring_project.domain.AccountBalanceHistory;
+import com.example.spring_project.repository.AccountBalanceHistoryRepository;
+import com.example.spring_project.repository.AccountRepository;
+import com.example.spring_project.repository.TransactionRepository;
+import com.example.spring_project.type.TransactionResultType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 잔액 이력이 생기기 전에 만들어진 계좌의 이력을 거래에서 채운다.
+ *
+ * - 계좌를 id 순서로 chunk 단위로 읽고, 개설 행이 없는 계좌만 채운다. (다시 돌려도 된다.)
+ * - 개설 잔액은 첫 성공 거래의 balanceSnapshot 에서 그 거래 금액을 되돌려 구한다. 거래가 없으면 현재 잔액이다.
+ * - 운영 중에 돌면 같은 거래가 먼저 기록될 수 있다. 이미 기록된 거래는 건너뛰고,
+ *   그 사이에 끼어든 경우(transactionId unique 위반)는 chunk 를 다시 읽는다.
+ * - 아카이브로 지워진 거래는 알 수 없으므로 아카이브 전에 돌려야 그 기간까지 정확하다.
+ */
+@Slf4j
+@Service
+public class BalanceHistoryBackfill {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final AccountBalanceHistoryRepository accountBalanceHistoryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Shards shards;
+    private final int chunkSize;
+    private final boolean onStartup;
+
+    public BalanceHistoryBackfill(AccountRepository accountRepository,
+                                  TransactionRepository transactionRepository,
+                                  AccountBalanceHistoryRepository accountBalanceHistoryRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  Shards shards,
+                                  @Value("${balance-history.backfill.chunk-size:1000}") int chunkSize,
+                                  @Value("${balance-history.backfill.on-startup:false}") boolean onStartup) {
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.accountBalanceHistoryRepository = accountBalanceHistoryRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shards = shards;
+        this.chunkSize = chunkSize;
+        this.onStartup = onStartup;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (onStartup) {
+            long started = System.nanoTime();
+            long inserted = shards.onEachShard(this::backfill).stream()
+                    .mapToLong(Long::longValue)
+                    .sum();
+            log.info("Balance history backfill finished. {} rows in {}ms",
+                    inserted, (System.nanoTime() - started) / 1_000_000);
+        }
+    }
+
+    /**
+     * @return insert 한 이력 행 수
+     */
+    public long backfill() {
+        long inserted = 0;
+        long afterId = 0L;
+        while (true) {
+            List<BackfillAccount> accounts = accountRepository.findBackfillChunk(afterId, PageRequest.of(0, chunkSize));
+            if (accounts.isEmpty()) {
+                return inserted;
+            }
+            inserted += backfillChunk(accounts);
+            afterId = accounts.get(accounts.size() - 1).getAccountId();
+        }
+    }
+
+    private int backfillChunk(List<BackfillAccount> accounts) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> insertMissing(accounts));
+            } catch (DataIntegrityViolationException e) {
+                if (attempt == MAX_ATTEMPTS) {
+                    throw e;
+                }
+                log.info("Balance history chunk raced with live transactions, retry {}", attempt);
+            }
+        }
+    }
+
+    private int insertMissing(List<BackfillAccount> accounts) {
+        Set<String> opened = new HashSet<>(accountBalanceHistoryRepository.findOpenedAccountNumbers(
+                accounts.stream().map(BackfillAccount::getAccountNumber).collect(Collectors.toList())));
+        List<BackfillAccount> targets = accounts.stream()
+                .filter(account -> !opened.contains(account.getAccountNumber()))
+                .collect(Collectors.toList());
+        if (targets.isEmpty()) {
+            return 0;
+        }
+
+        List<BalanceHistoryRow> rows = transactionRepository.findBalanceHistoryRows(
+                targets.stream().map(BackfillAccount::getAccountId).collect(Collectors.toList()),
+                TransactionResultType.S);
+        Set<String> recorded = rows.isEmpty() ? Collections.emptySet() : new HashSet<>(
+                accountBalanceHistoryRepository.findRecordedTransactionIds(
+                        rows.stream().map(BalanceHistoryRow::getTransactionId).collect(Collectors.toList())));
+        Map<Long, List<BalanceHistoryRow>> ledgers = groupByAccount(rows);
+
+        List<AccountBalanceHistory> histories = new ArrayList<>();
+        for (BackfillAccount account : targets) {
+            histories.addAll(histories(account,
+                    ledgers.getOrDefault(account.getAccountId(), Collections.emptyList()), recorded));
+        }
+        // jdbc batch_size 단위로 insert 가 묶인다.
+        accountBalanceHistoryRepository.saveAll(histories);
+        return histories.size();
+    }
+
+    static List<AccountBalanceHistory> histories(BackfillAccount account, List<BalanceHistoryRow> ledger,
+                                                 Set<String> recorded) {
+        List<AccountBalanceHistory> histories = new ArrayList<>(ledger.size() + 1);
+
+        long opening = ledger.isEmpty()
+                ? account.getBalance()
+                : ledger.get(0).getBalanceSnapshot() - ledger.get(0).delta();
+        histories.add(AccountBalanceHistory.builder()
+                .accountNumber(account.getAccountNumber())
+                .balance(opening)
+                .changedAt(account.getRegisterAt())
+                .build());
+
+        for (BalanceHistoryRow row : ledger) {
+            if (recorded.contains(row.getTransactionId())) {
+                continue;
+            }
+            histories.add(AccountBalanceHistory.builder()
+                    .accountNumber(account.getAccountNumber())
+                    .balance(row.getBalanceSnapshot())
+                    .changedAt(row.getTransactedAt())
+                    .transactionId(row.getTransactionId())
+                    .build());
+        }
+        return histories;
+    }
+
+    private static Map<Long, List<BalanceHistoryRow>> groupByAccount(List<BalanceHistoryRow> rows) {
+        Map<Long, List<BalanceHistoryRow>> ledgers = new LinkedHashMap<>();
+        for (BalanceHistoryRow row : rows) {
+            ledgers.computeIfAbsent(row.getAccountId(), id -> new ArrayList<>()).add(row);
+        }
+        return ledgers;
+    }
+}
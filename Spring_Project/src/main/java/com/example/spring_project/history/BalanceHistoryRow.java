@@ -0,0 +1,31 @@
+package com.example.spring_project.history;
+
+import com.example.spring_project.type.TransactionType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * 잔액 이력으로 옮길 성공 거래 한 건
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class BalanceHistoryRow {
+
+    private Long accountId;
+    private String transactionId;
+    private TransactionType transactionType;
+    private Long amount;
+    private Long balanceSnapshot;
+    private LocalDateTime transactedAt;
+
+    /**
+     * 이 거래로 잔액이 변한 양
+     */
+    public long delta() {
+        return transactionType == TransactionType.USE ? -amount : amount;
+    }
+}
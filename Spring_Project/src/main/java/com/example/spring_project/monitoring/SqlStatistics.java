@@ -0,0 +1,85 @@
+package com.example.spring_project.monitoring;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 스레드 별 SQL 실행 통계
+ * JDBC round trip 한 번을 statement 하나로 센다. (batch 실행도 1)
+ * 시퀀스 호출(pooled-lo id 블록 할당)은 sequences 로도 따로 센다.
+ */
+@Getter
+@ToString
+public class SqlStatistics {
+
+    private long statements;
+    private long selects;
+    private long inserts;
+    private long updates;
+    private long deletes;
+    private long sequences;
+    private long rows;
+    private long jdbcNanos;
+
+    void recordStatement(String sql, long elapsedNanos) {
+        statements++;
+        jdbcNanos += elapsedNanos;
+
+        String keyword = sql == null ? "" : sql.trim().toLowerCase(Locale.ROOT);
+        if (keyword.contains("next value for") || keyword.contains("nextval")) {
+            sequences++;
+        } else if (keyword.startsWith("select")) {
+            selects++;
+        } else if (keyword.startsWith("insert")) {
+            inserts++;
+        } else if (keyword.startsWith("update")) {
+            updates++;
+        } else if (keyword.startsWith("delete")) {
+            deletes++;
+        }
+    }
+
+    void recordRows(long count) {
+        if (count > 0) {
+            rows += count;
+        }
+    }
+
+    SqlStatistics copy() {
+        return since(new SqlStatistics());
+    }
+
+    /**
+     * before 이후에 실행된 양만 담은 새 통계
+     */
+    public SqlStatistics since(SqlStatistics before) {
+        SqlStatistics diff = new SqlStatistics();
+        diff.statements = statements - before.statements;
+        diff.selects = selects - before.selects;
+        diff.inserts = inserts - before.inserts;
+        diff.updates = updates - before.updates;
+        diff.deletes = deletes - before.deletes;
+        diff.sequences = sequences - before.sequences;
+        diff.rows = rows - before.rows;
+        diff.jdbcNanos = jdbcNanos - before.jdbcNanos;
+        return diff;
+    }
+
+    /**
+     * 시퀀스 호출을 뺀 statement 수
+     * 시퀀스 호출은 allocation_size 건마다 한 번이라 앞서 insert 한 건수에 따라 나오거나 나오지 않는다.
+     */
+    public long getStatementsWithoutSequences() {
+        return statements - sequences;
+    }
+
+    public String toHeaderValue() {
+        return String.format(Locale.ROOT,
+                "statements=%d;select=%d;insert=%d;update=%d;delete=%d;sequence=%d;rows=%d;jdbcMillis=%.3f",
+                statements, selects, inserts, updates, deletes, sequences, rows,
+                jdbcNanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
+}
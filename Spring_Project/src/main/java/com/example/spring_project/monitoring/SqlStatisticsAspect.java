@@ -0,0 +1,51 @@
+package com.example.spring_project.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 서비스 메서드 별 SQL 통계
+ * commit 시점의 flush 까지 포함하도록 @Transactional 보다 바깥에서 측정한다.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class SqlStatisticsAspect {
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("within(@org.springframework.stereotype.Service *)")
+    public Object aroundServiceMethod(ProceedingJoinPoint pjp) throws Throwable {
+        SqlStatistics before = SqlStatisticsHolder.snapshot();
+        try {
+            return pjp.proceed();
+        } finally {
+            SqlStatistics statistics = SqlStatisticsHolder.since(before);
+            String method = pjp.getSignature().getDeclaringType().getSimpleName() + "." + pjp.getSignature().getName();
+
+            DistributionSummary.builder("sql.method.statements")
+                    .tag("method", method)
+                    .register(meterRegistry)
+                    .record(statistics.getStatements());
+            DistributionSummary.builder("sql.method.rows")
+                    .tag("method", method)
+                    .register(meterRegistry)
+                    .record(statistics.getRows());
+            Timer.builder("sql.method.jdbc.time")
+                    .tag("method", method)
+                    .register(meterRegistry)
+                    .record(statistics.getJdbcNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+}
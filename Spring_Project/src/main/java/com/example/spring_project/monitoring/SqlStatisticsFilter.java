@@ -0,0 +1,76 @@
+package com.example.spring_project.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP 요청 하나에서 실행된 SQL 통계를 메트릭으로 남긴다.
+ * responseHeader 가 켜져 있으면 X-Sql-Statistics 헤더로도 내려준다. (개발용)
+ */
+@RequiredArgsConstructor
+public class SqlStatisticsFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Sql-Statistics";
+
+    private final MeterRegistry meterRegistry;
+    private final boolean responseHeader;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatistics before = SqlStatisticsHolder.snapshot();
+
+        if (!responseHeader) {
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                record(request, SqlStatisticsHolder.since(before));
+            }
+            return;
+        }
+
+        // 본문이 먼저 나가면 헤더를 붙일 수 없으므로 응답을 버퍼링한다.
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(request, responseWrapper);
+        } finally {
+            SqlStatistics statistics = SqlStatisticsHolder.since(before);
+            record(request, statistics);
+            responseWrapper.setHeader(HEADER, statistics.toHeaderValue());
+            responseWrapper.copyBodyToResponse();
+        }
+    }
+
+    private void record(HttpServletRequest request, SqlStatistics statistics) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Tags tags = Tags.of(
+                "method", request.getMethod(),
+                "uri", pattern == null ? "UNKNOWN" : pattern.toString());
+
+        DistributionSummary.builder("sql.request.statements")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(statistics.getStatements());
+        DistributionSummary.builder("sql.request.rows")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(statistics.getRows());
+        Timer.builder("sql.request.jdbc.time")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(statistics.getJdbcNanos(), TimeUnit.NANOSECONDS);
+    }
+}
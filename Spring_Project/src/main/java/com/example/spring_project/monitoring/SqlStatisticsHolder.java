@@ -0,0 +1,61 @@
+package com.example.spring_project.monitoring;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * 현재 스레드에서 실행된 SQL 통계
+ * 값은 계속 누적되고, 구간 측정은 snapshot() 후 since() 로 차이를 구한다.
+ * SQL 모양 별 실행 횟수(N+1 확인용)는 startShapeCapture() ~ stopShapeCapture() 사이에서만 모은다.
+ */
+public final class SqlStatisticsHolder {
+
+    private static final ThreadLocal<SqlStatistics> STATISTICS = ThreadLocal.withInitial(SqlStatistics::new);
+    private static final ThreadLocal<Map<String, Integer>> SHAPES = new ThreadLocal<>();
+
+    // 값만 다른 SQL 을 같은 모양으로 본다. (문자열 / 숫자 literal, 공백)
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+\\b");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private SqlStatisticsHolder() {
+    }
+
+    static SqlStatistics current() {
+        return STATISTICS.get();
+    }
+
+    public static SqlStatistics snapshot() {
+        return STATISTICS.get().copy();
+    }
+
+    public static SqlStatistics since(SqlStatistics before) {
+        return STATISTICS.get().since(before);
+    }
+
+    public static void startShapeCapture() {
+        SHAPES.set(new LinkedHashMap<>());
+    }
+
+    /**
+     * startShapeCapture() 이후 SQL 모양 별 실행 횟수 (실행 순서대로)
+     */
+    public static Map<String, Integer> stopShapeCapture() {
+        Map<String, Integer> shapes = SHAPES.get();
+        SHAPES.remove();
+        return shapes == null ? Collections.emptyMap() : shapes;
+    }
+
+    static void recordShape(String sql) {
+        Map<String, Integer> shapes = SHAPES.get();
+        if (shapes == null || sql == null) {
+            return;
+        }
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = WHITESPACE.matcher(shape.trim()).replaceAll(" ");
+        shapes.merge(shape, 1, Integer::sum);
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.spring_project.monitoring;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Connection / Statement / ResultSet 을 감싸서
+ * 실행된 statement 수, 읽거나 변경한 row 수, JDBC 실행 시간을 SqlStatisticsHolder 에 기록한다.
+ * (모양 별 실행 횟수는 SqlStatisticsHolder 가 수집 중일 때만)
+ */
+public class StatisticsDataSource extends DelegatingDataSource {
+
+    public StatisticsDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(super.getConnection()));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(super.getConnection(username, password)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(StatisticsDataSource.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private abstract static class DelegatingHandler implements InvocationHandler {
+
+        private final Object target;
+
+        DelegatingHandler(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return handle(method, args);
+            }
+        }
+
+        abstract Object handle(Method method, Object[] args) throws Throwable;
+
+        Object invokeTarget(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private static class ConnectionHandler extends DelegatingHandler {
+
+        ConnectionHandler(Connection target) {
+            super(target);
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            Object result = invokeTarget(method, args);
+            if (!(result instanceof Statement)) {
+                return result;
+            }
+
+            String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+            StatementHandler handler = new StatementHandler(result, sql);
+            if (result instanceof CallableStatement) {
+                return proxy(CallableStatement.class, handler);
+            }
+            if (result instanceof PreparedStatement) {
+                return proxy(PreparedStatement.class, handler);
+            }
+            return proxy(Statement.class, handler);
+        }
+    }
+
+    private static class StatementHandler extends DelegatingHandler {
+
+        private String sql;
+
+        StatementHandler(Object target, String sql) {
+            super(target);
+            this.sql = sql;
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            String executedSql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : sql;
+
+            if ("addBatch".equals(name) && executedSql != null) {
+                sql = executedSql;
+            }
+            if (!name.startsWith("execute")) {
+                Object result = invokeTarget(method, args);
+                return "getResultSet".equals(name) && result != null ? wrap((ResultSet) result) : result;
+            }
+
+            SqlStatistics statistics = SqlStatisticsHolder.current();
+            long startedAt = System.nanoTime();
+            Object result;
+            try {
+                result = invokeTarget(method, args);
+            } finally {
+                statistics.recordStatement(executedSql, System.nanoTime() - startedAt);
+                SqlStatisticsHolder.recordShape(executedSql);
+            }
+
+            if (result instanceof ResultSet) {
+                return wrap((ResultSet) result);
+            }
+            if (result instanceof Number) {
+                statistics.recordRows(((Number) result).longValue());
+            } else if (result instanceof int[]) {
+                for (int count : (int[]) result) {
+                    statistics.recordRows(count);
+                }
+            } else if (result instanceof long[]) {
+                for (long count : (long[]) result) {
+                    statistics.recordRows(count);
+                }
+            }
+            return result;
+        }
+
+        private ResultSet wrap(ResultSet resultSet) {
+            return proxy(ResultSet.class, new ResultSetHandler(resultSet));
+        }
+    }
+
+    private static class ResultSetHandler extends DelegatingHandler {
+
+        ResultSetHandler(ResultSet target) {
+            super(target);
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            Object result = invokeTarget(method, args);
+            if ("next".equals(method.getName()) && Boolean.TRUE.equals(result)) {
+                SqlStatisticsHolder.current().recordRows(1);
+            }
+            return result;
+        }
+    }
+}
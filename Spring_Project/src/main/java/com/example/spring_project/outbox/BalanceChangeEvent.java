@@ -0,0 +1,38 @@
+package com.example.spring_project.outbox;
+
+import com.example.spring_project.domain.BalanceChangeOutbox;
+import com.example.spring_project.type.TransactionType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+@ToString
+public class BalanceChangeEvent {
+
+    // outbox id, 서버마다 다른 구간에서 할당되므로 순서를 나타내지 않는다.
+    private final Long eventId;
+    private final String transactionId;
+    private final String accountNumber;
+    // 계좌 별로 1 씩 증가한다. consumer 는 (accountNumber, balanceVersion) 으로 중복 / 순서를 확인한다.
+    private final long balanceVersion;
+    private final TransactionType transactionType;
+    private final Long amount;
+    private final Long balanceSnapshot;
+    private final LocalDateTime transactedAt;
+
+    public static BalanceChangeEvent from(BalanceChangeOutbox outbox) {
+        return new BalanceChangeEvent(
+                outbox.getId(),
+                outbox.getTransactionId(),
+                outbox.getAccountNumber(),
+                outbox.getBalanceVersion(),
+                outbox.getTransactionType(),
+                outbox.getAmount(),
+                outbox.getBalanceSnapshot(),
+                outbox.getTransactedAt());
+    }
+}
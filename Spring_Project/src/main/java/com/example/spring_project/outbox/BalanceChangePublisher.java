@@ -0,0 +1,15 @@
+package com.example.spring_project.outbox;
+
+import java.util.List;
+
+/**
+ * outbox 이벤트를 내보내는 곳 (outbox.publisher 로 선택)
+ * 예외 없이 돌아오면 전부 발행된 것으로 보고 outbox 에서 지운다.
+ */
+public interface BalanceChangePublisher {
+
+    /**
+     * events 는 (계좌번호, balanceVersion) 순서다. 이 순서를 지켜서 발행해야 계좌 별 순서가 유지된다.
+     */
+    void publish(List<BalanceChangeEvent> events);
+}
@@ -0,0 +1,26 @@
+package com.example.spring_project.outbox;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 같은 서버 안의 @EventListener 로 발행 (캐시 갱신 등)
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "outbox.publisher", havingValue = "in-process", matchIfMissing = true)
+public class InProcessBalanceChangePublisher implements BalanceChangePublisher {
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    @Override
+    public void publish(List<BalanceChangeEvent> events) {
+        for (BalanceChangeEvent event : events) {
+            applicationEventPublisher.publishEvent(event);
+        }
+    }
+}
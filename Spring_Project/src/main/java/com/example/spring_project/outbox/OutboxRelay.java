@@ -0,0 +1,135 @@
+package com.example.spring_project.outbox;
+
+import com.example.spring_project.datasource.Shards;
+import com.example.spring_project.domain.BalanceChangeOutbox;
+import com.example.spring_project.repository.BalanceChangeOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * outbox 를 가장 오래 기다린 이벤트가 있는 계좌부터, 계좌 안에서는 balanceVersion 순서대로
+ * batch 단위로 읽어 발행하고, 발행한 행을 지운다. (쓰기가 계속되어도 밀려나는 계좌가 없다.)
+ *
+ * 여러 서버 중 하나만 발행하도록 Redis lock 을 잡고, 발행이 실패하면 그 batch 부터 다음 실행에서 다시 보낸다.
+ * (at-least-once, consumer 는 (accountNumber, balanceVersion) 으로 중복을 거른다.) balanceVersion 은
+ * 계좌 lock 안에서 정해지고 앞 batch 가 나가기 전에는 뒤를 보내지 않으므로 계좌 별 순서가 유지된다.
+ * outbox id 는 서버마다 다른 구간에서 할당되므로(pooled-lo) 순서로 쓰지 않는다. 계좌의 outbox 는 한 shard 에만 있으므로 shard 마다 차례로 비운다.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private static final String RELAY_LOCK_KEY = "OUTBOX_RELAY";
+
+    private final BalanceChangeOutboxRepository outboxRepository;
+    private final BalanceChangePublisher publisher;
+    private final RedissonClient redissonClient;
+    private final Shards shards;
+    private final int batchSize;
+
+    private final Counter published;
+    private final Timer publishDelay;
+
+    public OutboxRelay(BalanceChangeOutboxRepository outboxRepository,
+                       BalanceChangePublisher publisher,
+                       RedissonClient redissonClient,
+                       MeterRegistry meterRegistry,
+                       Shards shards,
+                       @Value("${outbox.relay.batch-size:500}") int batchSize) {
+        this.outboxRepository = outboxRepository;
+        this.publisher = publisher;
+        this.redissonClient = redissonClient;
+        this.shards = shards;
+        this.batchSize = batchSize;
+        this.published = Counter.builder("outbox.published")
+                .register(meterRegistry);
+        this.publishDelay = Timer.builder("outbox.publish.delay")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        // 아직 발행되지 않은 가장 오래된 이벤트의 나이 (모든 shard)
+        Gauge.builder("outbox.lag", outboxRepository, repository -> lagSeconds(shards.scatter(repository::findOldestTransactedAt)))
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("outbox.pending", outboxRepository, repository -> shards.scatter(repository::count).stream()
+                        .mapToLong(Long::longValue)
+                        .sum())
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.fixed-delay-ms:500}")
+    public void relayScheduled() {
+        try {
+            relay();
+        } catch (Exception e) {
+            log.error("Outbox relay failed", e);
+        }
+    }
+
+    /**
+     * @return 발행한 이벤트 수 (다른 서버가 발행 중이면 0)
+     */
+    public int relay() {
+        RLock lock = redissonClient.getLock(RELAY_LOCK_KEY);
+        if (!lock.tryLock()) {
+            return 0;
+        }
+        try {
+            return shards.onEachShard(this::drain).stream()
+                    .mapToInt(Integer::intValue)
+                    .sum();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int drain() {
+        int relayed = 0;
+        while (true) {
+            List<BalanceChangeOutbox> outboxes = outboxRepository.findNextBatch(batchSize);
+            if (outboxes.isEmpty()) {
+                return relayed;
+            }
+            LocalDateTime now = LocalDateTime.now();
+
+            publisher.publish(outboxes.stream()
+                    .map(BalanceChangeEvent::from)
+                    .collect(Collectors.toList()));
+            outboxRepository.deleteAllByIdInBatch(outboxes.stream()
+                    .map(BalanceChangeOutbox::getId)
+                    .collect(Collectors.toList()));
+
+            for (BalanceChangeOutbox outbox : outboxes) {
+                publishDelay.record(Duration.between(outbox.getTransactedAt(), now));
+            }
+            published.increment(outboxes.size());
+            relayed += outboxes.size();
+
+            if (outboxes.size() < batchSize) {
+                return relayed;
+            }
+        }
+    }
+
+    static double lagSeconds(List<LocalDateTime> oldestByShard) {
+        LocalDateTime now = LocalDateTime.now();
+        return oldestByShard.stream()
+                .filter(Objects::nonNull)
+                .mapToLong(oldest -> Duration.between(oldest, now).toMillis())
+                .max()
+                .orElse(0) / 1000d;
+    }
+}
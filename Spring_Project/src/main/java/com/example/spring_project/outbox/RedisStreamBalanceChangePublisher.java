@@ -0,0 +1,52 @@
+package com.example.spring_project.outbox;
+
+import lombok.RequiredArgsConstructor;
+import org.redisson.api.RBatch;
+import org.redisson.api.RStreamAsync;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.stream.StreamAddArgs;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Redis stream 으로 발행, 한 배치를 한 번의 round trip(RBatch)으로 보낸다.
+ * 하나의 stream 에 계좌 별 balanceVersion 순서대로 쌓이므로 consumer 는 계좌 별 순서를 그대로 받는다.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "outbox.publisher", havingValue = "redis-stream")
+public class RedisStreamBalanceChangePublisher implements BalanceChangePublisher {
+
+    private final RedissonClient redissonClient;
+
+    @Value("${outbox.redis-stream.name:BALANCE_CHANGES}")
+    private String streamName;
+
+    @Override
+    public void publish(List<BalanceChangeEvent> events) {
+        RBatch batch = redissonClient.createBatch();
+        RStreamAsync<String, String> stream = batch.getStream(streamName);
+        for (BalanceChangeEvent event : events) {
+            stream.addAsync(StreamAddArgs.entries(toEntries(event)));
+        }
+        batch.execute();
+    }
+
+    private static Map<String, String> toEntries(BalanceChangeEvent event) {
+        Map<String, String> entries = new HashMap<>();
+        entries.put("eventId", String.valueOf(event.getEventId()));
+        entries.put("transactionId", event.getTransactionId());
+        entries.put("accountNumber", event.getAccountNumber());
+        entries.put("balanceVersion", String.valueOf(event.getBalanceVersion()));
+        entries.put("transactionType", event.getTransactionType().name());
+        entries.put("amount", String.valueOf(event.getAmount()));
+        entries.put("balanceSnapshot", String.valueOf(event.getBalanceSnapshot()));
+        entries.put("transactedAt", event.getTransactedAt().toString());
+        return entries;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.spring_project.reconciliation;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 대사 대상 계좌 (엔티티 대신 필요한 컬럼만 읽는다.)
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class AccountBalanceRow {
+
+    private Long accountId;
+    private String accountNumber;
+    private Long balance;
+
+}
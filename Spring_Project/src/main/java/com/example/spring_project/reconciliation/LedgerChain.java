@@ -0,0 +1,71 @@
+package com.example.spring_project.reconciliation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 계좌 하나의 balanceSnapshot chain 을 page 단위로 이어서 검증하는 상태
+ *
+ * 거래를 순서대로 넘겨받아 직전 balanceSnapshot ± 금액 == 현재 balanceSnapshot 인지 확인하고,
+ * 마지막 balanceSnapshot 만 들고 있다가 finish 에서 계좌 잔액과 비교한다. (거래 목록은 들고 있지 않는다.)
+ */
+class LedgerChain {
+
+    private final AccountBalanceRow account;
+    private final List<LedgerMismatch> mismatches = new ArrayList<>();
+    private LedgerRow last;
+
+    LedgerChain(AccountBalanceRow account) {
+        this.account = account;
+    }
+
+    AccountBalanceRow getAccount() {
+        return account;
+    }
+
+    void fold(List<LedgerRow> rows) {
+        for (LedgerRow row : rows) {
+            fold(row);
+        }
+    }
+
+    void fold(LedgerRow row) {
+        if (last == null) {
+            long opening = row.getBalanceSnapshot() - row.delta();
+            if (opening < 0) {
+                mismatches.add(mismatch(LedgerMismatch.Reason.NEGATIVE_OPENING_BALANCE, row, 0L, opening));
+            }
+        } else {
+            long expected = last.getBalanceSnapshot() + row.delta();
+            if (expected != row.getBalanceSnapshot()) {
+                mismatches.add(mismatch(LedgerMismatch.Reason.BROKEN_CHAIN, row,
+                        expected, row.getBalanceSnapshot()));
+            }
+        }
+        last = row;
+    }
+
+    List<LedgerMismatch> finish() {
+        // 거래가 없으면 개설 시 잔액 그대로라 비교할 기록이 없다.
+        if (last == null) {
+            return Collections.emptyList();
+        }
+        if (last.getBalanceSnapshot() != account.getBalance().longValue()) {
+            mismatches.add(mismatch(LedgerMismatch.Reason.BALANCE_MISMATCH, last,
+                    last.getBalanceSnapshot(), account.getBalance()));
+        }
+        return mismatches;
+    }
+
+    private LedgerMismatch mismatch(LedgerMismatch.Reason reason, LedgerRow row, long expected, long actual) {
+        return LedgerMismatch.builder()
+                .accountId(account.getAccountId())
+                .accountNumber(account.getAccountNumber())
+                .reason(reason)
+                .transactionRowId(row.getId())
+                .expected(expected)
+                .actual(actual)
+                .build();
+    }
+}
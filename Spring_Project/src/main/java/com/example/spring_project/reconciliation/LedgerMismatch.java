@@ -0,0 +1,30 @@
+package com.example.spring_project.reconciliation;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@AllArgsConstructor
+@Builder
+@ToString
+public class LedgerMismatch {
+
+    private Long accountId;
+    private String accountNumber;
+    private Reason reason;
+    // 어긋난 거래의 id (계좌 잔액 불일치인 경우 마지막 거래)
+    private Long transactionRowId;
+    private Long expected;
+    private Long actual;
+
+    public enum Reason {
+        // 직전 거래 잔액 ± 거래 금액 != 이 거래의 balanceSnapshot
+        BROKEN_CHAIN,
+        // 마지막 거래의 balanceSnapshot != 계좌 잔액
+        BALANCE_MISMATCH,
+        // 첫 거래 이전 잔액이 음수
+        NEGATIVE_OPENING_BALANCE
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.spring_project.reconciliation;
+
+import com.example.spring_project.type.TransactionType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * 대사에 쓰는 성공 거래 한 건
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class LedgerRow {
+
+    private Long accountId;
+    private Long id;
+    private TransactionType transactionType;
+    private Long amount;
+    private Long balanceSnapshot;
+    // 다음 page 를 읽을 위치(keyset)로 쓴다.
+    private LocalDateTime transactedAt;
+
+    /**
+     * 이 거래로 잔액이 변한 양
+     */
+    public long delta() {
+        return transactionType == TransactionType.USE ? -amount : amount;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.spring_project.reconciliation;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 거래 page 하나를 계좌 묶음 단위로 반으로 나눠가며 병렬로 chain 에 이어 붙이는 fork/join 작업
+ *
+ * 한 계좌의 거래는 한 작업에서만 순서대로 이어 붙이고, 다음 page 는 이 작업이 끝난 뒤에 시작하므로 계좌 별 순서가 유지된다.
+ */
+class LedgerVerificationTask extends RecursiveAction {
+
+    private static final int THRESHOLD = 256;
+
+    private final List<LedgerChain> chains;
+    private final Map<Long, List<LedgerRow>> ledgers;
+    private final int from;
+    private final int to;
+
+    /**
+     * @param chains  이 page 에 거래가 있는 계좌의 chain
+     * @param ledgers 이 page 의 계좌 별 거래 (거래 순서대로)
+     */
+    LedgerVerificationTask(List<LedgerChain> chains, Map<Long, List<LedgerRow>> ledgers) {
+        this(chains, ledgers, 0, chains.size());
+    }
+
+    private LedgerVerificationTask(List<LedgerChain> chains, Map<Long, List<LedgerRow>> ledgers,
+                                   int from, int to) {
+        this.chains = chains;
+        this.ledgers = ledgers;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+        if (to - from <= THRESHOLD) {
+            for (int i = from; i < to; i++) {
+                LedgerChain chain = chains.get(i);
+                chain.fold(ledgers.get(chain.getAccount().getAccountId()));
+            }
+            return;
+        }
+
+        int middle = (from + to) >>> 1;
+        invokeAll(new LedgerVerificationTask(chains, ledgers, from, middle),
+                new LedgerVerificationTask(chains, ledgers, middle, to));
+    }
+
+    static List<LedgerMismatch> verify(AccountBalanceRow account, List<LedgerRow> ledger) {
+        LedgerChain chain = new LedgerChain(account);
+        chain.fold(ledger);
+        return chain.finish();
+    }
+}
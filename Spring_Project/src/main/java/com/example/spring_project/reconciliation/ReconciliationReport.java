@@ -0,0 +1,25 @@
+package com.example.spring_project.reconciliation;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Duration;
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+@ToString
+public class ReconciliationReport {
+
+    private long accounts;
+    private long transactions;
+    // 전체 불일치 건수 (mismatches 는 최대 max-reported-mismatches 건까지만 담는다.)
+    private long mismatchCount;
+    private List<LedgerMismatch> mismatches;
+    private Duration elapsed;
+
+    public boolean isBalanced() {
+        return mismatchCount == 0;
+    }
+}
@@ -0,0 +1,241 @@
+package com.example.spring_project.reconciliation;
+
+import com.example.spring_project.datasource.Shards;
+import com.example.spring_project.repository.AccountRepository;
+import com.example.spring_project.repository.TransactionRepository;
+import com.example.spring_project.type.TransactionResultType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Collectors;
+
+/**
+ * 계좌 잔액과 성공 거래(balanceSnapshot chain) 대사
+ *
+ * - 계좌를 id 순서로 chunk 단위로 읽고, chunk 마다 읽기 전용 스냅샷 트랜잭션에서 계좌와 그 거래를 읽는다.
+ * - 거래는 (계좌 id, 거래 시각, id) keyset 으로 page 단위로 읽고, page 를 ForkJoinPool 에서 계좌 별 chain 에 이어 붙이는 동안 다음 page 를 읽는다.
+ *   (메모리에는 chunk 의 계좌 별 마지막 거래와 거래 page 2개만 있다. 거래가 많은 계좌도 한 번에 읽지 않는다.)
+ * - @AccountLock 을 잡지 않으므로 읽는 사이에 거래가 끼어들 수 있다. 불일치가 나온 계좌는 한 번 더 읽어서 확인한 뒤 보고한다.
+ */
+@Slf4j
+@Service
+public class ReconciliationService {
+
+    // 첫 page 를 읽을 위치 (계좌 id 는 1부터라 거래 시각 / id 는 비교되지 않는다.)
+    private static final LocalDateTime FIRST_TRANSACTED_AT = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate snapshotRead;
+    private final ForkJoinPool pool;
+    private final Shards shards;
+    private final int chunkSize;
+    private final int pageSize;
+    private final int maxReportedMismatches;
+
+    public ReconciliationService(AccountRepository accountRepository,
+                                 TransactionRepository transactionRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 Shards shards,
+                                 @Value("${reconciliation.chunk-size:1000}") int chunkSize,
+                                 @Value("${reconciliation.page-size:5000}") int pageSize,
+                                 @Value("${reconciliation.parallelism:0}") int parallelism,
+                                 @Value("${reconciliation.max-reported-mismatches:1000}") int maxReportedMismatches) {
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.snapshotRead = new TransactionTemplate(transactionManager);
+        this.snapshotRead.setReadOnly(true);
+        this.snapshotRead.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.shards = shards;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.chunkSize = chunkSize;
+        this.pageSize = pageSize;
+        this.maxReportedMismatches = maxReportedMismatches;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * 계좌와 거래는 같은 shard 에 있으므로 shard 마다 따로 대사한다.
+     */
+    @Scheduled(cron = "${reconciliation.cron:-}")
+    public void scheduledReconcile() {
+        List<ReconciliationReport> reports = shards.onEachShard(this::reconcile);
+        for (int shard = 0; shard < reports.size(); shard++) {
+            ReconciliationReport report = reports.get(shard);
+            if (report.isBalanced()) {
+                log.info("Reconciliation finished. shard={} {}", shard, report);
+            } else {
+                log.error("Reconciliation found mismatches. shard={} {}", shard, report);
+            }
+        }
+    }
+
+    public ReconciliationReport reconcile() {
+        long started = System.nanoTime();
+        long accounts = 0;
+        long transactions = 0;
+        long mismatchCount = 0;
+        List<LedgerMismatch> reported = new ArrayList<>();
+
+        long afterId = 0L;
+        while (true) {
+            Chunk chunk = verifyChunk(afterId);
+            if (chunk.accounts.isEmpty()) {
+                break;
+            }
+
+            List<LedgerMismatch> mismatches = recheck(chunk.mismatches);
+            mismatchCount += mismatches.size();
+            addBounded(reported, mismatches);
+
+            accounts += chunk.accounts.size();
+            transactions += chunk.transactionCount;
+            afterId = chunk.accounts.get(chunk.accounts.size() - 1).getAccountId();
+        }
+
+        return new ReconciliationReport(accounts, transactions, mismatchCount,
+                Collections.unmodifiableList(reported), Duration.ofNanos(System.nanoTime() - started));
+    }
+
+    private Chunk verifyChunk(long afterId) {
+        return snapshotRead.execute(status -> {
+            List<AccountBalanceRow> accounts =
+                    accountRepository.findBalanceChunk(afterId, PageRequest.of(0, chunkSize));
+            if (accounts.isEmpty()) {
+                return new Chunk(accounts, Collections.emptyList(), 0);
+            }
+            Map<Long, LedgerChain> chains = new LinkedHashMap<>();
+            accounts.forEach(account -> chains.put(account.getAccountId(), new LedgerChain(account)));
+            long transactionCount = fold(chains);
+            return new Chunk(accounts, finish(chains), transactionCount);
+        });
+    }
+
+    /**
+     * 계좌들의 거래를 page 단위로 읽어서 chain 에 이어 붙인다. page 를 붙이는 동안 다음 page 를 읽는다.
+     * @return 읽은 거래 수
+     */
+    private long fold(Map<Long, LedgerChain> chains) {
+        List<Long> accountIds = new ArrayList<>(chains.keySet());
+        long transactionCount = 0;
+        long afterAccountId = 0L;
+        LocalDateTime afterTransactedAt = FIRST_TRANSACTED_AT;
+        long afterId = 0L;
+        ForkJoinTask<Void> running = null;
+        try {
+            while (true) {
+                List<LedgerRow> page = transactionRepository.findLedgerPage(accountIds, TransactionResultType.S,
+                        afterAccountId, afterTransactedAt, afterId, PageRequest.of(0, pageSize));
+                if (running != null) {
+                    running.join();
+                    running = null;
+                }
+                if (page.isEmpty()) {
+                    return transactionCount;
+                }
+
+                transactionCount += page.size();
+                LedgerRow last = page.get(page.size() - 1);
+                afterAccountId = last.getAccountId();
+                afterTransactedAt = last.getTransactedAt();
+                afterId = last.getId();
+                Map<Long, List<LedgerRow>> ledgers = groupByAccount(page);
+                running = pool.submit(new LedgerVerificationTask(ledgers.keySet().stream()
+                        .map(chains::get)
+                        .collect(Collectors.toList()), ledgers));
+
+                if (page.size() < pageSize) {
+                    running.join();
+                    running = null;
+                    return transactionCount;
+                }
+            }
+        } finally {
+            // 읽다가 실패하면 붙이던 page 가 끝난 뒤에 나간다.
+            if (running != null) {
+                running.quietlyJoin();
+            }
+        }
+    }
+
+    private static List<LedgerMismatch> finish(Map<Long, LedgerChain> chains) {
+        List<LedgerMismatch> mismatches = new ArrayList<>();
+        for (LedgerChain chain : chains.values()) {
+            mismatches.addAll(chain.finish());
+        }
+        return mismatches;
+    }
+
+    /**
+     * 검증 중에 거래가 커밋된 경우를 걸러내기 위해, 불일치 계좌만 다시 읽어서 검증한다.
+     */
+    private List<LedgerMismatch> recheck(List<LedgerMismatch> mismatches) {
+        if (mismatches.isEmpty()) {
+            return mismatches;
+        }
+        List<Long> accountIds = mismatches.stream()
+                .map(LedgerMismatch::getAccountId)
+                .distinct()
+                .collect(Collectors.toList());
+
+        return snapshotRead.execute(status -> {
+            Map<Long, LedgerChain> chains = new LinkedHashMap<>();
+            accountRepository.findBalanceRows(accountIds)
+                    .forEach(account -> chains.put(account.getAccountId(), new LedgerChain(account)));
+            if (chains.isEmpty()) {
+                return Collections.<LedgerMismatch>emptyList();
+            }
+            fold(chains);
+            return finish(chains);
+        });
+    }
+
+    private void addBounded(List<LedgerMismatch> reported, List<LedgerMismatch> mismatches) {
+        for (LedgerMismatch mismatch : mismatches) {
+            if (reported.size() >= maxReportedMismatches) {
+                return;
+            }
+            reported.add(mismatch);
+        }
+    }
+
+    private static Map<Long, List<LedgerRow>> groupByAccount(List<LedgerRow> ledger) {
+        Map<Long, List<LedgerRow>> ledgers = new LinkedHashMap<>();
+        for (LedgerRow row : ledger) {
+            ledgers.computeIfAbsent(row.getAccountId(), id -> new ArrayList<>()).add(row);
+        }
+        return ledgers;
+    }
+
+    private static class Chunk {
+        private final List<AccountBalanceRow> accounts;
+        private final List<LedgerMismatch> mismatches;
+        private final long transactionCount;
+
+        private Chunk(List<AccountBalanceRow> accounts, List<LedgerMismatch> mismatches, long transactionCount) {
+            this.accounts = accounts;
+            this.mismatches = mismatches;
+            this.transactionCount = transactionCount;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.spring_project.repository;
+
+import com.example.spring_project.domain.AccountBalanceHistory;
+import com.example.spring_project.domain.AccountNumber;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AccountBalanceHistoryRepository extends JpaRepository<AccountBalanceHistory, Long> {
+
+    /**
+     * at 시점의 잔액 (at 이전 마지막 변경), 형식이 맞지 않는 계좌번호는 조회하지 않는다.
+     */
+    default Optional<AccountBalanceHistory> findBalanceAt(String accountNumber, LocalDateTime at) {
+        if (!AccountNumber.isValid(accountNumber)) {
+            return Optional.empty();
+        }
+        return findFirstByAccountNumberAndChangedAtLessThanEqualOrderByChangedAtDescIdDesc(accountNumber, at);
+    }
+
+    Optional<AccountBalanceHistory> findFirstByAccountNumberAndChangedAtLessThanEqualOrderByChangedAtDescIdDesc(
+            String accountNumber, LocalDateTime changedAt);
+
+    /**
+     * 개설 행이 이미 있는 계좌번호 (backfill 대상에서 뺀다.)
+     */
+    @Query("select h.accountNumber from AccountBalanceHistory h " +
+            "where h.accountNumber in :accountNumbers and h.transactionId is null")
+    List<String> findOpenedAccountNumbers(@Param("accountNumbers") Collection<String> accountNumbers);
+
+    @Query("select h.transactionId from AccountBalanceHistory h where h.transactionId in :transactionIds")
+    List<String> findRecordedTransactionIds(@Param("transactionIds") Collection<String> transactionIds);
+}
@@ -0,0 +1,29 @@
+package com.example.spring_project.repository;
+
+import com.example.spring_project.domain.AccountNumberCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AccountNumberCounterRepository extends JpaRepository<AccountNumberCounter, Long> {
+
+    /**
+     * 카운터를 increment 만큼 늘린다. 트랜잭션이 끝날 때까지 행 lock 이 잡혀서 다른 요청은 커밋된 값 다음부터 받는다.
+     */
+    @Modifying
+    @Query("update AccountNumberCounter c set c.lastNumber = c.lastNumber + :increment where c.id = :id")
+    int advance(@Param("id") Long id, @Param("increment") long increment);
+
+    @Query("select c.lastNumber from AccountNumberCounter c where c.id = :id")
+    Long findLastNumber(@Param("id") Long id);
+
+    /**
+     * 카운터가 lastNumber 보다 작을 때만 올린다. (카운터를 거치지 않고 만들어진 계좌가 있을 때)
+     */
+    @Modifying
+    @Query("update AccountNumberCounter c set c.lastNumber = :lastNumber where c.id = :id and c.lastNumber < :lastNumber")
+    int raise(@Param("id") Long id, @Param("lastNumber") long lastNumber);
+}
@@ -1,21 +1,97 @@
 package com.example.spring_project.repository;
 
 import com.example.spring_project.domain.Account;
+import com.example.spring_project.domain.AccountNumber;
 import com.example.spring_project.domain.AccountUser;
+import com.example.spring_project.history.BackfillAccount;
+import com.example.spring_project.reconciliation.AccountBalanceRow;
+import com.example.spring_project.service.ActiveAccountCount;
+import com.example.spring_project.service.CurrentBalance;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface AccountRepository extends JpaRepository<Account,Long> {
 
-    Optional<Account> findFirstByOrderByIdDesc();
+    /**
+     * 이 shard 에서 가장 큰 계좌번호 (계좌번호 카운터를 처음 만들거나 다시 맞출 때만 쓴다.)
+     */
+    @Query(value = "select max(account_number) from account", nativeQuery = true)
+    Long findMaxAccountNumber();
 
     Integer countByAccountUser(AccountUser accountUser);
 
-    Optional<Account> findByAccountNumber(String accountNumber);
+    /**
+     * 계좌번호 형식이 아니면 숫자 컬럼과 비교할 수 없으므로 조회하지 않는다.
+     */
+    default Optional<Account> findByAccountNumber(String accountNumber) {
+        if (!AccountNumber.isValid(accountNumber)) {
+            return Optional.empty();
+        }
+        return findByValidAccountNumber(accountNumber);
+    }
+
+    @Query("select a from Account a where a.accountNumber = :accountNumber")
+    Optional<Account> findByValidAccountNumber(@Param("accountNumber") String accountNumber);
 
     List<Account> findByAccountUser(AccountUser accountUser);
+
+    /**
+     * 승인 금액을 잔액에서 빼고 승인 중 금액에서도 뺀다. (계좌를 읽지 않는다.)
+     */
+    @Modifying
+    @Query("update Account a set a.balance = a.balance - :amount, a.heldBalance = a.heldBalance - :amount, " +
+            "a.balanceVersion = a.balanceVersion + 1 where a.id = :accountId and a.heldBalance >= :amount")
+    int captureHeldBalance(@Param("accountId") Long accountId, @Param("amount") Long amount);
+
+    @Modifying
+    @Query("update Account a set a.heldBalance = a.heldBalance - :amount " +
+            "where a.id = :accountId and a.heldBalance >= :amount")
+    int releaseHeldBalance(@Param("accountId") Long accountId, @Param("amount") Long amount);
+
+    /**
+     * 사용 중인 계좌만 해지한다. 동시에 해지하면 한 요청만 1 을 받는다.
+     * (영속성 컨텍스트의 계좌는 비워지므로 이후에는 detach 된 상태다.)
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("update Account a set a.accountStatus = com.example.spring_project.type.AccountStatus.UNREGISTERED, " +
+            "a.unRegisterAt = :unRegisterAt, a.updatedAt = :unRegisterAt " +
+            "where a.id = :accountId and a.accountStatus = com.example.spring_project.type.AccountStatus.IN_USE")
+    int unregister(@Param("accountId") Long accountId, @Param("unRegisterAt") LocalDateTime unRegisterAt);
+
+    /**
+     * 사용자 별 사용 중인 계좌 수 (활성 계좌 수 backfill 용)
+     */
+    @Query("select new com.example.spring_project.service.ActiveAccountCount(a.accountUser.id, count(a)) " +
+            "from Account a where a.accountUser.id in :userIds " +
+            "and a.accountStatus = com.example.spring_project.type.AccountStatus.IN_USE " +
+            "group by a.accountUser.id")
+    List<ActiveAccountCount> countActiveAccounts(@Param("userIds") List<Long> userIds);
+
+    /**
+     * 조건부 update 뒤의 잔액을 DB 에서 읽는다. (영속성 컨텍스트에 있는 계좌를 거치지 않는다.)
+     */
+    @Query("select new com.example.spring_project.service.CurrentBalance(a.balance, a.heldBalance, a.balanceVersion) " +
+            "from Account a where a.id = :accountId")
+    CurrentBalance findCurrentBalance(@Param("accountId") Long accountId);
+
+    @Query("select new com.example.spring_project.reconciliation.AccountBalanceRow(a.id, a.accountNumber, a.balance) " +
+            "from Account a where a.id > :afterId order by a.id")
+    List<AccountBalanceRow> findBalanceChunk(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("select new com.example.spring_project.reconciliation.AccountBalanceRow(a.id, a.accountNumber, a.balance) " +
+            "from Account a where a.id in :ids")
+    List<AccountBalanceRow> findBalanceRows(@Param("ids") List<Long> ids);
+
+    @Query("select new com.example.spring_project.history.BackfillAccount(a.id, a.accountNumber, a.balance, a.registerAt) " +
+            "from Account a where a.id > :afterId order by a.id")
+    List<BackfillAccount> findBackfillChunk(@Param("afterId") Long afterId, Pageable pageable);
 }
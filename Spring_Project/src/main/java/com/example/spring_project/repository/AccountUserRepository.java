@@ -1,9 +1,40 @@
 package com.example.spring_project.repository;
 
 import com.example.spring_project.domain.AccountUser;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface AccountUserRepository extends JpaRepository<AccountUser,Long> {
+
+    /**
+     * 활성 계좌 수를 count 만큼 늘린다. 늘린 값이 max 를 넘으면 바꾸지 않고 0 을 돌려준다.
+     */
+    @Modifying
+    @Query("update AccountUser u set u.activeAccountCount = u.activeAccountCount + :count " +
+            "where u.id = :userId and u.activeAccountCount + :count <= :max")
+    int increaseActiveAccountCount(@Param("userId") Long userId,
+                                   @Param("count") int count,
+                                   @Param("max") int max);
+
+    @Modifying
+    @Query("update AccountUser u set u.activeAccountCount = u.activeAccountCount - :count " +
+            "where u.id = :userId and u.activeAccountCount >= :count")
+    int decreaseActiveAccountCount(@Param("userId") Long userId, @Param("count") int count);
+
+    @Query("select u.id from AccountUser u where u.id > :afterId order by u.id")
+    List<Long> findIdChunk(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * 활성 계좌 수 backfill 전용, 실제 계좌 수로 덮어쓴다.
+     */
+    @Modifying
+    @Query("update AccountUser u set u.activeAccountCount = :count where u.id = :userId and u.activeAccountCount <> :count")
+    int setActiveAccountCount(@Param("userId") Long userId, @Param("count") int count);
 }
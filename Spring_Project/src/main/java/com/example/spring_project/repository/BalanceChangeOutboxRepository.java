@@ -0,0 +1,44 @@
+package com.example.spring_project.repository;
+
+import com.example.spring_project.domain.BalanceChangeOutbox;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+@Repository
+public interface BalanceChangeOutboxRepository extends JpaRepository<BalanceChangeOutbox, Long> {
+
+    /**
+     * 가장 오래 기다린 이벤트가 있는 계좌부터 고르고, 고른 계좌의 이벤트를 계좌 별 잔액 변경 순서(balanceVersion)대로 읽는다.
+     * 계좌번호 순서로 읽으면 쓰기가 계속되는 동안 뒤쪽 계좌가 밀리므로 계좌 사이는 나이 순서로 고른다.
+     * id 는 서버마다 미리 받아 둔 구간에서 할당되므로(pooled-lo) 순서를 나타내지 않는다.
+     */
+    default List<BalanceChangeOutbox> findNextBatch(int batchSize) {
+        List<String> accountNumbers = findOldestPendingAccountNumbers(PageRequest.of(0, batchSize));
+        if (accountNumbers.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return findPendingByAccountNumbers(accountNumbers, PageRequest.of(0, batchSize));
+    }
+
+    @Query("select o.accountNumber from BalanceChangeOutbox o group by o.accountNumber order by min(o.transactedAt)")
+    List<String> findOldestPendingAccountNumbers(Pageable pageable);
+
+    @Query("select o from BalanceChangeOutbox o where o.accountNumber in :accountNumbers " +
+            "order by o.accountNumber, o.balanceVersion")
+    List<BalanceChangeOutbox> findPendingByAccountNumbers(@Param("accountNumbers") List<String> accountNumbers,
+                                                          Pageable pageable);
+
+    /**
+     * 아직 발행되지 않은 가장 오래된 이벤트의 거래 시각 (없으면 null)
+     */
+    @Query("select min(o.transactedAt) from BalanceChangeOutbox o")
+    LocalDateTime findOldestTransactedAt();
+}
@@ -0,0 +1,36 @@
+package com.example.spring_project.repository;
+
+import com.example.spring_project.domain.BalanceHold;
+import com.example.spring_project.type.HoldStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BalanceHoldRepository extends JpaRepository<BalanceHold, Long> {
+
+    Optional<BalanceHold> findByHoldId(String holdId);
+
+    /**
+     * HELD 인 승인만 status 로 바꾼다. 이미 처리된 승인이면 0
+     */
+    @Modifying
+    @Query("update BalanceHold h set h.status = :status, h.completedAt = :completedAt, h.transactionId = :transactionId " +
+            "where h.id = :id and h.status = com.example.spring_project.type.HoldStatus.HELD")
+    int complete(@Param("id") Long id,
+                 @Param("status") HoldStatus status,
+                 @Param("completedAt") LocalDateTime completedAt,
+                 @Param("transactionId") String transactionId);
+
+    @Query("select h from BalanceHold h " +
+            "where h.status = com.example.spring_project.type.HoldStatus.HELD and h.expiresAt <= :now " +
+            "order by h.expiresAt")
+    List<BalanceHold> findExpiredHolds(@Param("now") LocalDateTime now, Pageable pageable);
+}
@@ -1,11 +1,19 @@
 package com.example.spring_project.repository;
 
+import com.example.spring_project.archive.ArchivedTransaction;
 import com.example.spring_project.domain.Account;
 import com.example.spring_project.domain.AccountUser;
 import com.example.spring_project.domain.Transaction;
+import com.example.spring_project.history.BalanceHistoryRow;
+import com.example.spring_project.reconciliation.LedgerRow;
+import com.example.spring_project.type.TransactionResultType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,4 +22,46 @@ public interface TransactionRepository extends JpaRepository<Transaction,Long> {
 
     Optional<Transaction> findByTransactionId(String transactionId);
 
+    /**
+     * 취소 대상 거래를 계좌, 사용자와 함께 한번에 조회한다.
+     */
+    @Query("select t from Transaction t join fetch t.account a join fetch a.accountUser " +
+            "where t.transactionId = :transactionId")
+    Optional<Transaction> findCancelTargetByTransactionId(@Param("transactionId") String transactionId);
+
+    /**
+     * 아카이브 대상(cutoff 이전) 거래를 엔티티 대신 projection 으로 읽는다.
+     */
+    @Query("select new com.example.spring_project.archive.ArchivedTransaction(" +
+            "t.id, t.account.id, t.transactionId, t.transactionType, t.transactionResultType, " +
+            "t.amount, t.balanceSnapshot, t.transactedAt) " +
+            "from Transaction t where t.transactedAt < :cutoff order by t.id")
+    List<ArchivedTransaction> findArchiveTargets(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    /**
+     * 대사용 거래 page (계좌 별, 거래 순서대로), 직전 page 의 마지막 거래(계좌 id, 거래 시각, id) 다음부터 읽는다.
+     */
+    @Query("select new com.example.spring_project.reconciliation.LedgerRow(" +
+            "t.account.id, t.id, t.transactionType, t.amount, t.balanceSnapshot, t.transactedAt) " +
+            "from Transaction t where t.account.id in :accountIds and t.transactionResultType = :resultType " +
+            "and (t.account.id > :afterAccountId or (t.account.id = :afterAccountId and " +
+            "(t.transactedAt > :afterTransactedAt or (t.transactedAt = :afterTransactedAt and t.id > :afterId)))) " +
+            "order by t.account.id, t.transactedAt, t.id")
+    List<LedgerRow> findLedgerPage(@Param("accountIds") List<Long> accountIds,
+                                   @Param("resultType") TransactionResultType resultType,
+                                   @Param("afterAccountId") Long afterAccountId,
+                                   @Param("afterTransactedAt") LocalDateTime afterTransactedAt,
+                                   @Param("afterId") Long afterId,
+                                   Pageable pageable);
+
+    /**
+     * 잔액 이력 backfill 용 거래 목록 (계좌 별, 거래 순서대로)
+     */
+    @Query("select new com.example.spring_project.history.BalanceHistoryRow(" +
+            "t.account.id, t.transactionId, t.transactionType, t.amount, t.balanceSnapshot, t.transactedAt) " +
+            "from Transaction t where t.account.id in :accountIds and t.transactionResultType = :resultType " +
+            "order by t.account.id, t.transactedAt, t.id")
+    List<BalanceHistoryRow> findBalanceHistoryRows(@Param("accountIds") List<Long> accountIds,
+                                                   @Param("resultType") TransactionResultType resultType);
+
 }
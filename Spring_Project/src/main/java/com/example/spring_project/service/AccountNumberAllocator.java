@@ -0,0 +1,141 @@
+package com.example.spring_project.service;
+
+import com.example.spring_project.datasource.Shards;
+import com.example.spring_project.domain.AccountNumber;
+import com.example.spring_project.domain.AccountNumberCounter;
+import com.example.spring_project.repository.AccountNumberCounterRepository;
+import com.example.spring_project.repository.AccountRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * 계좌번호 할당
+ *
+ * 현재 shard 의 카운터 행을 한 번 update 해서 필요한 개수만큼의 번호 구간을 예약한다.
+ * 번호는 shard 수 간격이라 모두 현재 shard 로 돌아오고, id 순서와는 상관없다.
+ * 카운터 행이 없으면(새 DB, 카운터 도입 전 DB) 그 shard 의 가장 큰 계좌번호 다음부터 시작한다.
+ */
+@Slf4j
+@Component
+public class AccountNumberAllocator {
+
+    private static final Long COUNTER_ID = 1L;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final String ACCOUNT_NUMBER_INDEX = "ux_account_account_number";
+
+    private final AccountNumberCounterRepository counterRepository;
+    private final AccountRepository accountRepository;
+    private final Shards shards;
+    private final TransactionTemplate newTransactionTemplate;
+
+    public AccountNumberAllocator(AccountNumberCounterRepository counterRepository,
+                                  AccountRepository accountRepository,
+                                  Shards shards,
+                                  PlatformTransactionManager transactionManager) {
+        this.counterRepository = counterRepository;
+        this.accountRepository = accountRepository;
+        this.shards = shards;
+        this.newTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.newTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * 시작할 때 shard 마다 카운터를 미리 만들어 둔다. (첫 계좌 생성이 가장 큰 계좌번호를 찾지 않도록)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeCounters() {
+        shards.onEachShard(() -> {
+            initialize();
+            return null;
+        });
+    }
+
+    /**
+     * 현재 shard 의 계좌번호 count 개를 예약하고 첫 번호를 돌려준다. (다음 번호는 shard 수 간격)
+     * 호출한 트랜잭션 안에서 실행해야 하고, 카운터 행 lock 은 그 트랜잭션이 끝날 때 풀린다.
+     */
+    public long allocate(int count) {
+        long step = shards.count();
+        long increment = step * count;
+        if (counterRepository.advance(COUNTER_ID, increment) == 0) {
+            initialize();
+            if (counterRepository.advance(COUNTER_ID, increment) == 0) {
+                throw new IllegalStateException("Account number counter is missing");
+            }
+        }
+        long last = counterRepository.findLastNumber(COUNTER_ID);
+        if (last > AccountNumber.LAST) {
+            throw new IllegalStateException("Account numbers are exhausted");
+        }
+        return last - increment + step;
+    }
+
+    /**
+     * 계좌번호 unique 제약에 걸리면 모든 shard 의 카운터를 가장 큰 계좌번호 이상으로 맞추고 다시 실행한다.
+     * (카운터를 거치지 않고 계좌가 만들어진 경우) creation 은 트랜잭션 밖에서 부르는 계좌 생성이어야 한다.
+     */
+    public <T> T retryOnDuplicate(Supplier<T> creation) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return creation.get();
+            } catch (DataIntegrityViolationException e) {
+                if (attempt == MAX_ATTEMPTS || !isDuplicateAccountNumber(e)) {
+                    throw e;
+                }
+                log.warn("Duplicate account number, resyncing counters (attempt {})", attempt);
+                shards.onEachShard(() -> {
+                    resync();
+                    return null;
+                });
+            }
+        }
+    }
+
+    /**
+     * 카운터를 현재 shard 의 가장 큰 계좌번호 이상으로 올린다.
+     */
+    public void resync() {
+        initialize();
+        newTransactionTemplate.execute(status -> counterRepository.raise(COUNTER_ID, lastAccountNumber()));
+    }
+
+    private void initialize() {
+        try {
+            newTransactionTemplate.execute(status -> {
+                if (!counterRepository.existsById(COUNTER_ID)) {
+                    counterRepository.save(AccountNumberCounter.builder()
+                            .id(COUNTER_ID)
+                            .lastNumber(lastAccountNumber())
+                            .build());
+                }
+                return null;
+            });
+        } catch (DataIntegrityViolationException e) {
+            // 다른 요청이 먼저 만들었다.
+            log.debug("Account number counter was created concurrently");
+        }
+    }
+
+    /**
+     * 현재 shard 에서 마지막으로 쓴 것으로 볼 번호, 다음 번호가 가장 큰 계좌번호보다 커지도록 맞춘다.
+     */
+    private long lastAccountNumber() {
+        Long max = accountRepository.findMaxAccountNumber();
+        return shards.accountNumberAfter(max == null ? AccountNumber.FIRST - 1 : max) - shards.count();
+    }
+
+    private static boolean isDuplicateAccountNumber(DataIntegrityViolationException e) {
+        String message = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+        return message != null && message.toLowerCase(Locale.ROOT).contains(ACCOUNT_NUMBER_INDEX);
+    }
+}
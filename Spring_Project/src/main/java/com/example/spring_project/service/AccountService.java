@@ -1,9 +1,19 @@
 package com.example.spring_project.service;
 
+import com.example.spring_project.datasource.AllocateShard;
+import com.example.spring_project.datasource.ReadYourWrites;
+import com.example.spring_project.datasource.ShardKey;
+import com.example.spring_project.datasource.Shards;
 import com.example.spring_project.domain.Account;
+import com.example.spring_project.domain.AccountBalanceHistory;
+import com.example.spring_project.domain.AccountNumber;
 import com.example.spring_project.domain.AccountUser;
+import com.example.spring_project.dto.AccountBalanceAt;
 import com.example.spring_project.dto.AccountDto;
+import com.example.spring_project.dto.BulkAccountResult;
+import com.example.spring_project.dto.CreateAccount;
 import com.example.spring_project.exception.AccountException;
+import com.example.spring_project.repository.AccountBalanceHistoryRepository;
 import com.example.spring_project.repository.AccountRepository;
 import com.example.spring_project.repository.AccountUserRepository;
 import com.example.spring_project.type.AccountStatus;
@@ -13,17 +23,29 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class AccountService {
 
+    private static final int MAX_ACCOUNT_PER_USER = 10;
 
     private final AccountRepository accountRepository;
     private final AccountUserRepository accountUserRepository;
+    private final AccountBalanceHistoryRepository accountBalanceHistoryRepository;
+    private final ReadYourWrites readYourWrites;
+    private final Shards shards;
+    private final AccountNumberAllocator accountNumberAllocator;
 
     /**
      *
@@ -31,25 +53,124 @@ public class AccountService {
      * 계좌의 번호 생성 --> 정보를 넘긴다.
      */
     @Transactional
+    @AllocateShard
     public AccountDto createAccount(Long userId , Long initialBalance) {
 
         AccountUser accountUser = getAccountUser(userId);
 
         validateCreateAccount(accountUser);
 
-        String newAccountNumber = accountRepository.findFirstByOrderByIdDesc()
-                .map(account -> (Integer.parseInt(account.getAccountNumber())) + 1 + "")
-                .orElse("1000000000");
-
-        return AccountDto.fromEntity(
-                accountRepository.save(Account.builder()
-                        .accountUser(accountUser)
-                        .accountStatus(AccountStatus.IN_USE)
-                        .accountNumber(newAccountNumber)
-                        .balance(initialBalance)
-                        .registerAt(LocalDateTime.now())
-                        .build()
-        ));
+        String newAccountNumber = AccountNumber.toString(accountNumberAllocator.allocate(1));
+
+        Account account = accountRepository.save(Account.builder()
+                .accountUser(accountUser)
+                .accountStatus(AccountStatus.IN_USE)
+                .accountNumber(newAccountNumber)
+                .balance(initialBalance)
+                .registerAt(LocalDateTime.now())
+                .build());
+        accountBalanceHistoryRepository.save(AccountBalanceHistory.opening(account));
+        readYourWrites.written(ReadYourWrites.userKey(userId), ReadYourWrites.accountKey(account.getId()));
+
+        return AccountDto.fromEntity(account);
+    }
+
+    /**
+     * 일괄 계좌 생성
+     * 사용자 조회 1번, 사용자 별 계좌 수 update 1번, 계좌번호 카운터 update 1번으로
+     * 만들 개수만큼 계좌번호 구간을 예약해서 한꺼번에 저장한다. (결과는 요청 순서대로)
+     */
+    @Transactional
+    @AllocateShard
+    public List<BulkAccountResult> createAccounts(List<CreateAccount.Request> requests) {
+
+        Set<Long> userIds = requests.stream()
+                .map(CreateAccount.Request::getUserId)
+                .collect(Collectors.toSet());
+
+        Map<Long, AccountUser> users = accountUserRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(AccountUser::getId, Function.identity()));
+
+        Map<Long, Integer> requestedCounts = new HashMap<>();
+        requests.stream()
+                .filter(request -> users.containsKey(request.getUserId()))
+                .forEach(request -> requestedCounts.merge(request.getUserId(), 1, Integer::sum));
+
+        Map<Long, Integer> reservedCounts = new HashMap<>();
+        requestedCounts.forEach((userId, requested) ->
+                reservedCounts.put(userId, reserveAccounts(users.get(userId), requested)));
+
+        int reservedTotal = reservedCounts.values().stream()
+                .mapToInt(Integer::intValue)
+                .sum();
+        long nextAccountNumber = reservedTotal == 0 ? 0 : accountNumberAllocator.allocate(reservedTotal);
+
+        LocalDateTime registerAt = LocalDateTime.now();
+        List<BulkAccountResult> results = new ArrayList<>(requests.size());
+        List<Account> accounts = new ArrayList<>(requests.size());
+
+        for (CreateAccount.Request request : requests) {
+            AccountUser accountUser = users.get(request.getUserId());
+            if (accountUser == null) {
+                results.add(BulkAccountResult.fail(request.getUserId(), ErrorCode.USER_NOT_FOUND));
+                continue;
+            }
+            int reserved = reservedCounts.get(accountUser.getId());
+            if (reserved == 0) {
+                results.add(BulkAccountResult.fail(request.getUserId(), ErrorCode.MAX_ACCOUNT_PER_USER_10));
+                continue;
+            }
+            reservedCounts.put(accountUser.getId(), reserved - 1);
+
+            Account account = Account.builder()
+                    .accountUser(accountUser)
+                    .accountStatus(AccountStatus.IN_USE)
+                    .accountNumber(AccountNumber.toString(nextAccountNumber))
+                    .balance(request.getInitialBalance())
+                    .registerAt(registerAt)
+                    .build();
+            nextAccountNumber += shards.count();
+            accounts.add(account);
+            results.add(BulkAccountResult.success(AccountDto.fromEntity(account)));
+        }
+
+        // jdbc batch_size 단위로 insert 가 묶인다.
+        accountRepository.saveAll(accounts);
+        accountBalanceHistoryRepository.saveAll(accounts.stream()
+                .map(AccountBalanceHistory::opening)
+                .collect(Collectors.toList()));
+        readYourWrites.written(Stream.concat(
+                        users.keySet().stream().map(ReadYourWrites::userKey),
+                        accounts.stream().map(account -> ReadYourWrites.accountKey(account.getId())))
+                .toArray(String[]::new));
+
+        return results;
+    }
+
+    /**
+     * 요청한 개수 중 최대 계좌 수를 넘지 않는 만큼 활성 계좌 수를 늘리고, 실제로 늘린 개수를 돌려준다.
+     * 조회한 뒤 다른 요청이 먼저 늘렸으면 한 개씩 다시 시도한다.
+     */
+    private int reserveAccounts(AccountUser accountUser, int requested) {
+        int available = Math.min(requested, MAX_ACCOUNT_PER_USER - accountUser.getActiveAccountCount());
+        if (available > 0 && increaseActiveAccountCount(accountUser.getId(), available) == 1) {
+            return available;
+        }
+
+        int reserved = 0;
+        while (reserved < requested && increaseActiveAccountCount(accountUser.getId(), 1) == 1) {
+            reserved++;
+        }
+        return reserved;
+    }
+
+    /**
+     * 활성 계좌 수는 기본 shard 의 사용자 행에서만 센다. (sharding 을 끄면 같은 트랜잭션)
+     */
+    private int increaseActiveAccountCount(Long userId, int count) {
+        return shards.onHomeShard(
+                () -> accountUserRepository.increaseActiveAccountCount(userId, count, MAX_ACCOUNT_PER_USER),
+                () -> accountUserRepository.decreaseActiveAccountCount(userId, count));
     }
 
     private AccountUser getAccountUser(Long userId) {
@@ -59,23 +180,43 @@ public class AccountService {
     }
 
     private void validateCreateAccount(AccountUser accountUser) {
-        if(accountRepository.countByAccountUser(accountUser) >= 10) {
+        // 최대 계좌 수 확인과 증가를 한 번의 조건부 update 로 처리한다.
+        if(increaseActiveAccountCount(accountUser.getId(), 1) == 0) {
             throw new AccountException(ErrorCode.MAX_ACCOUNT_PER_USER_10);
         }
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     public Account getAccount(Long id) {
 
         if(id < 0) {
             throw new RuntimeException("Minus");
         }
+        readYourWrites.readAfterWrite(ReadYourWrites.accountKey(id));
+
+        // id 는 shard 사이에 겹치지 않지만 id 로 shard 를 알 수는 없으므로 모든 shard 에서 찾는다.
+        return shards.scatter(() -> accountRepository.findById(id)).stream()
+                .flatMap(Optional::stream)
+                .findFirst()
+                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+    }
+
+    /**
+     * at 시점의 잔액, 잔액 이력 index 에서 at 이전 마지막 행 하나만 읽는다.
+     * 이력이 없으면 계좌가 없는 것인지 개설 전 시점인지 한 번 더 확인한다.
+     */
+    @Transactional(readOnly = true)
+    public AccountBalanceAt getBalanceAt(@ShardKey String accountNumber, LocalDateTime at) {
 
-        return accountRepository.findById(id).get();
+        return accountBalanceHistoryRepository.findBalanceAt(accountNumber, at)
+                .map(history -> AccountBalanceAt.fromEntity(history, at))
+                .orElseThrow(() -> new AccountException(accountRepository.findByAccountNumber(accountNumber).isPresent()
+                        ? ErrorCode.BALANCE_HISTORY_NOT_FOUND
+                        : ErrorCode.ACCOUNT_NOT_FOUND));
     }
 
     @Transactional
-    public AccountDto deleteAccount(Long userId, String accountNumber) {
+    public AccountDto deleteAccount(Long userId, @ShardKey String accountNumber) {
 
         AccountUser accountUser = getAccountUser(userId);
 
@@ -84,10 +225,18 @@ public class AccountService {
 
         ValidateDeleteAccount(accountUser,account);
 
+        // 조회한 뒤 다른 요청이 먼저 해지했으면 0 이다. 활성 계좌 수는 해지한 요청만 줄인다.
+        LocalDateTime unRegisterAt = LocalDateTime.now();
+        if(accountRepository.unregister(account.getId(), unRegisterAt) == 0) {
+            throw new AccountException(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED);
+        }
         account.setAccountStatus(AccountStatus.UNREGISTERED);
-        account.setUnRegisterAt(LocalDateTime.now());
+        account.setUnRegisterAt(unRegisterAt);
 
-        accountRepository.save(account);
+        shards.onHomeShard(
+                () -> accountUserRepository.decreaseActiveAccountCount(accountUser.getId(), 1),
+                () -> accountUserRepository.increaseActiveAccountCount(accountUser.getId(), 1, Integer.MAX_VALUE));
+        readYourWrites.written(ReadYourWrites.userKey(accountUser.getId()), ReadYourWrites.accountKey(account.getId()));
 
         return AccountDto.fromEntity(account);
     }
@@ -105,13 +254,16 @@ public class AccountService {
         }
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     public List<AccountDto> getAccountByUserId(Long userId) {
+        readYourWrites.readAfterWrite(ReadYourWrites.userKey(userId));
         AccountUser accountUser = getAccountUser(userId);
 
-        List<Account> accounts = accountRepository.findByAccountUser(accountUser);
+        // 사용자의 계좌는 여러 shard 에 있으므로 모든 shard 에서 모은다.
+        List<List<Account>> accounts = shards.scatter(() -> accountRepository.findByAccountUser(accountUser));
 
         return accounts.stream()
+                .flatMap(List::stream)
                 .map(AccountDto :: fromEntity)
                 .collect(Collectors.toList());
 
@@ -0,0 +1,160 @@
+package com.example.spring_project.service;
+
+import com.example.spring_project.domain.Account;
+import com.example.spring_project.domain.AccountUser;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * 계좌 lock 을 잡은 요청 하나 동안 조회한 사용자 / 계좌를 들고 있는다. (LockAopAspect 가 시작하고 끝낸다.)
+ * 잔액 사용 / 취소가 실패해서 트랜잭션이 롤백된 뒤 실패 거래를 남길 때 계좌를 다시 조회하지 않도록 한다.
+ * lock 이 잡혀 있으므로 그 사이에 다른 요청이 계좌를 바꾸지 않는다.
+ * 이전 트랜잭션에서 읽은 엔티티는 준영속이므로 참조(FK)와 읽기로만 쓴다.
+ * AccountLock(mutationOnly = true) 범위면 lock 은 잔액을 바꾸는 동안만 잡히므로, 담아 둔 잔액은 마지막으로 읽은 시점의 값이다.
+ */
+public final class AccountUnitOfWork {
+
+    private static final ThreadLocal<AccountUnitOfWork> CURRENT = new ThreadLocal<>();
+
+    private AccountUser user;
+    private Account account;
+    // 조회 시점 잔액, 실패한 트랜잭션 안에서 엔티티의 잔액이 바뀌었어도 이 값이 실제 잔액이다.
+    private Long loadedBalance;
+    // 이 범위에서 잡은(또는 잡을) 계좌 lock 의 계좌번호
+    private String lockAccountNumber;
+    private boolean lockHeld;
+    // 메서드 전체에 잡은 lock 이면 LockAopAspect 가 푼다.
+    private boolean methodLock;
+
+    private AccountUnitOfWork() {
+    }
+
+    /**
+     * 새 범위를 시작하고 이전 범위를 돌려준다. (end 에 넘긴다.)
+     */
+    static AccountUnitOfWork begin() {
+        AccountUnitOfWork previous = CURRENT.get();
+        CURRENT.set(new AccountUnitOfWork());
+        return previous;
+    }
+
+    /**
+     * 메서드 전체에 계좌 lock 을 잡은 범위를 시작한다.
+     */
+    static AccountUnitOfWork beginLocked(String accountNumber) {
+        AccountUnitOfWork previous = begin();
+        AccountUnitOfWork unitOfWork = CURRENT.get();
+        unitOfWork.lockAccountNumber = accountNumber;
+        unitOfWork.lockHeld = true;
+        unitOfWork.methodLock = true;
+        return previous;
+    }
+
+    /**
+     * lock 을 아직 잡지 않은 범위를 시작한다. (AccountLock.mutationOnly)
+     */
+    static AccountUnitOfWork beginDeferred(String accountNumber) {
+        AccountUnitOfWork previous = begin();
+        CURRENT.get().lockAccountNumber = accountNumber;
+        return previous;
+    }
+
+    static void end(AccountUnitOfWork previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    /**
+     * 이 범위가 계좌 lock 을 이미 잡고 있으면 true
+     */
+    static boolean holdsLock(String accountNumber) {
+        AccountUnitOfWork unitOfWork = CURRENT.get();
+        return unitOfWork != null && unitOfWork.lockHeld
+                && Objects.equals(unitOfWork.lockAccountNumber, accountNumber);
+    }
+
+    /**
+     * 범위 안에서 잡은 lock 을 기록한다. (범위 밖이거나 다른 lock 을 잡고 있으면 기록하지 않는다.)
+     */
+    static void lockAcquired(String accountNumber) {
+        AccountUnitOfWork unitOfWork = CURRENT.get();
+        if (unitOfWork != null && !unitOfWork.lockHeld) {
+            unitOfWork.lockAccountNumber = accountNumber;
+            unitOfWork.lockHeld = true;
+        }
+    }
+
+    /**
+     * 나중에 잡은 lock 을 푼 것으로 표시한다. 잡고 있었으면 true (메서드 전체에 잡은 lock 은 false)
+     */
+    static boolean lockReleased(String accountNumber) {
+        AccountUnitOfWork unitOfWork = CURRENT.get();
+        if (unitOfWork == null || !unitOfWork.lockHeld || unitOfWork.methodLock
+                || !Objects.equals(unitOfWork.lockAccountNumber, accountNumber)) {
+            return false;
+        }
+        unitOfWork.lockHeld = false;
+        return true;
+    }
+
+    /**
+     * 범위 안에서 이미 읽은 사용자면 그대로, 아니면 loader 로 읽어서 담아 둔다.
+     */
+    public static AccountUser user(Long userId, Supplier<AccountUser> loader) {
+        AccountUnitOfWork unitOfWork = CURRENT.get();
+        if (unitOfWork == null) {
+            return loader.get();
+        }
+        if (unitOfWork.user == null || !Objects.equals(unitOfWork.user.getId(), userId)) {
+            unitOfWork.user = loader.get();
+        }
+        return unitOfWork.user;
+    }
+
+    /**
+     * 범위 안에서 이미 읽은 계좌면 그대로, 아니면 loader 로 읽어서 담아 둔다.
+     */
+    public static Account account(String accountNumber, Supplier<Account> loader) {
+        AccountUnitOfWork unitOfWork = CURRENT.get();
+        if (unitOfWork == null) {
+            return loader.get();
+        }
+        if (unitOfWork.account == null || !Objects.equals(unitOfWork.account.getAccountNumber(), accountNumber)) {
+            loaded(loader.get());
+        }
+        return unitOfWork.account;
+    }
+
+    /**
+     * 다른 조회(원 거래 fetch join 등)로 읽은 계좌를 담아 둔다.
+     */
+    public static void loaded(Account account) {
+        AccountUnitOfWork unitOfWork = CURRENT.get();
+        if (unitOfWork != null) {
+            unitOfWork.account = account;
+            unitOfWork.loadedBalance = account.getBalance();
+            if (unitOfWork.user == null) {
+                unitOfWork.user = account.getAccountUser();
+            }
+        }
+    }
+
+    /**
+     * 범위 안에서 읽은 계좌면 조회 시점 잔액, 아니면 지금 엔티티의 잔액
+     */
+    public static Long loadedBalance(Account account) {
+        AccountUnitOfWork unitOfWork = CURRENT.get();
+        if (unitOfWork != null && unitOfWork.account == account) {
+            return unitOfWork.loadedBalance;
+        }
+        return account.getBalance();
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.spring_project.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 사용자 별 사용 중인 계좌 수 (shard 마다 세서 더한다.)
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class ActiveAccountCount {
+
+    private Long userId;
+    private Long count;
+
+}
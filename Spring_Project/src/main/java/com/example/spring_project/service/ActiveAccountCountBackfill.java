@@ -0,0 +1,87 @@
+package com.example.spring_project.service;
+
+import com.example.spring_project.datasource.Shards;
+import com.example.spring_project.repository.AccountRepository;
+import com.example.spring_project.repository.AccountUserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 활성 계좌 수 컬럼이 생기기 전에 만들어진 사용자의 값을 실제 사용 중인 계좌 수로 채운다.
+ *
+ * - 사용자를 id 순서로 chunk 단위로 읽고, 모든 shard 의 사용 중인 계좌 수를 더해서 기본 shard 에 쓴다. (다시 돌려도 된다.)
+ * - 세는 동안 만들어지거나 해지된 계좌는 반영되지 않을 수 있으므로 계좌 생성 / 해지가 없을 때 돌린다.
+ */
+@Slf4j
+@Service
+public class ActiveAccountCountBackfill {
+
+    private final AccountUserRepository accountUserRepository;
+    private final AccountRepository accountRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Shards shards;
+    private final int chunkSize;
+    private final boolean onStartup;
+
+    public ActiveAccountCountBackfill(AccountUserRepository accountUserRepository,
+                                      AccountRepository accountRepository,
+                                      PlatformTransactionManager transactionManager,
+                                      Shards shards,
+                                      @Value("${account.active-count.backfill.chunk-size:1000}") int chunkSize,
+                                      @Value("${account.active-count.backfill.on-startup:false}") boolean onStartup) {
+        this.accountUserRepository = accountUserRepository;
+        this.accountRepository = accountRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shards = shards;
+        this.chunkSize = chunkSize;
+        this.onStartup = onStartup;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (onStartup) {
+            long started = System.nanoTime();
+            long updated = backfill();
+            log.info("Active account count backfill finished. {} users in {}ms",
+                    updated, (System.nanoTime() - started) / 1_000_000);
+        }
+    }
+
+    /**
+     * @return 값을 바꾼 사용자 수
+     */
+    public long backfill() {
+        long updated = 0;
+        long afterId = 0L;
+        while (true) {
+            List<Long> userIds = accountUserRepository.findIdChunk(afterId, PageRequest.of(0, chunkSize));
+            if (userIds.isEmpty()) {
+                return updated;
+            }
+            Map<Long, Long> counts = countActiveAccounts(userIds);
+            updated += transactionTemplate.execute(status -> userIds.stream()
+                    .mapToInt(userId -> accountUserRepository.setActiveAccountCount(
+                            userId, counts.getOrDefault(userId, 0L).intValue()))
+                    .sum());
+            afterId = userIds.get(userIds.size() - 1);
+        }
+    }
+
+    private Map<Long, Long> countActiveAccounts(List<Long> userIds) {
+        Map<Long, Long> counts = new HashMap<>();
+        shards.scatter(() -> accountRepository.countActiveAccounts(userIds))
+                .forEach(shardCounts -> shardCounts.forEach(count ->
+                        counts.merge(count.getUserId(), count.getCount(), Long::sum)));
+        return counts;
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.spring_project.service;
+
+import com.example.spring_project.datasource.ReadYourWrites;
+import com.example.spring_project.datasource.ShardKey;
+import com.example.spring_project.domain.Account;
+import com.example.spring_project.domain.AccountBalanceHistory;
+import com.example.spring_project.domain.AccountUser;
+import com.example.spring_project.domain.BalanceChangeOutbox;
+import com.example.spring_project.domain.Transaction;
+import com.example.spring_project.dto.TransactionDto;
+import com.example.spring_project.exception.AccountException;
+import com.example.spring_project.repository.AccountBalanceHistoryRepository;
+import com.example.spring_project.repository.AccountRepository;
+import com.example.spring_project.repository.AccountUserRepository;
+import com.example.spring_project.repository.BalanceChangeOutboxRepository;
+import com.example.spring_project.repository.TransactionRepository;
+import com.example.spring_project.type.AccountStatus;
+import com.example.spring_project.type.ErrorCode;
+import com.example.spring_project.type.TransactionResultType;
+import com.example.spring_project.type.TransactionType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * 잔액 사용 / 취소의 트랜잭션 부분 (TransactionService 가 계좌 lock 을 사이에 두고 차례로 부른다.)
+ *
+ * - check : lock 을 잡기 전, 잔액과 상관없는 검증을 짧은 readOnly 트랜잭션에서 한다.
+ * - use / cancel : lock 을 잡은 뒤, 계좌를 다시 읽어서 잔액을 바꾸고 거래 / 이력 / outbox 를 남기는 트랜잭션
+ * lock 은 트랜잭션 밖에서 잡으므로 lock 을 기다리는 요청은 DB connection 을 잡고 있지 않는다.
+ */
+@Service
+@RequiredArgsConstructor
+public class BalanceChangeService {
+
+    private final TransactionRepository transactionRepository;
+    private final AccountUserRepository accountUserRepository;
+    private final AccountRepository accountRepository;
+    private final BalanceChangeOutboxRepository balanceChangeOutboxRepository;
+    private final AccountBalanceHistoryRepository accountBalanceHistoryRepository;
+    private final ReadYourWrites readYourWrites;
+
+    /**
+     * 사용자 / 계좌 조회와 소유주, 계좌 상태 확인. 잔액이 모자라면 use 에서 실패한다.
+     * @return 확인한 계좌 (준영속, 참조와 읽기로만 쓴다.)
+     */
+    @Transactional(readOnly = true)
+    public Account checkUse(Long userId, @ShardKey String accountNumber) {
+        readYourWrites.readAfterWrite(ReadYourWrites.userKey(userId));
+
+        AccountUser user = AccountUnitOfWork.user(userId, () -> accountUserRepository.findById(userId)
+                .orElseThrow(() -> new AccountException(ErrorCode.USER_NOT_FOUND)));
+        Account account = AccountUnitOfWork.account(accountNumber, () -> accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND)));
+
+        if(!Objects.equals(user.getId(), account.getAccountUser().getId())) {
+            throw new AccountException(ErrorCode.USER_ACCOUNT_UN_MATCH);
+        }
+        validateInUse(account);
+        return account;
+    }
+
+    /**
+     * 원 거래를 계좌와 함께 한 번의 조회로 가져와서 검증한다.
+     * @return 취소할 원 거래 (준영속)
+     */
+    @Transactional(readOnly = true)
+    public Transaction checkCancel(String transactionId, @ShardKey String accountNumber, Long amount) {
+        readYourWrites.readAfterWrite(ReadYourWrites.transactionKey(transactionId));
+
+        Transaction transaction = transactionRepository.findCancelTargetByTransactionId(transactionId)
+                .orElseThrow(() -> new AccountException(ErrorCode.TRANSACTION_NOT_FOUND));
+        AccountUnitOfWork.loaded(transaction.getAccount());
+
+        if (!Objects.equals(transaction.getAccount().getAccountNumber(), accountNumber)) {
+            throw new AccountException(ErrorCode.TRANSACTION_ACCOUNT_UM_MATCH);
+        }
+        if(!Objects.equals(transaction.getAmount(), amount)) {
+            throw new AccountException(ErrorCode.TRANSACTION_MUST_FULLY);
+        }
+        if(transaction.getTransactedAt().isBefore(LocalDateTime.now().minusYears(1))) {
+            throw new AccountException(ErrorCode.TOO_OLD_ORDER_TO_CANCEL);
+        }
+        return transaction;
+    }
+
+    /**
+     * 계좌를 다시 읽어서 차감한다. check 뒤에 해지되었으면 여기서 실패한다.
+     */
+    @Transactional
+    public TransactionDto use(Long accountId, @ShardKey String accountNumber, Long amount) {
+
+        Account account = reload(accountId);
+        validateInUse(account);
+        account.useBalance(amount);
+
+        Transaction transaction = Transaction.create(TransactionType.USE, TransactionResultType.S,
+                account, amount, account.getBalance());
+        saveBalanceHistory(transaction);
+        transaction = transactionRepository.save(transaction);
+        saveOutbox(transaction);
+        markWritten(account, transaction);
+
+        return TransactionDto.fromEntity(transaction);
+    }
+
+    /**
+     * 계좌를 다시 읽어서 되돌리고 취소 거래를 남긴다.
+     * 중복 취소는 취소 거래의 originalTransactionId unique 제약으로 막는다.
+     */
+    @Transactional
+    public TransactionDto cancel(String originalTransactionId, Long accountId, @ShardKey String accountNumber, Long amount) {
+
+        Account account = reload(accountId);
+        account.cancelBalance(amount);
+
+        Transaction cancel = Transaction.create(TransactionType.CANCEL, TransactionResultType.S,
+                account, amount, account.getBalance());
+        cancel.setOriginalTransactionId(originalTransactionId);
+        try {
+            // 중복 취소를 이 메서드 안에서 알 수 있도록 바로 flush 한다.
+            cancel = transactionRepository.saveAndFlush(cancel);
+        } catch (DataIntegrityViolationException e) {
+            throw new AccountException(ErrorCode.TRANSACTION_ALREADY_CANCELED);
+        }
+        saveBalanceHistory(cancel);
+        saveOutbox(cancel);
+        markWritten(account, cancel);
+
+        return TransactionDto.fromEntity(cancel);
+    }
+
+    /**
+     * check 에서 읽은 계좌는 다른 트랜잭션의 것이므로 lock 을 잡은 뒤 primary 에서 다시 읽는다.
+     * 실패 거래는 여기서 읽은(바꾸기 전) 잔액으로 남긴다.
+     */
+    private Account reload(Long accountId) {
+        Account account = accountRepository.findById(accountId)
+                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+        AccountUnitOfWork.loaded(account);
+        return account;
+    }
+
+    private static void validateInUse(Account account) {
+        if(account.getAccountStatus() != AccountStatus.IN_USE) {
+            throw new AccountException(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED);
+        }
+    }
+
+    /**
+     * 잔액이 바뀐 거래만 같은 트랜잭션에서 outbox 에 남긴다. (발행은 OutboxRelay)
+     * 계좌 lock 안에서 계좌의 balanceVersion 을 올려서 이벤트의 계좌 별 순번으로 쓴다.
+     */
+    private void saveOutbox(Transaction transaction) {
+        balanceChangeOutboxRepository.save(BalanceChangeOutbox.from(transaction,
+                transaction.getAccount().nextBalanceVersion()));
+    }
+
+    /**
+     * 특정 시점 잔액 조회용 이력, 거래와 같은 트랜잭션에서 남긴다.
+     */
+    private void saveBalanceHistory(Transaction transaction) {
+        accountBalanceHistoryRepository.save(AccountBalanceHistory.from(transaction));
+    }
+
+    /**
+     * 바로 이어지는 조회(잔액, 거래 확인)가 replica 지연으로 이전 값을 읽지 않도록 primary 로 보낸다.
+     */
+    private void markWritten(Account account, Transaction transaction) {
+        readYourWrites.written(
+                ReadYourWrites.userKey(account.getAccountUser().getId()),
+                ReadYourWrites.accountKey(account.getId()),
+                ReadYourWrites.transactionKey(transaction.getTransactionId()));
+    }
+}
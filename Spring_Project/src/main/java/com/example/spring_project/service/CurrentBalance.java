@@ -0,0 +1,19 @@
+package com.example.spring_project.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 조건부 update 뒤에 다시 읽는 잔액 (엔티티 대신 필요한 컬럼만 읽는다.)
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class CurrentBalance {
+
+    private Long balance;
+    private long heldBalance;
+    private long balanceVersion;
+
+}
@@ -0,0 +1,73 @@
+package com.example.spring_project.service;
+
+import com.example.spring_project.dto.BalanceHoldDto;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 승인 만료
+ *
+ * 승인할 때 timer wheel(HashedWheelTimer)에 만료 시각을 걸어두고, 만료되면 계좌 lock 을 잡고 해제한다.
+ * 재시작이나 다른 서버에서 만든 승인처럼 wheel 에 없는 것은 주기적으로 DB 에서 찾아서 해제한다.
+ */
+@Slf4j
+@Component
+public class HoldExpiryScheduler implements DisposableBean {
+
+    private static final long RETRY_SECONDS = 5;
+    private static final int SWEEP_BATCH = 500;
+
+    private final HoldService holdService;
+    private final LockService lockService;
+    private final HashedWheelTimer timer;
+
+    public HoldExpiryScheduler(HoldService holdService,
+                               LockService lockService,
+                               @Value("${hold.wheel.tick-ms:1000}") long tickMillis) {
+        this.holdService = holdService;
+        this.lockService = lockService;
+        this.timer = new HashedWheelTimer(new DefaultThreadFactory("hold-expiry", true),
+                tickMillis, TimeUnit.MILLISECONDS, 512);
+    }
+
+    public void schedule(String holdId, String accountNumber, LocalDateTime expiresAt) {
+        long delayMillis = Math.max(0, Duration.between(LocalDateTime.now(), expiresAt).toMillis());
+        timer.newTimeout(timeout -> expire(holdId, accountNumber), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    void expire(String holdId, String accountNumber) {
+        try {
+            lockService.lock(accountNumber);
+            try {
+                holdService.expire(holdId, accountNumber);
+            } finally {
+                lockService.unlock(accountNumber);
+            }
+        } catch (Exception e) {
+            // lock 을 못 잡은 경우 등은 잠시 후 다시 시도한다.
+            log.warn("Failed to expire hold {}, retry in {}s", holdId, RETRY_SECONDS, e);
+            timer.newTimeout(timeout -> expire(holdId, accountNumber), RETRY_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${hold.sweep-delay-ms:60000}")
+    public void sweepExpiredHolds() {
+        for (BalanceHoldDto hold : holdService.findExpiredHolds(SWEEP_BATCH)) {
+            expire(hold.getHoldId(), hold.getAccountNumber());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        timer.stop();
+    }
+}
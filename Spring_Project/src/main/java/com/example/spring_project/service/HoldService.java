@@ -0,0 +1,203 @@
+package com.example.spring_project.service;
+
+import com.example.spring_project.datasource.ReadYourWrites;
+import com.example.spring_project.datasource.ShardKey;
+import com.example.spring_project.datasource.Shards;
+import com.example.spring_project.domain.Account;
+import com.example.spring_project.domain.AccountBalanceHistory;
+import com.example.spring_project.domain.BalanceChangeOutbox;
+import com.example.spring_project.domain.BalanceHold;
+import com.example.spring_project.domain.Transaction;
+import com.example.spring_project.dto.BalanceHoldDto;
+import com.example.spring_project.exception.AccountException;
+import com.example.spring_project.repository.AccountBalanceHistoryRepository;
+import com.example.spring_project.repository.AccountRepository;
+import com.example.spring_project.repository.BalanceChangeOutboxRepository;
+import com.example.spring_project.repository.BalanceHoldRepository;
+import com.example.spring_project.repository.TransactionRepository;
+import com.example.spring_project.type.AccountStatus;
+import com.example.spring_project.type.ErrorCode;
+import com.example.spring_project.type.HoldStatus;
+import com.example.spring_project.type.TransactionResultType;
+import com.example.spring_project.type.TransactionType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * 승인(hold) / 매입(capture) / 해제(release)
+ *
+ * 승인은 계좌 lock 안에서 사용 가능 금액(balance - heldBalance)을 확인하고 heldBalance 만 늘린다.
+ * 매입 / 해제는 계좌를 읽지 않고 승인 행과 계좌 금액을 조건부 update 로 바꾼다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class HoldService {
+
+    private final AccountRepository accountRepository;
+    private final BalanceHoldRepository balanceHoldRepository;
+    private final TransactionRepository transactionRepository;
+    private final BalanceChangeOutboxRepository balanceChangeOutboxRepository;
+    private final AccountBalanceHistoryRepository accountBalanceHistoryRepository;
+    private final ReadYourWrites readYourWrites;
+    private final Shards shards;
+
+    @Value("${hold.expire-seconds:604800}")
+    private long expireSeconds;
+
+    @Transactional
+    public BalanceHoldDto hold(Long userId, @ShardKey String accountNumber, Long amount) {
+
+        Account account = accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+
+        if(!Objects.equals(userId, account.getAccountUser().getId())) {
+            throw new AccountException(ErrorCode.USER_ACCOUNT_UN_MATCH);
+        }
+        if(account.getAccountStatus() != AccountStatus.IN_USE) {
+            throw new AccountException(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED);
+        }
+
+        account.holdBalance(amount);
+
+        LocalDateTime heldAt = LocalDateTime.now();
+        BalanceHold hold = balanceHoldRepository.save(BalanceHold.builder()
+                .holdId(BalanceHold.generateHoldId())
+                .accountId(account.getId())
+                .accountNumber(accountNumber)
+                .userId(userId)
+                .amount(amount)
+                .status(HoldStatus.HELD)
+                .heldAt(heldAt)
+                .expiresAt(heldAt.plusSeconds(expireSeconds))
+                .build());
+
+        readYourWrites.written(ReadYourWrites.userKey(userId), ReadYourWrites.accountKey(account.getId()));
+
+        return BalanceHoldDto.fromEntity(hold);
+    }
+
+    /**
+     * 승인 금액 전체를 매입해서 사용 거래로 남긴다.
+     */
+    @Transactional
+    public BalanceHoldDto capture(String holdId, @ShardKey String accountNumber) {
+
+        BalanceHold hold = getHeldHold(holdId, accountNumber);
+        LocalDateTime now = LocalDateTime.now();
+        if(hold.isExpired(now)) {
+            throw new AccountException(ErrorCode.HOLD_EXPIRED);
+        }
+
+        // 계좌는 읽지 않고 참조만 건다.
+        Transaction transaction = Transaction.create(TransactionType.USE, TransactionResultType.S,
+                accountRepository.getReferenceById(hold.getAccountId()), hold.getAmount(), null);
+
+        if(balanceHoldRepository.complete(hold.getId(), HoldStatus.CAPTURED, now, transaction.getTransactionId()) == 0) {
+            throw new AccountException(ErrorCode.HOLD_ALREADY_COMPLETED);
+        }
+        if(accountRepository.captureHeldBalance(hold.getAccountId(), hold.getAmount()) == 0) {
+            throw new IllegalStateException("Held balance is smaller than hold " + holdId);
+        }
+        // 위 update 가 올린 balanceVersion 을 잔액과 함께 읽는다.
+        CurrentBalance current = accountRepository.findCurrentBalance(hold.getAccountId());
+        transaction.setBalanceSnapshot(current.getBalance());
+
+        transactionRepository.save(transaction);
+        balanceChangeOutboxRepository.save(BalanceChangeOutbox.from(transaction, hold.getAccountNumber(),
+                current.getBalanceVersion()));
+        accountBalanceHistoryRepository.save(AccountBalanceHistory.from(transaction, hold.getAccountNumber()));
+        readYourWrites.written(
+                ReadYourWrites.userKey(hold.getUserId()),
+                ReadYourWrites.accountKey(hold.getAccountId()),
+                ReadYourWrites.transactionKey(transaction.getTransactionId()));
+
+        return completed(hold, HoldStatus.CAPTURED, now, transaction.getTransactionId());
+    }
+
+    @Transactional
+    public BalanceHoldDto release(String holdId, @ShardKey String accountNumber) {
+
+        return releaseHeld(getHeldHold(holdId, accountNumber), HoldStatus.RELEASED);
+    }
+
+    /**
+     * 만료된 승인을 해제한다. 그 사이 매입 / 해제되었으면 아무것도 하지 않는다.
+     */
+    @Transactional
+    public boolean expire(String holdId, @ShardKey String accountNumber) {
+
+        BalanceHold hold = balanceHoldRepository.findByHoldId(holdId).orElse(null);
+        if(hold == null || hold.getStatus() != HoldStatus.HELD || !hold.isExpired(LocalDateTime.now())) {
+            return false;
+        }
+        try {
+            releaseHeld(hold, HoldStatus.EXPIRED);
+            return true;
+        } catch (AccountException e) {
+            return false;
+        }
+    }
+
+    /**
+     * shard 마다 limit 개까지 모은다.
+     */
+    @Transactional(readOnly = true)
+    public List<BalanceHoldDto> findExpiredHolds(int limit) {
+
+        LocalDateTime now = LocalDateTime.now();
+        return shards.scatter(() -> balanceHoldRepository.findExpiredHolds(now, PageRequest.of(0, limit))).stream()
+                .flatMap(List::stream)
+                .map(BalanceHoldDto::fromEntity)
+                .collect(Collectors.toList());
+    }
+
+    private BalanceHold getHeldHold(String holdId, String accountNumber) {
+
+        BalanceHold hold = balanceHoldRepository.findByHoldId(holdId)
+                .orElseThrow(() -> new AccountException(ErrorCode.HOLD_NOT_FOUND));
+
+        if(!Objects.equals(hold.getAccountNumber(), accountNumber)) {
+            throw new AccountException(ErrorCode.HOLD_ACCOUNT_UN_MATCH);
+        }
+        if(hold.getStatus() != HoldStatus.HELD) {
+            throw new AccountException(ErrorCode.HOLD_ALREADY_COMPLETED);
+        }
+        return hold;
+    }
+
+    private BalanceHoldDto releaseHeld(BalanceHold hold, HoldStatus status) {
+
+        LocalDateTime now = LocalDateTime.now();
+        if(balanceHoldRepository.complete(hold.getId(), status, now, null) == 0) {
+            throw new AccountException(ErrorCode.HOLD_ALREADY_COMPLETED);
+        }
+        if(accountRepository.releaseHeldBalance(hold.getAccountId(), hold.getAmount()) == 0) {
+            throw new IllegalStateException("Held balance is smaller than hold " + hold.getHoldId());
+        }
+        readYourWrites.written(ReadYourWrites.userKey(hold.getUserId()), ReadYourWrites.accountKey(hold.getAccountId()));
+
+        return completed(hold, status, now, null);
+    }
+
+    /**
+     * 승인 행은 조건부 update 로 바꿨으므로 엔티티는 건드리지 않고 응답만 만든다.
+     */
+    private static BalanceHoldDto completed(BalanceHold hold, HoldStatus status, LocalDateTime completedAt, String transactionId) {
+
+        BalanceHoldDto holdDto = BalanceHoldDto.fromEntity(hold);
+        holdDto.setStatus(status);
+        holdDto.setCompletedAt(completedAt);
+        holdDto.setTransactionId(transactionId);
+        return holdDto;
+    }
+}
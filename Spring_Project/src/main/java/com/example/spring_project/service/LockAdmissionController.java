@@ -0,0 +1,130 @@
+package com.example.spring_project.service;
+
+import com.example.spring_project.exception.AccountLockBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 계좌 lock 대기열 입장 제어
+ *
+ * 계좌 별로 이 서버에서 lock 을 기다리거나 잡고 있는 요청 수를 세고,
+ * (앞선 요청 수 x 평균 lock 점유 시간) 이 대기 한도(tryLock wait time)를 넘으면
+ * Redis 에 lock 을 요청하지 않고 바로 거절한다.
+ */
+@Slf4j
+@Component
+public class LockAdmissionController {
+
+    // 평균 점유 시간(EWMA)에서 새 측정값의 비중
+    private static final double ALPHA = 0.2;
+
+    private final boolean enabled;
+    private final long waitBudgetNanos;
+    private final AtomicLong averageHoldNanos;
+
+    private final Map<String, AccountQueue> queues = new ConcurrentHashMap<>();
+
+    private final Counter rejected;
+    private final Timer holdTimer;
+
+    public LockAdmissionController(MeterRegistry meterRegistry,
+                                   @Value("${lock.admission.enabled:true}") boolean enabled,
+                                   @Value("${lock.admission.wait-budget-ms:1000}") long waitBudgetMillis,
+                                   @Value("${lock.admission.initial-hold-ms:50}") long initialHoldMillis) {
+        this.enabled = enabled;
+        this.waitBudgetNanos = TimeUnit.MILLISECONDS.toNanos(waitBudgetMillis);
+        this.averageHoldNanos = new AtomicLong(TimeUnit.MILLISECONDS.toNanos(initialHoldMillis));
+        this.rejected = Counter.builder("lock.admission.rejected")
+                .register(meterRegistry);
+        this.holdTimer = Timer.builder("lock.hold")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 대기열에 들어간다. 대기 한도 안에 차례가 오지 않을 것 같으면 AccountLockBusyException
+     */
+    public void enter(String accountNumber) {
+        AccountQueue queue = queues.compute(accountNumber, (key, current) -> {
+            AccountQueue q = current == null ? new AccountQueue() : current;
+            q.inFlight++;
+            return q;
+        });
+        if (!enabled) {
+            return;
+        }
+
+        long expectedWaitNanos = (queue.inFlight - 1) * averageHoldNanos.get();
+        if (expectedWaitNanos > waitBudgetNanos) {
+            leave(accountNumber);
+            rejected.increment();
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(expectedWaitNanos + 999_999_999L));
+            log.warn("Lock queue is full for accountNumber : {}, expected wait {}ms",
+                    accountNumber, TimeUnit.NANOSECONDS.toMillis(expectedWaitNanos));
+            throw new AccountLockBusyException(retryAfterSeconds);
+        }
+    }
+
+    /**
+     * lock 을 잡았다.
+     */
+    public void acquired(String accountNumber) {
+        AccountQueue queue = queues.get(accountNumber);
+        if (queue != null) {
+            queue.holderSince = System.nanoTime();
+        }
+    }
+
+    /**
+     * lock 을 잡지 못하고 나간다.
+     */
+    public void leave(String accountNumber) {
+        queues.computeIfPresent(accountNumber, (key, q) -> {
+            q.inFlight--;
+            return q.inFlight == 0 ? null : q;
+        });
+    }
+
+    /**
+     * lock 을 풀었다. 점유 시간을 평균에 반영하고 대기열에서 나간다.
+     */
+    public void released(String accountNumber) {
+        AccountQueue queue = queues.get(accountNumber);
+        if (queue != null && queue.holderSince != 0L) {
+            long holdNanos = System.nanoTime() - queue.holderSince;
+            queue.holderSince = 0L;
+            recordHold(holdNanos);
+        }
+        leave(accountNumber);
+    }
+
+    void recordHold(long holdNanos) {
+        holdTimer.record(holdNanos, TimeUnit.NANOSECONDS);
+        averageHoldNanos.accumulateAndGet(holdNanos,
+                (average, sample) -> (long) (average + ALPHA * (sample - average)));
+    }
+
+    long getAverageHoldNanos() {
+        return averageHoldNanos.get();
+    }
+
+    int inFlight(String accountNumber) {
+        AccountQueue queue = queues.get(accountNumber);
+        return queue == null ? 0 : queue.inFlight;
+    }
+
+    private static class AccountQueue {
+        // queues.compute 안에서만 바꾼다.
+        private volatile int inFlight;
+        private volatile long holderSince;
+    }
+}
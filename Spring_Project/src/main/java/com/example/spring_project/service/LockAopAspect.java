@@ -1,32 +1,61 @@
 package com.example.spring_project.service;
 
+import com.example.spring_project.aop.AccountLock;
 import com.example.spring_project.aop.AccountLockIdInterface;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
+// RateLimitAspect 보다 안쪽에서 실행된다.
 @Aspect
 @Component
+@Order(Ordered.LOWEST_PRECEDENCE)
 @Slf4j
 @RequiredArgsConstructor
 public class LockAopAspect {
     private final LockService lockService;
 
-    @Around("@annotation(com.example.spring_project.aop.AccountLock) && args(request)")
+    @Around("@annotation(accountLock) && args(request)")
     public Object aroundMethod(
-            ProceedingJoinPoint pjp , AccountLockIdInterface request
+            ProceedingJoinPoint pjp , AccountLock accountLock , AccountLockIdInterface request
     ) throws Throwable {
+        if (accountLock.mutationOnly()) {
+            return aroundMutation(pjp, request);
+        }
+
         //lock 취득 시도
 
         lockService.lock(request.getAccountNumber());
+        // lock 을 잡은 동안 조회한 사용자 / 계좌를 실패 거래 기록까지 재사용한다.
+        AccountUnitOfWork previous = AccountUnitOfWork.beginLocked(request.getAccountNumber());
         try {
             return pjp.proceed();
         }finally {
+            AccountUnitOfWork.end(previous);
             //lock 해제
             lockService.unlock(request.getAccountNumber());
         }
     }
+
+    /**
+     * lock 은 서비스가 잔액을 바꾸는 트랜잭션 직전에 잡고 그 트랜잭션이 끝나면 푼다. (LockService.lockForMutation)
+     * 여기서는 범위만 열고, 서비스가 풀지 못하고 남은 lock 이 있으면 푼다.
+     */
+    private Object aroundMutation(ProceedingJoinPoint pjp, AccountLockIdInterface request) throws Throwable {
+        AccountUnitOfWork previous = AccountUnitOfWork.beginDeferred(request.getAccountNumber());
+        try {
+            return pjp.proceed();
+        } finally {
+            try {
+                lockService.unlockIfHeld(request.getAccountNumber());
+            } finally {
+                AccountUnitOfWork.end(previous);
+            }
+        }
+    }
 }
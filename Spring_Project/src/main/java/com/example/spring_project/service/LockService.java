@@ -7,6 +7,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.concurrent.TimeUnit;
 
@@ -16,8 +17,12 @@ import java.util.concurrent.TimeUnit;
 public class LockService {
 
     private final RedissonClient redissonClient;
+    private final LockAdmissionController lockAdmissionController;
 
     public void lock(String accountNumber) {
+        // 대기열이 길면 Redis 에 요청하지 않고 바로 거절한다.
+        lockAdmissionController.enter(accountNumber);
+
         RLock lock = redissonClient.getLock(getLockKey(accountNumber));
         log.debug("Trying lock for accountNumber : {}", accountNumber);
 
@@ -28,16 +33,60 @@ public class LockService {
                 throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
             }
         } catch (AccountException e) {
+            lockAdmissionController.leave(accountNumber);
             throw  e;
         } catch (Exception e) {
+            // Redis 오류로 lock 을 잡았는지 알 수 없으면 잡지 못한 것으로 보고 거절한다.
             log.error("Redis lock failed",e);
+            lockAdmissionController.leave(accountNumber);
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
         }
 
+        lockAdmissionController.acquired(accountNumber);
     }
 
     public void unlock(String accountNumber) {
         log.debug("Unlock for accountNumber {}" , accountNumber);
-        redissonClient.getLock(getLockKey(accountNumber)).unlock();
+        try {
+            redissonClient.getLock(getLockKey(accountNumber)).unlock();
+        } finally {
+            lockAdmissionController.released(accountNumber);
+        }
+    }
+
+    /**
+     * 잔액을 바꾸는 트랜잭션을 시작하기 직전에 부른다.
+     * 지금 범위(@AccountLock)가 이 계좌의 lock 을 이미 잡고 있으면 false, 아니면 범위 밖에서 불러도 lock 을 잡고 true
+     * (true 면 그 트랜잭션이 끝난 뒤 unlockForMutation 으로 푼다.)
+     * lock 을 기다리는 동안 DB connection 을 잡고 있지 않도록 트랜잭션 안에서는 부를 수 없다.
+     */
+    public boolean lockForMutation(String accountNumber) {
+        if (AccountUnitOfWork.holdsLock(accountNumber)) {
+            return false;
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Account lock must be taken outside a transaction : " + accountNumber);
+        }
+        lock(accountNumber);
+        AccountUnitOfWork.lockAcquired(accountNumber);
+        return true;
+    }
+
+    public void unlockForMutation(String accountNumber) {
+        AccountUnitOfWork.lockReleased(accountNumber);
+        unlock(accountNumber);
+    }
+
+    /**
+     * lockForMutation 으로 잡은 lock 이 아직 남아 있으면 푼다. (LockAopAspect 가 메서드가 끝날 때 부른다.)
+     */
+    void unlockIfHeld(String accountNumber) {
+        if (AccountUnitOfWork.lockReleased(accountNumber)) {
+            unlock(accountNumber);
+        }
     }
 
     private String getLockKey(String accountNumber) {
@@ -0,0 +1,31 @@
+package com.example.spring_project.service;
+
+import com.example.spring_project.aop.AccountLockIdInterface;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * @AccountLock 메서드에서 lock 을 잡기 전에 요청 수 제한을 먼저 확인한다.
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+@RequiredArgsConstructor
+public class RateLimitAspect {
+    private final RateLimitService rateLimitService;
+
+    @Around("@annotation(com.example.spring_project.aop.AccountLock) && args(request)")
+    public Object aroundMethod(
+            ProceedingJoinPoint pjp , AccountLockIdInterface request
+    ) throws Throwable {
+
+        rateLimitService.acquire(request.getUserId(), request.getAccountNumber());
+
+        return pjp.proceed();
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.spring_project.service;
+
+import com.example.spring_project.exception.AccountException;
+import com.example.spring_project.type.ErrorCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RRateLimiter;
+import org.redisson.api.RateIntervalUnit;
+import org.redisson.api.RateType;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 사용자 / 계좌 별 요청 수 제한 (기본은 꺼져 있다.)
+ *
+ * 로컬 토큰 버킷으로 먼저 거르고, rate-limit.redis.enabled 이면 Redis(RRateLimiter) 로
+ * 여러 서버에 걸친 전체 한도도 확인한다. 한도를 넘으면 lock 을 잡기 전에 바로 거절한다.
+ * 한 쪽 한도에서 거절되면 다른 쪽 한도의 토큰은 쓰지 않는다.
+ */
+@Slf4j
+@Service
+public class RateLimitService {
+
+    private static final long IDLE_BUCKET_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final String REDIS_KEY_PREFIX = "RLMT";
+    // 요청이 끊긴 Redis limiter 키는 TTL 로 지워진다. 쓰는 동안에는 REDIS_REFRESH 마다 설정과 TTL 을 다시 건다.
+    private static final long REDIS_KEY_TTL_SECONDS = TimeUnit.MINUTES.toSeconds(10);
+    private static final long REDIS_REFRESH_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final RedissonClient redissonClient;
+    private final boolean enabled;
+    private final boolean redisEnabled;
+    private final Limit userLimit;
+    private final Limit accountLimit;
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    // Redis limiter 키 별 마지막으로 설정 / TTL 을 건 시각 (evictIdleBuckets 에서 오래된 것을 지운다.)
+    private final Map<String, Long> redisLimiterRefreshedAt = new ConcurrentHashMap<>();
+
+    private final Counter userRejected;
+    private final Counter accountRejected;
+
+    public RateLimitService(RedissonClient redissonClient,
+                            MeterRegistry meterRegistry,
+                            @Value("${rate-limit.enabled:false}") boolean enabled,
+                            @Value("${rate-limit.redis.enabled:false}") boolean redisEnabled,
+                            @Value("${rate-limit.user.capacity:20}") long userCapacity,
+                            @Value("${rate-limit.user.refill-per-second:10}") double userRefillPerSecond,
+                            @Value("${rate-limit.account.capacity:20}") long accountCapacity,
+                            @Value("${rate-limit.account.refill-per-second:10}") double accountRefillPerSecond) {
+        this.redissonClient = redissonClient;
+        this.enabled = enabled;
+        this.redisEnabled = redisEnabled;
+        this.userLimit = new Limit("user", userCapacity, userRefillPerSecond);
+        this.accountLimit = new Limit("account", accountCapacity, accountRefillPerSecond);
+        this.userRejected = Counter.builder("rate_limit.rejected")
+                .tag("scope", userLimit.scope)
+                .register(meterRegistry);
+        this.accountRejected = Counter.builder("rate_limit.rejected")
+                .tag("scope", accountLimit.scope)
+                .register(meterRegistry);
+    }
+
+    /**
+     * userId 가 없는 요청(취소 등)은 계좌 한도만 확인한다.
+     */
+    public void acquire(Long userId, String accountNumber) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.nanoTime();
+        String userKey = userId == null ? null : userLimit.scope + ":" + userId;
+        String accountKey = accountLimit.scope + ":" + accountNumber;
+        TokenBucket userBucket = userKey == null ? null : bucket(userLimit, userKey, now);
+        TokenBucket accountBucket = bucket(accountLimit, accountKey, now);
+
+        if (userBucket != null && !userBucket.tryConsume(now)) {
+            reject(userLimit, userId);
+        }
+        if (!accountBucket.tryConsume(now)) {
+            refund(userBucket);
+            reject(accountLimit, accountNumber);
+        }
+        Limit rejected = redisEnabled ? tryAcquireGlobal(userKey, accountKey) : null;
+        if (rejected != null) {
+            refund(userBucket);
+            accountBucket.refund();
+            reject(rejected, rejected == userLimit ? userId : accountNumber);
+        }
+    }
+
+    private TokenBucket bucket(Limit limit, String key, long now) {
+        return buckets.computeIfAbsent(key, k -> new TokenBucket(limit.capacity, limit.refillPerSecond, now));
+    }
+
+    private static void refund(TokenBucket bucket) {
+        if (bucket != null) {
+            bucket.refund();
+        }
+    }
+
+    private void reject(Limit limit, Object id) {
+        (limit == userLimit ? userRejected : accountRejected).increment();
+        log.warn("Rate limit exceeded for {} : {}", limit.scope, id);
+        throw new AccountException(ErrorCode.TOO_MANY_REQUESTS);
+    }
+
+    /**
+     * @return 거절한 한도, 통과하면 null
+     */
+    private Limit tryAcquireGlobal(String userKey, String accountKey) {
+        try {
+            RRateLimiter accountLimiter = redisLimiter(accountLimit, accountKey);
+            if (userKey != null) {
+                // 사용자 permit 을 쓰기 전에 계좌 permit 이 남았는지 본다. (동시 요청끼리는 어긋날 수 있다.)
+                if (accountLimiter.availablePermits() < 1) {
+                    return accountLimit;
+                }
+                if (!redisLimiter(userLimit, userKey).tryAcquire()) {
+                    return userLimit;
+                }
+            }
+            return accountLimiter.tryAcquire() ? null : accountLimit;
+        } catch (Exception e) {
+            // Redis 장애 시에는 로컬 버킷만으로 판단한다.
+            log.error("Redis rate limiter failed", e);
+            return null;
+        }
+    }
+
+    /**
+     * 버킷 크기(capacity)만큼을 capacity / refillPerSecond 초 동안 허용해서 로컬 버킷과 같은 burst 와 평균 속도를 갖게 한다.
+     */
+    private RRateLimiter redisLimiter(Limit limit, String key) {
+        RRateLimiter rateLimiter = redissonClient.getRateLimiter(REDIS_KEY_PREFIX + key);
+        long now = System.nanoTime();
+        Long refreshedAt = redisLimiterRefreshedAt.get(key);
+        if (refreshedAt == null || now - refreshedAt >= REDIS_REFRESH_NANOS) {
+            rateLimiter.trySetRate(RateType.OVERALL, limit.capacity, limit.burstIntervalMillis, RateIntervalUnit.MILLISECONDS);
+            rateLimiter.expire(REDIS_KEY_TTL_SECONDS, TimeUnit.SECONDS);
+            redisLimiterRefreshedAt.put(key, now);
+        }
+        return rateLimiter;
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        buckets.entrySet().removeIf(entry -> entry.getValue().isIdle(now, IDLE_BUCKET_NANOS));
+        redisLimiterRefreshedAt.values().removeIf(refreshedAt -> now - refreshedAt >= REDIS_REFRESH_NANOS);
+    }
+
+    private static class Limit {
+        private final String scope;
+        private final long capacity;
+        private final double refillPerSecond;
+        private final long burstIntervalMillis;
+
+        private Limit(String scope, long capacity, double refillPerSecond) {
+            this.scope = scope;
+            this.capacity = capacity;
+            this.refillPerSecond = refillPerSecond;
+            this.burstIntervalMillis = Math.max(1L, Math.round(capacity * 1000 / refillPerSecond));
+        }
+    }
+}
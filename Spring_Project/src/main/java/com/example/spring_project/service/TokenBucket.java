@@ -0,0 +1,56 @@
+package com.example.spring_project.service;
+
+/**
+ * 로컬 토큰 버킷
+ * capacity 만큼 한 번에 허용하고, 이후에는 초당 refillPerSecond 개씩 채워진다.
+ */
+class TokenBucket {
+
+    private final long capacity;
+    private final double refillPerNano;
+
+    private double tokens;
+    private long lastRefillNanos;
+    private long lastConsumeNanos;
+
+    TokenBucket(long capacity, double refillPerSecond, long nowNanos) {
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / 1_000_000_000d;
+        this.tokens = capacity;
+        this.lastRefillNanos = nowNanos;
+        this.lastConsumeNanos = nowNanos;
+    }
+
+    synchronized boolean tryConsume(long nowNanos) {
+        refill(nowNanos);
+        lastConsumeNanos = nowNanos;
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    /**
+     * 다른 한도에서 거절되어 쓰지 않은 토큰을 돌려준다.
+     */
+    synchronized void refund() {
+        tokens = Math.min(capacity, tokens + 1);
+    }
+
+    /**
+     * idleNanos 동안 요청이 없었고 가득 차 있으면, 지웠다가 다시 만들어도 같은 상태다.
+     */
+    synchronized boolean isIdle(long nowNanos, long idleNanos) {
+        refill(nowNanos);
+        return tokens >= capacity && nowNanos - lastConsumeNanos >= idleNanos;
+    }
+
+    private void refill(long nowNanos) {
+        long elapsed = nowNanos - lastRefillNanos;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed * refillPerNano);
+            lastRefillNanos = nowNanos;
+        }
+    }
+}
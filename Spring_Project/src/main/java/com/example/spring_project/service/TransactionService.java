@@ -1,14 +1,13 @@
 package com.example.spring_project.service;
 
+import com.example.spring_project.datasource.ReadYourWrites;
+import com.example.spring_project.datasource.ShardKey;
 import com.example.spring_project.domain.Account;
-import com.example.spring_project.domain.AccountUser;
 import com.example.spring_project.domain.Transaction;
 import com.example.spring_project.dto.TransactionDto;
 import com.example.spring_project.exception.AccountException;
 import com.example.spring_project.repository.AccountRepository;
-import com.example.spring_project.repository.AccountUserRepository;
 import com.example.spring_project.repository.TransactionRepository;
-import com.example.spring_project.type.AccountStatus;
 import com.example.spring_project.type.ErrorCode;
 import com.example.spring_project.type.TransactionResultType;
 import com.example.spring_project.type.TransactionType;
@@ -17,108 +16,79 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
-import java.util.Objects;
-import java.util.UUID;
-
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class TransactionService {
     private final TransactionRepository transactionRepository;
-    private final AccountUserRepository accountUserRepository;
     private final AccountRepository accountRepository;
-
-    @Transactional
-    public TransactionDto useBalance(Long userId , String accountNumber, Long amount) {
-
-        AccountUser user = accountUserRepository.findById(userId)
-                .orElseThrow(() -> new AccountException(ErrorCode.USER_NOT_FOUND));
-        Account account = accountRepository.findByAccountNumber(accountNumber)
-                        .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
-
-        validateUseBalance(user,account,amount);
-
-        account.useBalance(amount);
-
-        return TransactionDto.fromEntity(saveAndGetTransaction(TransactionType.USE,TransactionResultType.S , amount, account));
+    private final ReadYourWrites readYourWrites;
+    private final LockService lockService;
+    private final BalanceChangeService balanceChangeService;
+
+    /**
+     * 사용자 / 계좌 조회와 소유주, 계좌 상태 확인은 lock 을 잡기 전에 readOnly 트랜잭션에서 하고,
+     * 트랜잭션 밖에서 lock 을 잡은 뒤 잔액을 다시 읽어서 차감하고 거래를 남기는 트랜잭션이 커밋될 때까지만 잡는다.
+     * (AccountLock.mutationOnly, lock 을 기다리는 동안 DB connection 을 잡지 않는다.)
+     * AccountLock 범위 밖에서 불러도 lock 없이 잔액을 바꾸지 않는다.
+     */
+    public TransactionDto useBalance(Long userId , @ShardKey String accountNumber, Long amount) {
+
+        Account account = balanceChangeService.checkUse(userId, accountNumber);
+
+        boolean locked = lockService.lockForMutation(accountNumber);
+        try {
+            return balanceChangeService.use(account.getId(), accountNumber, amount);
+        } finally {
+            if (locked) {
+                lockService.unlockForMutation(accountNumber);
+            }
+        }
     }
 
-    private void validateUseBalance(AccountUser user, Account account, Long amount) {
-        if(!Objects.equals(user.getId(), account.getAccountUser().getId())) {
-            throw new AccountException(ErrorCode.USER_ACCOUNT_UN_MATCH);
-        }
-        if(account.getAccountStatus() != AccountStatus.IN_USE) {
-            throw new AccountException(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED);
-        }
-        if(account.getBalance() < amount) {
-            throw new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
+    /**
+     * 원 거래 검증은 lock 을 잡기 전에 readOnly 트랜잭션에서 하고,
+     * 잔액을 다시 읽어서 되돌리고 취소 거래를 남기는 트랜잭션이 커밋될 때까지만 lock 을 잡는다.
+     */
+    public TransactionDto cancelBalance(String transactionId, @ShardKey String accountNumber, Long amount) {
+
+        Transaction transaction = balanceChangeService.checkCancel(transactionId, accountNumber, amount);
+
+        boolean locked = lockService.lockForMutation(accountNumber);
+        try {
+            return balanceChangeService.cancel(transaction.getTransactionId(),
+                    transaction.getAccount().getId(), accountNumber, amount);
+        } finally {
+            if (locked) {
+                lockService.unlockForMutation(accountNumber);
+            }
         }
     }
 
     @Transactional
-    public void saveFailedUseTransaction(String accountNumber, Long amount) {
-        Account account = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
-
-        saveAndGetTransaction(TransactionType.USE,TransactionResultType.F, amount, account);
-    }
-
-    private Transaction saveAndGetTransaction(TransactionType transactionType , TransactionResultType transactionResultType , Long amount, Account account) {
-
-        return transactionRepository.save(Transaction.builder()
-                .transactionType(transactionType)
-                .transactionResultType(transactionResultType)
-                .account(account)
-                .amount(amount)
-                .balanceSnapshot(account.getBalance())
-                .transactionId(UUID.randomUUID().toString().replace("-",""))
-                .transactedAt(LocalDateTime.now())
-                .build());
-
+    public void saveFailedUseTransaction(@ShardKey String accountNumber, Long amount) {
+        saveFailedTransaction(TransactionType.USE, accountNumber, amount);
     }
 
     @Transactional
-    public TransactionDto cancelBalance(String transactionId, String accountNumber, Long amount) {
-
-        Transaction transaction = transactionRepository.findByTransactionId(transactionId)
-                .orElseThrow(() -> new AccountException(ErrorCode.TRANSACTION_NOT_FOUND));
-
-        Account account = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
-
-        validateCancelBalance(transaction,account,amount);
-
-        account.cancelBalance(amount);
-
-        return TransactionDto.fromEntity(saveAndGetTransaction(TransactionType.CANCEL,TransactionResultType.S , amount, account));
-
+    public void saveFailedCancelTransaction(@ShardKey String accountNumber, Long amount) {
+        saveFailedTransaction(TransactionType.CANCEL, accountNumber, amount);
     }
 
-    private void validateCancelBalance(Transaction transaction, Account account, Long amount) {
-
-        if (!Objects.equals(transaction.getAccount().getId(), account.getId())) {
-            throw new AccountException(ErrorCode.TRANSACTION_ACCOUNT_UM_MATCH);
-        }
-        if(!Objects.equals(transaction.getAmount(), amount)) {
-            throw new AccountException(ErrorCode.TRANSACTION_MUST_FULLY);
-        }
-        if(transaction.getTransactedAt().isBefore(LocalDateTime.now().minusYears(1))) {
-            throw new AccountException(ErrorCode.TOO_OLD_ORDER_TO_CANCEL);
-        }
-
-    }
-
-    @Transactional
-    public void saveFailedCancelTransaction(String accountNumber, Long amount) {
-
-        Account account = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+    /**
+     * 실패한 요청에서 이미 읽은 계좌가 있으면 다시 조회하지 않고, 잔액은 조회 시점 값을 남긴다.
+     */
+    private void saveFailedTransaction(TransactionType transactionType, String accountNumber, Long amount) {
+        Account account = AccountUnitOfWork.account(accountNumber, () -> accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND)));
 
-        saveAndGetTransaction(TransactionType.CANCEL,TransactionResultType.F, amount, account);
+        transactionRepository.save(Transaction.create(transactionType, TransactionResultType.F,
+                account, amount, AccountUnitOfWork.loadedBalance(account)));
     }
 
-    public TransactionDto queryTransaction(String transactionId) {
+    @Transactional(readOnly = true)
+    public TransactionDto queryTransaction(@ShardKey(ShardKey.Type.TRANSACTION_ID) String transactionId) {
+        readYourWrites.readAfterWrite(ReadYourWrites.transactionKey(transactionId));
 
         return TransactionDto.fromEntity(transactionRepository.findByTransactionId(transactionId)
                 .orElseThrow(() -> new AccountException(ErrorCode.TRANSACTION_NOT_FOUND)));
@@ -11,6 +11,8 @@ public enum ErrorCode {
     ACCOUNT_NOT_FOUND("계좌가 없습니다"),
     USER_ACCOUNT_UN_MATCH("사용좌와 계좌의 소유주가 다릅니다."),
     ACCOUNT_TRANSACTION_LOCK("해당 계좌는 사용중입니다."),
+    ACCOUNT_TRANSACTION_BUSY("해당 계좌에 요청이 몰려 있습니다. 잠시 후 다시 시도해 주세요."),
+    TOO_MANY_REQUESTS("요청이 너무 많습니다. 잠시 후 다시 시도해 주세요."),
     ACCOUNT_ALREADY_UNREGISTERED("계좌가 이미 해지되었습니다."),
     BALANCE_NOT_EMPTY("잔액이 있는 계좌는 해지할 수 없습니다."),
     MAX_ACCOUNT_PER_USER_10("사용자 최대 계좌는 10개입니다."),
@@ -18,6 +20,12 @@ public enum ErrorCode {
     TRANSACTION_ACCOUNT_UM_MATCH("이 거래는 해당 계좌에서 발생한 거래가 아닙니다."),
     TRANSACTION_MUST_FULLY("부분 최소는 허용되지 않습니다."),
     TOO_OLD_ORDER_TO_CANCEL("1년이 지난 거래는 취소가 불가능합니다."),
+    TRANSACTION_ALREADY_CANCELED("이미 취소된 거래입니다."),
+    HOLD_NOT_FOUND("해당 승인이 없습니다."),
+    HOLD_ACCOUNT_UN_MATCH("이 승인은 해당 계좌에서 발생한 승인이 아닙니다."),
+    HOLD_ALREADY_COMPLETED("이미 매입 또는 해제된 승인입니다."),
+    HOLD_EXPIRED("승인 기간이 지났습니다."),
+    BALANCE_HISTORY_NOT_FOUND("해당 시점의 잔액 기록이 없습니다."),
     INVALID_ID_REQUEST("잘못된 요청입니다."),
     AMOUNT_EXCEED_BALANCE("거래 금액이 계좌 잔액보다 큽니다.");
 
@@ -0,0 +1,5 @@
+package com.example.spring_project.type;
+
+public enum HoldStatus {
+    HELD, CAPTURED, RELEASED, EXPIRED
+}
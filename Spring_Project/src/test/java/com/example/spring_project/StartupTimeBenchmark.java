@@ -0,0 +1,124 @@
+package com.example.spring_project;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ./gradlew cdsArchive benchmark
+ * 별도 JVM 으로 애플리케이션을 띄워서, 프로세스 시작부터 첫 /transaction/use 가 성공할 때까지의 시간을
+ * 기본 설정 / fast 프로필 / fast 프로필 + AppCDS 로 비교한다. (CDS 아카이브가 없으면 그 경우는 건너뛴다.)
+ */
+@Tag("benchmark")
+class StartupTimeBenchmark {
+
+    private static final int RUNS = Integer.getInteger("benchmark.startup.runs", 3);
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void timeToFirstUseBalance() throws Exception {
+        report("default", Collections.emptyList(), Collections.emptyList());
+        report("fast", Collections.emptyList(), Collections.singletonList("--spring.profiles.active=fast"));
+
+        String cdsArchive = System.getProperty("benchmark.startup.cdsArchive");
+        if (cdsArchive != null && new File(cdsArchive).exists()) {
+            report("fast + AppCDS", Arrays.asList("-Xshare:auto", "-XX:SharedArchiveFile=" + cdsArchive),
+                    Collections.singletonList("--spring.profiles.active=fast"));
+        } else {
+            System.out.println("[startup] no CDS archive, run ./gradlew cdsArchive first to include it");
+        }
+    }
+
+    private void report(String label, List<String> jvmArgs, List<String> appArgs) throws Exception {
+        List<Long> millis = new ArrayList<>();
+        for (int i = 0; i < RUNS; i++) {
+            millis.add(timeToFirstUse(jvmArgs, appArgs));
+        }
+        Collections.sort(millis);
+        System.out.printf("[startup] %-14s time to first /transaction/use : median %dms, min %dms, max %dms%n",
+                label, millis.get(millis.size() / 2), millis.get(0), millis.get(millis.size() - 1));
+    }
+
+    private long timeToFirstUse(List<String> jvmArgs, List<String> appArgs) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        command.add("-cp");
+        command.add(System.getProperty("benchmark.startup.classpath", System.getProperty("java.class.path")));
+        command.add(SpringProjectApplication.class.getName());
+        command.add("--server.port=" + port);
+        command.add("--spring.redis.port=" + freePort());
+        command.addAll(appArgs);
+
+        long startedAt = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            String accountNumber = post(port, "/account", "{\"userId\":1,\"initialBalance\":10000}")
+                    .get("accountNumber").asText();
+            JsonNode used = post(port, "/transaction/use",
+                    "{\"userId\":1,\"accountNumber\":\"" + accountNumber + "\",\"amount\":1000}");
+            if (!"S".equals(used.path("transactionResult").asText())) {
+                throw new IllegalStateException("Use balance failed : " + used);
+            }
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    /**
+     * 서버가 뜰 때까지 연결을 재시도한다.
+     */
+    private JsonNode post(int port, String path, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (true) {
+            try {
+                HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+                return objectMapper.readTree(response.body());
+            } catch (IOException e) {
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException("Application did not start in " + TIMEOUT, e);
+                }
+                Thread.sleep(10);
+            }
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
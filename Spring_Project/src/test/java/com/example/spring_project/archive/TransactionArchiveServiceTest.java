@@ -0,0 +1,165 @@
+package com.example.spring_project.archive;
+
+import com.example.spring_project.datasource.Shards;
+import com.example.spring_project.domain.Account;
+import com.example.spring_project.dto.TransactionDto;
+import com.example.spring_project.exception.AccountException;
+import com.example.spring_project.repository.AccountRepository;
+import com.example.spring_project.repository.TransactionRepository;
+import com.example.spring_project.type.ErrorCode;
+import com.example.spring_project.type.TransactionResultType;
+import com.example.spring_project.type.TransactionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionArchiveServiceTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private TransactionArchiveStore transactionArchiveStore;
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RLock lock;
+
+    @Spy
+    private Shards shards = Shards.single();
+
+    @InjectMocks
+    private TransactionArchiveService transactionArchiveService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(transactionArchiveService, "segmentRows", 2);
+    }
+
+    @Test
+    void archiveUntilNoTargetLeft() throws Exception {
+        //given
+        LocalDateTime cutoff = LocalDateTime.now().minusYears(1);
+        given(transactionRepository.findArchiveTargets(eq(cutoff), any()))
+                .willReturn(Arrays.asList(archived(1L), archived(2L)))
+                .willReturn(Collections.singletonList(archived(3L)))
+                .willReturn(Collections.emptyList());
+        ArgumentCaptor<Iterable<Long>> captor = ArgumentCaptor.forClass(Iterable.class);
+
+        //when
+        int archived = transactionArchiveService.archive(cutoff);
+
+        //then
+        assertEquals(3, archived);
+        verify(transactionArchiveStore, times(2)).append(anyList());
+        verify(transactionRepository, times(2)).deleteAllByIdInBatch(captor.capture());
+        assertEquals(Arrays.asList(1L, 2L), captor.getAllValues().get(0));
+        assertEquals(Collections.singletonList(3L), captor.getAllValues().get(1));
+    }
+
+    @Test
+    void archiveExpiredTransactions_WithLock() {
+        //given
+        given(redissonClient.getLock(anyString())).willReturn(lock);
+        given(lock.tryLock()).willReturn(true);
+        given(transactionRepository.findArchiveTargets(any(), any()))
+                .willReturn(Collections.emptyList());
+
+        //when
+        transactionArchiveService.archiveExpiredTransactions();
+
+        //then
+        verify(transactionRepository).findArchiveTargets(any(), any());
+        verify(lock).unlock();
+    }
+
+    @Test
+    void archiveExpiredTransactions_RunningOnAnotherServer() {
+        //given
+        given(redissonClient.getLock(anyString())).willReturn(lock);
+        given(lock.tryLock()).willReturn(false);
+
+        //when
+        transactionArchiveService.archiveExpiredTransactions();
+
+        //then
+        verify(transactionRepository, never()).findArchiveTargets(any(), any());
+        verify(transactionRepository, never()).deleteAllByIdInBatch(any());
+        verify(lock, never()).unlock();
+    }
+
+    @Test
+    void findArchivedTransactions() {
+        //given
+        Account account = Account.builder()
+                .accountNumber("1000000012").build();
+        account.setId(7L);
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        given(transactionArchiveStore.find(eq(7L), any(), any()))
+                .willReturn(Collections.singletonList(archived(1L)));
+
+        //when
+        List<TransactionDto> transactions = transactionArchiveService.findArchivedTransactions(
+                "1000000012", LocalDateTime.of(2020, 1, 1, 0, 0), LocalDateTime.of(2020, 2, 1, 0, 0));
+
+        //then
+        assertEquals(1, transactions.size());
+        assertEquals("1000000012", transactions.get(0).getAccountNumber());
+        assertEquals(1000L, transactions.get(0).getAmount());
+        assertEquals(TransactionType.USE, transactions.get(0).getTransactionType());
+    }
+
+    @Test
+    void findArchivedTransactions_AccountNotFound() {
+        //given
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.empty());
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionArchiveService.findArchivedTransactions(
+                        "1000000012", LocalDateTime.now().minusYears(2), LocalDateTime.now()));
+
+        //then
+        assertEquals(ErrorCode.ACCOUNT_NOT_FOUND, exception.getErrorCode());
+    }
+
+    private static ArchivedTransaction archived(Long id) {
+        return ArchivedTransaction.builder()
+                .id(id)
+                .accountId(7L)
+                .transactionId("transactionId" + id)
+                .transactionType(TransactionType.USE)
+                .transactionResultType(TransactionResultType.S)
+                .amount(1000L)
+                .balanceSnapshot(9000L)
+                .transactedAt(LocalDateTime.of(2020, 1, 10, 12, 0))
+                .build();
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.spring_project.archive;
+
+import com.example.spring_project.type.TransactionResultType;
+import com.example.spring_project.type.TransactionType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionSegmentTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2020, 3, 1, 9, 0, 0, 123_456_000);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void writeAndFindByAccountAndPeriod() throws Exception {
+        //given
+        List<ArchivedTransaction> transactions = new ArrayList<>();
+        long id = 1;
+        for (int day = 0; day < 30; day++) {
+            for (long accountId = 1; accountId <= 5; accountId++) {
+                transactions.add(archived(id++, accountId, BASE.plusDays(day), TransactionType.USE));
+            }
+        }
+
+        //when
+        TransactionSegment segment = TransactionSegment.write(directory.resolve("a.seg"), transactions);
+        List<ArchivedTransaction> found = segment.find(3L, BASE.plusDays(10), BASE.plusDays(20));
+
+        //then
+        assertEquals(150, segment.getRowCount());
+        assertEquals(1L, segment.getMinAccountId());
+        assertEquals(5L, segment.getMaxAccountId());
+        assertEquals(10, found.size());
+        assertTrue(found.stream().allMatch(t -> t.getAccountId() == 3L));
+        assertEquals(BASE.plusDays(10), found.get(0).getTransactedAt());
+        assertEquals(BASE.plusDays(19), found.get(9).getTransactedAt());
+
+        ArchivedTransaction first = found.get(0);
+        assertEquals(53L, first.getId());
+        assertEquals("202003000000000000000000000053", first.getTransactionId());
+        assertEquals(TransactionType.USE, first.getTransactionType());
+        assertEquals(TransactionResultType.S, first.getTransactionResultType());
+        assertEquals(530L, first.getAmount());
+        assertEquals(10000L - 530L, first.getBalanceSnapshot());
+    }
+
+    @Test
+    void reopenMappedSegment() throws Exception {
+        //given
+        Path path = directory.resolve("b.seg");
+        TransactionSegment.write(path, Arrays.asList(
+                archived(1L, 7L, BASE, TransactionType.USE),
+                archived(2L, 7L, BASE.plusHours(1), TransactionType.CANCEL)));
+
+        //when
+        TransactionSegment segment = TransactionSegment.open(path);
+        List<ArchivedTransaction> found = segment.find(7L, BASE, BASE.plusDays(1));
+
+        //then
+        assertFalse(Files.exists(directory.resolve("b.seg.tmp")));
+        assertEquals(2, found.size());
+        assertEquals(TransactionType.CANCEL, found.get(1).getTransactionType());
+    }
+
+    @Test
+    void skipSegmentOutOfRange() throws Exception {
+        //given
+        TransactionSegment segment = TransactionSegment.write(directory.resolve("c.seg"), Arrays.asList(
+                archived(1L, 10L, BASE, TransactionType.USE),
+                archived(2L, 20L, BASE.plusDays(1), TransactionType.USE)));
+
+        //then
+        assertFalse(segment.overlaps(9L, BASE, BASE.plusDays(2)));
+        assertFalse(segment.overlaps(10L, BASE.minusDays(1), BASE));
+        assertFalse(segment.overlaps(10L, BASE.plusDays(1).plusSeconds(1), BASE.plusDays(2)));
+        assertTrue(segment.overlaps(15L, BASE, BASE.plusDays(2)));
+        assertTrue(segment.find(15L, BASE, BASE.plusDays(2)).isEmpty());
+    }
+
+    @Test
+    void rejectNotSegmentFile() throws Exception {
+        Path path = directory.resolve("d.seg");
+        Files.write(path, new byte[200]);
+
+        assertThrows(java.io.IOException.class, () -> TransactionSegment.open(path));
+    }
+
+    private static ArchivedTransaction archived(long id, long accountId, LocalDateTime transactedAt,
+                                                TransactionType transactionType) {
+        return ArchivedTransaction.builder()
+                .id(id)
+                .accountId(accountId)
+                .transactionId(String.format("202003%024d", id))
+                .transactionType(transactionType)
+                .transactionResultType(TransactionResultType.S)
+                .amount(id * 10)
+                .balanceSnapshot(10000L - id * 10)
+                .transactedAt(transactedAt)
+                .build();
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.spring_project.config;
+
+import com.example.spring_project.archive.TransactionArchiveService;
+import com.example.spring_project.controller.AccountController;
+import com.example.spring_project.datasource.ReadYourWrites;
+import com.example.spring_project.outbox.OutboxRelay;
+import com.example.spring_project.reconciliation.ReconciliationService;
+import com.example.spring_project.service.HoldExpiryScheduler;
+import com.example.spring_project.service.RateLimitService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StartupConfigTest {
+
+    private final LazyInitializationExcludeFilter filter = StartupConfig.scheduledLazyInitializationExcludeFilter();
+
+    @Test
+    @DisplayName("@Scheduled 메서드가 있는 빈은 lazy-initialization 에서 빠진다")
+    void scheduledBeansAreNotLazy() {
+        for (Class<?> beanType : new Class<?>[]{OutboxRelay.class, HoldExpiryScheduler.class,
+                ReconciliationService.class, RateLimitService.class, TransactionArchiveService.class,
+                ReadYourWrites.class}) {
+            assertTrue(filter.isExcluded("bean", null, beanType), beanType.getSimpleName());
+        }
+    }
+
+    @Test
+    void otherBeansStayLazy() {
+        assertFalse(filter.isExcluded("accountController", null, AccountController.class));
+        assertFalse(filter.isExcluded("unknown", null, null));
+    }
+}
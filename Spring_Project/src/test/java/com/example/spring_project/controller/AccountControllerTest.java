@@ -1,45 +1,64 @@
 package com.example.spring_project.controller;
 
 import com.example.spring_project.domain.Account;
+import com.example.spring_project.dto.AccountBalanceAt;
 import com.example.spring_project.dto.AccountDto;
+import com.example.spring_project.dto.BulkAccountResult;
 import com.example.spring_project.dto.CreateAccount;
 import com.example.spring_project.dto.DeleteAccount;
 import com.example.spring_project.exception.AccountException;
 import com.example.spring_project.type.AccountStatus;
+import com.example.spring_project.service.AccountNumberAllocator;
 import com.example.spring_project.service.AccountService;
 import com.example.spring_project.type.ErrorCode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Supplier;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+@Import(MeterRegistryTestConfig.class)
 @WebMvcTest(AccountController.class)
 class AccountControllerTest {
 
     @MockBean
     private AccountService accountService;
 
+    @MockBean
+    private AccountNumberAllocator accountNumberAllocator;
+
     @Autowired
     private MockMvc mockMvc;
 
     @Autowired
     private ObjectMapper objectMapper;
 
+    @BeforeEach
+    void setUp() {
+        given(accountNumberAllocator.retryOnDuplicate(any()))
+                .willAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
+    }
+
     @Test
     void successCreateAccount() throws Exception {
 
@@ -63,6 +82,35 @@ class AccountControllerTest {
                 .andDo(print());
     }
 
+    @Test
+    void successCreateAccounts() throws Exception {
+
+        given(accountService.createAccounts(anyList()))
+                .willReturn(Arrays.asList(
+                        BulkAccountResult.success(AccountDto.builder()
+                                .userId(1L)
+                                .accountNumber("1234567890")
+                                .registerAt(LocalDateTime.now())
+                                .build()),
+                        BulkAccountResult.fail(2L, ErrorCode.USER_NOT_FOUND)));
+
+        mockMvc.perform(post("/account/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new CreateAccount.BulkRequest(Arrays.asList(
+                                        new CreateAccount.Request(1L,100L),
+                                        new CreateAccount.Request(2L,100L)))
+                        )))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.results[0].index").value(0))
+                .andExpect(jsonPath("$.results[0].accountNumber").value("1234567890"))
+                .andExpect(jsonPath("$.results[1].userId").value(2))
+                .andExpect(jsonPath("$.results[1].errorCode").value("USER_NOT_FOUND"))
+                .andDo(print());
+    }
+
     @Test
     void successDeleteAccount() throws Exception {
 
@@ -143,5 +191,25 @@ class AccountControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void successGetBalanceAt() throws Exception {
+        LocalDateTime at = LocalDateTime.of(2022, 10, 1, 12, 0);
+        given(accountService.getBalanceAt(eq("1234567890"), eq(at)))
+                .willReturn(AccountBalanceAt.builder()
+                        .accountNumber("1234567890")
+                        .at(at)
+                        .balance(9000L)
+                        .changedAt(at.minusHours(1))
+                        .transactionId("transactionId")
+                        .build());
+
+        mockMvc.perform(get("/account/1234567890/balance")
+                        .param("at", "2022-10-01T12:00:00"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accountNumber").value("1234567890"))
+                .andExpect(jsonPath("$.balance").value(9000))
+                .andExpect(jsonPath("$.transactionId").value("transactionId"));
+    }
 
-}
\ No newline at end of file
+}
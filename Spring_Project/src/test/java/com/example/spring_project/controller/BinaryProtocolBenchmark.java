@@ -0,0 +1,114 @@
+package com.example.spring_project.controller;
+
+import com.example.spring_project.binary.BinaryTransactionCodec;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * ./gradlew benchmark -Dbenchmark.requests=20000 -Dbenchmark.pipeline=100
+ * 한 connection 으로 잔액 사용을 JSON API 로 한 건씩 보낼 때와
+ * 바이너리 API 로 pipeline 개씩 한 요청에 묶어 보낼 때의 건당 시간을 비교한다.
+ */
+@Tag("benchmark")
+// 처리량을 재는 테스트라 요청 수 제한은 끈다.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "rate-limit.enabled=false")
+class BinaryProtocolBenchmark {
+
+    private static final long USER_ID = 20_000L;
+    private static final int REQUESTS = Integer.getInteger("benchmark.requests", 20_000);
+    private static final int PIPELINE = Integer.getInteger("benchmark.pipeline", 100);
+    private static final long AMOUNT = 10L;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // connection 하나를 계속 쓰도록 HTTP/1.1 keep-alive
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+
+    @Test
+    void jsonVersusBinary() throws Exception {
+        jdbcTemplate.update("insert into account_user(id, name, created_at, updated_at) values (?, ?, now(), now())",
+                USER_ID, "binary-benchmark");
+        String accountNumber = objectMapper.readTree(send("/account", "application/json",
+                ("{\"userId\":" + USER_ID + ",\"initialBalance\":1000000000}").getBytes())).get("accountNumber").asText();
+        String json = "{\"userId\":" + USER_ID + ",\"accountNumber\":\"" + accountNumber + "\",\"amount\":" + AMOUNT + "}";
+
+        // warm up
+        useJson(json, REQUESTS / 4);
+        useBinary(accountNumber, REQUESTS / 4);
+
+        long startedAt = System.nanoTime();
+        useJson(json, REQUESTS);
+        double jsonNanos = (double) (System.nanoTime() - startedAt) / REQUESTS;
+
+        startedAt = System.nanoTime();
+        useBinary(accountNumber, REQUESTS);
+        double binaryNanos = (double) (System.nanoTime() - startedAt) / REQUESTS;
+
+        System.out.printf("[binary] %d uses, json=%.0f us/op, binary(pipeline %d)=%.0f us/op%n",
+                REQUESTS, jsonNanos / 1000, PIPELINE, binaryNanos / 1000);
+    }
+
+    private void useJson(String json, int requests) throws Exception {
+        byte[] body = json.getBytes();
+        for (int i = 0; i < requests; i++) {
+            JsonNode used = objectMapper.readTree(send("/transaction/use", "application/json", body));
+            assertEquals("S", used.path("transactionResult").asText(), used::toString);
+        }
+    }
+
+    private void useBinary(String accountNumber, int requests) throws Exception {
+        for (int from = 0; from < requests; from += PIPELINE) {
+            int count = Math.min(PIPELINE, requests - from);
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(body);
+            for (int i = 0; i < count; i++) {
+                BinaryTransactionCodec.writeUse(out, from + i, USER_ID, accountNumber, AMOUNT);
+            }
+
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(
+                    send("/transaction/binary", BinaryTransactionCodec.CONTENT_TYPE, body.toByteArray())));
+            for (int i = 0; i < count; i++) {
+                BinaryTransactionCodec.Response response = BinaryTransactionCodec.readResponse(in);
+                assertEquals(from + i, response.getRequestId());
+                assertNull(response.getErrorCode(), () -> String.valueOf(response.getErrorCode()));
+            }
+        }
+    }
+
+    private byte[] send(String path, String contentType, byte[] body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Content-Type", contentType)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray()).body();
+    }
+}
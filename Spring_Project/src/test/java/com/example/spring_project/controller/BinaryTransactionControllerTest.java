@@ -0,0 +1,170 @@
+package com.example.spring_project.controller;
+
+import com.example.spring_project.binary.BinaryTransactionCodec;
+import com.example.spring_project.dto.QueryTransactionResponse;
+import com.example.spring_project.dto.UseBalance;
+import com.example.spring_project.exception.AccountException;
+import com.example.spring_project.type.ErrorCode;
+import com.example.spring_project.type.TransactionResultType;
+import com.example.spring_project.type.TransactionType;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Import(MeterRegistryTestConfig.class)
+@WebMvcTest(BinaryTransactionController.class)
+class BinaryTransactionControllerTest {
+
+    @MockBean
+    private TransactionController transactionController;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void pipelinedRequestsAnsweredInOrder() throws Exception {
+        LocalDateTime transactedAt = LocalDateTime.of(2022, 10, 3, 12, 0, 0, 123_000_000);
+        given(transactionController.useBalance(any()))
+                .willReturn(UseBalance.Response.builder()
+                        .accountNumber("1000000012")
+                        .transactionResult(TransactionResultType.S)
+                        .transactionId("transactionId")
+                        .amount(3000L)
+                        .transactedAt(transactedAt)
+                        .build())
+                .willThrow(new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE));
+        given(transactionController.queryTransaction(anyString()))
+                .willReturn(QueryTransactionResponse.builder()
+                        .accountNumber("1000000012")
+                        .transactionType(TransactionType.USE)
+                        .transactionResult(TransactionResultType.S)
+                        .transactionId("transactionId")
+                        .amount(3000L)
+                        .transactedAt(transactedAt)
+                        .build());
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(body);
+        BinaryTransactionCodec.writeUse(out, 1, 12L, "1000000012", 3000L);
+        BinaryTransactionCodec.writeUse(out, 2, 12L, "1000000012", 5000L);
+        BinaryTransactionCodec.writeQuery(out, 3, "transactionId");
+
+        List<BinaryTransactionCodec.Response> responses = perform(body.toByteArray());
+
+        assertEquals(3, responses.size());
+        assertEquals(1, responses.get(0).getRequestId());
+        assertNull(responses.get(0).getErrorCode());
+        assertEquals(TransactionType.USE, responses.get(0).getTransactionType());
+        assertEquals(TransactionResultType.S, responses.get(0).getTransactionResult());
+        assertEquals("1000000012", responses.get(0).getAccountNumber());
+        assertEquals("transactionId", responses.get(0).getTransactionId());
+        assertEquals(3000L, responses.get(0).getAmount());
+        assertEquals(transactedAt, responses.get(0).getTransactedAt());
+
+        assertEquals(2, responses.get(1).getRequestId());
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, responses.get(1).getErrorCode());
+
+        assertEquals(3, responses.get(2).getRequestId());
+        assertEquals("transactionId", responses.get(2).getTransactionId());
+
+        ArgumentCaptor<UseBalance.Request> captor = ArgumentCaptor.forClass(UseBalance.Request.class);
+        verify(transactionController, times(2)).useBalance(captor.capture());
+        assertEquals(12L, captor.getAllValues().get(0).getUserId());
+        assertEquals("1000000012", captor.getAllValues().get(0).getAccountNumber());
+        assertEquals(5000L, captor.getAllValues().get(1).getAmount());
+    }
+
+    @Test
+    void invalidValueFailsOnlyThatRequest() throws Exception {
+        given(transactionController.cancelBalance(any()))
+                .willThrow(new AccountException(ErrorCode.TRANSACTION_NOT_FOUND));
+        double invalidBefore = errorCount(ErrorCode.INVALID_ID_REQUEST);
+        double notFoundBefore = errorCount(ErrorCode.TRANSACTION_NOT_FOUND);
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(body);
+        BinaryTransactionCodec.writeUse(out, 1, 12L, "1000000012", 5L);
+        BinaryTransactionCodec.writeCancel(out, 2, "transactionId", "1000000012", 3000L);
+
+        List<BinaryTransactionCodec.Response> responses = perform(body.toByteArray());
+
+        assertEquals(2, responses.size());
+        assertEquals(ErrorCode.INVALID_ID_REQUEST, responses.get(0).getErrorCode());
+        assertEquals(ErrorCode.TRANSACTION_NOT_FOUND, responses.get(1).getErrorCode());
+        verify(transactionController, never()).useBalance(any());
+        // JSON API 와 같은 counter 로 센다.
+        assertEquals(invalidBefore + 1, errorCount(ErrorCode.INVALID_ID_REQUEST));
+        assertEquals(notFoundBefore + 1, errorCount(ErrorCode.TRANSACTION_NOT_FOUND));
+    }
+
+    @Test
+    void invalidFrameLengthStopsStream() throws Exception {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(body);
+        out.writeInt(BinaryTransactionCodec.MAX_FRAME_LENGTH + 1);
+        BinaryTransactionCodec.writeQuery(out, 1, "transactionId");
+
+        List<BinaryTransactionCodec.Response> responses = perform(body.toByteArray());
+
+        assertEquals(1, responses.size());
+        assertEquals(0, responses.get(0).getRequestId());
+        assertEquals(ErrorCode.INVALID_ID_REQUEST, responses.get(0).getErrorCode());
+        verify(transactionController, never()).queryTransaction(anyString());
+    }
+
+    private List<BinaryTransactionCodec.Response> perform(byte[] body) throws Exception {
+        byte[] responseBody = mockMvc.perform(post("/transaction/binary")
+                        .contentType(BinaryTransactionCodec.CONTENT_TYPE)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(BinaryTransactionCodec.CONTENT_TYPE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        return readResponses(responseBody);
+    }
+
+    private double errorCount(ErrorCode errorCode) {
+        return meterRegistry.find("account.errors")
+                .tag("errorCode", errorCode.name())
+                .counter()
+                .count();
+    }
+
+    private static List<BinaryTransactionCodec.Response> readResponses(byte[] body) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(body));
+        List<BinaryTransactionCodec.Response> responses = new ArrayList<>();
+        BinaryTransactionCodec.Response response;
+        while ((response = BinaryTransactionCodec.readResponse(in)) != null) {
+            responses.add(response);
+        }
+        return responses;
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.spring_project.controller;
+
+import com.example.spring_project.dto.BalanceHoldDto;
+import com.example.spring_project.dto.CompleteHold;
+import com.example.spring_project.dto.HoldBalance;
+import com.example.spring_project.service.HoldExpiryScheduler;
+import com.example.spring_project.service.HoldService;
+import com.example.spring_project.type.HoldStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Import(MeterRegistryTestConfig.class)
+@WebMvcTest(HoldController.class)
+class HoldControllerTest {
+
+    @MockBean
+    private HoldService holdService;
+
+    @MockBean
+    private HoldExpiryScheduler holdExpiryScheduler;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void successHoldBalance() throws Exception {
+        LocalDateTime expiresAt = LocalDateTime.now().plusDays(7);
+        given(holdService.hold(anyLong(), anyString(), anyLong()))
+                .willReturn(BalanceHoldDto.builder()
+                        .holdId("holdId")
+                        .accountNumber("1000000000")
+                        .amount(3000L)
+                        .status(HoldStatus.HELD)
+                        .expiresAt(expiresAt)
+                        .build());
+
+        mockMvc.perform(post("/transaction/hold")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new HoldBalance.Request(1L, "1000000000", 3000L))))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.holdId").value("holdId"))
+                .andExpect(jsonPath("$.accountNumber").value("1000000000"))
+                .andExpect(jsonPath("$.status").value("HELD"))
+                .andExpect(jsonPath("$.amount").value(3000));
+
+        verify(holdExpiryScheduler).schedule("holdId", "1000000000", expiresAt);
+    }
+
+    @Test
+    void successCaptureHold() throws Exception {
+        given(holdService.capture(anyString(), anyString()))
+                .willReturn(BalanceHoldDto.builder()
+                        .holdId("holdId")
+                        .accountNumber("1000000000")
+                        .amount(3000L)
+                        .status(HoldStatus.CAPTURED)
+                        .transactionId("transactionId")
+                        .completedAt(LocalDateTime.now())
+                        .build());
+
+        mockMvc.perform(post("/transaction/hold/capture")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CompleteHold.Request("holdId", "1000000000"))))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("CAPTURED"))
+                .andExpect(jsonPath("$.transactionId").value("transactionId"))
+                .andExpect(jsonPath("$.amount").value(3000));
+    }
+
+    @Test
+    void successReleaseHold() throws Exception {
+        given(holdService.release(anyString(), anyString()))
+                .willReturn(BalanceHoldDto.builder()
+                        .holdId("holdId")
+                        .accountNumber("1000000000")
+                        .amount(3000L)
+                        .status(HoldStatus.RELEASED)
+                        .completedAt(LocalDateTime.now())
+                        .build());
+
+        mockMvc.perform(post("/transaction/hold/release")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CompleteHold.Request("holdId", "1000000000"))))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("RELEASED"))
+                .andExpect(jsonPath("$.holdId").value("holdId"));
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.spring_project.controller;
+
+import com.example.spring_project.exception.ErrorRecorder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+/**
+ * @WebMvcTest 에는 metrics 자동 설정이 없고 @Component 도 올라오지 않으므로
+ * GlobalExceptionHandler / BinaryTransactionController 가 쓸 ErrorRecorder 와 MeterRegistry 를 넣어 준다.
+ */
+@TestConfiguration
+@Import(ErrorRecorder.class)
+public class MeterRegistryTestConfig {
+
+    @Bean
+    public MeterRegistry meterRegistry() {
+        return new SimpleMeterRegistry();
+    }
+}
@@ -1,10 +1,13 @@
 package com.example.spring_project.controller;
 
+import com.example.spring_project.archive.TransactionArchiveService;
 import com.example.spring_project.dto.AccountDto;
 import com.example.spring_project.dto.CancelBalance;
 import com.example.spring_project.dto.TransactionDto;
 import com.example.spring_project.dto.UseBalance;
+import com.example.spring_project.exception.AccountException;
 import com.example.spring_project.service.TransactionService;
+import com.example.spring_project.type.ErrorCode;
 import com.example.spring_project.type.TransactionResultType;
 import com.example.spring_project.type.TransactionType;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -12,6 +15,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -20,21 +24,28 @@ import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 
+@Import(MeterRegistryTestConfig.class)
 @WebMvcTest(TransactionController.class)
 class TransactionControllerTest {
 
     @MockBean
     private TransactionService transactionService;
 
+    @MockBean
+    private TransactionArchiveService transactionArchiveService;
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -65,6 +76,34 @@ class TransactionControllerTest {
 
     }
 
+    @Test
+    void failedUseBalanceIsRecorded() throws Exception {
+
+        given(transactionService.useBalance(anyLong(),anyString(),anyLong()))
+                .willThrow(new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE));
+
+        mockMvc.perform(post("/transaction/use")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new UseBalance.Request(1L,"2000000000",3000L))))
+                .andExpect(jsonPath("$.errorCode").value("AMOUNT_EXCEED_BALANCE"));
+
+        verify(transactionService).saveFailedUseTransaction("2000000000",3000L);
+    }
+
+    @Test
+    void lockFailureIsNotRecorded() throws Exception {
+
+        given(transactionService.useBalance(anyLong(),anyString(),anyLong()))
+                .willThrow(new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK));
+
+        mockMvc.perform(post("/transaction/use")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new UseBalance.Request(1L,"2000000000",3000L))))
+                .andExpect(jsonPath("$.errorCode").value("ACCOUNT_TRANSACTION_LOCK"));
+
+        verify(transactionService,never()).saveFailedUseTransaction(anyString(),anyLong());
+    }
+
     @Test
     void successCancelBalance() throws Exception {
 
@@ -113,5 +152,38 @@ class TransactionControllerTest {
                 .andExpect(jsonPath("$.amount").value(54321));
     }
 
+    @Test
+    void successQueryArchivedTransactions() throws Exception {
+
+        given(transactionArchiveService.findArchivedTransactions(anyString(), any(), any()))
+                .willReturn(Arrays.asList(
+                        TransactionDto.builder()
+                                .accountNumber("1000000000")
+                                .transactionType(TransactionType.USE)
+                                .transactedAt(LocalDateTime.of(2020, 1, 1, 10, 0))
+                                .amount(1000L)
+                                .transactionId("202001transactionId")
+                                .transactionResultType(TransactionResultType.S)
+                                .build(),
+                        TransactionDto.builder()
+                                .accountNumber("1000000000")
+                                .transactionType(TransactionType.CANCEL)
+                                .transactedAt(LocalDateTime.of(2020, 1, 2, 10, 0))
+                                .amount(1000L)
+                                .transactionId("202001cancelId")
+                                .transactionResultType(TransactionResultType.S)
+                                .build()));
+
+        mockMvc.perform(get("/transaction/archive")
+                        .param("accountNumber", "1000000000")
+                        .param("from", "2020-01-01T00:00:00")
+                        .param("to", "2020-02-01T00:00:00"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].transactionType").value("USE"))
+                .andExpect(jsonPath("$[0].transactionId").value("202001transactionId"))
+                .andExpect(jsonPath("$[1].transactionType").value("CANCEL"))
+                .andExpect(jsonPath("$[1].amount").value(1000));
+    }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,124 @@
+package com.example.spring_project.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * H2 인스턴스 세 개(primary, replica 2개)로 라우팅을 확인한다.
+ * 각 DB 의 node 테이블에 자기 이름을 넣어두고, 어느 DB 에서 읽었는지로 판단한다.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate writeTransaction;
+    private TransactionTemplate readOnlyTransaction;
+    private ReadYourWrites readYourWrites;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = h2("primary");
+        DataSource replica1 = h2("replica1");
+        DataSource replica2 = h2("replica2");
+
+        ReplicaRoutingDataSource routingDataSource =
+                new ReplicaRoutingDataSource(primary, Arrays.asList(replica1, replica2));
+        routingDataSource.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        writeTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        readYourWrites = new ReadYourWrites(true, 60_000);
+    }
+
+    @Test
+    @DisplayName("쓰기 트랜잭션은 primary 로 간다")
+    void writeGoesToPrimary() {
+        assertEquals("primary", writeTransaction.execute(status -> currentNode()));
+    }
+
+    @Test
+    @DisplayName("readOnly 트랜잭션은 replica 들에 돌아가면서 간다")
+    void readOnlyGoesToReplicas() {
+        Set<String> nodes = new HashSet<>();
+        for (int i = 0; i < 4; i++) {
+            nodes.add(readOnlyTransaction.execute(status -> currentNode()));
+        }
+
+        assertEquals(new HashSet<>(Arrays.asList("replica1", "replica2")), nodes);
+    }
+
+    @Test
+    @DisplayName("최근에 쓴 key 를 읽으면 primary 로 가고, 다른 key 는 replica 로 간다")
+    void readYourWrites() {
+        writeTransaction.execute(status -> {
+            readYourWrites.written(ReadYourWrites.userKey(1L));
+            return currentNode();
+        });
+
+        String sticky = readOnlyTransaction.execute(status -> {
+            readYourWrites.readAfterWrite(ReadYourWrites.userKey(1L));
+            return currentNode();
+        });
+        String other = readOnlyTransaction.execute(status -> {
+            readYourWrites.readAfterWrite(ReadYourWrites.userKey(2L));
+            return currentNode();
+        });
+
+        assertEquals("primary", sticky);
+        assertEquals("replica", other.substring(0, "replica".length()));
+    }
+
+    @Test
+    @DisplayName("rollback 된 쓰기는 기록하지 않고, tolerance 가 지나면 다시 replica 로 간다")
+    void readYourWrites_RollbackAndExpired() {
+        writeTransaction.execute(status -> {
+            readYourWrites.written(ReadYourWrites.userKey(1L));
+            status.setRollbackOnly();
+            return null;
+        });
+        assertEquals("replica", readOnlyTransaction.execute(status -> {
+            readYourWrites.readAfterWrite(ReadYourWrites.userKey(1L));
+            return currentNode();
+        }).substring(0, "replica".length()));
+
+        ReadYourWrites noTolerance = new ReadYourWrites(true, 0);
+        writeTransaction.execute(status -> {
+            noTolerance.written(ReadYourWrites.userKey(1L));
+            return null;
+        });
+        assertEquals("replica", readOnlyTransaction.execute(status -> {
+            noTolerance.readAfterWrite(ReadYourWrites.userKey(1L));
+            return currentNode();
+        }).substring(0, "replica".length()));
+    }
+
+    private String currentNode() {
+        return jdbcTemplate.queryForObject("select name from node", String.class);
+    }
+
+    private static DataSource h2(String name) {
+        DriverManagerDataSource dataSource =
+                new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table if not exists node(name varchar(20))");
+        jdbcTemplate.update("delete from node");
+        jdbcTemplate.update("insert into node(name) values (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.spring_project.datasource;
+
+import com.example.spring_project.domain.TransactionId;
+import com.example.spring_project.exception.AccountException;
+import com.example.spring_project.type.ErrorCode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class ShardRoutingAspectTest {
+
+    private Shards shards;
+    private ShardedTarget target;
+
+    @BeforeEach
+    void setUp() {
+        shards = Shards.of(3, mock(PlatformTransactionManager.class));
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new ShardedTarget());
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(new ShardRoutingAspect(shards));
+        target = proxyFactory.getProxy();
+    }
+
+    @AfterEach
+    void tearDown() {
+        shards.shutdown();
+    }
+
+    @Test
+    void routeByAccountNumber() {
+        assertEquals(shards.shardOf("1000000001"), target.byAccountNumber("1000000001"));
+        assertEquals(shards.shardOf("1000000002"), target.byAccountNumber("1000000002"));
+        // 형식이 맞지 않으면 기본 shard
+        assertEquals(ShardContext.HOME, target.byAccountNumber("abc"));
+        assertNull(ShardContext.get());
+    }
+
+    @Test
+    void routeByTransactionId() {
+        String transactionId = TransactionId.generate(LocalDateTime.of(2022, 10, 3, 12, 0), 2);
+
+        assertEquals(2, target.byTransactionId(transactionId));
+        assertEquals(ShardContext.HOME, target.byTransactionId("eb7048525e194a28b6e789860318769f"));
+    }
+
+    @Test
+    void legacyTransactionIdFallsBackToHomeShard() {
+        // 이전 UUID 가 우연히 월(202201) + shard(01) 형식으로 읽힌다.
+        String legacyId = "20220101a4c9e04b7d9f1e2c3b4a5d6e";
+        assertEquals(1, shards.shardOfTransactionId(legacyId));
+
+        assertEquals(ShardContext.HOME, target.findTransaction(legacyId));
+        assertNull(ShardContext.get());
+    }
+
+    @Test
+    void notFoundOnHomeShardIsThrown() {
+        String transactionId = TransactionId.generate(LocalDateTime.of(2022, 10, 3, 12, 0), 0);
+
+        AccountException exception = assertThrows(AccountException.class,
+                () -> target.findMissingTransaction(transactionId));
+        assertEquals(ErrorCode.TRANSACTION_NOT_FOUND, exception.getErrorCode());
+        assertEquals(1, target.missingLookups);
+    }
+
+    @Test
+    void allocateRotatesShards() {
+        assertEquals(0, target.allocate());
+        assertEquals(1, target.allocate());
+        assertEquals(2, target.allocate());
+        assertEquals(0, target.allocate());
+    }
+
+    @Test
+    void cannotSwitchShardInsideTransaction() {
+        Integer previous = ShardContext.set(shards.shardOf("1000000001"));
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertEquals(ShardContext.current(), target.byAccountNumber("1000000001"));
+            assertThrows(IllegalStateException.class, () -> target.byAccountNumber("1000000002"));
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+            ShardContext.restore(previous);
+        }
+    }
+
+    static class ShardedTarget {
+
+        int missingLookups;
+
+        public int byAccountNumber(@ShardKey String accountNumber) {
+            return ShardContext.current();
+        }
+
+        public int byTransactionId(@ShardKey(ShardKey.Type.TRANSACTION_ID) String transactionId) {
+            return ShardContext.current();
+        }
+
+        public int findTransaction(@ShardKey(ShardKey.Type.TRANSACTION_ID) String transactionId) {
+            // sharding 전 거래는 기본 shard 에만 있다.
+            if (ShardContext.current() != ShardContext.HOME) {
+                throw new AccountException(ErrorCode.TRANSACTION_NOT_FOUND);
+            }
+            return ShardContext.current();
+        }
+
+        public int findMissingTransaction(@ShardKey(ShardKey.Type.TRANSACTION_ID) String transactionId) {
+            missingLookups++;
+            throw new AccountException(ErrorCode.TRANSACTION_NOT_FOUND);
+        }
+
+        @AllocateShard
+        public int allocate() {
+            return ShardContext.current();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.spring_project.datasource;
+
+import com.example.spring_project.domain.Account;
+import com.example.spring_project.dto.AccountDto;
+import com.example.spring_project.repository.AccountRepository;
+import com.example.spring_project.service.AccountService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * shard 3개에서 id 할당 구간(pooled-lo, 50개) 두 개를 넘게 계좌를 만들어도
+ * 계좌번호 / id 가 겹치지 않고 계좌번호의 shard 에 저장되는지 확인한다.
+ */
+@SpringBootTest(properties = {
+        "datasource.sharding.enabled=true",
+        "spring.datasource.url=jdbc:h2:mem:sharded-creation-0;DB_CLOSE_DELAY=-1",
+        "datasource.sharding.shard-urls=jdbc:h2:mem:sharded-creation-1;DB_CLOSE_DELAY=-1,jdbc:h2:mem:sharded-creation-2;DB_CLOSE_DELAY=-1",
+        "spring.redis.port=6381",
+        "rate-limit.enabled=false"
+})
+class ShardedAccountCreationTest {
+
+    private static final long FIRST_USER_ID = 1001L;
+    private static final int USERS = 12;
+    private static final int ACCOUNTS_PER_USER = 10;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private Shards shards;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void createAccountsOnEveryShard() {
+        // 사용자는 모든 shard 에 있어야 한다. (시작할 때 복사된 뒤에 넣으므로 직접 넣는다.)
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        for (int shard = 0; shard < shards.count(); shard++) {
+            shards.callIn(shard, () -> {
+                for (long userId = FIRST_USER_ID; userId < FIRST_USER_ID + USERS; userId++) {
+                    jdbcTemplate.update("insert into account_user(id, name, active_account_count, created_at, updated_at) " +
+                            "values (?, ?, 0, now(), now())", userId, "Sharded" + userId);
+                }
+                return null;
+            });
+        }
+
+        List<AccountDto> created = new ArrayList<>();
+        for (long userId = FIRST_USER_ID; userId < FIRST_USER_ID + USERS; userId++) {
+            for (int i = 0; i < ACCOUNTS_PER_USER; i++) {
+                created.add(accountService.createAccount(userId, 0L));
+            }
+        }
+
+        Set<String> accountNumbers = new HashSet<>();
+        created.forEach(account -> assertTrue(accountNumbers.add(account.getAccountNumber()),
+                "duplicate account number " + account.getAccountNumber()));
+
+        // 각 shard 에서 읽은 계좌가 계좌번호의 shard 에 있는지, id 가 shard 사이에 겹치지 않는지
+        Map<Long, String> accountNumberById = new HashMap<>();
+        List<List<Account>> accountsByShard = shards.scatter(accountRepository::findAll);
+        for (int shard = 0; shard < accountsByShard.size(); shard++) {
+            for (Account account : accountsByShard.get(shard)) {
+                if (!accountNumbers.contains(account.getAccountNumber())) {
+                    continue;
+                }
+                assertEquals(shard, shards.shardOf(account.getAccountNumber()));
+                assertNull(accountNumberById.put(account.getId(), account.getAccountNumber()),
+                        "duplicate id " + account.getId());
+            }
+        }
+        assertEquals(USERS * ACCOUNTS_PER_USER, accountNumberById.size());
+
+        // id 로 찾으면 어느 shard 에 있든 찾는다.
+        accountNumberById.forEach((id, accountNumber) ->
+                assertEquals(accountNumber, accountService.getAccount(id).getAccountNumber()));
+        assertEquals(ACCOUNTS_PER_USER, accountService.getAccountByUserId(FIRST_USER_ID).size());
+    }
+}
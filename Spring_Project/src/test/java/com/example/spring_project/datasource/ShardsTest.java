@@ -0,0 +1,131 @@
+package com.example.spring_project.datasource;
+
+import com.example.spring_project.domain.AccountNumber;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * H2 인스턴스 세 개를 shard 로 두고 스키마 복사, 라우팅, scatter-gather, 기본 shard 갱신을 확인한다.
+ */
+class ShardsTest {
+
+    private List<DataSource> nodes;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate writeTransaction;
+    private Shards shards;
+
+    @BeforeEach
+    void setUp() {
+        nodes = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            DriverManagerDataSource node =
+                    new DriverManagerDataSource("jdbc:h2:mem:shard-" + i + ";DB_CLOSE_DELAY=-1", "sa", "");
+            new JdbcTemplate(node).execute("drop all objects");
+            nodes.add(node);
+        }
+        JdbcTemplate home = new JdbcTemplate(nodes.get(0));
+        home.execute("create table account_user(id bigint primary key, name varchar(20), active_account_count int)");
+        home.execute("create table node(name varchar(20))");
+        home.execute("create sequence account_seq start with 1");
+        home.update("insert into account_user values (1, 'Pororo', 0)");
+
+        new ShardSchemaReplicator(nodes).afterSingletonsInstantiated();
+        for (int i = 0; i < nodes.size(); i++) {
+            new JdbcTemplate(nodes.get(i)).update("insert into node values (?)", "shard-" + i);
+        }
+
+        ShardRoutingDataSource routingDataSource = new ShardRoutingDataSource(nodes);
+        routingDataSource.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        writeTransaction = new TransactionTemplate(transactionManager);
+        shards = Shards.of(nodes.size(), transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        shards.shutdown();
+    }
+
+    @Test
+    @DisplayName("기본 shard 의 스키마와 사용자를 복사하고, 시퀀스는 shard 마다 다른 범위에서 시작한다")
+    void replicateSchema() {
+        JdbcTemplate shard2 = new JdbcTemplate(nodes.get(2));
+
+        assertEquals("Pororo", shard2.queryForObject("select name from account_user where id = 1", String.class));
+        assertEquals(2 * ShardSchemaReplicator.ID_RANGE + 1,
+                shard2.queryForObject("select next value for account_seq", Long.class));
+    }
+
+    @Test
+    @DisplayName("ShardContext 의 shard 로 가고, 설정하지 않으면 기본 shard 로 간다")
+    void routeByShardContext() {
+        assertEquals("shard-0", currentNode());
+        assertEquals("shard-2", shards.callIn(2, this::currentNode));
+        assertEquals("shard-1", shards.callIn(1, () -> writeTransaction.execute(status -> currentNode())));
+    }
+
+    @Test
+    @DisplayName("scatter 는 모든 shard 에서 읽어서 shard 순서대로 돌려준다")
+    void scatterGather() {
+        assertEquals(Arrays.asList("shard-0", "shard-1", "shard-2"), shards.scatter(this::currentNode));
+    }
+
+    @Test
+    @DisplayName("기본 shard 갱신은 따로 커밋되고, 계좌 shard 트랜잭션이 롤백되면 되돌린다")
+    void homeShardUpdateIsUndoneOnRollback() {
+        shards.callIn(2, () -> writeTransaction.execute(status -> {
+            assertEquals(1, increaseActiveAccountCount());
+            status.setRollbackOnly();
+            return null;
+        }));
+        assertEquals(0, activeAccountCount());
+
+        shards.callIn(2, () -> writeTransaction.execute(status -> increaseActiveAccountCount()));
+        assertEquals(1, activeAccountCount());
+    }
+
+    @Test
+    @DisplayName("shard 의 계좌번호는 모두 그 shard 로 돌아온다")
+    void accountNumbersStayInShard() {
+        for (int shard = 0; shard < shards.count(); shard++) {
+            long accountNumber = shards.callIn(shard, shards::firstAccountNumber);
+            for (int i = 0; i < 5; i++) {
+                assertEquals(shard, shards.shardOf(AccountNumber.toString(accountNumber)));
+                long last = accountNumber;
+                accountNumber = shards.callIn(shard, () -> shards.accountNumberAfter(last));
+            }
+        }
+        assertEquals(AccountNumber.FIRST, shards.callIn(shards.shardOf("1000000000"), shards::firstAccountNumber));
+    }
+
+    private int increaseActiveAccountCount() {
+        return shards.onHomeShard(
+                () -> jdbcTemplate.update("update account_user set active_account_count = active_account_count + 1 where id = 1"),
+                () -> jdbcTemplate.update("update account_user set active_account_count = active_account_count - 1 where id = 1"));
+    }
+
+    private int activeAccountCount() {
+        return new JdbcTemplate(nodes.get(0))
+                .queryForObject("select active_account_count from account_user where id = 1", Integer.class);
+    }
+
+    private String currentNode() {
+        return jdbcTemplate.queryForObject("select name from node", String.class);
+    }
+}
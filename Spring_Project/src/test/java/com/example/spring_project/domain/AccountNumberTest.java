@@ -0,0 +1,33 @@
+package com.example.spring_project.domain;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountNumberTest {
+
+    @Test
+    void validAccountNumber() {
+        assertTrue(AccountNumber.isValid("1000000000"));
+        assertTrue(AccountNumber.isValid("9999999999"));
+        assertEquals(1234567890L, AccountNumber.toLong("1234567890"));
+        assertEquals("1234567890", new AccountNumberConverter().convertToEntityAttribute(1234567890L));
+    }
+
+    @Test
+    void invalidAccountNumber() {
+        assertFalse(AccountNumber.isValid("0123456789"));
+        assertFalse(AccountNumber.isValid("123456789"));
+        assertFalse(AccountNumber.isValid("12345678901"));
+        assertFalse(AccountNumber.isValid("12345a7890"));
+        assertFalse(AccountNumber.isValid(null));
+        assertThrows(IllegalArgumentException.class, () -> AccountNumber.toLong("0123456789"));
+    }
+
+    @Test
+    void nextAccountNumber() {
+        // 이전에는 Integer.parseInt 로 2147483647 을 넘으면 실패했다.
+        assertEquals("2147483648", AccountNumber.next("2147483647"));
+        assertThrows(IllegalStateException.class, () -> AccountNumber.next("9999999999"));
+    }
+}
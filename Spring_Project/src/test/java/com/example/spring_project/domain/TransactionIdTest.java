@@ -0,0 +1,46 @@
+package com.example.spring_project.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionIdTest {
+
+    @Test
+    void generateWithPartitionMonthPrefix() {
+        String transactionId = TransactionId.generate(LocalDateTime.of(2022, 10, 3, 12, 0));
+
+        assertEquals(32, transactionId.length());
+        assertTrue(transactionId.startsWith("202210"));
+        assertEquals(202210, TransactionId.partitionMonthOf(transactionId));
+    }
+
+    @Test
+    void legacyUuidHasNoPartitionMonth() {
+        assertNull(TransactionId.partitionMonthOf("eb7048525e194a28b6e789860318769f"));
+        assertNull(TransactionId.partitionMonthOf("202213525e194a28b6e789860318769f"));
+        assertNull(TransactionId.partitionMonthOf("transactionId"));
+        assertNull(TransactionId.partitionMonthOf(null));
+    }
+
+    @Test
+    void generateWithShard() {
+        String transactionId = TransactionId.generate(LocalDateTime.of(2022, 10, 3, 12, 0), 11);
+
+        assertEquals(32, transactionId.length());
+        assertEquals(202210, TransactionId.partitionMonthOf(transactionId));
+        assertEquals(11, TransactionId.shardOf(transactionId));
+        assertEquals(0, TransactionId.shardOf(TransactionId.generate(LocalDateTime.of(2022, 10, 3, 12, 0))));
+        assertThrows(IllegalArgumentException.class,
+                () -> TransactionId.generate(LocalDateTime.now(), TransactionId.MAX_SHARDS));
+    }
+
+    @Test
+    void legacyUuidHasNoShard() {
+        assertNull(TransactionId.shardOf("eb7048525e194a28b6e789860318769f"));
+        assertNull(TransactionId.shardOf("transactionId"));
+        assertNull(TransactionId.shardOf(null));
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.spring_project.dto;
+
+import com.example.spring_project.domain.Account;
+import com.example.spring_project.domain.Transaction;
+import com.example.spring_project.type.TransactionResultType;
+import com.example.spring_project.type.TransactionType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ./gradlew benchmark -Dbenchmark.allocationTarget=0.10
+ * 거래 응답 한 건(엔티티 -> TransactionDto -> Response -> JSON)을 만들 때 할당되는 바이트 수를
+ * 이전 방식(builder 두 번 + reflection 직렬화)과 지금 방식(생성자 + Blackbird)으로 비교한다.
+ */
+@Tag("benchmark")
+class ResponseAllocationBenchmark {
+
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 200_000);
+    private static final double TARGET_REDUCTION =
+            Double.parseDouble(System.getProperty("benchmark.allocationTarget", "0.10"));
+
+    private final com.sun.management.ThreadMXBean threadMXBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Test
+    void bytesAllocatedPerUseBalanceResponse() throws IOException {
+        Transaction transaction = transaction();
+
+        ObjectWriter legacyWriter = objectMapper(false).writerFor(UseBalance.Response.class);
+        ObjectWriter leanWriter = objectMapper(true).writerFor(UseBalance.Response.class);
+
+        double legacy = bytesPerCall(legacyWriter, transaction, ResponseAllocationBenchmark::legacyUseResponse);
+        double lean = bytesPerCall(leanWriter, transaction,
+                entity -> UseBalance.Response.from(TransactionDto.fromEntity(entity)));
+        double reduction = 1 - lean / legacy;
+
+        System.out.printf("[allocation] use response legacy=%.1f B/call, lean=%.1f B/call, reduction=%.1f%% (target %.1f%%)%n",
+                legacy, lean, reduction * 100, TARGET_REDUCTION * 100);
+
+        assertTrue(reduction >= TARGET_REDUCTION,
+                () -> String.format("reduction %.1f%% is below target %.1f%%", reduction * 100, TARGET_REDUCTION * 100));
+    }
+
+    private double bytesPerCall(ObjectWriter writer, Transaction transaction,
+                                Function<Transaction, UseBalance.Response> toResponse) throws IOException {
+        NullOutputStream out = new NullOutputStream();
+        // warm up (JIT, Jackson serializer cache, Blackbird 람다 생성)
+        for (int i = 0; i < ITERATIONS; i++) {
+            writer.writeValue(out, toResponse.apply(transaction));
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < ITERATIONS; i++) {
+            writer.writeValue(out, toResponse.apply(transaction));
+        }
+        long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - before;
+        return (double) allocated / ITERATIONS;
+    }
+
+    private static ObjectMapper objectMapper(boolean blackbird) {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if (blackbird) {
+            builder.modulesToInstall(new BlackbirdModule());
+        }
+        return builder.build();
+    }
+
+    /**
+     * 이전 응답 생성 방식 (TransactionDto builder -> Response builder)
+     */
+    private static UseBalance.Response legacyUseResponse(Transaction transaction) {
+        TransactionDto transactionDto = TransactionDto.builder()
+                .accountNumber(transaction.getAccount().getAccountNumber())
+                .transactionType(transaction.getTransactionType())
+                .transactionResultType(transaction.getTransactionResultType())
+                .amount(transaction.getAmount())
+                .balanceSnapshot(transaction.getBalanceSnapshot())
+                .transactionId(transaction.getTransactionId())
+                .transactedAt(transaction.getTransactedAt())
+                .build();
+
+        return UseBalance.Response.builder()
+                .accountNumber(transactionDto.getAccountNumber())
+                .transactionResult(transactionDto.getTransactionResultType())
+                .transactionId(transactionDto.getTransactionId())
+                .amount(transactionDto.getAmount())
+                .transactedAt(transactionDto.getTransactedAt())
+                .build();
+    }
+
+    private static Transaction transaction() {
+        return Transaction.builder()
+                .account(Account.builder().accountNumber("1000000000").balance(9000L).build())
+                .transactionType(TransactionType.USE)
+                .transactionResultType(TransactionResultType.S)
+                .amount(1000L)
+                .balanceSnapshot(9000L)
+                .transactionId("202210a1b2c3d4e5f60718293a4b5c6d")
+                .transactedAt(LocalDateTime.of(2022, 10, 19, 12, 34, 56, 789_000_000))
+                .build();
+    }
+
+    private static class NullOutputStream extends OutputStream {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.spring_project.exception;
+
+import com.example.spring_project.dto.ErrorResponse;
+import com.example.spring_project.type.ErrorCode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GlobalExceptionHandlerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler(new ErrorRecorder(meterRegistry));
+
+    @Test
+    @DisplayName("업무 예외는 stack trace 없이 만들어진다")
+    void accountExceptionIsStackless() {
+        AccountException exception = new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
+
+        assertEquals(0, exception.getStackTrace().length);
+    }
+
+    @Test
+    @DisplayName("기본 메시지의 응답은 캐시된 객체를 재사용하고 ErrorCode 별로 센다")
+    void handleAccountException_CachedResponse() {
+        ErrorResponse first = handler.handleAccountException(new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE));
+        ErrorResponse second = handler.handleAccountException(new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE));
+
+        assertSame(first, second);
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, first.getErrorCode());
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE.getDescription(), first.getErrorMessage());
+        assertEquals(2, errorCount(ErrorCode.AMOUNT_EXCEED_BALANCE));
+    }
+
+    @Test
+    @DisplayName("메시지가 다르면 새 응답을 만든다")
+    void handleAccountException_CustomMessage() {
+        ErrorResponse response = handler.handleAccountException(
+                new AccountException(ErrorCode.USER_NOT_FOUND, "custom"));
+
+        assertEquals(ErrorCode.USER_NOT_FOUND, response.getErrorCode());
+        assertEquals("custom", response.getErrorMessage());
+    }
+
+    @Test
+    @DisplayName("같은 ErrorCode 의 로그는 interval 안에서 한 번만 남기고 나머지는 센다")
+    void errorLogSampler() {
+        ErrorLogSampler sampler = new ErrorLogSampler(60_000);
+
+        assertEquals(0, sampler.tryAcquire(ErrorCode.USER_NOT_FOUND));
+        assertEquals(-1, sampler.tryAcquire(ErrorCode.USER_NOT_FOUND));
+        assertEquals(-1, sampler.tryAcquire(ErrorCode.USER_NOT_FOUND));
+        // 다른 ErrorCode 는 따로 센다.
+        assertEquals(0, sampler.tryAcquire(ErrorCode.ACCOUNT_NOT_FOUND));
+    }
+
+    private double errorCount(ErrorCode errorCode) {
+        return meterRegistry.find("account.errors")
+                .tag("errorCode", errorCode.name())
+                .counter()
+                .count();
+    }
+}
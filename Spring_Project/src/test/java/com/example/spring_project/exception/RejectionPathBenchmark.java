@@ -0,0 +1,105 @@
+package com.example.spring_project.exception;
+
+import com.example.spring_project.dto.ErrorResponse;
+import com.example.spring_project.type.ErrorCode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ./gradlew benchmark
+ * 잔액 부족 같은 거절 한 건(깊은 호출 스택에서 throw -> handler -> ErrorResponse)의 비용을
+ * 이전 방식(stack trace 채움 + 매번 새 응답)과 지금 방식(stackless + 캐시된 응답)으로 비교한다.
+ */
+@Tag("benchmark")
+class RejectionPathBenchmark {
+
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 200_000);
+    // controller -> aop proxy -> service 까지 쌓이는 프레임 수와 비슷하게 맞춘다.
+    private static final int STACK_DEPTH = Integer.getInteger("benchmark.stackDepth", 80);
+
+    private final com.sun.management.ThreadMXBean threadMXBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler(new ErrorRecorder(new SimpleMeterRegistry()));
+
+    @Test
+    void rejectionPath() {
+        Result legacy = measure(() -> {
+            try {
+                throwAt(STACK_DEPTH, () -> new StackfulAccountException(ErrorCode.AMOUNT_EXCEED_BALANCE));
+            } catch (StackfulAccountException e) {
+                return new ErrorResponse(e.errorCode, e.errorMessage);
+            }
+            throw new IllegalStateException();
+        });
+        Result lean = measure(() -> {
+            try {
+                throwAt(STACK_DEPTH, () -> new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE));
+            } catch (AccountException e) {
+                return handler.handleAccountException(e);
+            }
+            throw new IllegalStateException();
+        });
+
+        System.out.printf("[rejection] legacy=%.0f ns/op %.1f B/op, stackless=%.0f ns/op %.1f B/op%n",
+                legacy.nanosPerOp, legacy.bytesPerOp, lean.nanosPerOp, lean.bytesPerOp);
+
+        assertTrue(lean.nanosPerOp < legacy.nanosPerOp);
+        assertTrue(lean.bytesPerOp < legacy.bytesPerOp);
+    }
+
+    private Result measure(Supplier<ErrorResponse> rejection) {
+        long sink = 0;
+        // warm up
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += rejection.get().getErrorMessage().length();
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long bytesBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += rejection.get().getErrorMessage().length();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - bytesBefore;
+        assertTrue(sink > 0);
+        return new Result((double) elapsed / ITERATIONS, (double) allocated / ITERATIONS);
+    }
+
+    private static void throwAt(int depth, Supplier<RuntimeException> exception) {
+        if (depth == 0) {
+            throw exception.get();
+        }
+        throwAt(depth - 1, exception);
+    }
+
+    private static class Result {
+        private final double nanosPerOp;
+        private final double bytesPerOp;
+
+        private Result(double nanosPerOp, double bytesPerOp) {
+            this.nanosPerOp = nanosPerOp;
+            this.bytesPerOp = bytesPerOp;
+        }
+    }
+
+    /**
+     * 이전 AccountException 과 같은 모양 (stack trace 를 채운다)
+     */
+    private static class StackfulAccountException extends RuntimeException {
+        private final ErrorCode errorCode;
+        private final String errorMessage;
+
+        private StackfulAccountException(ErrorCode errorCode) {
+            this.errorCode = errorCode;
+            this.errorMessage = errorCode.getDescription();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.spring_project.history;
+
+import com.example.spring_project.datasource.Shards;
+import com.example.spring_project.domain.AccountBalanceHistory;
+import com.example.spring_project.repository.AccountBalanceHistoryRepository;
+import com.example.spring_project.repository.AccountRepository;
+import com.example.spring_project.repository.TransactionRepository;
+import com.example.spring_project.type.TransactionResultType;
+import com.example.spring_project.type.TransactionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class BalanceHistoryBackfillTest {
+
+    private static final LocalDateTime REGISTER_AT = LocalDateTime.of(2022, 1, 1, 0, 0);
+
+    @Mock
+    private AccountRepository accountRepository;
+    @Mock
+    private TransactionRepository transactionRepository;
+    @Mock
+    private AccountBalanceHistoryRepository accountBalanceHistoryRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BalanceHistoryBackfill backfill;
+
+    @BeforeEach
+    void setUp() {
+        backfill = new BalanceHistoryBackfill(accountRepository, transactionRepository,
+                accountBalanceHistoryRepository, transactionManager, Shards.single(), 2, false);
+    }
+
+    @Test
+    void backfillAccountsWithoutOpening() {
+        //given
+        given(accountRepository.findBackfillChunk(eq(0L), any()))
+                .willReturn(Arrays.asList(account(1L, 8000L), account(2L, 500L)));
+        given(accountRepository.findBackfillChunk(eq(2L), any()))
+                .willReturn(Collections.emptyList());
+        // 2번 계좌는 이미 채워져 있다.
+        given(accountBalanceHistoryRepository.findOpenedAccountNumbers(anyCollection()))
+                .willReturn(Collections.singletonList("1000000002"));
+        given(transactionRepository.findBalanceHistoryRows(eq(Collections.singletonList(1L)), eq(TransactionResultType.S)))
+                .willReturn(Arrays.asList(
+                        row("t1", TransactionType.USE, 1000L, 9000L, 1),
+                        row("t2", TransactionType.USE, 2000L, 7000L, 2),
+                        row("t3", TransactionType.CANCEL, 1000L, 8000L, 3)));
+        // t3 는 backfill 도중 운영 거래로 먼저 기록됐다.
+        given(accountBalanceHistoryRepository.findRecordedTransactionIds(anyCollection()))
+                .willReturn(Collections.singletonList("t3"));
+        ArgumentCaptor<List<AccountBalanceHistory>> captor = ArgumentCaptor.forClass(List.class);
+
+        //when
+        long inserted = backfill.backfill();
+
+        //then
+        verify(accountBalanceHistoryRepository).saveAll(captor.capture());
+        List<AccountBalanceHistory> histories = new ArrayList<>(captor.getValue());
+        assertEquals(3, inserted);
+        assertEquals(3, histories.size());
+        assertNull(histories.get(0).getTransactionId());
+        assertEquals(10000L, histories.get(0).getBalance());
+        assertEquals(REGISTER_AT, histories.get(0).getChangedAt());
+        assertEquals("t1", histories.get(1).getTransactionId());
+        assertEquals(9000L, histories.get(1).getBalance());
+        assertEquals("t2", histories.get(2).getTransactionId());
+        assertEquals(7000L, histories.get(2).getBalance());
+    }
+
+    @Test
+    void openingWithoutTransactionsIsCurrentBalance() {
+        List<AccountBalanceHistory> histories = BalanceHistoryBackfill.histories(
+                account(1L, 3000L), Collections.emptyList(), Collections.emptySet());
+
+        assertEquals(1, histories.size());
+        assertEquals(3000L, histories.get(0).getBalance());
+        assertEquals("1000000001", histories.get(0).getAccountNumber());
+    }
+
+    private static BackfillAccount account(Long accountId, Long balance) {
+        return new BackfillAccount(accountId, String.valueOf(1_000_000_000L + accountId), balance, REGISTER_AT);
+    }
+
+    private static BalanceHistoryRow row(String transactionId, TransactionType type, Long amount,
+                                         Long balanceSnapshot, int day) {
+        return new BalanceHistoryRow(1L, transactionId, type, amount, balanceSnapshot, REGISTER_AT.plusDays(day));
+    }
+}
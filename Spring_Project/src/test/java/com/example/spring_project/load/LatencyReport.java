@@ -0,0 +1,70 @@
+package com.example.spring_project.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * endpoint + 결과(OK / ErrorCode) 별 응답 시간 히스토그램
+ * 값은 마이크로초 단위로 기록한다.
+ */
+public class LatencyReport {
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+    public void record(String endpoint, String result, long elapsedNanos) {
+        histograms.computeIfAbsent(endpoint + " " + result, key -> new ConcurrentHistogram(3))
+                .recordValue(Math.max(1L, TimeUnit.NANOSECONDS.toMicros(elapsedNanos)));
+    }
+
+    public long totalCount() {
+        return histograms.values().stream()
+                .mapToLong(Histogram::getTotalCount)
+                .sum();
+    }
+
+    public void print(PrintStream out, long elapsedNanos) {
+        double seconds = elapsedNanos / 1_000_000_000.0;
+
+        out.printf("%-50s %8s %10s %9s %9s %9s %9s%n",
+                "endpoint / result", "count", "req/s", "p50(ms)", "p95(ms)", "p99(ms)", "max(ms)");
+        new TreeMap<>(histograms).forEach((key, histogram) -> out.printf(
+                "%-50s %8d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                key,
+                histogram.getTotalCount(),
+                histogram.getTotalCount() / seconds,
+                histogram.getValueAtPercentile(50) / MICROS_PER_MILLI,
+                histogram.getValueAtPercentile(95) / MICROS_PER_MILLI,
+                histogram.getValueAtPercentile(99) / MICROS_PER_MILLI,
+                histogram.getMaxValue() / MICROS_PER_MILLI));
+        out.printf("total %d requests in %.2fs (%.1f req/s)%n",
+                totalCount(), seconds, totalCount() / seconds);
+    }
+
+    /**
+     * HdrHistogram 의 percentile distribution(.hgrm) 파일로 저장
+     */
+    public void writeTo(Path dir, long elapsedNanos) throws IOException {
+        Files.createDirectories(dir);
+
+        try (PrintStream summary = new PrintStream(Files.newOutputStream(dir.resolve("summary.txt")))) {
+            print(summary, elapsedNanos);
+        }
+        for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+            String fileName = entry.getKey().replaceAll("[^A-Za-z0-9_]+", "_") + ".hgrm";
+            try (PrintStream out = new PrintStream(Files.newOutputStream(dir.resolve(fileName)))) {
+                entry.getValue().outputPercentileDistribution(out, MICROS_PER_MILLI);
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.spring_project.load;
+
+/**
+ * 부하 테스트 설정
+ * gradle 실행 시 -Dload.xxx 로 덮어쓸 수 있다.
+ */
+public class LoadTestProperties {
+
+    private final int threads;
+    private final int requests;
+    private final int users;
+    private final int accountsPerUser;
+    private final long initialBalance;
+    private final double readRatio;
+    private final double cancelRatio;
+    private final int hotAccounts;
+    private final double hotTraffic;
+    private final String reportDir;
+
+    private LoadTestProperties() {
+        this.threads = Integer.getInteger("load.threads", 16);
+        this.requests = Integer.getInteger("load.requests", 5000);
+        this.users = Integer.getInteger("load.users", 20);
+        this.accountsPerUser = Math.min(Integer.getInteger("load.accountsPerUser", 5), 10);
+        this.initialBalance = Long.getLong("load.initialBalance", 100_000_000L);
+        this.readRatio = getDouble("load.readRatio", 0.2);
+        this.cancelRatio = getDouble("load.cancelRatio", 0.1);
+        this.hotAccounts = Integer.getInteger("load.hotAccounts", 1);
+        this.hotTraffic = getDouble("load.hotTraffic", 0.5);
+        this.reportDir = System.getProperty("load.reportDir", "build/reports/load");
+    }
+
+    public static LoadTestProperties fromSystemProperties() {
+        return new LoadTestProperties();
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public int getRequests() {
+        return requests;
+    }
+
+    public int getUsers() {
+        return users;
+    }
+
+    public int getAccountsPerUser() {
+        return accountsPerUser;
+    }
+
+    public long getInitialBalance() {
+        return initialBalance;
+    }
+
+    public double getReadRatio() {
+        return readRatio;
+    }
+
+    public double getCancelRatio() {
+        return cancelRatio;
+    }
+
+    public int getHotAccounts() {
+        return hotAccounts;
+    }
+
+    public double getHotTraffic() {
+        return hotTraffic;
+    }
+
+    public String getReportDir() {
+        return reportDir;
+    }
+
+    private static double getDouble(String key, double defaultValue) {
+        String value = System.getProperty(key);
+        return value == null ? defaultValue : Double.parseDouble(value);
+    }
+
+    @Override
+    public String toString() {
+        return "threads=" + threads +
+                ", requests=" + requests +
+                ", users=" + users +
+                ", accountsPerUser=" + accountsPerUser +
+                ", readRatio=" + readRatio +
+                ", cancelRatio=" + cancelRatio +
+                ", hotAccounts=" + hotAccounts +
+                ", hotTraffic=" + hotTraffic;
+    }
+}
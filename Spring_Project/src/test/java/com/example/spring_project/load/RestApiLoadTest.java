@@ -0,0 +1,232 @@
+package com.example.spring_project.load;
+
+import com.example.spring_project.dto.CancelBalance;
+import com.example.spring_project.dto.CreateAccount;
+import com.example.spring_project.dto.UseBalance;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ./gradlew loadTest 로 실행
+ * 임베디드 H2 / Redis 위에서 애플리케이션을 띄우고 사용자, 계좌를 만든 뒤
+ * 잔액 사용 / 취소 / 조회 요청을 설정된 비율로 보낸다.
+ */
+@Tag("load")
+// 처리량을 재는 테스트라 요청 수 제한은 끈다.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "rate-limit.enabled=false")
+class RestApiLoadTest {
+
+    private static final long FIRST_LOAD_USER_ID = 10_000L;
+
+    private static final String CREATE_ACCOUNT = "POST /account";
+    private static final String GET_ACCOUNTS = "GET /account";
+    private static final String USE_BALANCE = "POST /transaction/use";
+    private static final String CANCEL_BALANCE = "POST /transaction/cancel";
+    private static final String QUERY_TRANSACTION = "GET /transaction/{id}";
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final LoadTestProperties properties = LoadTestProperties.fromSystemProperties();
+    // 측정 구간의 요청만 기록한다. (계좌 생성은 seedReport 에 따로 기록)
+    private final LatencyReport report = new LatencyReport();
+    private final LatencyReport seedReport = new LatencyReport();
+    private final Queue<UsedTransaction> usedTransactions = new ConcurrentLinkedQueue<>();
+
+    @Test
+    void driveRestApi() throws Exception {
+        System.out.println("load test : " + properties);
+
+        long seedStartedAt = System.nanoTime();
+        List<LoadAccount> accounts = seedAccounts();
+        assertEquals(properties.getUsers() * properties.getAccountsPerUser(), accounts.size());
+        System.out.println("seed :");
+        seedReport.print(System.out, System.nanoTime() - seedStartedAt);
+
+        AtomicInteger remaining = new AtomicInteger(properties.getRequests());
+        ExecutorService executor = Executors.newFixedThreadPool(properties.getThreads());
+
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < properties.getThreads(); i++) {
+            executor.submit(() -> {
+                while (remaining.getAndDecrement() > 0) {
+                    sendRandomRequest(pickAccount(accounts));
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.HOURS));
+        long elapsed = System.nanoTime() - startedAt;
+
+        report.print(System.out, elapsed);
+        report.writeTo(Paths.get(properties.getReportDir()), elapsed);
+    }
+
+    private List<LoadAccount> seedAccounts() {
+        List<Object[]> users = new ArrayList<>();
+        for (int i = 0; i < properties.getUsers(); i++) {
+            users.add(new Object[]{FIRST_LOAD_USER_ID + i, "load-user-" + i});
+        }
+        jdbcTemplate.batchUpdate(
+                "insert into account_user(id, name, created_at, updated_at) values (?, ?, now(), now())",
+                users);
+
+        List<LoadAccount> accounts = new ArrayList<>();
+        for (int i = 0; i < properties.getUsers(); i++) {
+            long userId = FIRST_LOAD_USER_ID + i;
+            for (int j = 0; j < properties.getAccountsPerUser(); j++) {
+                JsonNode body = send(seedReport, CREATE_ACCOUNT, () -> restTemplate.postForEntity("/account",
+                        new CreateAccount.Request(userId, properties.getInitialBalance()), String.class));
+                assertTrue(body != null && body.hasNonNull("accountNumber"), "failed to create account for " + userId);
+                accounts.add(new LoadAccount(userId, body.get("accountNumber").asText()));
+            }
+        }
+        return accounts;
+    }
+
+    /**
+     * hotTraffic 비율만큼은 앞쪽 hotAccounts 개의 계좌로 몰아서 보낸다.
+     */
+    private LoadAccount pickAccount(List<LoadAccount> accounts) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int hotAccounts = Math.min(Math.max(properties.getHotAccounts(), 1), accounts.size());
+
+        if (random.nextDouble() < properties.getHotTraffic()) {
+            return accounts.get(random.nextInt(hotAccounts));
+        }
+        return accounts.get(random.nextInt(accounts.size()));
+    }
+
+    private void sendRandomRequest(LoadAccount account) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        if (random.nextDouble() < properties.getReadRatio()) {
+            UsedTransaction used = usedTransactions.peek();
+            if (used != null && random.nextBoolean()) {
+                send(QUERY_TRANSACTION, () -> restTemplate.getForEntity(
+                        "/transaction/{transactionId}", String.class, used.getTransactionId()));
+            } else {
+                send(GET_ACCOUNTS, () -> restTemplate.getForEntity(
+                        "/account?user_id={userId}", String.class, account.getUserId()));
+            }
+            return;
+        }
+
+        if (random.nextDouble() < properties.getCancelRatio()) {
+            UsedTransaction used = usedTransactions.poll();
+            if (used != null) {
+                send(CANCEL_BALANCE, () -> restTemplate.postForEntity("/transaction/cancel",
+                        new CancelBalance.Request(used.getTransactionId(), used.getAccountNumber(), used.getAmount()),
+                        String.class));
+                return;
+            }
+        }
+
+        long amount = random.nextLong(10, 1000);
+        JsonNode body = send(USE_BALANCE, () -> restTemplate.postForEntity("/transaction/use",
+                new UseBalance.Request(account.getUserId(), account.getAccountNumber(), amount), String.class));
+        if (body != null && body.hasNonNull("transactionId")) {
+            usedTransactions.add(new UsedTransaction(
+                    body.get("transactionId").asText(), account.getAccountNumber(), amount));
+        }
+    }
+
+    /**
+     * 요청을 보내고 응답 시간을 endpoint + 결과(OK / errorCode / HTTP status) 별로 기록한다.
+     */
+    private JsonNode send(String endpoint, Supplier<ResponseEntity<String>> request) {
+        return send(report, endpoint, request);
+    }
+
+    private JsonNode send(LatencyReport latencyReport, String endpoint, Supplier<ResponseEntity<String>> request) {
+        long startedAt = System.nanoTime();
+        String result;
+        JsonNode body = null;
+
+        try {
+            ResponseEntity<String> response = request.get();
+            if (!response.getStatusCode().is2xxSuccessful()) {
+                result = "HTTP_" + response.getStatusCodeValue();
+            } else {
+                body = objectMapper.readTree(response.getBody());
+                result = body.hasNonNull("errorCode") ? body.get("errorCode").asText() : "OK";
+            }
+        } catch (Exception e) {
+            result = e.getClass().getSimpleName();
+        }
+
+        latencyReport.record(endpoint, result, System.nanoTime() - startedAt);
+        return body;
+    }
+
+    private static class LoadAccount {
+        private final Long userId;
+        private final String accountNumber;
+
+        LoadAccount(Long userId, String accountNumber) {
+            this.userId = userId;
+            this.accountNumber = accountNumber;
+        }
+
+        Long getUserId() {
+            return userId;
+        }
+
+        String getAccountNumber() {
+            return accountNumber;
+        }
+    }
+
+    private static class UsedTransaction {
+        private final String transactionId;
+        private final String accountNumber;
+        private final Long amount;
+
+        UsedTransaction(String transactionId, String accountNumber, Long amount) {
+            this.transactionId = transactionId;
+            this.accountNumber = accountNumber;
+            this.amount = amount;
+        }
+
+        String getTransactionId() {
+            return transactionId;
+        }
+
+        String getAccountNumber() {
+            return accountNumber;
+        }
+
+        Long getAmount() {
+            return amount;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.spring_project.monitoring;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 서비스 호출 한 번에 실행되는 SQL 수를 제한하는 테스트 헬퍼
+ * (StatisticsDataSource 가 적용된 컨텍스트에서만 의미가 있다.)
+ */
+public final class SqlStatisticsAssertions {
+
+    private SqlStatisticsAssertions() {
+    }
+
+    public static SqlStatistics measure(Runnable action) {
+        SqlStatistics before = SqlStatisticsHolder.snapshot();
+        action.run();
+        return SqlStatisticsHolder.since(before);
+    }
+
+    /**
+     * 시퀀스 호출을 뺀 statement 수가 maxStatements 이하이고,
+     * 같은 모양의 select 가 두 번 이상 실행되지 않았는지(N+1) 확인한다.
+     * 시퀀스 호출은 앞선 테스트가 id 블록을 얼마나 썼는지에 따라 달라지므로 세지 않는다.
+     */
+    public static <T> T assertMaxStatements(int maxStatements, Supplier<T> action) {
+        SqlStatistics before = SqlStatisticsHolder.snapshot();
+        SqlStatisticsHolder.startShapeCapture();
+        T result;
+        Map<String, Integer> shapes;
+        try {
+            result = action.get();
+        } finally {
+            shapes = SqlStatisticsHolder.stopShapeCapture();
+        }
+        SqlStatistics executed = SqlStatisticsHolder.since(before);
+
+        assertTrue(executed.getStatementsWithoutSequences() <= maxStatements,
+                () -> "expected at most " + maxStatements + " statements but was " + executed);
+        assertNoRepeatedSelects(shapes);
+        return result;
+    }
+
+    private static void assertNoRepeatedSelects(Map<String, Integer> shapes) {
+        Map<String, Integer> repeated = shapes.entrySet().stream()
+                .filter(shape -> shape.getKey().toLowerCase(Locale.ROOT).startsWith("select"))
+                .filter(shape -> shape.getValue() > 1)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+
+        assertTrue(repeated.isEmpty(), () -> "same select executed repeatedly (N+1): " + repeated);
+    }
+}
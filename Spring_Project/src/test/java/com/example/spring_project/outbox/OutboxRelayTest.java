@@ -0,0 +1,130 @@
+package com.example.spring_project.outbox;
+
+import com.example.spring_project.datasource.Shards;
+import com.example.spring_project.domain.BalanceChangeOutbox;
+import com.example.spring_project.repository.BalanceChangeOutboxRepository;
+import com.example.spring_project.type.TransactionType;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private BalanceChangeOutboxRepository outboxRepository;
+    @Mock
+    private BalanceChangePublisher publisher;
+    @Mock
+    private RedissonClient redissonClient;
+    @Mock
+    private RLock lock;
+
+    private MeterRegistry meterRegistry;
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        outboxRelay = new OutboxRelay(outboxRepository, publisher, redissonClient, meterRegistry, Shards.single(), 2);
+    }
+
+    @Test
+    @DisplayName("outbox 를 계좌 별 balanceVersion 순서대로 batch 단위로 발행하고 지운다")
+    void relay() {
+        given(redissonClient.getLock(anyString())).willReturn(lock);
+        given(lock.tryLock()).willReturn(true);
+        given(outboxRepository.findNextBatch(anyInt()))
+                // id 는 서버마다 다른 구간에서 할당되므로 계좌 별 순서와 다를 수 있다.
+                .willReturn(Arrays.asList(outbox(51L, "1000000000", 1L), outbox(2L, "1000000000", 2L)))
+                .willReturn(Collections.singletonList(outbox(3L, "1000000001", 1L)));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<BalanceChangeEvent>> captor = ArgumentCaptor.forClass(List.class);
+
+        int relayed = outboxRelay.relay();
+
+        assertEquals(3, relayed);
+        verify(publisher, times(2)).publish(captor.capture());
+        assertEquals(51L, captor.getAllValues().get(0).get(0).getEventId());
+        assertEquals(1L, captor.getAllValues().get(0).get(0).getBalanceVersion());
+        assertEquals(2L, captor.getAllValues().get(0).get(1).getEventId());
+        assertEquals(2L, captor.getAllValues().get(0).get(1).getBalanceVersion());
+        assertEquals("1000000001", captor.getAllValues().get(1).get(0).getAccountNumber());
+        verify(outboxRepository).deleteAllByIdInBatch(Arrays.asList(51L, 2L));
+        verify(outboxRepository).deleteAllByIdInBatch(Collections.singletonList(3L));
+        verify(lock).unlock();
+    }
+
+    @Test
+    @DisplayName("발행에 실패하면 지우지 않고 다음 실행에서 같은 batch 부터 다시 보낸다")
+    void relay_PublishFailed() {
+        given(redissonClient.getLock(anyString())).willReturn(lock);
+        given(lock.tryLock()).willReturn(true);
+        given(outboxRepository.findNextBatch(anyInt()))
+                .willReturn(Arrays.asList(outbox(1L, "1000000000", 1L), outbox(2L, "1000000001", 1L)));
+        doThrow(new IllegalStateException("publish failed")).when(publisher).publish(any());
+
+        assertThrows(IllegalStateException.class, () -> outboxRelay.relay());
+
+        verify(outboxRepository, never()).deleteAllByIdInBatch(any());
+        verify(lock).unlock();
+    }
+
+    @Test
+    @DisplayName("다른 서버가 발행 중이면 건너뛴다")
+    void relay_LockedByOther() {
+        given(redissonClient.getLock(anyString())).willReturn(lock);
+        given(lock.tryLock()).willReturn(false);
+
+        assertEquals(0, outboxRelay.relay());
+
+        verify(outboxRepository, never()).findNextBatch(anyInt());
+        verify(publisher, never()).publish(any());
+    }
+
+    @Test
+    @DisplayName("outbox.lag 는 batch 와 상관없이 아직 발행되지 않은 가장 오래된 이벤트의 나이다")
+    void lag() {
+        given(outboxRepository.findOldestTransactedAt())
+                .willReturn(LocalDateTime.now().minusMinutes(10))
+                .willReturn(null);
+
+        double lag = meterRegistry.get("outbox.lag").gauge().value();
+        assertTrue(lag >= 600 && lag < 660, "lag " + lag);
+        assertEquals(0, meterRegistry.get("outbox.lag").gauge().value());
+    }
+
+    private static BalanceChangeOutbox outbox(Long id, String accountNumber, long balanceVersion) {
+        BalanceChangeOutbox outbox = BalanceChangeOutbox.builder()
+                .transactionId("transaction" + id)
+                .accountNumber(accountNumber)
+                .balanceVersion(balanceVersion)
+                .transactionType(TransactionType.USE)
+                .amount(1000L)
+                .balanceSnapshot(9000L)
+                .transactedAt(LocalDateTime.now())
+                .build();
+        outbox.setId(id);
+        return outbox;
+    }
+}
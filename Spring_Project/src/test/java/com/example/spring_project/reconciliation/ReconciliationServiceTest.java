@@ -0,0 +1,172 @@
+package com.example.spring_project.reconciliation;
+
+import com.example.spring_project.datasource.Shards;
+import com.example.spring_project.repository.AccountRepository;
+import com.example.spring_project.repository.TransactionRepository;
+import com.example.spring_project.type.TransactionResultType;
+import com.example.spring_project.type.TransactionType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class ReconciliationServiceTest {
+
+    private static final LocalDateTime TRANSACTED_AT = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Mock
+    private AccountRepository accountRepository;
+    @Mock
+    private TransactionRepository transactionRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ReconciliationService reconciliationService;
+
+    @BeforeEach
+    void setUp() {
+        reconciliationService = new ReconciliationService(
+                accountRepository, transactionRepository, transactionManager, Shards.single(), 2, 2, 2, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        reconciliationService.shutdown();
+    }
+
+    @Test
+    void balancedLedger() {
+        //given 계좌 1의 거래는 page 두 개에 걸쳐 있다.
+        given(accountRepository.findBalanceChunk(eq(0L), any()))
+                .willReturn(Arrays.asList(account(1L, 8000L), account(2L, 500L)));
+        given(accountRepository.findBalanceChunk(eq(2L), any()))
+                .willReturn(Collections.singletonList(account(3L, 700L)));
+        given(accountRepository.findBalanceChunk(eq(3L), any()))
+                .willReturn(Collections.emptyList());
+        given(ledgerPage(Arrays.asList(1L, 2L), 0L, 0L))
+                .willReturn(Arrays.asList(
+                        use(1L, 1L, 1000L, 9000L),
+                        use(1L, 2L, 2000L, 7000L)));
+        given(ledgerPage(Arrays.asList(1L, 2L), 1L, 2L))
+                .willReturn(Collections.singletonList(cancel(1L, 3L, 1000L, 8000L)));
+        given(ledgerPage(Collections.singletonList(3L), 0L, 0L))
+                .willReturn(Collections.emptyList());
+
+        //when
+        ReconciliationReport report = reconciliationService.reconcile();
+
+        //then
+        assertTrue(report.isBalanced());
+        assertEquals(3, report.getAccounts());
+        assertEquals(3, report.getTransactions());
+    }
+
+    @Test
+    void reportConfirmedMismatch() {
+        //given
+        given(accountRepository.findBalanceChunk(eq(0L), any()))
+                .willReturn(Collections.singletonList(account(1L, 9500L)));
+        given(accountRepository.findBalanceChunk(eq(1L), any()))
+                .willReturn(Collections.emptyList());
+        given(accountRepository.findBalanceRows(Collections.singletonList(1L)))
+                .willReturn(Collections.singletonList(account(1L, 9500L)));
+        given(ledgerPage(Collections.singletonList(1L), 0L, 0L))
+                .willReturn(Arrays.asList(
+                        use(1L, 1L, 1000L, 9000L),
+                        use(1L, 2L, 1000L, 7000L)));
+        given(ledgerPage(Collections.singletonList(1L), 1L, 2L))
+                .willReturn(Collections.emptyList());
+
+        //when
+        ReconciliationReport report = reconciliationService.reconcile();
+
+        //then
+        assertFalse(report.isBalanced());
+        assertEquals(2, report.getMismatchCount());
+        assertEquals(LedgerMismatch.Reason.BROKEN_CHAIN, report.getMismatches().get(0).getReason());
+        assertEquals(8000L, report.getMismatches().get(0).getExpected());
+        assertEquals(7000L, report.getMismatches().get(0).getActual());
+        assertEquals(LedgerMismatch.Reason.BALANCE_MISMATCH, report.getMismatches().get(1).getReason());
+    }
+
+    @Test
+    void dropMismatchResolvedOnRecheck() {
+        //given 검증 도중에 거래가 하나 더 커밋된 경우
+        given(accountRepository.findBalanceChunk(eq(0L), any()))
+                .willReturn(Collections.singletonList(account(1L, 8000L)));
+        given(accountRepository.findBalanceChunk(eq(1L), any()))
+                .willReturn(Collections.emptyList());
+        given(accountRepository.findBalanceRows(Collections.singletonList(1L)))
+                .willReturn(Collections.singletonList(account(1L, 8000L)));
+        given(ledgerPage(Collections.singletonList(1L), 0L, 0L))
+                .willReturn(Collections.singletonList(use(1L, 1L, 1000L, 9000L)))
+                .willReturn(Arrays.asList(
+                        use(1L, 1L, 1000L, 9000L),
+                        use(1L, 2L, 1000L, 8000L)));
+        given(ledgerPage(Collections.singletonList(1L), 1L, 2L))
+                .willReturn(Collections.emptyList());
+
+        //when
+        ReconciliationReport report = reconciliationService.reconcile();
+
+        //then
+        assertTrue(report.isBalanced());
+    }
+
+    @Test
+    void verifyNegativeOpeningBalance() {
+        List<LedgerMismatch> mismatches = LedgerVerificationTask.verify(account(1L, 500L),
+                Collections.singletonList(use(1L, 1L, 1000L, 500L)));
+
+        assertEquals(1, mismatches.size());
+        assertEquals(LedgerMismatch.Reason.NEGATIVE_OPENING_BALANCE, mismatches.get(0).getReason());
+    }
+
+    @Test
+    void verifyManyAccountsInParallel() {
+        List<LedgerChain> chains = new ArrayList<>();
+        Map<Long, List<LedgerRow>> ledgers = new HashMap<>();
+        for (long id = 1; id <= 2000; id++) {
+            chains.add(new LedgerChain(account(id, id % 100 == 0 ? 1L : 9000L)));
+            ledgers.put(id, Collections.singletonList(use(id, id, 1000L, 9000L)));
+        }
+
+        new ForkJoinPool(4).invoke(new LedgerVerificationTask(chains, ledgers));
+
+        assertEquals(20, chains.stream().mapToInt(chain -> chain.finish().size()).sum());
+    }
+
+    private List<LedgerRow> ledgerPage(List<Long> accountIds, long afterAccountId, long afterId) {
+        return transactionRepository.findLedgerPage(eq(accountIds), eq(TransactionResultType.S),
+                eq(afterAccountId), any(), eq(afterId), any());
+    }
+
+    private static AccountBalanceRow account(Long id, Long balance) {
+        return new AccountBalanceRow(id, String.valueOf(1000000000L + id), balance);
+    }
+
+    private static LedgerRow use(Long accountId, Long id, Long amount, Long balanceSnapshot) {
+        return new LedgerRow(accountId, id, TransactionType.USE, amount, balanceSnapshot, TRANSACTED_AT.plusSeconds(id));
+    }
+
+    private static LedgerRow cancel(Long accountId, Long id, Long amount, Long balanceSnapshot) {
+        return new LedgerRow(accountId, id, TransactionType.CANCEL, amount, balanceSnapshot, TRANSACTED_AT.plusSeconds(id));
+    }
+}
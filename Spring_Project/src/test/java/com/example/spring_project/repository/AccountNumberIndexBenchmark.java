@@ -0,0 +1,120 @@
+package com.example.spring_project.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * ./gradlew benchmark -Dbenchmark.accounts=50000000
+ * 계좌번호 컬럼을 VARCHAR(10) 로 둘 때와 BIGINT 로 둘 때의 unique index 크기와 단건 조회 시간을 비교한다.
+ * index 크기는 같은 데이터의 H2 파일을 index 생성 전후로 compact 해서 늘어난 크기로 잰다.
+ */
+@Tag("benchmark")
+class AccountNumberIndexBenchmark {
+
+    private static final long ACCOUNTS = Long.getLong("benchmark.accounts", 1_000_000L);
+    private static final int LOOKUPS = Integer.getInteger("benchmark.lookups", 200_000);
+    private static final int BATCH = 10_000;
+
+    private Path directory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("account-number-index");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Test
+    void varcharVersusBigint() {
+        Result varchar = measure("varchar", "varchar(10)", true);
+        Result bigint = measure("bigint", "bigint", false);
+
+        System.out.printf("[account number] %d accounts%n", ACCOUNTS);
+        System.out.printf("[account number] varchar(10) index=%.1f MB, lookup=%.0f ns/op%n",
+                varchar.indexBytes / 1_048_576d, varchar.nanosPerLookup);
+        System.out.printf("[account number] bigint      index=%.1f MB, lookup=%.0f ns/op%n",
+                bigint.indexBytes / 1_048_576d, bigint.nanosPerLookup);
+    }
+
+    private Result measure(String name, String columnType, boolean asString) {
+        String url = "jdbc:h2:file:" + directory.resolve(name).toAbsolutePath();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+
+        jdbcTemplate.execute("create table account(id bigint primary key, account_number " + columnType + " not null)");
+        for (long from = 0; from < ACCOUNTS; from += BATCH) {
+            List<Object[]> rows = new ArrayList<>(BATCH);
+            for (long id = from; id < Math.min(from + BATCH, ACCOUNTS); id++) {
+                long accountNumber = 1_000_000_000L + id;
+                rows.add(new Object[]{id, asString ? String.valueOf(accountNumber) : accountNumber});
+            }
+            jdbcTemplate.batchUpdate("insert into account(id, account_number) values (?, ?)", rows);
+        }
+
+        long withoutIndex = compactedSize(jdbcTemplate, name);
+        jdbcTemplate.execute("create unique index ux_account_account_number on account(account_number)");
+        long withIndex = compactedSize(jdbcTemplate, name);
+
+        // 조회는 connection 하나로 (connection 을 여는 비용이 섞이지 않도록)
+        SingleConnectionDataSource lookupDataSource = new SingleConnectionDataSource(url, "sa", "", true);
+        JdbcTemplate lookupTemplate = new JdbcTemplate(lookupDataSource);
+        SplittableRandom random = new SplittableRandom(42);
+        String sql = "select id from account where account_number = ?";
+        for (int i = 0; i < LOOKUPS; i++) {
+            lookup(lookupTemplate, sql, random, asString);
+        }
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++) {
+            lookup(lookupTemplate, sql, random, asString);
+        }
+        double nanosPerLookup = (double) (System.nanoTime() - startedAt) / LOOKUPS;
+
+        lookupTemplate.execute("shutdown");
+        lookupDataSource.destroy();
+        return new Result(withIndex - withoutIndex, nanosPerLookup);
+    }
+
+    private static void lookup(JdbcTemplate jdbcTemplate, String sql, SplittableRandom random, boolean asString) {
+        long id = random.nextLong(ACCOUNTS);
+        long accountNumber = 1_000_000_000L + id;
+        Long found = jdbcTemplate.queryForObject(sql, Long.class,
+                asString ? String.valueOf(accountNumber) : accountNumber);
+        assertEquals(id, found);
+    }
+
+    private long compactedSize(JdbcTemplate jdbcTemplate, String name) {
+        jdbcTemplate.execute("shutdown compact");
+        try {
+            return Files.size(directory.resolve(name + ".mv.db"));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class Result {
+        private final long indexBytes;
+        private final double nanosPerLookup;
+
+        private Result(long indexBytes, double nanosPerLookup) {
+            this.indexBytes = indexBytes;
+            this.nanosPerLookup = nanosPerLookup;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.spring_project.repository;
+
+import com.example.spring_project.domain.BalanceChangeOutbox;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Answers.CALLS_REAL_METHODS;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class BalanceChangeOutboxRepositoryTest {
+
+    @Mock(answer = CALLS_REAL_METHODS)
+    private BalanceChangeOutboxRepository outboxRepository;
+
+    @Test
+    void findNextBatch_OldestAccountsFirst() {
+        //given
+        List<String> accountNumbers = Arrays.asList("1000000009", "1000000001");
+        List<BalanceChangeOutbox> outboxes = Collections.singletonList(BalanceChangeOutbox.builder().build());
+        given(outboxRepository.findOldestPendingAccountNumbers(PageRequest.of(0, 2)))
+                .willReturn(accountNumbers);
+        given(outboxRepository.findPendingByAccountNumbers(accountNumbers, PageRequest.of(0, 2)))
+                .willReturn(outboxes);
+
+        //when
+        List<BalanceChangeOutbox> found = outboxRepository.findNextBatch(2);
+
+        //then
+        assertSame(outboxes, found);
+    }
+
+    @Test
+    void findNextBatch_Empty() {
+        //given
+        given(outboxRepository.findOldestPendingAccountNumbers(any()))
+                .willReturn(Collections.emptyList());
+
+        //when
+        List<BalanceChangeOutbox> found = outboxRepository.findNextBatch(2);
+
+        //then
+        assertTrue(found.isEmpty());
+        verify(outboxRepository, never()).findPendingByAccountNumbers(anyList(), any());
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.spring_project.repository;
+
+import com.example.spring_project.domain.Account;
+import com.example.spring_project.domain.AccountUser;
+import com.example.spring_project.domain.Transaction;
+import com.example.spring_project.type.AccountStatus;
+import com.example.spring_project.type.TransactionResultType;
+import com.example.spring_project.type.TransactionType;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * ./gradlew benchmark
+ * 같은 양의 거래(Transaction)를 한 트랜잭션에서 저장할 때의 처리량을
+ * 기존 방식(insert 마다 시퀀스 호출, batch 없음)과 pooled-lo + JDBC batch 로 비교한다.
+ */
+@Tag("benchmark")
+@DataJpaTest(showSql = false)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+abstract class TransactionInsertBenchmark {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 20_000);
+    private static final int WARM_UP_ROWS = 2_000;
+
+    @Autowired
+    private AccountUserRepository accountUserRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    abstract String label();
+
+    @Test
+    void bulkInsertTransactions() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Account account = transactionTemplate.execute(status -> {
+            AccountUser user = accountUserRepository.findById(1L).get();
+            return accountRepository.save(Account.builder()
+                    .accountUser(user)
+                    .accountNumber("1000000000")
+                    .accountStatus(AccountStatus.IN_USE)
+                    .balance(0L)
+                    .registerAt(LocalDateTime.now())
+                    .build());
+        });
+
+        transactionTemplate.executeWithoutResult(status -> insert(account, WARM_UP_ROWS));
+
+        long startedAt = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> insert(account, ROWS));
+        double seconds = (System.nanoTime() - startedAt) / 1_000_000_000.0;
+
+        System.out.printf("[%s] inserted %d transactions in %.3fs (%.0f rows/s)%n",
+                label(), ROWS, seconds, ROWS / seconds);
+    }
+
+    private void insert(Account account, int rows) {
+        List<Transaction> transactions = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            transactions.add(Transaction.builder()
+                    .transactionType(TransactionType.USE)
+                    .transactionResultType(TransactionResultType.S)
+                    .account(account)
+                    .amount(100L)
+                    .balanceSnapshot(0L)
+                    .transactionId(UUID.randomUUID().toString().replace("-", ""))
+                    .transactedAt(LocalDateTime.now())
+                    .build());
+        }
+        transactionRepository.saveAll(transactions);
+    }
+
+    @TestPropertySource(properties = {
+            "spring.jpa.properties.spring_project.id.allocation_size=1",
+            "spring.jpa.properties.hibernate.jdbc.batch_size=0",
+            "spring.jpa.properties.hibernate.order_inserts=false",
+            "spring.jpa.properties.hibernate.show_sql=false"
+    })
+    static class SequencePerInsert extends TransactionInsertBenchmark {
+        @Override
+        String label() {
+            return "sequence per insert, no batching";
+        }
+    }
+
+    @TestPropertySource(properties = {
+            "spring.jpa.properties.hibernate.show_sql=false"
+    })
+    static class PooledLoBatched extends TransactionInsertBenchmark {
+        @Override
+        String label() {
+            return "pooled-lo + jdbc batch";
+        }
+    }
+}
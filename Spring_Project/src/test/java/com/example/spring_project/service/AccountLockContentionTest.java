@@ -0,0 +1,172 @@
+package com.example.spring_project.service;
+
+import com.example.spring_project.controller.TransactionController;
+import com.example.spring_project.dto.CancelBalance;
+import com.example.spring_project.dto.UseBalance;
+import com.example.spring_project.exception.AccountException;
+import com.example.spring_project.type.ErrorCode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ./gradlew stressTest -Dstress.threads=1,8,32 -Dstress.operations=5000
+ *
+ * 적은 수의 계좌에 잔액 사용 / 취소 요청을 동시에 보낸 뒤
+ * 계좌 잔액이 거래 원장(Transaction) 과 일치하는지 확인하고
+ * 스레드 수 별 처리량과 lock 획득 실패율, 평균 lock 점유 시간(lock.hold)을 출력한다.
+ */
+@Tag("stress")
+// lock 경합을 보려는 테스트라 요청 수 제한은 끈다.
+@SpringBootTest(properties = "rate-limit.enabled=false")
+class AccountLockContentionTest {
+
+    private static final AtomicLong NEXT_USER_ID = new AtomicLong(20_000L);
+
+    private static final int OPERATIONS = Integer.getInteger("stress.operations", 2000);
+    private static final int ACCOUNTS = Math.min(Integer.getInteger("stress.accounts", 3), 10);
+    private static final long INITIAL_BALANCE = Long.getLong("stress.initialBalance", 1_000_000L);
+    private static final double CANCEL_RATIO = Double.parseDouble(System.getProperty("stress.cancelRatio", "0.2"));
+    private static final List<Integer> THREADS = Arrays.stream(System.getProperty("stress.threads", "1,4,16").split(","))
+            .map(String::trim)
+            .map(Integer::valueOf)
+            .collect(Collectors.toList());
+
+    @Autowired
+    private TransactionController transactionController;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @TestFactory
+    Stream<DynamicTest> concurrentDebitsMatchLedger() {
+        return THREADS.stream()
+                .map(threads -> DynamicTest.dynamicTest(threads + " threads", () -> runRound(threads)));
+    }
+
+    private void runRound(int threads) throws InterruptedException {
+        long userId = NEXT_USER_ID.getAndIncrement();
+        jdbcTemplate.update(
+                "insert into account_user(id, name, created_at, updated_at) values (?, ?, now(), now())",
+                userId, "stress-user-" + userId);
+
+        List<String> accountNumbers = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accountNumbers.add(accountService.createAccount(userId, INITIAL_BALANCE).getAccountNumber());
+        }
+
+        Queue<CancelBalance.Request> cancelable = new ConcurrentLinkedQueue<>();
+        Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+        LongAdder succeeded = new LongAdder();
+        AtomicInteger remaining = new AtomicInteger(OPERATIONS);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        Timer hold = meterRegistry.timer("lock.hold");
+        long holdCount = hold.count();
+        double holdMillis = hold.totalTime(TimeUnit.MILLISECONDS);
+
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < threads; i++) {
+            executor.submit(() -> {
+                while (remaining.getAndDecrement() > 0) {
+                    try {
+                        runOperation(userId, accountNumbers, cancelable);
+                        succeeded.increment();
+                    } catch (AccountException e) {
+                        errors.computeIfAbsent(e.getErrorCode().name(), key -> new LongAdder()).increment();
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.HOURS));
+        double seconds = (System.nanoTime() - startedAt) / 1_000_000_000.0;
+
+        // tryLock 대기 시간 초과 + 대기열이 길어서 바로 거절된 요청
+        long lockFailures = errors.getOrDefault(ErrorCode.ACCOUNT_TRANSACTION_LOCK.name(), new LongAdder()).sum()
+                + errors.getOrDefault(ErrorCode.ACCOUNT_TRANSACTION_BUSY.name(), new LongAdder()).sum();
+        double averageHoldMillis = (hold.totalTime(TimeUnit.MILLISECONDS) - holdMillis)
+                / Math.max(1, hold.count() - holdCount);
+        System.out.printf("threads=%d operations=%d succeeded=%d throughput=%.1f ops/s lockFailureRate=%.2f%% " +
+                        "averageLockHold=%.2fms errors=%s%n",
+                threads, OPERATIONS, succeeded.sum(), OPERATIONS / seconds,
+                lockFailures * 100.0 / OPERATIONS, averageHoldMillis, errors);
+
+        for (String accountNumber : accountNumbers) {
+            verifyLedger(accountNumber);
+        }
+    }
+
+    private void runOperation(long userId, List<String> accountNumbers, Queue<CancelBalance.Request> cancelable) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        if (random.nextDouble() < CANCEL_RATIO) {
+            CancelBalance.Request cancel = cancelable.poll();
+            if (cancel != null) {
+                transactionController.cancelBalance(cancel);
+                return;
+            }
+        }
+
+        String accountNumber = accountNumbers.get(random.nextInt(accountNumbers.size()));
+        long amount = random.nextLong(10, 1000);
+        UseBalance.Response response = transactionController.useBalance(
+                new UseBalance.Request(userId, accountNumber, amount));
+        cancelable.add(new CancelBalance.Request(response.getTransactionId(), accountNumber, amount));
+    }
+
+    /**
+     * 성공한 거래만 모아 잔액을 다시 계산하고, 각 거래의 balanceSnapshot 이
+     * 그 시점의 잔액과 같은지 순서대로 확인한다.
+     */
+    private void verifyLedger(String accountNumber) {
+        Map<String, Object> account = jdbcTemplate.queryForMap(
+                "select id, balance from account where account_number = ?", accountNumber);
+        long accountId = ((Number) account.get("id")).longValue();
+        long balance = ((Number) account.get("balance")).longValue();
+
+        List<Map<String, Object>> ledger = jdbcTemplate.queryForList(
+                "select transaction_type, amount, balance_snapshot from transaction " +
+                        "where account_id = ? and transaction_result_type = 'S' order by id",
+                accountId);
+
+        long expected = INITIAL_BALANCE;
+        for (Map<String, Object> row : ledger) {
+            long amount = ((Number) row.get("amount")).longValue();
+            expected += "USE".equals(row.get("transaction_type")) ? -amount : amount;
+            assertEquals(expected, ((Number) row.get("balance_snapshot")).longValue(),
+                    "balance snapshot chain broken for " + accountNumber);
+        }
+        assertEquals(expected, balance, "balance does not match ledger for " + accountNumber);
+    }
+}
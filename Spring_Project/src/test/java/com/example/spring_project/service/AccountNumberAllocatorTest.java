@@ -0,0 +1,144 @@
+package com.example.spring_project.service;
+
+import com.example.spring_project.datasource.Shards;
+import com.example.spring_project.domain.AccountNumberCounter;
+import com.example.spring_project.repository.AccountNumberCounterRepository;
+import com.example.spring_project.repository.AccountRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class AccountNumberAllocatorTest {
+
+    @Mock
+    private AccountNumberCounterRepository counterRepository;
+    @Mock
+    private AccountRepository accountRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AccountNumberAllocator allocator;
+
+    @BeforeEach
+    void setUp() {
+        allocator = new AccountNumberAllocator(counterRepository, accountRepository, Shards.single(), transactionManager);
+    }
+
+    @Test
+    void allocateRange() {
+        //given
+        given(counterRepository.advance(1L, 3L)).willReturn(1);
+        given(counterRepository.findLastNumber(1L)).willReturn(1000000015L);
+
+        //when
+        long first = allocator.allocate(3);
+
+        //then
+        assertEquals(1000000013L, first);
+        verify(counterRepository, never()).save(any());
+    }
+
+    @Test
+    void allocate_CounterStartsAfterLargestAccountNumber() {
+        //given
+        given(counterRepository.advance(1L, 1L)).willReturn(0, 1);
+        given(counterRepository.existsById(1L)).willReturn(false);
+        given(accountRepository.findMaxAccountNumber()).willReturn(1000000012L);
+        given(counterRepository.findLastNumber(1L)).willReturn(1000000013L);
+        ArgumentCaptor<AccountNumberCounter> captor = ArgumentCaptor.forClass(AccountNumberCounter.class);
+
+        //when
+        long first = allocator.allocate(1);
+
+        //then
+        verify(counterRepository).save(captor.capture());
+        assertEquals(1000000012L, captor.getValue().getLastNumber());
+        assertEquals(1000000013L, first);
+    }
+
+    @Test
+    void allocate_FirstAccount() {
+        //given
+        given(counterRepository.advance(1L, 1L)).willReturn(0, 1);
+        given(counterRepository.existsById(1L)).willReturn(false);
+        given(accountRepository.findMaxAccountNumber()).willReturn(null);
+        given(counterRepository.findLastNumber(1L)).willReturn(1000000000L);
+        ArgumentCaptor<AccountNumberCounter> captor = ArgumentCaptor.forClass(AccountNumberCounter.class);
+
+        //when
+        long first = allocator.allocate(1);
+
+        //then
+        verify(counterRepository).save(captor.capture());
+        assertEquals(999999999L, captor.getValue().getLastNumber());
+        assertEquals(1000000000L, first);
+    }
+
+    @Test
+    void allocate_CounterCreatedConcurrently() {
+        //given
+        given(counterRepository.advance(1L, 1L)).willReturn(0, 1);
+        given(counterRepository.existsById(1L)).willReturn(false);
+        given(accountRepository.findMaxAccountNumber()).willReturn(1000000012L);
+        given(counterRepository.save(any())).willThrow(new DataIntegrityViolationException("PRIMARY KEY"));
+        given(counterRepository.findLastNumber(1L)).willReturn(1000000014L);
+
+        //when
+        long first = allocator.allocate(1);
+
+        //then
+        assertEquals(1000000014L, first);
+    }
+
+    @Test
+    void retryOnDuplicateAccountNumber() {
+        //given
+        given(counterRepository.existsById(1L)).willReturn(true);
+        given(accountRepository.findMaxAccountNumber()).willReturn(1000000020L);
+        AtomicInteger attempts = new AtomicInteger();
+
+        //when
+        String result = allocator.retryOnDuplicate(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new DataIntegrityViolationException("could not execute statement",
+                        new RuntimeException("Unique index or primary key violation: \"PUBLIC.UX_ACCOUNT_ACCOUNT_NUMBER_INDEX_E\""));
+            }
+            return "created";
+        });
+
+        //then
+        assertEquals("created", result);
+        assertEquals(2, attempts.get());
+        verify(counterRepository).raise(1L, 1000000020L);
+    }
+
+    @Test
+    void retryOnDuplicate_OtherViolationIsNotRetried() {
+        //given
+        AtomicInteger attempts = new AtomicInteger();
+
+        //when
+        assertThrows(DataIntegrityViolationException.class, () -> allocator.retryOnDuplicate(() -> {
+            attempts.incrementAndGet();
+            throw new DataIntegrityViolationException("NULL not allowed for column \"NAME\"");
+        }));
+
+        //then
+        assertEquals(1, attempts.get());
+        verify(counterRepository, never()).raise(anyLong(), anyLong());
+    }
+}
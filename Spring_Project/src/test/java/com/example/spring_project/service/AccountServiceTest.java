@@ -1,11 +1,18 @@
 package com.example.spring_project.service;
 
+import com.example.spring_project.datasource.ReadYourWrites;
+import com.example.spring_project.datasource.Shards;
 import com.example.spring_project.domain.Account;
+import com.example.spring_project.domain.AccountBalanceHistory;
 import com.example.spring_project.domain.AccountUser;
+import com.example.spring_project.dto.AccountBalanceAt;
 import com.example.spring_project.dto.AccountDto;
+import com.example.spring_project.dto.BulkAccountResult;
+import com.example.spring_project.dto.CreateAccount;
 import com.example.spring_project.exception.AccountException;
 import com.example.spring_project.repository.AccountUserRepository;
 import com.example.spring_project.type.AccountStatus;
+import com.example.spring_project.repository.AccountBalanceHistoryRepository;
 import com.example.spring_project.repository.AccountRepository;
 import com.example.spring_project.type.ErrorCode;
 import org.junit.jupiter.api.DisplayName;
@@ -14,9 +21,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,7 +43,14 @@ class AccountServiceTest {
     private AccountRepository accountRepository;
     @Mock
     private AccountUserRepository accountUserRepository;
-
+    @Mock
+    private AccountBalanceHistoryRepository accountBalanceHistoryRepository;
+    @Mock
+    private ReadYourWrites readYourWrites;
+    @Spy
+    private Shards shards = Shards.single();
+    @Mock
+    private AccountNumberAllocator accountNumberAllocator;
 
     @InjectMocks
     private AccountService accountService;
@@ -46,20 +63,25 @@ class AccountServiceTest {
         user.setId(12L);
         given(accountUserRepository.findById(anyLong()))
                 .willReturn(Optional.of(user));
-        given(accountRepository.findFirstByOrderByIdDesc())
-                .willReturn(Optional.of(Account.builder()
-                                .accountUser(user)
-                                .accountNumber("1000000012").build()));
+        given(accountUserRepository.increaseActiveAccountCount(anyLong(), anyInt(), anyInt()))
+                .willReturn(1);
+        given(accountNumberAllocator.allocate(1))
+                .willReturn(1000000013L);
+        Account saved = Account.builder()
+                .accountUser(user)
+                .accountNumber("1000000013").build();
+        saved.setId(7L);
         given(accountRepository.save(any()))
-                .willReturn(Account.builder()
-                        .accountUser(user)
-                        .accountNumber("1000000013").build());
+                .willReturn(saved);
 
         ArgumentCaptor<Account> captor = ArgumentCaptor.forClass(Account.class);
 
         AccountDto accountDto = accountService.createAccount(1L,1000L);
 
         verify(accountRepository,times(1)).save(captor.capture());
+        verify(accountBalanceHistoryRepository,times(1)).save(any(AccountBalanceHistory.class));
+        // 바로 이어지는 계좌 조회도 primary 에서 읽도록 계좌도 기록한다.
+        verify(readYourWrites).written(ReadYourWrites.userKey(1L), ReadYourWrites.accountKey(7L));
         assertEquals(12L,accountDto.getUserId());
         assertEquals("1000000013",captor.getValue().getAccountNumber());
     }
@@ -77,15 +99,40 @@ class AccountServiceTest {
                         .accountUser(user)
                                 .balance(0L)
                         .accountNumber("1000000012").build()));
-
-        ArgumentCaptor<Account> captor = ArgumentCaptor.forClass(Account.class);
+        given(accountRepository.unregister(any(), any()))
+                .willReturn(1);
 
         AccountDto accountDto = accountService.deleteAccount(1L,"1234567890");
 
-        verify(accountRepository,times(1)).save(captor.capture());
         assertEquals(12L,accountDto.getUserId());
-        assertEquals("1000000012",captor.getValue().getAccountNumber());
-        assertEquals(AccountStatus.UNREGISTERED,captor.getValue().getAccountStatus());
+        assertEquals("1000000012",accountDto.getAccountNumber());
+        assertNotNull(accountDto.getUnRegisterAt());
+        verify(accountUserRepository,times(1)).decreaseActiveAccountCount(12L, 1);
+    }
+
+    @Test
+    @DisplayName("조회한 뒤 다른 요청이 먼저 해지 - 활성 계좌 수를 줄이지 않는다")
+    void deleteAccount_UnregisteredConcurrently() {
+
+        AccountUser user = AccountUser.builder()
+                .name("Pobi").build();
+        user.setId(12L);
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(user));
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(Account.builder()
+                        .accountUser(user)
+                        .accountStatus(AccountStatus.IN_USE)
+                        .balance(0L)
+                        .accountNumber("1000000012").build()));
+        given(accountRepository.unregister(any(), any()))
+                .willReturn(0);
+
+        AccountException accountException = assertThrows(AccountException.class,
+                () -> accountService.deleteAccount(1L,"1000000012"));
+
+        assertEquals(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED,accountException.getErrorCode());
+        verify(accountUserRepository,times(0)).decreaseActiveAccountCount(anyLong(), anyInt());
     }
 
     @Test
@@ -209,8 +256,10 @@ class AccountServiceTest {
         user.setId(15L);
         given(accountUserRepository.findById(anyLong()))
                 .willReturn(Optional.of(user));
-        given(accountRepository.findFirstByOrderByIdDesc())
-                .willReturn(Optional.empty());
+        given(accountUserRepository.increaseActiveAccountCount(anyLong(), anyInt(), anyInt()))
+                .willReturn(1);
+        given(accountNumberAllocator.allocate(1))
+                .willReturn(1000000000L);
         given(accountRepository.save(any()))
                 .willReturn(Account.builder()
                         .accountUser(user)
@@ -252,8 +301,8 @@ class AccountServiceTest {
         user.setId(15L);
         given(accountUserRepository.findById(anyLong()))
                 .willReturn(Optional.of(user));
-        given(accountRepository.countByAccountUser(any()))
-                .willReturn(10);
+        given(accountUserRepository.increaseActiveAccountCount(anyLong(), anyInt(), anyInt()))
+                .willReturn(0);
 
         AccountException accountException = assertThrows(AccountException.class,() ->
                 accountService.createAccount(1L,1000L));
@@ -315,6 +364,122 @@ class AccountServiceTest {
         assertEquals(ErrorCode.USER_NOT_FOUND,accountException.getErrorCode());
     }
 
+    @Test
+    void createAccountsSuccess() {
+
+        AccountUser pobi = AccountUser.builder()
+                .name("Pobi").build();
+        pobi.setId(12L);
+        AccountUser harry = AccountUser.builder()
+                .name("Harry")
+                .activeAccountCount(9).build();
+        harry.setId(13L);
+        given(accountUserRepository.findAllById(any()))
+                .willReturn(Arrays.asList(pobi, harry));
+        given(accountUserRepository.increaseActiveAccountCount(12L, 2, 10))
+                .willReturn(1);
+        given(accountUserRepository.increaseActiveAccountCount(13L, 1, 10))
+                .willReturn(1);
+        given(accountNumberAllocator.allocate(3))
+                .willReturn(1000000013L);
+
+        ArgumentCaptor<List<Account>> captor = ArgumentCaptor.forClass(List.class);
+
+        List<BulkAccountResult> results = accountService.createAccounts(Arrays.asList(
+                new CreateAccount.Request(12L, 1000L),
+                new CreateAccount.Request(13L, 2000L),
+                new CreateAccount.Request(13L, 3000L),
+                new CreateAccount.Request(14L, 4000L),
+                new CreateAccount.Request(12L, 5000L)));
+
+        verify(accountRepository,times(1)).saveAll(captor.capture());
+        assertEquals(3,captor.getValue().size());
+        assertEquals("1000000013",captor.getValue().get(0).getAccountNumber());
+        assertEquals("1000000014",captor.getValue().get(1).getAccountNumber());
+        assertEquals("1000000015",captor.getValue().get(2).getAccountNumber());
+
+        assertEquals(5,results.size());
+        assertTrue(results.get(0).isSuccess());
+        assertEquals("1000000013",results.get(0).getAccount().getAccountNumber());
+        assertTrue(results.get(1).isSuccess());
+        assertEquals(ErrorCode.MAX_ACCOUNT_PER_USER_10,results.get(2).getErrorCode());
+        assertEquals(ErrorCode.USER_NOT_FOUND,results.get(3).getErrorCode());
+        assertEquals(14L,results.get(3).getUserId());
+        assertEquals(5000L,results.get(4).getAccount().getBalance());
+    }
 
+    @Test
+    @DisplayName("사용자 없음 - 일괄 계좌 생성 전부 실패")
+    void createAccounts_UserNotFound() {
+
+        given(accountUserRepository.findAllById(any()))
+                .willReturn(Collections.emptyList());
+
+        List<BulkAccountResult> results = accountService.createAccounts(Collections.singletonList(
+                new CreateAccount.Request(12L, 1000L)));
+
+        assertEquals(ErrorCode.USER_NOT_FOUND,results.get(0).getErrorCode());
+        verify(accountUserRepository,times(0)).increaseActiveAccountCount(anyLong(), anyInt(), anyInt());
+        verify(accountNumberAllocator,times(0)).allocate(anyInt());
+    }
+
+    @Test
+    void getBalanceAtSuccess() {
+        LocalDateTime at = LocalDateTime.of(2022, 10, 1, 12, 0);
+        given(accountBalanceHistoryRepository.findBalanceAt(anyString(), any()))
+                .willReturn(Optional.of(AccountBalanceHistory.builder()
+                        .accountNumber("1000000012")
+                        .balance(9000L)
+                        .changedAt(at.minusHours(1))
+                        .transactionId("transactionId")
+                        .build()));
+
+        AccountBalanceAt balanceAt = accountService.getBalanceAt("1000000012", at);
+
+        assertEquals(9000L, balanceAt.getBalance());
+        assertEquals(at, balanceAt.getAt());
+        assertEquals("transactionId", balanceAt.getTransactionId());
+        verify(accountRepository, times(0)).findByAccountNumber(anyString());
+    }
+
+    @Test
+    @DisplayName("계좌 개설 전 시점 - 특정 시점 잔액 조회 실패")
+    void getBalanceAt_beforeOpening() {
+        given(accountBalanceHistoryRepository.findBalanceAt(anyString(), any()))
+                .willReturn(Optional.empty());
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(Account.builder()
+                        .accountNumber("1000000012").build()));
+
+        AccountException accountException = assertThrows(AccountException.class, () ->
+                accountService.getBalanceAt("1000000012", LocalDateTime.of(2000, 1, 1, 0, 0)));
+
+        assertEquals(ErrorCode.BALANCE_HISTORY_NOT_FOUND, accountException.getErrorCode());
+    }
+
+    @Test
+    void getBalanceAt_AccountNotFound() {
+        given(accountBalanceHistoryRepository.findBalanceAt(anyString(), any()))
+                .willReturn(Optional.empty());
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.empty());
+
+        AccountException accountException = assertThrows(AccountException.class, () ->
+                accountService.getBalanceAt("1000000012", LocalDateTime.now()));
+
+        assertEquals(ErrorCode.ACCOUNT_NOT_FOUND, accountException.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("계좌 없음 - 계좌 조회 실패")
+    void getAccount_AccountNotFound() {
+        given(accountRepository.findById(anyLong()))
+                .willReturn(Optional.empty());
+
+        AccountException accountException = assertThrows(AccountException.class, () ->
+                accountService.getAccount(1L));
+
+        assertEquals(ErrorCode.ACCOUNT_NOT_FOUND, accountException.getErrorCode());
+    }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,67 @@
+package com.example.spring_project.service;
+
+import com.example.spring_project.datasource.Shards;
+import com.example.spring_project.repository.AccountRepository;
+import com.example.spring_project.repository.AccountUserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ActiveAccountCountBackfillTest {
+
+    @Mock
+    private AccountUserRepository accountUserRepository;
+    @Mock
+    private AccountRepository accountRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ActiveAccountCountBackfill backfill;
+
+    @BeforeEach
+    void setUp() {
+        backfill = new ActiveAccountCountBackfill(accountUserRepository, accountRepository,
+                transactionManager, Shards.single(), 2, false);
+    }
+
+    @Test
+    void backfillActiveAccountCounts() {
+        //given
+        given(accountUserRepository.findIdChunk(eq(0L), any()))
+                .willReturn(Arrays.asList(1L, 2L));
+        given(accountUserRepository.findIdChunk(eq(2L), any()))
+                .willReturn(Collections.singletonList(3L));
+        given(accountUserRepository.findIdChunk(eq(3L), any()))
+                .willReturn(Collections.emptyList());
+        given(accountRepository.countActiveAccounts(Arrays.asList(1L, 2L)))
+                .willReturn(Collections.singletonList(new ActiveAccountCount(1L, 3L)));
+        given(accountRepository.countActiveAccounts(Collections.singletonList(3L)))
+                .willReturn(Collections.singletonList(new ActiveAccountCount(3L, 10L)));
+        given(accountUserRepository.setActiveAccountCount(anyLong(), anyInt()))
+                .willReturn(1);
+        // 2번 사용자는 이미 맞다.
+        given(accountUserRepository.setActiveAccountCount(2L, 0))
+                .willReturn(0);
+
+        //when
+        long updated = backfill.backfill();
+
+        //then
+        assertEquals(2, updated);
+        verify(accountUserRepository).setActiveAccountCount(1L, 3);
+        verify(accountUserRepository).setActiveAccountCount(2L, 0);
+        verify(accountUserRepository).setActiveAccountCount(3L, 10);
+    }
+}
@@ -0,0 +1,251 @@
+package com.example.spring_project.service;
+
+import com.example.spring_project.datasource.ReadYourWrites;
+import com.example.spring_project.datasource.Shards;
+import com.example.spring_project.domain.Account;
+import com.example.spring_project.domain.AccountUser;
+import com.example.spring_project.domain.BalanceChangeOutbox;
+import com.example.spring_project.domain.BalanceHold;
+import com.example.spring_project.domain.Transaction;
+import com.example.spring_project.dto.BalanceHoldDto;
+import com.example.spring_project.exception.AccountException;
+import com.example.spring_project.repository.AccountBalanceHistoryRepository;
+import com.example.spring_project.repository.AccountRepository;
+import com.example.spring_project.repository.BalanceChangeOutboxRepository;
+import com.example.spring_project.repository.BalanceHoldRepository;
+import com.example.spring_project.repository.TransactionRepository;
+import com.example.spring_project.type.AccountStatus;
+import com.example.spring_project.type.ErrorCode;
+import com.example.spring_project.type.HoldStatus;
+import com.example.spring_project.type.TransactionType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class HoldServiceTest {
+
+    @Mock
+    private AccountRepository accountRepository;
+    @Mock
+    private BalanceHoldRepository balanceHoldRepository;
+    @Mock
+    private TransactionRepository transactionRepository;
+    @Mock
+    private BalanceChangeOutboxRepository balanceChangeOutboxRepository;
+    @Mock
+    private AccountBalanceHistoryRepository accountBalanceHistoryRepository;
+    @Mock
+    private ReadYourWrites readYourWrites;
+    @Spy
+    private Shards shards = Shards.single();
+
+    @InjectMocks
+    private HoldService holdService;
+
+    @Test
+    void successHold() {
+        Account account = account(10000L, 0L);
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        given(balanceHoldRepository.save(any()))
+                .willAnswer(invocation -> invocation.getArgument(0));
+        ArgumentCaptor<BalanceHold> captor = ArgumentCaptor.forClass(BalanceHold.class);
+
+        BalanceHoldDto holdDto = holdService.hold(12L, "1000000012", 3000L);
+
+        verify(balanceHoldRepository, times(1)).save(captor.capture());
+        assertEquals(3000L, account.getHeldBalance());
+        assertEquals(10000L, account.getBalance());
+        assertEquals(7000L, account.getAvailableBalance());
+        assertEquals(HoldStatus.HELD, captor.getValue().getStatus());
+        assertEquals(1L, captor.getValue().getAccountId());
+        assertEquals(HoldStatus.HELD, holdDto.getStatus());
+        assertNotNull(holdDto.getHoldId());
+    }
+
+    @Test
+    @DisplayName("이미 승인된 금액을 빼고 남은 금액보다 큰 승인은 실패")
+    void holdFailed_exceedAvailableBalance() {
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account(10000L, 8000L)));
+
+        AccountException exception = assertThrows(AccountException.class,
+                () -> holdService.hold(12L, "1000000012", 3000L));
+
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
+        verify(balanceHoldRepository, never()).save(any());
+    }
+
+    @Test
+    void holdFailed_userUnMatch() {
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account(10000L, 0L)));
+
+        AccountException exception = assertThrows(AccountException.class,
+                () -> holdService.hold(13L, "1000000012", 3000L));
+
+        assertEquals(ErrorCode.USER_ACCOUNT_UN_MATCH, exception.getErrorCode());
+    }
+
+    @Test
+    void successCapture() {
+        BalanceHold hold = hold(HoldStatus.HELD, LocalDateTime.now().plusDays(1));
+        given(balanceHoldRepository.findByHoldId(anyString()))
+                .willReturn(Optional.of(hold));
+        given(balanceHoldRepository.complete(anyLong(), eq(HoldStatus.CAPTURED), any(), anyString()))
+                .willReturn(1);
+        given(accountRepository.captureHeldBalance(1L, 3000L))
+                .willReturn(1);
+        given(accountRepository.findCurrentBalance(1L))
+                .willReturn(new CurrentBalance(7000L, 0L, 4L));
+        ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(Transaction.class);
+        ArgumentCaptor<BalanceChangeOutbox> outboxCaptor = ArgumentCaptor.forClass(BalanceChangeOutbox.class);
+
+        BalanceHoldDto holdDto = holdService.capture("holdId", "1000000012");
+
+        verify(transactionRepository, times(1)).save(captor.capture());
+        verify(balanceChangeOutboxRepository, times(1)).save(outboxCaptor.capture());
+        assertEquals(TransactionType.USE, captor.getValue().getTransactionType());
+        assertEquals(3000L, captor.getValue().getAmount());
+        assertEquals(7000L, captor.getValue().getBalanceSnapshot());
+        assertEquals("1000000012", outboxCaptor.getValue().getAccountNumber());
+        assertEquals(4L, outboxCaptor.getValue().getBalanceVersion());
+        assertEquals(HoldStatus.CAPTURED, holdDto.getStatus());
+        assertEquals(captor.getValue().getTransactionId(), holdDto.getTransactionId());
+        // 엔티티는 조건부 update 로만 바꾼다.
+        assertEquals(HoldStatus.HELD, hold.getStatus());
+    }
+
+    @Test
+    void captureFailed_expired() {
+        given(balanceHoldRepository.findByHoldId(anyString()))
+                .willReturn(Optional.of(hold(HoldStatus.HELD, LocalDateTime.now().minusSeconds(1))));
+
+        AccountException exception = assertThrows(AccountException.class,
+                () -> holdService.capture("holdId", "1000000012"));
+
+        assertEquals(ErrorCode.HOLD_EXPIRED, exception.getErrorCode());
+        verify(accountRepository, never()).captureHeldBalance(anyLong(), anyLong());
+    }
+
+    @Test
+    void captureFailed_alreadyCompleted() {
+        given(balanceHoldRepository.findByHoldId(anyString()))
+                .willReturn(Optional.of(hold(HoldStatus.RELEASED, LocalDateTime.now().plusDays(1))));
+
+        AccountException exception = assertThrows(AccountException.class,
+                () -> holdService.capture("holdId", "1000000012"));
+
+        assertEquals(ErrorCode.HOLD_ALREADY_COMPLETED, exception.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("조건부 update 에서 다른 요청에 밀리면 금액은 건드리지 않는다.")
+    void captureFailed_completedConcurrently() {
+        given(balanceHoldRepository.findByHoldId(anyString()))
+                .willReturn(Optional.of(hold(HoldStatus.HELD, LocalDateTime.now().plusDays(1))));
+        given(balanceHoldRepository.complete(anyLong(), eq(HoldStatus.CAPTURED), any(), anyString()))
+                .willReturn(0);
+
+        AccountException exception = assertThrows(AccountException.class,
+                () -> holdService.capture("holdId", "1000000012"));
+
+        assertEquals(ErrorCode.HOLD_ALREADY_COMPLETED, exception.getErrorCode());
+        verify(accountRepository, never()).captureHeldBalance(anyLong(), anyLong());
+        verify(transactionRepository, never()).save(any());
+    }
+
+    @Test
+    void captureFailed_accountUnMatch() {
+        given(balanceHoldRepository.findByHoldId(anyString()))
+                .willReturn(Optional.of(hold(HoldStatus.HELD, LocalDateTime.now().plusDays(1))));
+
+        AccountException exception = assertThrows(AccountException.class,
+                () -> holdService.capture("holdId", "1000000013"));
+
+        assertEquals(ErrorCode.HOLD_ACCOUNT_UN_MATCH, exception.getErrorCode());
+    }
+
+    @Test
+    void successRelease() {
+        given(balanceHoldRepository.findByHoldId(anyString()))
+                .willReturn(Optional.of(hold(HoldStatus.HELD, LocalDateTime.now().plusDays(1))));
+        given(balanceHoldRepository.complete(anyLong(), eq(HoldStatus.RELEASED), any(), isNull()))
+                .willReturn(1);
+        given(accountRepository.releaseHeldBalance(1L, 3000L))
+                .willReturn(1);
+
+        BalanceHoldDto holdDto = holdService.release("holdId", "1000000012");
+
+        assertEquals(HoldStatus.RELEASED, holdDto.getStatus());
+        assertNull(holdDto.getTransactionId());
+        verify(transactionRepository, never()).save(any());
+    }
+
+    @Test
+    void expireReleasesExpiredHold() {
+        given(balanceHoldRepository.findByHoldId(anyString()))
+                .willReturn(Optional.of(hold(HoldStatus.HELD, LocalDateTime.now().minusSeconds(1))));
+        given(balanceHoldRepository.complete(anyLong(), eq(HoldStatus.EXPIRED), any(), isNull()))
+                .willReturn(1);
+        given(accountRepository.releaseHeldBalance(1L, 3000L))
+                .willReturn(1);
+
+        assertTrue(holdService.expire("holdId", "1000000012"));
+    }
+
+    @Test
+    @DisplayName("이미 매입된 승인은 만료 처리하지 않는다.")
+    void expireSkipsCapturedHold() {
+        given(balanceHoldRepository.findByHoldId(anyString()))
+                .willReturn(Optional.of(hold(HoldStatus.CAPTURED, LocalDateTime.now().minusSeconds(1))));
+
+        assertFalse(holdService.expire("holdId", "1000000012"));
+        verify(accountRepository, never()).releaseHeldBalance(anyLong(), anyLong());
+    }
+
+    private static Account account(long balance, long heldBalance) {
+        AccountUser user = AccountUser.builder()
+                .name("Pobi").build();
+        user.setId(12L);
+        Account account = Account.builder()
+                .accountUser(user)
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(balance)
+                .heldBalance(heldBalance)
+                .accountNumber("1000000012").build();
+        account.setId(1L);
+        return account;
+    }
+
+    private static BalanceHold hold(HoldStatus status, LocalDateTime expiresAt) {
+        BalanceHold hold = BalanceHold.builder()
+                .holdId("holdId")
+                .accountId(1L)
+                .accountNumber("1000000012")
+                .userId(12L)
+                .amount(3000L)
+                .status(status)
+                .heldAt(expiresAt.minusDays(7))
+                .expiresAt(expiresAt)
+                .build();
+        hold.setId(5L);
+        return hold;
+    }
+}
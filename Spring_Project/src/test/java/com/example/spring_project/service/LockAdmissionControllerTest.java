@@ -0,0 +1,69 @@
+package com.example.spring_project.service;
+
+import com.example.spring_project.exception.AccountLockBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LockAdmissionControllerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void rejectWhenQueueIsDeeperThanWaitBudget() {
+        // 평균 점유 300ms, 대기 한도 1초 -> 앞에 3개까지는 받고 4개째부터 거절
+        LockAdmissionController controller = new LockAdmissionController(meterRegistry, true, 1000, 300);
+
+        for (int i = 0; i < 4; i++) {
+            controller.enter("1000000000");
+        }
+        AccountLockBusyException exception = assertThrows(AccountLockBusyException.class,
+                () -> controller.enter("1000000000"));
+
+        assertEquals(2L, exception.getRetryAfterSeconds());
+        assertEquals(4, controller.inFlight("1000000000"));
+        assertDoesNotThrow(() -> controller.enter("1000000001"));
+        assertEquals(1.0, meterRegistry.counter("lock.admission.rejected").count());
+    }
+
+    @Test
+    void admitAgainAfterRelease() {
+        LockAdmissionController controller = new LockAdmissionController(meterRegistry, true, 1000, 600);
+
+        controller.enter("1000000000");
+        controller.acquired("1000000000");
+        controller.enter("1000000000");
+        assertThrows(AccountLockBusyException.class, () -> controller.enter("1000000000"));
+
+        controller.released("1000000000");
+        controller.leave("1000000000");
+
+        assertEquals(0, controller.inFlight("1000000000"));
+        assertDoesNotThrow(() -> controller.enter("1000000000"));
+        assertEquals(1L, meterRegistry.timer("lock.hold").count());
+    }
+
+    @Test
+    void averageHoldTimeFollowsSamples() {
+        LockAdmissionController controller = new LockAdmissionController(meterRegistry, true, 1000, 50);
+
+        for (int i = 0; i < 50; i++) {
+            controller.recordHold(TimeUnit.MILLISECONDS.toNanos(200));
+        }
+
+        assertEquals(200, TimeUnit.NANOSECONDS.toMillis(controller.getAverageHoldNanos()), 1);
+    }
+
+    @Test
+    void disabled() {
+        LockAdmissionController controller = new LockAdmissionController(meterRegistry, false, 1000, 1000);
+
+        for (int i = 0; i < 10; i++) {
+            controller.enter("1000000000");
+        }
+        assertEquals(10, controller.inFlight("1000000000"));
+    }
+}
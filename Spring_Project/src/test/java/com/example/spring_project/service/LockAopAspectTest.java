@@ -1,5 +1,6 @@
 package com.example.spring_project.service;
 
+import com.example.spring_project.aop.AccountLock;
 import com.example.spring_project.dto.UseBalance;
 import com.example.spring_project.exception.AccountException;
 import com.example.spring_project.type.ErrorCode;
@@ -13,6 +14,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -37,7 +40,7 @@ class LockAopAspectTest {
 
         UseBalance.Request request = new UseBalance.Request(123L,"1234",1000L);
 
-        lockAopAspect.aroundMethod(proceedingJoinPoint, request);
+        lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock("methodScope"), request);
 
         verify(lockService,times(1)).lock(lockArgumentCaptor.capture());
         verify(lockService,times(1)).unlock(unLockArgumentCaptor.capture());
@@ -56,7 +59,7 @@ class LockAopAspectTest {
                 .willThrow(new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
 
         assertThrows(AccountException.class , () ->
-        lockAopAspect.aroundMethod(proceedingJoinPoint, request));
+        lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock("methodScope"), request));
 
         verify(lockService,times(1)).lock(lockArgumentCaptor.capture());
         verify(lockService,times(1)).unlock(unLockArgumentCaptor.capture());
@@ -64,4 +67,54 @@ class LockAopAspectTest {
         assertEquals("54321",unLockArgumentCaptor.getValue());
     }
 
-}
\ No newline at end of file
+    @Test
+    void unitOfWorkOnlyWhileLocked() throws Throwable {
+        UseBalance.Request request = new UseBalance.Request(123L,"1234",1000L);
+        given(proceedingJoinPoint.proceed())
+                .willAnswer(invocation -> AccountUnitOfWork.isActive());
+
+        assertEquals(true, lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock("methodScope"), request));
+        assertFalse(AccountUnitOfWork.isActive());
+    }
+
+    @Test
+    void mutationOnlyDoesNotLockOnEntry() throws Throwable {
+        UseBalance.Request request = new UseBalance.Request(123L,"1234",1000L);
+        given(proceedingJoinPoint.proceed())
+                .willAnswer(invocation -> AccountUnitOfWork.isActive() && !AccountUnitOfWork.holdsLock("1234"));
+
+        assertEquals(true, lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock("mutationOnly"), request));
+
+        verify(lockService, never()).lock(anyString());
+        // 트랜잭션 밖에서 잡혀서 남은 lock 이 있으면 푼다.
+        verify(lockService, times(1)).unlockIfHeld("1234");
+        assertFalse(AccountUnitOfWork.isActive());
+    }
+
+    @Test
+    void mutationOnlyReleasesEvenIfThrow() throws Throwable {
+        UseBalance.Request request = new UseBalance.Request(123L,"54321",1000L);
+        given(proceedingJoinPoint.proceed())
+                .willThrow(new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE));
+
+        assertThrows(AccountException.class, () ->
+                lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock("mutationOnly"), request));
+
+        verify(lockService, times(1)).unlockIfHeld("54321");
+        assertFalse(AccountUnitOfWork.isActive());
+    }
+
+    private static AccountLock accountLock(String methodName) throws NoSuchMethodException {
+        return LockedMethods.class.getDeclaredMethod(methodName).getAnnotation(AccountLock.class);
+    }
+
+    private static class LockedMethods {
+        @AccountLock
+        void methodScope() {
+        }
+
+        @AccountLock(mutationOnly = true)
+        void mutationOnly() {
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.spring_project.service;
 
 import com.example.spring_project.exception.AccountException;
+import com.example.spring_project.exception.AccountLockBusyException;
 import com.example.spring_project.type.ErrorCode;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -9,10 +10,17 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 @ExtendWith(MockitoExtension.class)
 class LockServiceTest {
@@ -23,6 +31,9 @@ class LockServiceTest {
     @Mock
     private RLock rLock;
 
+    @Mock
+    private LockAdmissionController lockAdmissionController;
+
     @InjectMocks
     private LockService lockService;
 
@@ -49,7 +60,126 @@ class LockServiceTest {
         AccountException exception = assertThrows(AccountException.class,() -> lockService.lock("123"));
 
         assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK,exception.getErrorCode());
+        verify(lockAdmissionController,times(1)).leave("123");
+        verify(lockAdmissionController,never()).acquired(anyString());
+
+    }
+
+    @Test
+    void redisFailedGetLock() throws InterruptedException {
+
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rLock);
+        given(rLock.tryLock(anyLong(),anyLong(), any()))
+                .willThrow(new RedisException("connection lost"));
+
+        AccountException exception = assertThrows(AccountException.class,() -> lockService.lock("123"));
+
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK,exception.getErrorCode());
+        verify(lockAdmissionController,times(1)).leave("123");
+        verify(lockAdmissionController,never()).acquired(anyString());
+    }
+
+    @Test
+    void rejectedByAdmissionController() {
+
+        willThrow(new AccountLockBusyException(2L))
+                .given(lockAdmissionController).enter(anyString());
+
+        AccountLockBusyException exception = assertThrows(AccountLockBusyException.class,() -> lockService.lock("123"));
+
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_BUSY,exception.getErrorCode());
+        assertEquals(2L,exception.getRetryAfterSeconds());
+        verifyNoInteractions(redissonClient);
+    }
+
+    @Test
+    void unlockReleasesAdmission() {
+
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rLock);
 
+        lockService.unlock("123");
+
+        verify(rLock,times(1)).unlock();
+        verify(lockAdmissionController,times(1)).released("123");
+    }
+
+    @Test
+    void lockForMutationOutsideScope() throws InterruptedException {
+
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rLock);
+        given(rLock.tryLock(anyLong(),anyLong(), any()))
+                .willReturn(true);
+
+        // @AccountLock 범위 밖에서 불러도 lock 없이 넘어가지 않는다.
+        assertTrue(lockService.lockForMutation("123"));
+        verify(rLock,times(1)).tryLock(anyLong(),anyLong(), any());
+
+        lockService.unlockForMutation("123");
+        verify(rLock,times(1)).unlock();
+        verify(lockAdmissionController,times(1)).released("123");
+    }
+
+    @Test
+    void lockForMutationInsideMethodLock() {
+
+        AccountUnitOfWork previous = AccountUnitOfWork.beginLocked("123");
+        try {
+            // 메서드 전체에 이미 잡은 lock 을 쓴다.
+            assertFalse(lockService.lockForMutation("123"));
+            lockService.unlockIfHeld("123");
+
+            verifyNoInteractions(redissonClient);
+            verifyNoInteractions(lockAdmissionController);
+        } finally {
+            AccountUnitOfWork.end(previous);
+        }
+    }
+
+    @Test
+    void lockForMutationUntilUnlocked() throws InterruptedException {
+
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rLock);
+        given(rLock.tryLock(anyLong(),anyLong(), any()))
+                .willReturn(true);
+
+        AccountUnitOfWork previous = AccountUnitOfWork.beginDeferred("123");
+        try {
+            assertTrue(lockService.lockForMutation("123"));
+            // 같은 범위에서 다시 불러도 한 번만 잡는다.
+            assertFalse(lockService.lockForMutation("123"));
+            verify(rLock,never()).unlock();
+
+            lockService.unlockIfHeld("123");
+            verify(rLock,times(1)).unlock();
+            verify(lockAdmissionController,times(1)).released("123");
+
+            // 서비스가 이미 풀었으므로 LockAopAspect 는 다시 풀지 않는다.
+            lockService.unlockIfHeld("123");
+            verify(rLock,times(1)).unlock();
+        } finally {
+            AccountUnitOfWork.end(previous);
+        }
+    }
+
+    @Test
+    void lockForMutationInsideTransaction() {
+
+        AccountUnitOfWork previous = AccountUnitOfWork.beginDeferred("123");
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            // lock 을 기다리는 동안 DB connection 을 잡고 있게 되므로 잡지 않는다.
+            assertThrows(IllegalStateException.class, () -> lockService.lockForMutation("123"));
+
+            verifyNoInteractions(redissonClient);
+            verifyNoInteractions(lockAdmissionController);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+            AccountUnitOfWork.end(previous);
+        }
     }
 
-}
\ No newline at end of file
+}
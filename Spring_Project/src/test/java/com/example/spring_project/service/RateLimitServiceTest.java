@@ -0,0 +1,142 @@
+package com.example.spring_project.service;
+
+import com.example.spring_project.exception.AccountException;
+import com.example.spring_project.type.ErrorCode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RRateLimiter;
+import org.redisson.api.RateIntervalUnit;
+import org.redisson.api.RateType;
+import org.redisson.api.RedissonClient;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class RateLimitServiceTest {
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RRateLimiter rRateLimiter;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void rejectOverUserLimit() {
+        RateLimitService rateLimitService = rateLimitService(false, 2, 100);
+
+        rateLimitService.acquire(1L, "1000000000");
+        rateLimitService.acquire(1L, "1000000001");
+        AccountException exception = assertThrows(AccountException.class,
+                () -> rateLimitService.acquire(1L, "1000000002"));
+
+        assertEquals(ErrorCode.TOO_MANY_REQUESTS, exception.getErrorCode());
+        assertDoesNotThrow(() -> rateLimitService.acquire(2L, "1000000003"));
+        assertEquals(1.0, rejected("user"));
+        verifyNoInteractions(redissonClient);
+    }
+
+    @Test
+    void rejectOverAccountLimit() {
+        RateLimitService rateLimitService = rateLimitService(false, 100, 2);
+
+        rateLimitService.acquire(1L, "1000000000");
+        rateLimitService.acquire(2L, "1000000000");
+        AccountException exception = assertThrows(AccountException.class,
+                () -> rateLimitService.acquire(null, "1000000000"));
+
+        assertEquals(ErrorCode.TOO_MANY_REQUESTS, exception.getErrorCode());
+        assertEquals(1.0, rejected("account"));
+        assertEquals(0.0, rejected("user"));
+    }
+
+    @Test
+    void rejectByRedisGlobalLimit() {
+        given(redissonClient.getRateLimiter(anyString()))
+                .willReturn(rRateLimiter);
+        given(rRateLimiter.tryAcquire())
+                .willReturn(true)
+                .willReturn(false);
+        RateLimitService rateLimitService = rateLimitService(true, 100, 100);
+
+        rateLimitService.acquire(null, "1000000000");
+        assertThrows(AccountException.class, () -> rateLimitService.acquire(null, "1000000000"));
+
+        // capacity 만큼의 burst 를 capacity / refillPerSecond 동안 허용하고, 키에는 TTL 을 건다.
+        verify(rRateLimiter, times(1)).trySetRate(RateType.OVERALL, 100L, 100_000_000L, RateIntervalUnit.MILLISECONDS);
+        verify(rRateLimiter, times(1)).expire(600L, TimeUnit.SECONDS);
+        assertEquals(1.0, rejected("account"));
+    }
+
+    @Test
+    void rejectByRedisAccountLimitWithoutUsingUserPermit() {
+        given(redissonClient.getRateLimiter("RLMTaccount:1000000000"))
+                .willReturn(rRateLimiter);
+        given(rRateLimiter.availablePermits())
+                .willReturn(0L);
+        RateLimitService rateLimitService = rateLimitService(true, 100, 100);
+
+        assertThrows(AccountException.class, () -> rateLimitService.acquire(1L, "1000000000"));
+
+        verify(redissonClient, never()).getRateLimiter("RLMTuser:1");
+        verify(rRateLimiter, never()).tryAcquire();
+        assertEquals(1.0, rejected("account"));
+    }
+
+    @Test
+    void accountRejectionDoesNotUseUserToken() {
+        RateLimitService rateLimitService = rateLimitService(false, 2, 1);
+
+        rateLimitService.acquire(1L, "1000000000");
+        assertThrows(AccountException.class, () -> rateLimitService.acquire(1L, "1000000000"));
+        // 계좌 한도에서 거절된 요청은 사용자 토큰을 쓰지 않았으므로 한 번 더 통과한다.
+        assertDoesNotThrow(() -> rateLimitService.acquire(1L, "1000000001"));
+        assertThrows(AccountException.class, () -> rateLimitService.acquire(1L, "1000000002"));
+
+        assertEquals(1.0, rejected("account"));
+        assertEquals(1.0, rejected("user"));
+    }
+
+    @Test
+    void disabled() {
+        RateLimitService rateLimitService = new RateLimitService(redissonClient, meterRegistry,
+                false, false, 1, 0.001, 1, 0.001);
+
+        for (int i = 0; i < 10; i++) {
+            rateLimitService.acquire(1L, "1000000000");
+        }
+        assertEquals(0.0, rejected("user") + rejected("account"));
+    }
+
+    @Test
+    void tokenBucketRefill() {
+        TokenBucket bucket = new TokenBucket(1, 10, 0L);
+
+        assertTrue(bucket.tryConsume(0L));
+        assertFalse(bucket.tryConsume(50_000_000L));
+        assertTrue(bucket.tryConsume(150_000_000L));
+        assertFalse(bucket.isIdle(150_000_000L, 1_000_000_000L));
+        assertTrue(bucket.isIdle(2_000_000_000L, 1_000_000_000L));
+    }
+
+    private RateLimitService rateLimitService(boolean redisEnabled, long userCapacity, long accountCapacity) {
+        return new RateLimitService(redissonClient, meterRegistry,
+                true, redisEnabled, userCapacity, 0.001, accountCapacity, 0.001);
+    }
+
+    private double rejected(String scope) {
+        return meterRegistry.counter("rate_limit.rejected", "scope", scope).count();
+    }
+}
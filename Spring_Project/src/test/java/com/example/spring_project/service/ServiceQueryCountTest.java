@@ -0,0 +1,283 @@
+package com.example.spring_project.service;
+
+import com.example.spring_project.domain.AccountUser;
+import com.example.spring_project.dto.AccountBalanceAt;
+import com.example.spring_project.dto.AccountDto;
+import com.example.spring_project.dto.BalanceHoldDto;
+import com.example.spring_project.dto.CreateAccount;
+import com.example.spring_project.dto.TransactionDto;
+import com.example.spring_project.exception.AccountException;
+import com.example.spring_project.monitoring.SqlStatistics;
+import com.example.spring_project.repository.AccountUserRepository;
+import com.example.spring_project.type.ErrorCode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.spring_project.monitoring.SqlStatisticsAssertions.assertMaxStatements;
+import static com.example.spring_project.monitoring.SqlStatisticsAssertions.measure;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 서비스 메서드 별 SQL 실행 횟수 상한 (시퀀스 호출 제외)
+ */
+@SpringBootTest
+class ServiceQueryCountTest {
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private HoldService holdService;
+
+    @Autowired
+    private AccountUserRepository accountUserRepository;
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = accountUserRepository.save(AccountUser.builder()
+                .name("QueryCount")
+                .build()).getId();
+    }
+
+    @Test
+    @DisplayName("계좌 생성 - 사용자 조회, 계좌 수 조건부 update, 계좌번호 카운터 update + 조회, 계좌 + 잔액 이력 insert")
+    void createAccount() {
+        AccountDto accountDto = assertMaxStatements(6, () ->
+                accountService.createAccount(userId, 1000L));
+
+        assertEquals(userId, accountDto.getUserId());
+    }
+
+    @Test
+    @DisplayName("일괄 계좌 생성 - 건수와 상관없이 조회 2번 + 사용자 별 update + 카운터 update + batch insert")
+    void createAccounts() {
+        Long otherUserId = accountUserRepository.save(AccountUser.builder()
+                .name("QueryCount")
+                .build()).getId();
+        List<CreateAccount.Request> requests = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            requests.add(new CreateAccount.Request(i % 2 == 0 ? userId : otherUserId, 1000L));
+        }
+
+        SqlStatistics executed = measure(() -> accountService.createAccounts(requests));
+
+        // 사용자, 계좌번호 카운터 조회 / 계좌 수는 사용자 별 update + 카운터 update 1번
+        assertEquals(3, executed.getUpdates());
+        assertEquals(2, executed.getSelects(), executed::toString);
+        assertEquals(10, accountService.getAccountByUserId(userId).size()
+                + accountService.getAccountByUserId(otherUserId).size());
+    }
+
+    @Test
+    @DisplayName("활성 계좌 수 - 해지하면 다시 만들 수 있다")
+    void activeAccountCount() {
+        for (int i = 0; i < 10; i++) {
+            accountService.createAccount(userId, 0L);
+        }
+        AccountException exception = assertThrows(AccountException.class, () ->
+                accountService.createAccount(userId, 0L));
+        assertEquals(ErrorCode.MAX_ACCOUNT_PER_USER_10, exception.getErrorCode());
+
+        accountService.deleteAccount(userId, accountService.getAccountByUserId(userId).get(0).getAccountNumber());
+
+        accountService.createAccount(userId, 0L);
+        assertEquals(10, accountUserRepository.findById(userId).get().getActiveAccountCount());
+    }
+
+    @Test
+    @DisplayName("사용자 계좌 목록 - 계좌 수와 상관없이 사용자, 계좌 조회 1번씩")
+    void getAccountByUserId() {
+        for (int i = 0; i < 3; i++) {
+            accountService.createAccount(userId, 1000L);
+        }
+
+        List<AccountDto> accounts = assertMaxStatements(2, () ->
+                accountService.getAccountByUserId(userId));
+
+        assertEquals(3, accounts.size());
+    }
+
+    @Test
+    @DisplayName("같은 계좌를 동시에 해지 - 한 요청만 해지하고 활성 계좌 수는 한 번만 줄어든다")
+    void deleteAccount_Concurrently() throws Exception {
+        String accountNumber = accountService.createAccount(userId, 0L).getAccountNumber();
+        int requests = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(requests);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<ErrorCode>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < requests; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        accountService.deleteAccount(userId, accountNumber);
+                        return null;
+                    } catch (AccountException e) {
+                        return e.getErrorCode();
+                    }
+                }));
+            }
+            start.countDown();
+
+            int deleted = 0;
+            for (Future<ErrorCode> result : results) {
+                ErrorCode errorCode = result.get(10, TimeUnit.SECONDS);
+                if (errorCode == null) {
+                    deleted++;
+                } else {
+                    assertEquals(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED, errorCode);
+                }
+            }
+            assertEquals(1, deleted);
+            assertEquals(0, accountUserRepository.findById(userId).get().getActiveAccountCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void deleteAccount() {
+        String accountNumber = accountService.createAccount(userId, 0L).getAccountNumber();
+
+        assertMaxStatements(4, () -> accountService.deleteAccount(userId, accountNumber));
+    }
+
+    @Test
+    @DisplayName("잔액 사용 - 사용자, 계좌 조회 + 잔액을 바꾸는 트랜잭션에서 계좌 다시 조회 + 거래, outbox, 잔액 이력 insert + 잔액 update")
+    void useBalance() {
+        String accountNumber = accountService.createAccount(userId, 10000L).getAccountNumber();
+
+        TransactionDto transactionDto = assertMaxStatements(7, () ->
+                transactionService.useBalance(userId, accountNumber, 1000L));
+
+        assertEquals(9000L, transactionDto.getBalanceSnapshot());
+    }
+
+    @Test
+    @DisplayName("잔액 사용 - 잔액을 바꿀 때만 lock 을 잡아도 조회 수는 같다 (lock 을 잡은 뒤 계좌를 다시 읽는다)")
+    void useBalance_mutationOnlyLock() {
+        String accountNumber = accountService.createAccount(userId, 10000L).getAccountNumber();
+
+        AccountUnitOfWork previous = AccountUnitOfWork.beginDeferred(accountNumber);
+        try {
+            TransactionDto transactionDto = assertMaxStatements(7, () ->
+                    transactionService.useBalance(userId, accountNumber, 1000L));
+
+            assertEquals(9000L, transactionDto.getBalanceSnapshot());
+            // 커밋한 뒤 lock 을 풀었다.
+            assertFalse(AccountUnitOfWork.holdsLock(accountNumber));
+        } finally {
+            AccountUnitOfWork.end(previous);
+        }
+    }
+
+    @Test
+    @DisplayName("잔액 사용 실패 - lock 범위 안에서 이미 읽은 계좌로 실패 거래 insert 만 한다")
+    void saveFailedUseTransaction() {
+        String accountNumber = accountService.createAccount(userId, 100L).getAccountNumber();
+
+        AccountUnitOfWork previous = AccountUnitOfWork.begin();
+        try {
+            assertThrows(AccountException.class, () ->
+                    transactionService.useBalance(userId, accountNumber, 1000L));
+
+            // 거래 insert
+            assertMaxStatements(1, () -> {
+                transactionService.saveFailedUseTransaction(accountNumber, 1000L);
+                return null;
+            });
+        } finally {
+            AccountUnitOfWork.end(previous);
+        }
+    }
+
+    @Test
+    @DisplayName("잔액 사용 취소 - 원 거래 + 계좌 fetch join 조회 1번 + 계좌 다시 조회 + 거래, outbox, 잔액 이력 insert + 잔액 update")
+    void cancelBalance() {
+        String accountNumber = accountService.createAccount(userId, 10000L).getAccountNumber();
+        String transactionId = transactionService.useBalance(userId, accountNumber, 1000L).getTransactionId();
+
+        TransactionDto transactionDto = assertMaxStatements(6, () ->
+                transactionService.cancelBalance(transactionId, accountNumber, 1000L));
+
+        assertEquals(10000L, transactionDto.getBalanceSnapshot());
+    }
+
+    @Test
+    void cancelBalance_AlreadyCanceled() {
+        String accountNumber = accountService.createAccount(userId, 10000L).getAccountNumber();
+        String transactionId = transactionService.useBalance(userId, accountNumber, 1000L).getTransactionId();
+        transactionService.cancelBalance(transactionId, accountNumber, 1000L);
+
+        AccountException exception = assertThrows(AccountException.class, () ->
+                transactionService.cancelBalance(transactionId, accountNumber, 1000L));
+
+        assertEquals(ErrorCode.TRANSACTION_ALREADY_CANCELED, exception.getErrorCode());
+        assertEquals(10000L, accountService.getAccountByUserId(userId).get(0).getBalance());
+    }
+
+    @Test
+    @DisplayName("승인 - 계좌 조회 + 승인 insert + 승인 금액 update")
+    void holdBalance() {
+        String accountNumber = accountService.createAccount(userId, 10000L).getAccountNumber();
+
+        assertMaxStatements(3, () -> holdService.hold(userId, accountNumber, 3000L));
+    }
+
+    @Test
+    @DisplayName("승인 매입 - 계좌를 읽지 않고 조건부 update 2번 + 잔액 조회 + 거래, outbox, 잔액 이력 insert")
+    void captureHold() {
+        String accountNumber = accountService.createAccount(userId, 10000L).getAccountNumber();
+        String holdId = holdService.hold(userId, accountNumber, 3000L).getHoldId();
+
+        BalanceHoldDto holdDto = assertMaxStatements(7, () -> holdService.capture(holdId, accountNumber));
+
+        assertEquals(7000L, accountService.getAccountByUserId(userId).get(0).getBalance());
+        assertEquals(holdDto.getTransactionId(), transactionService.queryTransaction(holdDto.getTransactionId()).getTransactionId());
+    }
+
+    @Test
+    @DisplayName("특정 시점 잔액 - 잔액 이력 index 조회 1번")
+    void getBalanceAt() {
+        String accountNumber = accountService.createAccount(userId, 10000L).getAccountNumber();
+        transactionService.useBalance(userId, accountNumber, 1000L);
+        LocalDateTime afterUse = LocalDateTime.now();
+        transactionService.useBalance(userId, accountNumber, 2000L);
+
+        AccountBalanceAt balanceAt = assertMaxStatements(1, () ->
+                accountService.getBalanceAt(accountNumber, afterUse));
+
+        assertEquals(9000L, balanceAt.getBalance());
+        assertEquals(7000L, accountService.getBalanceAt(accountNumber, LocalDateTime.now()).getBalance());
+    }
+
+    @Test
+    void queryTransaction() {
+        String accountNumber = accountService.createAccount(userId, 10000L).getAccountNumber();
+        String transactionId = transactionService.useBalance(userId, accountNumber, 1000L).getTransactionId();
+
+        TransactionDto transactionDto = assertMaxStatements(3, () ->
+                transactionService.queryTransaction(transactionId));
+
+        assertEquals(transactionId, transactionDto.getTransactionId());
+    }
+}
@@ -1,24 +1,33 @@
 package com.example.spring_project.service;
 
+import com.example.spring_project.datasource.ReadYourWrites;
 import com.example.spring_project.domain.Account;
+import com.example.spring_project.domain.AccountBalanceHistory;
 import com.example.spring_project.domain.AccountUser;
+import com.example.spring_project.domain.BalanceChangeOutbox;
 import com.example.spring_project.domain.Transaction;
 import com.example.spring_project.dto.TransactionDto;
 import com.example.spring_project.exception.AccountException;
+import com.example.spring_project.repository.AccountBalanceHistoryRepository;
 import com.example.spring_project.repository.AccountRepository;
 import com.example.spring_project.repository.AccountUserRepository;
+import com.example.spring_project.repository.BalanceChangeOutboxRepository;
 import com.example.spring_project.repository.TransactionRepository;
 import com.example.spring_project.type.AccountStatus;
 import com.example.spring_project.type.ErrorCode;
 import com.example.spring_project.type.TransactionResultType;
 import com.example.spring_project.type.TransactionType;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
@@ -26,6 +35,8 @@ import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -40,10 +51,30 @@ class TransactionServiceTest {
     private AccountRepository accountRepository;
     @Mock
     private AccountUserRepository accountUserRepository;
+    @Mock
+    private BalanceChangeOutboxRepository balanceChangeOutboxRepository;
+    @Mock
+    private AccountBalanceHistoryRepository accountBalanceHistoryRepository;
+    @Mock
+    private ReadYourWrites readYourWrites;
+    @Mock
+    private LockService lockService;
+    @Mock
+    private RedissonClient redissonClient;
+    @Mock
+    private RLock rLock;
+    @Mock
+    private LockAdmissionController lockAdmissionController;
 
-    @InjectMocks
     private TransactionService transactionService;
 
+    @BeforeEach
+    void setUp() {
+        transactionService = new TransactionService(transactionRepository, accountRepository, readYourWrites, lockService,
+                new BalanceChangeService(transactionRepository, accountUserRepository, accountRepository,
+                        balanceChangeOutboxRepository, accountBalanceHistoryRepository, readYourWrites));
+    }
+
     @Test
     void successUseBalance() {
         AccountUser user = AccountUser.builder()
@@ -58,6 +89,8 @@ class TransactionServiceTest {
                 .willReturn(Optional.of(user));
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.of(account));
+        given(accountRepository.findById(any()))
+                .willReturn(Optional.of(account));
         given(transactionRepository.save(any()))
                 .willReturn(Transaction.builder()
                         .account(account)
@@ -79,6 +112,18 @@ class TransactionServiceTest {
         assertEquals(TransactionResultType.S,transactionDto.getTransactionResultType());
         assertEquals(TransactionType.USE,transactionDto.getTransactionType());
         assertEquals(1000L,transactionDto.getAmount());
+
+        ArgumentCaptor<BalanceChangeOutbox> outboxCaptor = ArgumentCaptor.forClass(BalanceChangeOutbox.class);
+        verify(balanceChangeOutboxRepository,times(1)).save(outboxCaptor.capture());
+        assertEquals("transactionId",outboxCaptor.getValue().getTransactionId());
+        assertEquals("1000000012",outboxCaptor.getValue().getAccountNumber());
+        assertEquals(9000L,outboxCaptor.getValue().getBalanceSnapshot());
+
+        ArgumentCaptor<AccountBalanceHistory> historyCaptor = ArgumentCaptor.forClass(AccountBalanceHistory.class);
+        verify(accountBalanceHistoryRepository,times(1)).save(historyCaptor.capture());
+        assertEquals("1000000012",historyCaptor.getValue().getAccountNumber());
+        assertEquals(9000L,historyCaptor.getValue().getBalance());
+        assertEquals(captor.getValue().getTransactionId(),historyCaptor.getValue().getTransactionId());
     }
 
     @Test
@@ -183,6 +228,8 @@ class TransactionServiceTest {
                 .willReturn(Optional.of(user));
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.of(account));
+        given(accountRepository.findById(any()))
+                .willReturn(Optional.of(account));
 
         AccountException exception = assertThrows(AccountException.class,() ->
                 transactionService.useBalance(1L,"1000000000",1000L));
@@ -193,6 +240,176 @@ class TransactionServiceTest {
 
     }
 
+    @Test
+    @DisplayName("lock 을 잡은 뒤 다시 읽은 잔액에서 차감한다")
+    void useBalance_reloadBalanceAfterLock() {
+        AccountUser user = AccountUser.builder()
+                .name("Pobi").build();
+        user.setId(12L);
+        Account account = Account.builder()
+                .accountUser(user)
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(10000L)
+                .accountNumber("1000000012").build();
+        account.setId(1L);
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(user));
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        given(lockService.lockForMutation("1000000012"))
+                .willReturn(true);
+        // lock 을 기다리는 사이 다른 요청이 잔액을 바꿨다.
+        Account reloaded = reloaded(account, 3000L, 500L, 7L);
+        given(accountRepository.findById(1L))
+                .willReturn(Optional.of(reloaded));
+        given(transactionRepository.save(any()))
+                .willAnswer(invocation -> invocation.getArgument(0));
+        ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(Transaction.class);
+
+        transactionService.useBalance(12L, "1000000012", USE_AMOUNT);
+
+        verify(transactionRepository, times(1)).save(captor.capture());
+        assertSame(reloaded, captor.getValue().getAccount());
+        assertEquals(2000L, captor.getValue().getBalanceSnapshot());
+        assertEquals(2000L, reloaded.getBalance());
+        assertEquals(500L, reloaded.getHeldBalance());
+        // lock 안에서 다시 읽은 순번 다음 값을 outbox 에 남긴다.
+        ArgumentCaptor<BalanceChangeOutbox> outboxCaptor = ArgumentCaptor.forClass(BalanceChangeOutbox.class);
+        verify(balanceChangeOutboxRepository).save(outboxCaptor.capture());
+        assertEquals(8L, outboxCaptor.getValue().getBalanceVersion());
+        assertEquals(8L, reloaded.getBalanceVersion());
+
+        // 검증 -> (트랜잭션 밖에서) lock -> 다시 읽고 차감 -> 커밋 뒤 unlock
+        InOrder inOrder = inOrder(accountRepository, lockService, transactionRepository);
+        inOrder.verify(accountRepository).findByAccountNumber("1000000012");
+        inOrder.verify(lockService).lockForMutation("1000000012");
+        inOrder.verify(accountRepository).findById(1L);
+        inOrder.verify(transactionRepository).save(any());
+        inOrder.verify(lockService).unlockForMutation("1000000012");
+    }
+
+    @Test
+    @DisplayName("AccountLock 범위 밖에서 직접 불러도 계좌 lock 을 잡고 잔액을 바꾼 뒤 푼다")
+    void useBalance_directCallTakesLock() throws InterruptedException {
+        AccountUser user = AccountUser.builder()
+                .name("Pobi").build();
+        user.setId(12L);
+        Account account = Account.builder()
+                .accountUser(user)
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(10000L)
+                .accountNumber("1000000012").build();
+        account.setId(1L);
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(user));
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        given(accountRepository.findById(1L))
+                .willReturn(Optional.of(account));
+        given(transactionRepository.save(any()))
+                .willAnswer(invocation -> invocation.getArgument(0));
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rLock);
+        given(rLock.tryLock(anyLong(), anyLong(), any()))
+                .willReturn(true);
+        TransactionService directService = new TransactionService(transactionRepository, accountRepository,
+                readYourWrites, new LockService(redissonClient, lockAdmissionController),
+                new BalanceChangeService(transactionRepository, accountUserRepository, accountRepository,
+                        balanceChangeOutboxRepository, accountBalanceHistoryRepository, readYourWrites));
+
+        directService.useBalance(12L, "1000000012", USE_AMOUNT);
+
+        assertEquals(9000L, account.getBalance());
+        InOrder inOrder = inOrder(rLock, accountRepository);
+        inOrder.verify(rLock).tryLock(anyLong(), anyLong(), any());
+        inOrder.verify(accountRepository).findById(1L);
+        inOrder.verify(rLock).unlock();
+    }
+
+    @Test
+    @DisplayName("다시 읽은 잔액이 모자라면 lock 안에서 실패한다")
+    void useBalance_reloadedBalanceExceeded() {
+        AccountUser user = AccountUser.builder()
+                .name("Pobi").build();
+        user.setId(12L);
+        Account account = Account.builder()
+                .accountUser(user)
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(10000L)
+                .accountNumber("1000000012").build();
+        account.setId(1L);
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(user));
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        given(lockService.lockForMutation("1000000012"))
+                .willReturn(true);
+        given(accountRepository.findById(1L))
+                .willReturn(Optional.of(reloaded(account, 1200L, 500L, 7L)));
+
+        AccountException exception = assertThrows(AccountException.class, () ->
+                transactionService.useBalance(12L, "1000000012", USE_AMOUNT));
+
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
+        verify(transactionRepository, never()).save(any());
+        // 실패해도 lock 은 푼다.
+        verify(lockService, times(1)).unlockForMutation("1000000012");
+    }
+
+    @Test
+    @DisplayName("lock 을 기다리는 사이 해지된 계좌는 다시 읽은 뒤 실패한다")
+    void useBalance_unregisteredWhileWaitingLock() {
+        AccountUser user = AccountUser.builder()
+                .name("Pobi").build();
+        user.setId(12L);
+        Account account = Account.builder()
+                .accountUser(user)
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(0L)
+                .accountNumber("1000000012").build();
+        account.setId(1L);
+        Account reloaded = reloaded(account, 0L, 0L, 7L);
+        reloaded.setAccountStatus(AccountStatus.UNREGISTERED);
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(user));
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        given(accountRepository.findById(1L))
+                .willReturn(Optional.of(reloaded));
+
+        AccountException exception = assertThrows(AccountException.class, () ->
+                transactionService.useBalance(12L, "1000000012", USE_AMOUNT));
+
+        assertEquals(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED, exception.getErrorCode());
+        verify(transactionRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("소유주 / 계좌 상태 확인은 lock 을 잡기 전에 한다")
+    void useBalance_validateBeforeLock() {
+        AccountUser user = AccountUser.builder()
+                .name("Pobi").build();
+        user.setId(12L);
+        AccountUser otherUser = AccountUser.builder()
+                .name("Harry").build();
+        otherUser.setId(13L);
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(user));
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(Account.builder()
+                        .accountUser(otherUser)
+                        .accountStatus(AccountStatus.IN_USE)
+                        .balance(10000L)
+                        .accountNumber("1000000012").build()));
+
+        AccountException exception = assertThrows(AccountException.class, () ->
+                transactionService.useBalance(12L, "1000000012", USE_AMOUNT));
+
+        assertEquals(ErrorCode.USER_ACCOUNT_UN_MATCH, exception.getErrorCode());
+        verify(lockService, never()).lockForMutation(anyString());
+        verify(accountRepository, never()).findById(any());
+    }
+
     @Test
     @DisplayName("실패 트랜잭션 저장 성공")
     void saveFailedUseTransaction() {
@@ -221,12 +438,95 @@ class TransactionServiceTest {
         transactionService.saveFailedUseTransaction("1000000000",1000L);
 
         verify(transactionRepository,times(1)).save(captor.capture());
+        verify(balanceChangeOutboxRepository,times(0)).save(any());
         assertEquals(USE_AMOUNT,captor.getValue().getAmount());
         assertEquals(10000L,captor.getValue().getBalanceSnapshot());
         assertEquals(TransactionResultType.F,captor.getValue().getTransactionResultType());
 
     }
 
+    @Test
+    @DisplayName("lock 범위 안에서 실패한 잔액 사용은 이미 읽은 계좌로 실패 거래를 남긴다")
+    void saveFailedUseTransaction_reuseLoadedAccount() {
+        AccountUser user = AccountUser.builder()
+                .name("Pobi").build();
+        user.setId(12L);
+        Account account = Account.builder()
+                .accountUser(user)
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(100L)
+                .accountNumber("1000000012").build();
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(user));
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        given(accountRepository.findById(any()))
+                .willReturn(Optional.of(account));
+        ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(Transaction.class);
+
+        AccountUnitOfWork previous = AccountUnitOfWork.begin();
+        try {
+            assertThrows(AccountException.class, () ->
+                    transactionService.useBalance(12L, "1000000012", USE_AMOUNT));
+            transactionService.saveFailedUseTransaction("1000000012", USE_AMOUNT);
+        } finally {
+            AccountUnitOfWork.end(previous);
+        }
+
+        verify(accountUserRepository, times(1)).findById(12L);
+        verify(accountRepository, times(1)).findByAccountNumber("1000000012");
+        verify(transactionRepository, times(1)).save(captor.capture());
+        assertSame(account, captor.getValue().getAccount());
+        assertEquals(100L, captor.getValue().getBalanceSnapshot());
+        assertEquals(TransactionResultType.F, captor.getValue().getTransactionResultType());
+    }
+
+    @Test
+    @DisplayName("lock 범위 안에서 실패한 취소는 원 거래와 함께 읽은 계좌로, 조회 시점 잔액을 남긴다")
+    void saveFailedCancelTransaction_reuseLoadedAccount() {
+        AccountUser user = AccountUser.builder()
+                .name("Pobi").build();
+        user.setId(12L);
+        Account account = Account.builder()
+                .accountUser(user)
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(9000L)
+                .accountNumber("1000000012").build();
+        account.setId(1L);
+        Transaction transaction = Transaction.builder()
+                .account(account)
+                .transactionType(TransactionType.USE)
+                .transactionResultType(TransactionResultType.S)
+                .transactionId("transactionId")
+                .transactedAt(LocalDateTime.now())
+                .amount(CANCEL_AMOUNT)
+                .balanceSnapshot(9000L)
+                .build();
+        given(transactionRepository.findCancelTargetByTransactionId(anyString()))
+                .willReturn(Optional.of(transaction));
+        given(accountRepository.findById(1L))
+                .willReturn(Optional.of(account));
+        given(transactionRepository.saveAndFlush(any()))
+                .willThrow(new DataIntegrityViolationException("ux_transaction_original_transaction_id"));
+        ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(Transaction.class);
+
+        AccountUnitOfWork previous = AccountUnitOfWork.begin();
+        try {
+            assertThrows(AccountException.class, () ->
+                    transactionService.cancelBalance("transactionId", "1000000012", CANCEL_AMOUNT));
+            transactionService.saveFailedCancelTransaction("1000000012", CANCEL_AMOUNT);
+        } finally {
+            AccountUnitOfWork.end(previous);
+        }
+
+        verify(accountRepository, times(0)).findByAccountNumber(anyString());
+        verify(transactionRepository, times(1)).save(captor.capture());
+        // 롤백된 트랜잭션에서 바뀐 잔액(10000)이 아니라 조회 시점 잔액
+        assertEquals(9000L, captor.getValue().getBalanceSnapshot());
+        assertEquals(TransactionType.CANCEL, captor.getValue().getTransactionType());
+        assertEquals(TransactionResultType.F, captor.getValue().getTransactionResultType());
+    }
+
     @Test
     void successCancelBalance() {
         AccountUser user = AccountUser.builder()
@@ -247,11 +547,11 @@ class TransactionServiceTest {
                 .balanceSnapshot(9000L)
                 .build();
 
-        given(transactionRepository.findByTransactionId(anyString()))
+        given(transactionRepository.findCancelTargetByTransactionId(anyString()))
                 .willReturn(Optional.of(transaction));
-        given(accountRepository.findByAccountNumber(anyString()))
+        given(accountRepository.findById(any()))
                 .willReturn(Optional.of(account));
-        given(transactionRepository.save(any()))
+        given(transactionRepository.saveAndFlush(any()))
                 .willReturn(Transaction.builder()
                         .account(account)
                         .transactionType(TransactionType.CANCEL)
@@ -263,22 +563,33 @@ class TransactionServiceTest {
                         .build());
         ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(Transaction.class);
 
-        TransactionDto transactionDto = transactionService.cancelBalance("transactionId","1000000000",CANCEL_AMOUNT);
+        TransactionDto transactionDto = transactionService.cancelBalance("transactionId","1000000012",CANCEL_AMOUNT);
 
-        verify(transactionRepository,times(1)).save(captor.capture());
+        verify(transactionRepository,times(1)).saveAndFlush(captor.capture());
         assertEquals(CANCEL_AMOUNT,captor.getValue().getAmount());
+        assertEquals("transactionId",captor.getValue().getOriginalTransactionId());
         assertEquals(10000L + CANCEL_AMOUNT,captor.getValue().getBalanceSnapshot());
         assertEquals(10000L,transactionDto.getBalanceSnapshot());
         assertEquals(TransactionResultType.S,transactionDto.getTransactionResultType());
         assertEquals(TransactionType.CANCEL,transactionDto.getTransactionType());
         assertEquals(CANCEL_AMOUNT,transactionDto.getAmount());
+
+        ArgumentCaptor<BalanceChangeOutbox> outboxCaptor = ArgumentCaptor.forClass(BalanceChangeOutbox.class);
+        verify(balanceChangeOutboxRepository,times(1)).save(outboxCaptor.capture());
+        assertEquals("transactionForCancel",outboxCaptor.getValue().getTransactionId());
+        assertEquals(TransactionType.CANCEL,outboxCaptor.getValue().getTransactionType());
     }
 
     @Test
-    @DisplayName("해당 계좌 없음 - 잔액 사용 취소 실패")
-    void cancelTransaction_AccountNotFound() {
+    @DisplayName("원 거래의 계좌번호와 다름 - 잔액 사용 취소 실패")
+    void cancelTransaction_AccountNumberUnMatch() {
 
+        Account account = Account.builder()
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(10000L)
+                .accountNumber("1000000012").build();
         Transaction transaction = Transaction.builder()
+                .account(account)
                 .transactionType(TransactionType.USE)
                 .transactionResultType(TransactionResultType.S)
                 .transactionId("transactionId")
@@ -287,17 +598,15 @@ class TransactionServiceTest {
                 .balanceSnapshot(9000L)
                 .build();
 
-        given(transactionRepository.findByTransactionId(anyString()))
+        given(transactionRepository.findCancelTargetByTransactionId(anyString()))
                 .willReturn(Optional.of(transaction));
-        given(accountRepository.findByAccountNumber(anyString()))
-                .willReturn(Optional.empty());
 
 
         AccountException accountException = assertThrows(AccountException.class,() ->
                 transactionService.cancelBalance("transactionId","1000000000",1000L));
 
 
-        assertEquals(ErrorCode.ACCOUNT_NOT_FOUND,accountException.getErrorCode());
+        assertEquals(ErrorCode.TRANSACTION_ACCOUNT_UM_MATCH,accountException.getErrorCode());
     }
 
     @Test
@@ -305,7 +614,7 @@ class TransactionServiceTest {
     void cancelTransaction_TransactionNotFound() {
 
 
-        given(transactionRepository.findByTransactionId(anyString()))
+        given(transactionRepository.findCancelTargetByTransactionId(anyString()))
                 .willReturn(Optional.empty());
 
 
@@ -317,8 +626,8 @@ class TransactionServiceTest {
     }
 
     @Test
-    @DisplayName("거래와 계좌가 매칭 실패 - 잔액 사용 취소 실패")
-    void cancelTransaction_TransactionAccountUnMatch() {
+    @DisplayName("이미 취소된 거래 - 잔액 사용 취소 실패")
+    void cancelTransaction_AlreadyCanceled() {
 
         AccountUser user = AccountUser.builder()
                 .name("Pobi").build();
@@ -329,12 +638,6 @@ class TransactionServiceTest {
                 .balance(10000L)
                 .accountNumber("1000000012").build();
         account.setId(1L);
-        Account accountNotUse = Account.builder()
-                .accountUser(user)
-                .accountStatus(AccountStatus.IN_USE)
-                .balance(10000L)
-                .accountNumber("1000000013").build();
-        accountNotUse.setId(2L);
         Transaction transaction = Transaction.builder()
                 .account(account)
                 .transactionType(TransactionType.USE)
@@ -345,17 +648,19 @@ class TransactionServiceTest {
                 .balanceSnapshot(9000L)
                 .build();
 
-        given(transactionRepository.findByTransactionId(anyString()))
+        given(transactionRepository.findCancelTargetByTransactionId(anyString()))
                 .willReturn(Optional.of(transaction));
-        given(accountRepository.findByAccountNumber(anyString()))
-                .willReturn(Optional.of(accountNotUse));
+        given(accountRepository.findById(1L))
+                .willReturn(Optional.of(account));
+        given(transactionRepository.saveAndFlush(any()))
+                .willThrow(new DataIntegrityViolationException("ux_transaction_original_transaction_id"));
 
 
         AccountException accountException = assertThrows(AccountException.class,() ->
-                transactionService.cancelBalance("transactionId","1000000000",CANCEL_AMOUNT));
+                transactionService.cancelBalance("transactionId","1000000012",CANCEL_AMOUNT));
 
 
-        assertEquals(ErrorCode.TRANSACTION_ACCOUNT_UM_MATCH,accountException.getErrorCode());
+        assertEquals(ErrorCode.TRANSACTION_ALREADY_CANCELED,accountException.getErrorCode());
     }
 
     @Test
@@ -381,14 +686,12 @@ class TransactionServiceTest {
                 .balanceSnapshot(9000L)
                 .build();
 
-        given(transactionRepository.findByTransactionId(anyString()))
+        given(transactionRepository.findCancelTargetByTransactionId(anyString()))
                 .willReturn(Optional.of(transaction));
-        given(accountRepository.findByAccountNumber(anyString()))
-                .willReturn(Optional.of(account));
 
 
         AccountException accountException = assertThrows(AccountException.class,() ->
-                transactionService.cancelBalance("transactionId","1000000000",CANCEL_AMOUNT));
+                transactionService.cancelBalance("transactionId","1000000012",CANCEL_AMOUNT));
 
 
         assertEquals(ErrorCode.TRANSACTION_MUST_FULLY,accountException.getErrorCode());
@@ -417,14 +720,12 @@ class TransactionServiceTest {
                 .balanceSnapshot(9000L)
                 .build();
 
-        given(transactionRepository.findByTransactionId(anyString()))
+        given(transactionRepository.findCancelTargetByTransactionId(anyString()))
                 .willReturn(Optional.of(transaction));
-        given(accountRepository.findByAccountNumber(anyString()))
-                .willReturn(Optional.of(account));
 
 
         AccountException accountException = assertThrows(AccountException.class,() ->
-                transactionService.cancelBalance("transactionId","1000000000",CANCEL_AMOUNT));
+                transactionService.cancelBalance("transactionId","1000000012",CANCEL_AMOUNT));
 
 
         assertEquals(ErrorCode.TOO_OLD_ORDER_TO_CANCEL,accountException.getErrorCode());
@@ -478,4 +779,19 @@ class TransactionServiceTest {
         assertEquals(ErrorCode.TRANSACTION_NOT_FOUND,accountException.getErrorCode());
     }
 
-}
\ No newline at end of file
+
+    /**
+     * lock 을 잡은 뒤 다시 읽은 계좌 (다른 요청이 바꾼 값)
+     */
+    private static Account reloaded(Account account, long balance, long heldBalance, long balanceVersion) {
+        Account reloaded = Account.builder()
+                .accountUser(account.getAccountUser())
+                .accountStatus(account.getAccountStatus())
+                .balance(balance)
+                .accountNumber(account.getAccountNumber()).build();
+        reloaded.setId(account.getId());
+        reloaded.setHeldBalance(heldBalance);
+        reloaded.setBalanceVersion(balanceVersion);
+        return reloaded;
+    }
+}